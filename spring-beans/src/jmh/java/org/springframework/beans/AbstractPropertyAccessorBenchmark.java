@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,7 +38,7 @@ public class AbstractPropertyAccessorBenchmark {
 	@State(Scope.Benchmark)
 	public static class BenchmarkState {
 
-		@Param({"DirectFieldAccessor", "BeanWrapper"})
+		@Param({"DirectFieldAccessor", "BeanWrapper", "BeanWrapperWithGeneratedAccessors"})
 		public String accessor;
 
 		@Param({"none", "stringTrimmer", "numberOnPath", "numberOnNestedPath", "numberOnType"})
@@ -57,6 +57,11 @@ public class AbstractPropertyAccessorBenchmark {
 			if (this.accessor.equals("DirectFieldAccessor")) {
 				this.propertyAccessor = new DirectFieldAccessor(this.target);
 			}
+			else if (this.accessor.equals("BeanWrapperWithGeneratedAccessors")) {
+				BeanWrapperImpl beanWrapper = new BeanWrapperImpl(this.target);
+				beanWrapper.setUseGeneratedAccessors(true);
+				this.propertyAccessor = beanWrapper;
+			}
 			else {
 				this.propertyAccessor = new BeanWrapperImpl(this.target);
 			}
@@ -86,7 +91,7 @@ public class AbstractPropertyAccessorBenchmark {
 	}
 
 	@SuppressWarnings("unused")
-	private static class PrimitiveArrayBean {
+	public static class PrimitiveArrayBean {
 
 		private int[] array;
 
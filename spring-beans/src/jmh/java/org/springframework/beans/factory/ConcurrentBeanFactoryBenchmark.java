@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,16 +18,25 @@ package org.springframework.beans.factory;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 
@@ -37,6 +46,7 @@ import static org.springframework.core.testfixture.io.ResourceTestUtils.qualifie
  * Benchmark for creating prototype beans in a concurrent fashion.
  * This benchmark requires to customize the number of worker threads {@code -t <int>} on the
  * CLI when running this particular benchmark to leverage concurrency.
+ * Also compares sequential and parallel pre-instantiation of singleton beans.
  *
  * @author Brian Clozel
  */
@@ -61,12 +71,62 @@ public class ConcurrentBeanFactoryBenchmark {
 
 	}
 
+	@State(Scope.Benchmark)
+	public static class PreInstantiationState {
+
+		@Param({"sequential", "parallel"})
+		public String mode;
+
+		@Param({"200"})
+		public int beanCount;
+
+		public ExecutorService executor;
+
+		public DefaultListableBeanFactory factory;
+
+		@Setup(Level.Trial)
+		public void setupExecutor() {
+			this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		}
+
+		@Setup(Level.Invocation)
+		public void setupFactory() {
+			this.factory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(SlowInitBean.class);
+				bd.setInitMethodName("init");
+				if (i % 10 != 0) {
+					// Chains of ten beans each, to be pre-instantiated in order
+					bd.getPropertyValues().add("dependency", new RuntimeBeanReference("bean" + (i - 1)));
+				}
+				this.factory.registerBeanDefinition("bean" + i, bd);
+			}
+			if (this.mode.equals("parallel")) {
+				this.factory.setBootstrapExecutor(this.executor);
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdownExecutor() {
+			this.executor.shutdown();
+		}
+	}
+
+
 	@Benchmark
 	public void concurrentBeanCreation(BenchmarkState state, Blackhole bh) {
 		bh.consume(state.factory.getBean("bean1"));
 		bh.consume(state.factory.getBean("bean2"));
 	}
 
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void singletonPreInstantiation(PreInstantiationState state, Blackhole bh) {
+		state.factory.preInstantiateSingletons();
+		bh.consume(state.factory.getSingletonCount());
+	}
+
 
 	public static class ConcurrentBean {
 
@@ -80,4 +140,19 @@ public class ConcurrentBeanFactoryBenchmark {
 			this.date = date;
 		}
 	}
+
+
+	public static class SlowInitBean {
+
+		private SlowInitBean dependency;
+
+		public void setDependency(SlowInitBean dependency) {
+			this.dependency = dependency;
+		}
+
+		public void init() throws InterruptedException {
+			// Simulates initialization work such as I/O
+			Thread.sleep(1);
+		}
+	}
 }
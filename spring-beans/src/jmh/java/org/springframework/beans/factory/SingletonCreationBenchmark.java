@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+/**
+ * Benchmark for contended {@code getBean} calls against the singleton registry
+ * of a {@link DefaultListableBeanFactory}: lookups of existing singletons,
+ * prototypes referring to singletons, and concurrent lazy singleton creation.
+ *
+ * @author agent (agent@local)
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class SingletonCreationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ExistingSingletonState {
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			this.beanFactory.registerBeanDefinition("singleton", new RootBeanDefinition(TestBean.class));
+			RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototype.getPropertyValues().add("spouse", new RuntimeBeanReference("singleton"));
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			this.beanFactory.freezeConfiguration();
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class LazySingletonState {
+
+		@Param({"1000"})
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+				bd.setLazyInit(true);
+				bd.getPropertyValues().add("name", "bean" + i);
+				this.beanFactory.registerBeanDefinition("bean" + i, bd);
+			}
+			this.beanFactory.freezeConfiguration();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class BeanIndex {
+
+		private int index;
+
+		public int next(int bound) {
+			this.index = (this.index + 1) % bound;
+			return this.index;
+		}
+	}
+
+
+	@Benchmark
+	public Object existingSingleton(ExistingSingletonState state) {
+		return state.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object prototypeWithSingletonReference(ExistingSingletonState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object lazySingletonCreation(LazySingletonState state, BeanIndex index) {
+		return state.beanFactory.getBean("bean" + index.next(state.beanCount));
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Base class for generated classes which invoke the read and write methods
+ * of the bean properties of a specific class directly, as an alternative
+ * to reflective invocation.
+ *
+ * <p><b>This is an internal class.</b> It is just public in order to allow
+ * for generated subclasses in a different ClassLoader; it is not intended
+ * for direct use by application code.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see BeanWrapperImpl#setUseGeneratedAccessors
+ */
+public abstract class BeanPropertyInvoker {
+
+	/**
+	 * Invoke the read method with the given index on the given target.
+	 * @param target the target bean instance
+	 * @param index the index of the read method
+	 * @return the (boxed) return value of the read method
+	 * @throws Throwable any exception thrown by the read method
+	 */
+	@Nullable
+	public abstract Object getValue(Object target, int index) throws Throwable;
+
+	/**
+	 * Invoke the write method with the given index on the given target.
+	 * @param target the target bean instance
+	 * @param index the index of the write method
+	 * @param value the (boxed) value to pass to the write method
+	 * @throws Throwable any exception thrown by the write method
+	 */
+	public abstract void setValue(Object target, int index, @Nullable Object value) throws Throwable;
+
+	/**
+	 * Create an exception for an index that does not match any generated method.
+	 * @param index the requested index
+	 */
+	protected final IllegalArgumentException invalidIndex(int index) {
+		return new IllegalArgumentException("No property method for index " + index + " in " + getClass().getName());
+	}
+
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generates a {@link BeanPropertyInvoker} subclass for the read and write
+ * methods of a given bean class, invoking public property methods directly
+ * instead of through reflection.
+ *
+ * <p>The generated classes get defined in a child ClassLoader of the bean
+ * class's ClassLoader. Property methods which cannot be invoked from there
+ * (e.g. non-public methods or methods declared on non-public classes) are
+ * not covered and remain subject to reflective invocation.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see CachedIntrospectionResults#getPropertyMethods
+ */
+final class BeanPropertyInvokerGenerator implements Opcodes {
+
+	private static final String INVOKER_TYPE = Type.getInternalName(BeanPropertyInvoker.class);
+
+	private static final Log logger = LogFactory.getLog(BeanPropertyInvokerGenerator.class);
+
+	// A child ClassLoader per bean ClassLoader, used to load the generated classes.
+	private static final Map<ClassLoader, ChildClassLoader> childClassLoaders = new ConcurrentReferenceHashMap<>();
+
+	// Counter suffix for generated classes
+	private static final AtomicInteger suffixId = new AtomicInteger();
+
+
+	private BeanPropertyInvokerGenerator() {
+	}
+
+
+	/**
+	 * Generate direct invocations for the read and write methods of the given
+	 * property descriptors, as far as possible.
+	 * @param beanClass the bean class to generate the invocations for
+	 * @param pds the property descriptors of the bean class
+	 * @return a Map from property name to generated property methods,
+	 * only containing properties with at least one directly invocable method
+	 */
+	static Map<String, PropertyMethods> generate(Class<?> beanClass, Collection<PropertyDescriptor> pds) {
+		ClassLoader classLoader = beanClass.getClassLoader();
+		if (classLoader == null) {
+			classLoader = ClassUtils.getDefaultClassLoader();
+		}
+		if (classLoader == null || !ClassUtils.isVisible(BeanPropertyInvoker.class, classLoader)) {
+			return Collections.emptyMap();
+		}
+
+		List<Method> readMethods = new ArrayList<>();
+		List<Method> writeMethods = new ArrayList<>();
+		Map<String, int[]> indexes = new HashMap<>();
+		for (PropertyDescriptor pd : pds) {
+			Method readMethod = pd.getReadMethod();
+			Method writeMethod = pd.getWriteMethod();
+			if (writeMethod != null && pd instanceof GenericTypeAwarePropertyDescriptor) {
+				writeMethod = ((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess();
+			}
+			int readIndex = -1;
+			int writeIndex = -1;
+			if (readMethod != null && readMethod.getParameterCount() == 0 && isInvocable(readMethod, classLoader)) {
+				readIndex = readMethods.size();
+				readMethods.add(readMethod);
+			}
+			if (writeMethod != null && writeMethod.getParameterCount() == 1 && isInvocable(writeMethod, classLoader)) {
+				writeIndex = writeMethods.size();
+				writeMethods.add(writeMethod);
+			}
+			if (readIndex >= 0 || writeIndex >= 0) {
+				indexes.put(pd.getName(), new int[] {readIndex, writeIndex});
+			}
+		}
+		if (indexes.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		BeanPropertyInvoker invoker;
+		try {
+			ChildClassLoader childClassLoader =
+					childClassLoaders.computeIfAbsent(classLoader, ChildClassLoader::new);
+			String className = "org/springframework/beans/generated/" + beanClass.getSimpleName() +
+					"$$PropertyInvoker$$" + suffixId.incrementAndGet();
+			byte[] bytes = generateInvokerClass(className, readMethods, writeMethods, childClassLoader);
+			Class<?> invokerClass = childClassLoader.defineClass(className.replace('/', '.'), bytes);
+			invoker = (BeanPropertyInvoker) ReflectionUtils.accessibleConstructor(invokerClass).newInstance();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate property invoker for class [" + beanClass.getName() + "]", ex);
+			}
+			return Collections.emptyMap();
+		}
+
+		Map<String, PropertyMethods> result = new HashMap<>(indexes.size());
+		indexes.forEach((name, index) -> {
+			Class<?> writeType = (index[1] >= 0 ? writeMethods.get(index[1]).getParameterTypes()[0] : null);
+			result.put(name, new PropertyMethods(invoker, index[0], index[1], writeType));
+		});
+		return result;
+	}
+
+	/**
+	 * Determine whether the given method can be invoked from generated code
+	 * in a child ClassLoader of the given ClassLoader.
+	 */
+	private static boolean isInvocable(Method method, ClassLoader classLoader) {
+		if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) ||
+				!isAccessible(method.getDeclaringClass(), classLoader) ||
+				!isAccessible(method.getReturnType(), classLoader)) {
+			return false;
+		}
+		for (Class<?> paramType : method.getParameterTypes()) {
+			if (!isAccessible(paramType, classLoader)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(Class<?> type, ClassLoader classLoader) {
+		Class<?> typeToCheck = type;
+		while (typeToCheck.isArray()) {
+			typeToCheck = typeToCheck.getComponentType();
+		}
+		return (typeToCheck.isPrimitive() ||
+				(Modifier.isPublic(typeToCheck.getModifiers()) && ClassUtils.isVisible(typeToCheck, classLoader)));
+	}
+
+	private static byte[] generateInvokerClass(String className, List<Method> readMethods, List<Method> writeMethods,
+			ClassLoader classLoader) {
+
+		ClassWriter cw = new InvokerClassWriter(classLoader);
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, INVOKER_TYPE, null);
+
+		// Default constructor
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, INVOKER_TYPE, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// getValue(Object target, int index)
+		mv = cw.visitMethod(ACC_PUBLIC, "getValue", "(Ljava/lang/Object;I)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		Label[] labels = visitSwitch(mv, readMethods.size());
+		for (int i = 0; i < readMethods.size(); i++) {
+			Method readMethod = readMethods.get(i);
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(readMethod.getDeclaringClass()));
+			visitInvocation(mv, readMethod);
+			visitBoxIfNecessary(mv, readMethod.getReturnType());
+			mv.visitInsn(ARETURN);
+		}
+		visitInvalidIndex(mv, labels);
+
+		// setValue(Object target, int index, Object value)
+		mv = cw.visitMethod(ACC_PUBLIC, "setValue", "(Ljava/lang/Object;ILjava/lang/Object;)V", null, null);
+		mv.visitCode();
+		labels = visitSwitch(mv, writeMethods.size());
+		for (int i = 0; i < writeMethods.size(); i++) {
+			Method writeMethod = writeMethods.get(i);
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(writeMethod.getDeclaringClass()));
+			mv.visitVarInsn(ALOAD, 3);
+			visitUnboxOrCast(mv, writeMethod.getParameterTypes()[0]);
+			visitInvocation(mv, writeMethod);
+			Class<?> returnType = writeMethod.getReturnType();
+			if (returnType != void.class) {
+				// Fluent setter: discard the return value
+				mv.visitInsn(returnType == long.class || returnType == double.class ? POP2 : POP);
+			}
+			mv.visitInsn(RETURN);
+		}
+		visitInvalidIndex(mv, labels);
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Visit a table switch over the index argument, returning one label per case
+	 * plus a trailing label for the default case.
+	 */
+	private static Label[] visitSwitch(MethodVisitor mv, int count) {
+		Label[] labels = new Label[count + 1];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = new Label();
+		}
+		if (count > 0) {
+			Label[] caseLabels = new Label[count];
+			System.arraycopy(labels, 0, caseLabels, 0, count);
+			mv.visitVarInsn(ILOAD, 2);
+			mv.visitTableSwitchInsn(0, count - 1, labels[count], caseLabels);
+		}
+		return labels;
+	}
+
+	private static void visitInvalidIndex(MethodVisitor mv, Label[] labels) {
+		mv.visitLabel(labels[labels.length - 1]);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitMethodInsn(INVOKEVIRTUAL, INVOKER_TYPE, "invalidIndex", "(I)Ljava/lang/IllegalArgumentException;", false);
+		mv.visitInsn(ATHROW);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void visitInvocation(MethodVisitor mv, Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		boolean isInterface = declaringClass.isInterface();
+		mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, Type.getInternalName(declaringClass),
+				method.getName(), Type.getMethodDescriptor(method), isInterface);
+	}
+
+	private static void visitBoxIfNecessary(MethodVisitor mv, Class<?> type) {
+		if (type == void.class) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else if (type.isPrimitive()) {
+			Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+			mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+					"(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapperType), false);
+		}
+	}
+
+	private static void visitUnboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String wrapperType = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+			mv.visitTypeInsn(CHECKCAST, wrapperType);
+			mv.visitMethodInsn(INVOKEVIRTUAL, wrapperType, type.getName() + "Value",
+					"()" + Type.getDescriptor(type), false);
+		}
+		else if (type != Object.class) {
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+		}
+	}
+
+
+	/**
+	 * The generated read and write method invocations for a specific property.
+	 */
+	static final class PropertyMethods {
+
+		private final BeanPropertyInvoker invoker;
+
+		private final int readIndex;
+
+		private final int writeIndex;
+
+		@Nullable
+		private final Class<?> writeType;
+
+		PropertyMethods(BeanPropertyInvoker invoker, int readIndex, int writeIndex, @Nullable Class<?> writeType) {
+			this.invoker = invoker;
+			this.readIndex = readIndex;
+			this.writeIndex = writeIndex;
+			this.writeType = writeType;
+		}
+
+		/**
+		 * Return whether the read method can be invoked directly.
+		 */
+		public boolean isReadable() {
+			return (this.readIndex >= 0);
+		}
+
+		/**
+		 * Return whether the write method can be invoked directly with
+		 * the given value, i.e. without an argument type mismatch.
+		 */
+		public boolean isWritable(@Nullable Object value) {
+			return (this.writeType != null && ClassUtils.isAssignableValue(this.writeType, value));
+		}
+
+		/**
+		 * Invoke the read method on the given target.
+		 * @throws InvocationTargetException in case of an exception thrown
+		 * by the read method, analogous to reflective invocation
+		 */
+		@Nullable
+		public Object getValue(Object target) throws InvocationTargetException {
+			try {
+				return this.invoker.getValue(target, this.readIndex);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		/**
+		 * Invoke the write method on the given target.
+		 * @throws InvocationTargetException in case of an exception thrown
+		 * by the write method, analogous to reflective invocation
+		 */
+		public void setValue(Object target, @Nullable Object value) throws InvocationTargetException {
+			try {
+				this.invoker.setValue(target, this.writeIndex, value);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * A child ClassLoader for defining the generated invoker classes.
+	 */
+	private static class ChildClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		public ChildClassLoader(ClassLoader classLoader) {
+			super(NO_URLS, classLoader);
+		}
+
+		public Class<?> defineClass(String name, byte[] bytes) {
+			return super.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+
+	/**
+	 * An ASM ClassWriter extension bound to the target ClassLoader.
+	 */
+	private static class InvokerClassWriter extends ClassWriter {
+
+		private final ClassLoader classLoader;
+
+		public InvokerClassWriter(ClassLoader classLoader) {
+			super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected ClassLoader getClassLoader() {
+			return this.classLoader;
+		}
+	}
+
+}
@@ -75,6 +75,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	@Nullable
 	private AccessControlContext acc;
 
+	/**
+	 * Whether to invoke the property methods through generated bytecode.
+	 */
+	private boolean useGeneratedAccessors = CachedIntrospectionResults.shouldGenerateAccessors;
+
 
 	/**
 	 * Create a new empty BeanWrapperImpl. Wrapped instance needs to be set afterwards.
@@ -132,6 +137,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	private BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
 		super(object, nestedPath, parent);
 		setSecurityContext(parent.acc);
+		setUseGeneratedAccessors(parent.useGeneratedAccessors);
 	}
 
 
@@ -193,6 +199,28 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		return this.acc;
 	}
 
+	/**
+	 * Set whether to invoke the read and write methods of bean properties through
+	 * bytecode generated once per bean class, instead of through reflection.
+	 * <p>Default is "false", unless the
+	 * {@link CachedIntrospectionResults#GENERATE_ACCESSORS_PROPERTY_NAME} system
+	 * property is set to "true". Reflection will still be used for property methods
+	 * which are not publicly accessible, as well as with a security manager.
+	 * This setting applies to nested bean wrappers as well.
+	 * @since 5.3.10
+	 */
+	public void setUseGeneratedAccessors(boolean useGeneratedAccessors) {
+		this.useGeneratedAccessors = useGeneratedAccessors;
+	}
+
+	/**
+	 * Return whether to invoke the property methods through generated bytecode.
+	 * @since 5.3.10
+	 */
+	public boolean isUseGeneratedAccessors() {
+		return this.useGeneratedAccessors;
+	}
+
 
 	/**
 	 * Convert the given value for the specified property to the latter's type.
@@ -227,8 +255,15 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	@Override
 	@Nullable
 	protected BeanPropertyHandler getLocalPropertyHandler(String propertyName) {
-		PropertyDescriptor pd = getCachedIntrospectionResults().getPropertyDescriptor(propertyName);
-		return (pd != null ? new BeanPropertyHandler(pd) : null);
+		CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
+		PropertyDescriptor pd = cachedIntrospectionResults.getPropertyDescriptor(propertyName);
+		if (pd == null) {
+			return null;
+		}
+		BeanPropertyInvokerGenerator.PropertyMethods propertyMethods =
+				(this.useGeneratedAccessors && System.getSecurityManager() == null ?
+						cachedIntrospectionResults.getPropertyMethods(pd) : null);
+		return new BeanPropertyHandler(pd, propertyMethods);
 	}
 
 	@Override
@@ -265,9 +300,15 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		private final PropertyDescriptor pd;
 
-		public BeanPropertyHandler(PropertyDescriptor pd) {
+		@Nullable
+		private final BeanPropertyInvokerGenerator.PropertyMethods propertyMethods;
+
+		public BeanPropertyHandler(PropertyDescriptor pd,
+				@Nullable BeanPropertyInvokerGenerator.PropertyMethods propertyMethods) {
+
 			super(pd.getPropertyType(), pd.getReadMethod() != null, pd.getWriteMethod() != null);
 			this.pd = pd;
+			this.propertyMethods = propertyMethods;
 		}
 
 		@Override
@@ -289,6 +330,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		@Override
 		@Nullable
 		public Object getValue() throws Exception {
+			if (this.propertyMethods != null && this.propertyMethods.isReadable()) {
+				return this.propertyMethods.getValue(getWrappedInstance());
+			}
 			Method readMethod = this.pd.getReadMethod();
 			if (System.getSecurityManager() != null) {
 				AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
@@ -311,6 +355,10 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public void setValue(@Nullable Object value) throws Exception {
+			if (this.propertyMethods != null && this.propertyMethods.isWritable(value)) {
+				this.propertyMethods.setValue(getWrappedInstance(), value);
+				return;
+			}
 			Method writeMethod = (this.pd instanceof GenericTypeAwarePropertyDescriptor ?
 					((GenericTypeAwarePropertyDescriptor) this.pd).getWriteMethodForActualAccess() :
 					this.pd.getWriteMethod());
@@ -25,6 +25,7 @@ import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -95,12 +96,29 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to invoke the read and write methods of
+	 * bean properties through generated bytecode instead of reflection, by default:
+	 * "spring.beaninfo.generate-accessors", with a value of "true" turning on
+	 * generated accessors for every {@link BeanWrapperImpl}.
+	 * <p>The default is "false", with generated accessors only being used by
+	 * {@code BeanWrapperImpl} instances that explicitly request them. Consider
+	 * switching this flag to "true" for applications with intensive data binding
+	 * against the same bean classes, at the expense of generating a class per bean
+	 * class on first access to its properties.
+	 * @since 5.3.10
+	 * @see BeanWrapperImpl#setUseGeneratedAccessors
+	 */
+	public static final String GENERATE_ACCESSORS_PROPERTY_NAME = "spring.beaninfo.generate-accessors";
+
 	private static final PropertyDescriptor[] EMPTY_PROPERTY_DESCRIPTOR_ARRAY = {};
 
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	static final boolean shouldGenerateAccessors = SpringProperties.getFlag(GENERATE_ACCESSORS_PROPERTY_NAME);
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -263,6 +281,10 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Generated property method invocations keyed by property name (lazily initialized). */
+	@Nullable
+	private volatile Map<String, BeanPropertyInvokerGenerator.PropertyMethods> generatedPropertyMethods;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -423,4 +445,28 @@ public final class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return the generated read and write method invocations for the given property,
+	 * generating them for all properties of the bean class on first access.
+	 * @param pd the property descriptor (as returned by this instance)
+	 * @return the generated property methods, or {@code null} if none of the
+	 * property's methods can be invoked through generated bytecode
+	 * @since 5.3.10
+	 */
+	@Nullable
+	BeanPropertyInvokerGenerator.PropertyMethods getPropertyMethods(PropertyDescriptor pd) {
+		Map<String, BeanPropertyInvokerGenerator.PropertyMethods> propertyMethods = this.generatedPropertyMethods;
+		if (propertyMethods == null) {
+			synchronized (this) {
+				propertyMethods = this.generatedPropertyMethods;
+				if (propertyMethods == null) {
+					propertyMethods = BeanPropertyInvokerGenerator.generate(
+							getBeanClass(), new LinkedHashSet<>(this.propertyDescriptors.values()));
+					this.generatedPropertyMethods = propertyMethods;
+				}
+			}
+		}
+		return propertyMethods.get(pd.getName());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,18 +27,26 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -46,6 +54,7 @@ import java.util.stream.Stream;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -66,8 +75,10 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
 import org.springframework.core.OrderComparator;
@@ -157,6 +168,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = SimpleAutowireCandidateResolver.INSTANCE;
 
+	/** Optional Executor for pre-instantiating singletons in parallel. */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Map from dependency type to corresponding autowired value. */
 	private final Map<Class<?>, Object> resolvableDependencies = new ConcurrentHashMap<>(16);
 
@@ -288,6 +303,53 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.dependencyComparator;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+	 * <p>Default is none, pre-instantiating all singletons sequentially in the
+	 * calling thread, in registration order. If an Executor is specified, each
+	 * singleton will be pre-instantiated in a task submitted to it as soon as the
+	 * singletons it depends on have been pre-instantiated, as far as derivable
+	 * from the bean definitions: "depends-on" declarations, factory beans and
+	 * bean references in constructor arguments and property values. Any further
+	 * dependencies (e.g. autowired ones) will be resolved on demand, waiting for
+	 * their creation in another thread if necessary. Circular references between
+	 * singletons in creation by different threads will be resolved as usual.
+	 * <p>The Executor is expected to be bounded in terms of its thread count; the
+	 * calling thread will run a singleton's pre-instantiation itself in case of
+	 * the task being rejected. {@link SmartInitializingSingleton} callbacks will
+	 * be invoked in the calling thread after all singletons have been created.
+	 * <p>Note that with an Executor specified, singletons are created under a
+	 * creation lock per bean name rather than under the
+	 * {@link #getSingletonMutex() singleton mutex}. Code that calls
+	 * {@code getBean} while holding the singleton mutex may deadlock against a
+	 * singleton creation in another thread then.
+	 * @since 5.3.10
+	 * @see #preInstantiateSingletons()
+	 * @see #isSingletonCreationLockingEnabled()
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons in parallel, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
+	/**
+	 * Enables creation locks per bean name if a
+	 * {@link #setBootstrapExecutor bootstrap Executor} has been specified.
+	 * @since 5.3.10
+	 */
+	@Override
+	protected boolean isSingletonCreationLockingEnabled() {
+		return (this.bootstrapExecutor != null);
+	}
+
 	/**
 	 * Set a custom autowire candidate resolver for this BeanFactory to use
 	 * when deciding whether a bean definition should be considered as a
@@ -325,6 +387,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well
@@ -526,6 +589,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (resolved != null && !type.hasGenerics()) {
 			return getBeanNamesForType(resolved, includeNonSingletons, allowEagerInit);
 		}
+		else if (resolved != null && isConfigurationFrozen() && allowEagerInit) {
+			// Generic match: narrow down the (cached) candidates for the raw class.
+			String[] candidateNames = getBeanNamesForType(resolved, includeNonSingletons, true);
+			return filterBeanNamesForGenericType(type, candidateNames);
+		}
 		else {
 			return doGetBeanNamesForType(type, includeNonSingletons, allowEagerInit);
 		}
@@ -559,83 +627,139 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Check all bean definitions.
 		for (String beanName : this.beanDefinitionNames) {
-			// Only consider bean as eligible if the bean name is not defined as alias for some other bean.
-			if (!isAlias(beanName)) {
-				try {
-					RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
-					// Only check bean definition if it is complete.
-					if (!mbd.isAbstract() && (allowEagerInit ||
-							(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) &&
-									!requiresEagerInitForType(mbd.getFactoryBeanName()))) {
-						boolean isFactoryBean = isFactoryBean(beanName, mbd);
-						BeanDefinitionHolder dbd = mbd.getDecoratedDefinition();
-						boolean matchFound = false;
-						boolean allowFactoryBeanInit = (allowEagerInit || containsSingleton(beanName));
-						boolean isNonLazyDecorated = (dbd != null && !mbd.isLazyInit());
-						if (!isFactoryBean) {
-							if (includeNonSingletons || isSingleton(beanName, mbd, dbd)) {
-								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
-							}
+			String matchingName = getMatchingBeanDefinitionName(beanName, type, includeNonSingletons, allowEagerInit);
+			if (matchingName != null) {
+				result.add(matchingName);
+			}
+		}
+
+		// Check manually registered singletons too.
+		for (String beanName : this.manualSingletonNames) {
+			String matchingName = getMatchingManualSingletonName(beanName, type, includeNonSingletons);
+			if (matchingName != null) {
+				result.add(matchingName);
+			}
+		}
+
+		return StringUtils.toStringArray(result);
+	}
+
+	/**
+	 * Check the bean definition with the given name against the given type.
+	 * @return the bean name to expose for a match (the FactoryBean name in case
+	 * of the FactoryBean itself matching), or {@code null} if no match
+	 */
+	@Nullable
+	private String getMatchingBeanDefinitionName(
+			String beanName, ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
+
+		// Only consider bean as eligible if the bean name is not defined as alias for some other bean.
+		if (!isAlias(beanName)) {
+			try {
+				RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+				// Only check bean definition if it is complete.
+				if (!mbd.isAbstract() && (allowEagerInit ||
+						(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) &&
+								!requiresEagerInitForType(mbd.getFactoryBeanName()))) {
+					boolean isFactoryBean = isFactoryBean(beanName, mbd);
+					BeanDefinitionHolder dbd = mbd.getDecoratedDefinition();
+					boolean matchFound = false;
+					boolean allowFactoryBeanInit = (allowEagerInit || containsSingleton(beanName));
+					boolean isNonLazyDecorated = (dbd != null && !mbd.isLazyInit());
+					if (!isFactoryBean) {
+						if (includeNonSingletons || isSingleton(beanName, mbd, dbd)) {
+							matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
 						}
-						else {
-							if (includeNonSingletons || isNonLazyDecorated ||
-									(allowFactoryBeanInit && isSingleton(beanName, mbd, dbd))) {
-								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
-							}
-							if (!matchFound) {
-								// In case of FactoryBean, try to match FactoryBean instance itself next.
-								beanName = FACTORY_BEAN_PREFIX + beanName;
-								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
-							}
+					}
+					else {
+						if (includeNonSingletons || isNonLazyDecorated ||
+								(allowFactoryBeanInit && isSingleton(beanName, mbd, dbd))) {
+							matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
 						}
-						if (matchFound) {
-							result.add(beanName);
+						if (!matchFound) {
+							// In case of FactoryBean, try to match FactoryBean instance itself next.
+							beanName = FACTORY_BEAN_PREFIX + beanName;
+							matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
 						}
 					}
-				}
-				catch (CannotLoadBeanClassException | BeanDefinitionStoreException ex) {
-					if (allowEagerInit) {
-						throw ex;
+					if (matchFound) {
+						return beanName;
 					}
-					// Probably a placeholder: let's ignore it for type matching purposes.
-					LogMessage message = (ex instanceof CannotLoadBeanClassException ?
-							LogMessage.format("Ignoring bean class loading failure for bean '%s'", beanName) :
-							LogMessage.format("Ignoring unresolvable metadata in bean definition '%s'", beanName));
-					logger.trace(message, ex);
-					// Register exception, in case the bean was accidentally unresolvable.
-					onSuppressedException(ex);
 				}
-				catch (NoSuchBeanDefinitionException ex) {
-					// Bean definition got removed while we were iterating -> ignore.
+			}
+			catch (CannotLoadBeanClassException | BeanDefinitionStoreException ex) {
+				if (allowEagerInit) {
+					throw ex;
 				}
+				// Probably a placeholder: let's ignore it for type matching purposes.
+				LogMessage message = (ex instanceof CannotLoadBeanClassException ?
+						LogMessage.format("Ignoring bean class loading failure for bean '%s'", beanName) :
+						LogMessage.format("Ignoring unresolvable metadata in bean definition '%s'", beanName));
+				logger.trace(message, ex);
+				// Register exception, in case the bean was accidentally unresolvable.
+				onSuppressedException(ex);
+			}
+			catch (NoSuchBeanDefinitionException ex) {
+				// Bean definition got removed while we were iterating -> ignore.
 			}
 		}
+		return null;
+	}
 
-		// Check manually registered singletons too.
-		for (String beanName : this.manualSingletonNames) {
+	/**
+	 * Check the manually registered singleton with the given name against the given type.
+	 * @return the bean name to expose for a match (the FactoryBean name in case
+	 * of the FactoryBean itself matching), or {@code null} if no match
+	 */
+	@Nullable
+	private String getMatchingManualSingletonName(String beanName, ResolvableType type, boolean includeNonSingletons) {
+		try {
+			// In case of FactoryBean, match object created by FactoryBean.
+			if (isFactoryBean(beanName)) {
+				if ((includeNonSingletons || isSingleton(beanName)) && isTypeMatch(beanName, type)) {
+					// Match found for this bean: do not match FactoryBean itself anymore.
+					return beanName;
+				}
+				// In case of FactoryBean, try to match FactoryBean itself next.
+				beanName = FACTORY_BEAN_PREFIX + beanName;
+			}
+			// Match raw bean instance (might be raw FactoryBean).
+			if (isTypeMatch(beanName, type)) {
+				return beanName;
+			}
+		}
+		catch (NoSuchBeanDefinitionException ex) {
+			// Shouldn't happen - probably a result of circular reference resolution...
+			logger.trace(LogMessage.format(
+					"Failed to check manually registered singleton with name '%s'", beanName), ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Narrow down the given candidate names for the raw class of the given
+	 * generic type, following the same FactoryBean rules as
+	 * {@link #doGetBeanNamesForType}: if the object exposed by a FactoryBean
+	 * does not match, the FactoryBean itself is checked next.
+	 */
+	private String[] filterBeanNamesForGenericType(ResolvableType type, String[] candidateNames) {
+		List<String> result = new ArrayList<>(candidateNames.length);
+		for (String candidateName : candidateNames) {
 			try {
-				// In case of FactoryBean, match object created by FactoryBean.
-				if (isFactoryBean(beanName)) {
-					if ((includeNonSingletons || isSingleton(beanName)) && isTypeMatch(beanName, type)) {
-						result.add(beanName);
-						// Match found for this bean: do not match FactoryBean itself anymore.
-						continue;
-					}
-					// In case of FactoryBean, try to match FactoryBean itself next.
-					beanName = FACTORY_BEAN_PREFIX + beanName;
+				if (isTypeMatch(candidateName, type)) {
+					result.add(candidateName);
 				}
-				// Match raw bean instance (might be raw FactoryBean).
-				if (isTypeMatch(beanName, type)) {
-					result.add(beanName);
+				else if (!BeanFactoryUtils.isFactoryDereference(candidateName) && isFactoryBean(candidateName)) {
+					String factoryBeanName = FACTORY_BEAN_PREFIX + candidateName;
+					if (isTypeMatch(factoryBeanName, type)) {
+						result.add(factoryBeanName);
+					}
 				}
 			}
 			catch (NoSuchBeanDefinitionException ex) {
-				// Shouldn't happen - probably a result of circular reference resolution...
-				logger.trace(LogMessage.format(
-						"Failed to check manually registered singleton with name '%s'", beanName), ex);
+				// Bean definition got removed in the meantime -> ignore.
 			}
 		}
-
 		return StringUtils.toStringArray(result);
 	}
 
@@ -918,30 +1042,15 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged(
-									(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					getBean(beanName);
+		Executor bootstrapExecutor = getBootstrapExecutor();
+		if (bootstrapExecutor != null) {
+			preInstantiateSingletonsInParallel(beanNames, bootstrapExecutor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -967,6 +1076,218 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Pre-instantiate the given non-lazy singleton, including the object
+	 * exposed by an eager-init {@link SmartFactoryBean}.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		if (isFactoryBean(beanName)) {
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			if (bean instanceof FactoryBean) {
+				FactoryBean<?> factory = (FactoryBean<?>) bean;
+				boolean isEagerInit;
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged(
+							(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
+							getAccessControlContext());
+				}
+				else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				if (isEagerInit) {
+					getBean(beanName);
+				}
+			}
+		}
+		else {
+			getBean(beanName);
+		}
+	}
+
+	/**
+	 * Pre-instantiate the non-lazy singletons among the given beans through the
+	 * given Executor, scheduling each singleton once the singletons it declares
+	 * dependencies on have been pre-instantiated.
+	 * <p>In case of circular dependencies between the remaining singletons, the
+	 * first of them in registration order gets scheduled once all other tasks
+	 * have completed. In case of a failure, no further tasks get scheduled and
+	 * the first exception is rethrown once all running tasks have completed.
+	 * @param beanNames the names of the beans, in registration order
+	 * @param executor the Executor to submit the tasks to
+	 * @see #setBootstrapExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		// Determine the declared dependencies between the non-lazy singletons...
+		Map<String, Set<String>> pendingDependencies = new LinkedHashMap<>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				pendingDependencies.put(beanName, getDeclaredDependencies(bd));
+			}
+		}
+		Map<String, List<String>> dependentBeans = new HashMap<>();
+		Deque<String> readyBeans = new ArrayDeque<>();
+		for (Iterator<Map.Entry<String, Set<String>>> it = pendingDependencies.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<String, Set<String>> entry = it.next();
+			Set<String> dependencies = entry.getValue();
+			dependencies.remove(entry.getKey());
+			dependencies.retainAll(pendingDependencies.keySet());
+			for (String dependency : dependencies) {
+				dependentBeans.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+			}
+			if (dependencies.isEmpty()) {
+				readyBeans.add(entry.getKey());
+				it.remove();
+			}
+		}
+
+		// Schedule each singleton once its dependencies have been pre-instantiated...
+		BlockingQueue<SingletonBootstrapResult> results = new LinkedBlockingQueue<>();
+		SingletonBootstrapResult failure = null;
+		int running = 0;
+		while (true) {
+			if (failure == null) {
+				if (readyBeans.isEmpty() && running == 0 && !pendingDependencies.isEmpty()) {
+					// Circular dependencies between the remaining singletons -> proceed in registration order.
+					String beanName = pendingDependencies.keySet().iterator().next();
+					pendingDependencies.remove(beanName);
+					readyBeans.add(beanName);
+				}
+				while (!readyBeans.isEmpty()) {
+					String beanName = readyBeans.removeFirst();
+					Runnable task = () -> {
+						try {
+							preInstantiateSingleton(beanName);
+							results.add(new SingletonBootstrapResult(beanName, null));
+						}
+						catch (Throwable ex) {
+							results.add(new SingletonBootstrapResult(beanName, ex));
+						}
+					};
+					running++;
+					try {
+						executor.execute(task);
+					}
+					catch (RejectedExecutionException ex) {
+						task.run();
+					}
+				}
+			}
+			if (running == 0) {
+				break;
+			}
+			SingletonBootstrapResult result;
+			try {
+				result = results.take();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new BeanCreationException("Interrupted while pre-instantiating singletons in parallel", ex);
+			}
+			running--;
+			if (result.failure != null) {
+				if (failure == null) {
+					failure = result;
+				}
+				else if (logger.isDebugEnabled()) {
+					logger.debug("Further failure during parallel pre-instantiation of singleton '" +
+							result.beanName + "'", result.failure);
+				}
+			}
+			else {
+				List<String> dependents = dependentBeans.get(result.beanName);
+				if (dependents != null) {
+					for (String dependent : dependents) {
+						Set<String> dependencies = pendingDependencies.get(dependent);
+						if (dependencies != null && dependencies.remove(result.beanName) && dependencies.isEmpty()) {
+							pendingDependencies.remove(dependent);
+							readyBeans.add(dependent);
+						}
+					}
+				}
+			}
+		}
+
+		if (failure != null) {
+			Throwable ex = failure.failure;
+			if (ex instanceof RuntimeException) {
+				throw (RuntimeException) ex;
+			}
+			if (ex instanceof Error) {
+				throw (Error) ex;
+			}
+			throw new BeanCreationException(failure.beanName, "Pre-instantiation of singleton failed", ex);
+		}
+	}
+
+	/**
+	 * Determine the names of the beans that the given bean definition declares
+	 * dependencies on: through "depends-on", a factory bean, or bean references
+	 * in constructor arguments and property values (including inner beans).
+	 * @param bd the merged bean definition
+	 * @return the canonical names of the dependencies (mutable)
+	 */
+	private Set<String> getDeclaredDependencies(BeanDefinition bd) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		collectDeclaredDependencies(bd, dependencies);
+		return dependencies;
+	}
+
+	private void collectDeclaredDependencies(BeanDefinition bd, Set<String> dependencies) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependency : dependsOn) {
+				addDeclaredDependency(dependency, dependencies);
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			addDeclaredDependency(bd.getFactoryBeanName(), dependencies);
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getIndexedArgumentValues().values()) {
+				collectDeclaredDependencies(valueHolder.getValue(), dependencies);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+				collectDeclaredDependencies(valueHolder.getValue(), dependencies);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectDeclaredDependencies(pv.getValue(), dependencies);
+			}
+		}
+	}
+
+	private void collectDeclaredDependencies(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof BeanReference) {
+			addDeclaredDependency(((BeanReference) value).getBeanName(), dependencies);
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectDeclaredDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectDeclaredDependencies((BeanDefinition) value, dependencies);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectDeclaredDependencies(element, dependencies);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectDeclaredDependencies(entry.getKey(), dependencies);
+				collectDeclaredDependencies(entry.getValue(), dependencies);
+			}
+		}
+	}
+
+	private void addDeclaredDependency(String name, Set<String> dependencies) {
+		dependencies.add(canonicalName(BeanFactoryUtils.transformedBeanName(name)));
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -1043,7 +1364,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			resetBeanDefinition(beanName);
 		}
 		else if (isConfigurationFrozen()) {
-			clearByTypeCache();
+			updateByTypeCache(beanName, false);
 		}
 	}
 
@@ -1137,7 +1458,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		super.registerSingleton(beanName, singletonObject);
 		updateManualSingletonNames(set -> set.add(beanName), set -> !this.beanDefinitionMap.containsKey(beanName));
-		clearByTypeCache();
+		if (this.manualSingletonNames.contains(beanName)) {
+			updateByTypeCache(beanName, true);
+		}
+		else {
+			clearByTypeCache();
+		}
 	}
 
 	@Override
@@ -1191,6 +1517,79 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		this.singletonBeanNamesByType.clear();
 	}
 
+	/**
+	 * Add a newly registered bean to the by-type mappings where its type matches,
+	 * instead of removing all assumptions. Only applies to beans whose type can be
+	 * determined without initializing a factory and which no other bean depends on
+	 * for its own type determination; falls back to {@link #clearByTypeCache()}.
+	 * @param beanName the name of the new bean
+	 * @param manualSingleton whether the bean is a manually registered singleton
+	 * (as opposed to a bean definition)
+	 */
+	private void updateByTypeCache(String beanName, boolean manualSingleton) {
+		if (this.allBeanNamesByType.isEmpty() && this.singletonBeanNamesByType.isEmpty()) {
+			return;
+		}
+		try {
+			if (isByTypeIndependent(beanName, manualSingleton)) {
+				updateByTypeCache(this.allBeanNamesByType, beanName, manualSingleton, true);
+				updateByTypeCache(this.singletonBeanNamesByType, beanName, manualSingleton, false);
+				return;
+			}
+		}
+		catch (RuntimeException ex) {
+			// Type determination failed -> leave it to the next by-type lookup.
+			logger.trace(LogMessage.format("Failed to update by-type mappings for bean '%s'", beanName), ex);
+		}
+		clearByTypeCache();
+	}
+
+	private boolean isByTypeIndependent(String beanName, boolean manualSingleton) {
+		for (BeanDefinition bd : this.beanDefinitionMap.values()) {
+			if (beanName.equals(bd.getParentName()) || beanName.equals(bd.getFactoryBeanName())) {
+				return false;
+			}
+		}
+		if (manualSingleton) {
+			Object singletonInstance = getSingleton(beanName, false);
+			return (singletonInstance != null && !(singletonInstance instanceof FactoryBean));
+		}
+		RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+		return (mbd.getFactoryMethodName() == null && mbd.getDecoratedDefinition() == null &&
+				!isFactoryBean(beanName, mbd));
+	}
+
+	private void updateByTypeCache(Map<Class<?>, String[]> cache, String beanName,
+			boolean manualSingleton, boolean includeNonSingletons) {
+
+		for (Map.Entry<Class<?>, String[]> entry : cache.entrySet()) {
+			ResolvableType type = ResolvableType.forRawClass(entry.getKey());
+			String matchingName = (manualSingleton ?
+					getMatchingManualSingletonName(beanName, type, includeNonSingletons) :
+					getMatchingBeanDefinitionName(beanName, type, includeNonSingletons, true));
+			if (matchingName != null) {
+				String[] beanNames = entry.getValue();
+				// Bean definitions in registration order first, then manual singletons
+				int index = beanNames.length;
+				if (!manualSingleton) {
+					for (int i = 0; i < beanNames.length; i++) {
+						if (this.manualSingletonNames.contains(BeanFactoryUtils.transformedBeanName(beanNames[i]))) {
+							index = i;
+							break;
+						}
+					}
+				}
+				String[] updatedNames = new String[beanNames.length + 1];
+				System.arraycopy(beanNames, 0, updatedNames, 0, index);
+				updatedNames[index] = matchingName;
+				System.arraycopy(beanNames, index, updatedNames, index + 1, beanNames.length - index);
+				if (!cache.replace(entry.getKey(), beanNames, updatedNames)) {
+					cache.remove(entry.getKey());
+				}
+			}
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Dependency resolution functionality
@@ -1907,6 +2306,23 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Outcome of the pre-instantiation of a singleton in parallel.
+	 */
+	private static class SingletonBootstrapResult {
+
+		final String beanName;
+
+		@Nullable
+		final Throwable failure;
+
+		SingletonBootstrapResult(String beanName, @Nullable Throwable failure) {
+			this.beanName = beanName;
+			this.failure = failure;
+		}
+	}
+
+
 	/**
 	 * A dependency descriptor marker for nested elements.
 	 */
@@ -25,6 +25,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCreationNotAllowedException;
@@ -32,6 +33,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -61,6 +63,15 @@ import org.springframework.util.StringUtils;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>Singleton creation is guarded by the {@link #getSingletonMutex() singleton
+ * mutex} by default. If {@link #isSingletonCreationLockingEnabled() enabled},
+ * it is guarded by a lock per bean name instead, so that singletons may be
+ * created by several threads concurrently. If waiting for a singleton
+ * in creation by another thread would lead to a deadlock since that thread is
+ * in turn waiting for a singleton in creation by the current thread, the
+ * circular reference is resolved through an early singleton reference, just
+ * like within a single thread.
+ *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #registerSingleton
@@ -78,7 +89,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(256);
 
 	/** Cache of singleton factories: bean name to ObjectFactory. */
-	private final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<>(16);
+	private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>(16);
 
 	/** Cache of early singleton objects: bean name to bean instance. */
 	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
@@ -94,12 +105,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Creation locks for singleton beans: bean name to lock. */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(256);
+
+	/** Creation locks that threads are currently waiting for: thread to lock. */
+	private final Map<Thread, SingletonCreationLock> singletonCreationWaits = new HashMap<>(16);
+
 	/** Collection of suppressed Exceptions, available for associating related causes. */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions during singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons. */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	/** Disposable bean instances: bean name to disposable instance. */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -180,22 +197,45 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
 		// Quick check for existing instance without full singleton lock
 		Object singletonObject = this.singletonObjects.get(beanName);
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				!isSingletonCreationLockedByOtherThread(beanName)) {
 			singletonObject = this.earlySingletonObjects.get(beanName);
 			if (singletonObject == null && allowEarlyReference) {
-				synchronized (this.singletonObjects) {
-					// Consistent creation of early reference within full singleton lock
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						singletonObject = this.earlySingletonObjects.get(beanName);
-						if (singletonObject == null) {
-							ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-							if (singletonFactory != null) {
-								singletonObject = singletonFactory.getObject();
-								this.earlySingletonObjects.put(beanName, singletonObject);
-								this.singletonFactories.remove(beanName);
-							}
-						}
+				if (isSingletonCreationLockingEnabled()) {
+					singletonObject = getEarlySingletonReference(beanName);
+				}
+				else {
+					synchronized (this.singletonObjects) {
+						// Consistent creation of early reference within full singleton lock
+						singletonObject = getEarlySingletonReference(beanName);
+					}
+				}
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Obtain an early reference to the specified singleton from its registered
+	 * singleton factory, if any. To be called by the thread holding the creation
+	 * lock for the singleton, or by a thread that the creating thread is waiting for.
+	 * @param beanName the name of the bean
+	 * @return the early singleton reference, or {@code null} if none available
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject == null) {
+			singletonObject = this.earlySingletonObjects.get(beanName);
+			if (singletonObject == null) {
+				ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+				if (singletonFactory != null) {
+					// Not within full singleton lock since the factory may trigger further bean
+					// creation: consistency is guaranteed through the singleton creation lock.
+					singletonObject = singletonFactory.getObject();
+					synchronized (this.singletonObjects) {
+						this.earlySingletonObjects.put(beanName, singletonObject);
+						this.singletonFactories.remove(beanName);
 					}
 				}
 			}
@@ -213,57 +253,210 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
-		synchronized (this.singletonObjects) {
-			Object singletonObject = this.singletonObjects.get(beanName);
+		// Quick check for existing instance without any locking
+		Object existingObject = this.singletonObjects.get(beanName);
+		if (existingObject != null) {
+			return existingObject;
+		}
+		if (!isSingletonCreationLockingEnabled()) {
+			synchronized (this.singletonObjects) {
+				return getOrCreateSingleton(beanName, singletonFactory);
+			}
+		}
+		if (!lockSingletonCreation(beanName)) {
+			// The thread creating this singleton is waiting for a singleton in creation
+			// by the current thread -> resolve like a circular reference within one thread.
+			Object singletonObject = getEarlySingletonReference(beanName);
 			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+				throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in creation " +
+						"by another thread which is waiting for a bean in creation by the current thread: " +
+						"Is there an unresolvable circular reference?");
+			}
+			return singletonObject;
+		}
+		try {
+			return getOrCreateSingleton(beanName, singletonFactory);
+		}
+		finally {
+			unlockSingletonCreation(beanName);
+		}
+	}
+
+	/**
+	 * Return the singleton object registered under the given name, creating
+	 * and registering a new one if none registered yet. To be called within
+	 * the singleton mutex or the creation lock for the singleton.
+	 */
+	private Object getOrCreateSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject == null) {
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+			}
+			beforeSingletonCreation(beanName);
+			boolean newSingleton = false;
+			Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+			boolean recordSuppressedExceptions = (suppressedExceptions == null);
+			if (recordSuppressedExceptions) {
+				suppressedExceptions = new LinkedHashSet<>();
+				this.suppressedExceptions.set(suppressedExceptions);
+			}
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			}
+			catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
 				}
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+			}
+			catch (BeanCreationException ex) {
 				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+					for (Exception suppressedException : suppressedExceptions) {
+						ex.addRelatedCause(suppressedException);
+					}
 				}
-				try {
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
+				throw ex;
+			}
+			finally {
+				if (recordSuppressedExceptions) {
+					this.suppressedExceptions.remove();
 				}
-				catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Determine whether singletons are created under a creation lock per bean
+	 * name, allowing for concurrent creation of different singletons, rather
+	 * than under the {@link #getSingletonMutex() singleton mutex}.
+	 * <p>Default is {@code false}: Code calling {@code getBean} while holding the
+	 * singleton mutex would deadlock against a thread creating a singleton under
+	 * its creation lock. Subclasses may enable creation locks when they create
+	 * singletons in several threads.
+	 * @since 5.3.10
+	 * @see #lockSingletonCreation
+	 */
+	protected boolean isSingletonCreationLockingEnabled() {
+		return false;
+	}
+
+	/**
+	 * Acquire the creation lock for the specified singleton, waiting for
+	 * another thread to finish its creation of the singleton if necessary.
+	 * <p>The lock is reentrant. If waiting for it would lead to a deadlock,
+	 * i.e. if the thread holding the lock is (transitively) waiting for a
+	 * creation lock held by the current thread, this method returns
+	 * {@code false} immediately instead of waiting.
+	 * <p>Only to be used if {@link #isSingletonCreationLockingEnabled() creation
+	 * locks are enabled}; creation is guarded by the singleton mutex otherwise.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if the lock has been acquired (to be released through
+	 * {@link #unlockSingletonCreation}), or {@code false} if it has not been
+	 * acquired in order to avoid a deadlock
+	 * @since 5.3.10
+	 * @see #unlockSingletonCreation
+	 */
+	protected boolean lockSingletonCreation(String beanName) {
+		while (true) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			if (lock == null) {
+				lock = this.singletonCreationLocks.computeIfAbsent(beanName, name -> new SingletonCreationLock());
+			}
+			if (!lock.tryLock()) {
+				Thread currentThread = Thread.currentThread();
+				synchronized (this.singletonCreationWaits) {
+					if (isWaitingFor(lock.getOwner(), currentThread)) {
+						return false;
 					}
+					this.singletonCreationWaits.put(currentThread, lock);
 				}
-				catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
-						}
-					}
-					throw ex;
+				try {
+					lock.lock();
 				}
 				finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+					synchronized (this.singletonCreationWaits) {
+						this.singletonCreationWaits.remove(currentThread);
 					}
-					afterSingletonCreation(beanName);
-				}
-				if (newSingleton) {
-					addSingleton(beanName, singletonObject);
 				}
 			}
-			return singletonObject;
+			if (this.singletonCreationLocks.get(beanName) == lock) {
+				return true;
+			}
+			// Lock has been removed in the meantime (singleton destroyed) -> retry with a new one.
+			lock.unlock();
 		}
 	}
 
+	/**
+	 * Release the creation lock for the specified singleton.
+	 * @param beanName the name of the bean
+	 * @since 5.3.10
+	 * @see #lockSingletonCreation
+	 */
+	protected void unlockSingletonCreation(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		Assert.state(lock != null, () -> "No creation lock for singleton '" + beanName + "'");
+		lock.unlock();
+	}
+
+	/**
+	 * Remove the creation lock for the specified singleton, unless it is
+	 * currently held by a thread in the process of creating the singleton.
+	 * @param beanName the name of the bean
+	 */
+	private void removeSingletonCreationLock(String beanName) {
+		this.singletonCreationLocks.computeIfPresent(beanName, (name, lock) -> (lock.isLocked() ? lock : null));
+	}
+
+	/**
+	 * Determine whether the creation lock for the specified singleton is
+	 * currently held by a thread other than the current thread.
+	 * @param beanName the name of the bean
+	 * @since 5.3.10
+	 */
+	protected boolean isSingletonCreationLockedByOtherThread(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		return (lock != null && lock.isLocked() && !lock.isHeldByCurrentThread());
+	}
+
+	/**
+	 * Check whether the given lock owner is (transitively) waiting for
+	 * a creation lock held by the given thread.
+	 * <p>To be called within synchronization on {@link #singletonCreationWaits}.
+	 */
+	private boolean isWaitingFor(@Nullable Thread owner, Thread thread) {
+		Set<Thread> seen = null;
+		Thread current = owner;
+		while (current != null) {
+			if (current == thread) {
+				return true;
+			}
+			if (seen == null) {
+				seen = new HashSet<>();
+			}
+			if (!seen.add(current)) {
+				return false;
+			}
+			SingletonCreationLock awaited = this.singletonCreationWaits.get(current);
+			current = (awaited != null ? awaited.getOwner() : null);
+		}
+		return false;
+	}
+
 	/**
 	 * Register an exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -274,10 +467,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -523,6 +715,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		this.containedBeanMap.clear();
 		this.dependentBeanMap.clear();
 		this.dependenciesForBeanMap.clear();
+		for (String beanName : this.singletonCreationLocks.keySet()) {
+			removeSingletonCreationLock(beanName);
+		}
 
 		clearSingletonCache();
 	}
@@ -550,6 +745,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	public void destroySingleton(String beanName) {
 		// Remove a registered singleton of the given name, if any.
 		removeSingleton(beanName);
+		removeSingletonCreationLock(beanName);
 
 		// Destroy the corresponding DisposableBean instance.
 		DisposableBean disposableBean;
@@ -633,4 +829,19 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Reentrant lock for the creation of a specific singleton,
+	 * exposing its owner for deadlock detection purposes.
+	 */
+	@SuppressWarnings("serial")
+	private static class SingletonCreationLock extends ReentrantLock {
+
+		@Override
+		@Nullable
+		public Thread getOwner() {
+			return super.getOwner();
+		}
+	}
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Runs the {@link BeanWrapperTests} suite against a {@link BeanWrapperImpl}
+ * with generated accessors, plus specific tests for generated accessors.
+ */
+class BeanWrapperGeneratedAccessorsTests extends BeanWrapperTests {
+
+	@Override
+	protected BeanWrapperImpl createAccessor(Object target) {
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target);
+		accessor.setUseGeneratedAccessors(true);
+		return accessor;
+	}
+
+
+	@Test
+	void generatedPropertyMethods() {
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(TestBean.class);
+		BeanPropertyInvokerGenerator.PropertyMethods age = results.getPropertyMethods(results.getPropertyDescriptor("age"));
+		assertThat(age).isNotNull();
+		assertThat(age.isReadable()).isTrue();
+		assertThat(age.isWritable(1)).isTrue();
+		assertThat(age.isWritable(null)).isFalse();
+		assertThat(age.isWritable("1")).isFalse();
+	}
+
+	@Test
+	void nestedPropertiesWithGeneratedAccessors() {
+		TestBean target = new TestBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("spouse", new TestBean("kerry"));
+		accessor.setPropertyValue("spouse.age", "35");
+		assertThat(target.getSpouse().getAge()).isEqualTo(35);
+		assertThat(accessor.getPropertyValue("spouse.name")).isEqualTo("kerry");
+	}
+
+	@Test
+	void fluentSetterWithGeneratedAccessors() {
+		FluentBean target = new FluentBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("counter", "5");
+		assertThat(target.getCounter()).isEqualTo(5L);
+		assertThat(accessor.getPropertyValue("counter")).isEqualTo(5L);
+	}
+
+	@Test
+	void setterExceptionWithGeneratedAccessors() {
+		BeanWrapperImpl accessor = createAccessor(new FluentBean());
+		assertThatExceptionOfType(MethodInvocationException.class).isThrownBy(() ->
+				accessor.setPropertyValue("counter", -1L))
+			.withCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void nonPublicClassWithGeneratedAccessors() {
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(NonPublicBean.class);
+		assertThat(results.getPropertyMethods(results.getPropertyDescriptor("name"))).isNull();
+
+		NonPublicBean target = new NonPublicBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("name", "juergen");
+		assertThat(target.getName()).isEqualTo("juergen");
+		assertThat(accessor.getPropertyValue("name")).isEqualTo("juergen");
+	}
+
+
+	public static class FluentBean {
+
+		private long counter;
+
+		public long getCounter() {
+			return this.counter;
+		}
+
+		public FluentBean setCounter(long counter) {
+			if (counter < 0) {
+				throw new IllegalArgumentException("Negative counter");
+			}
+			this.counter = counter;
+			return this;
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
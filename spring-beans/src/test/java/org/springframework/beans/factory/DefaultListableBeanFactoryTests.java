@@ -26,7 +26,9 @@ import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -37,6 +39,8 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -1443,6 +1447,57 @@ class DefaultListableBeanFactoryTests {
 		assertThat(bean.getBeanName()).isEqualTo("bd1");
 	}
 
+	@Test
+	void getBeanNamesForTypeWithLateRegistrationAgainstFrozen() {
+		lbf.registerBeanDefinition("bd1", new RootBeanDefinition(TestBean.class));
+		lbf.registerSingleton("singleton1", new TestBean());
+		lbf.freezeConfiguration();
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("bd1", "singleton1");
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).isEmpty();
+
+		RootBeanDefinition bd2 = new RootBeanDefinition(DerivedTestBean.class);
+		bd2.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		lbf.registerBeanDefinition("bd2", bd2);
+		lbf.registerSingleton("singleton2", new DerivedTestBean());
+		lbf.registerBeanDefinition("bd3", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("bd1", "bd2", "singleton1", "singleton2");
+		assertThat(lbf.getBeanNamesForType(ITestBean.class, false, true)).containsExactly("bd1", "singleton1", "singleton2");
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("bd2", "singleton2");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("bd3");
+
+		lbf.clearMetadataCache();
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("bd1", "bd2", "singleton1", "singleton2");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithLateFactoryBeanRegistrationAgainstFrozen() {
+		RootBeanDefinition bd1 = new RootBeanDefinition();
+		bd1.setFactoryBeanName("factory");
+		bd1.setFactoryMethodName("createTestBeanNonStatic");
+		lbf.registerBeanDefinition("bd1", bd1);
+		lbf.freezeConfiguration();
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(DummyFactory.class)).isEmpty();
+
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(TestBeanFactory.class));
+		lbf.registerBeanDefinition("dummy", new RootBeanDefinition(DummyFactory.class));
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("bd1", "dummy");
+		assertThat(lbf.getBeanNamesForType(DummyFactory.class)).containsExactly("&dummy");
+	}
+
+	@Test
+	void getBeanNamesForGenericTypeAgainstFrozen() {
+		lbf.registerSingleton("string", "value");
+		lbf.registerSingleton("integer", 1);
+		lbf.registerBeanDefinition("bd1", new RootBeanDefinition(TestBean.class));
+		lbf.freezeConfiguration();
+		assertThat(lbf.getBeanNamesForType(Comparable.class)).containsExactly("bd1", "string", "integer");
+		assertThat(lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(Comparable.class, String.class)))
+				.containsExactly("string");
+		assertThat(lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(Comparable.class, Integer.class)))
+				.containsExactly("integer");
+	}
+
 	@Test
 	void getBeanByTypeDefinedInParent() {
 		DefaultListableBeanFactory parent = new DefaultListableBeanFactory();
@@ -2671,6 +2726,110 @@ class DefaultListableBeanFactoryTests {
 		assertThat(holder.getNonPublicEnum()).isEqualTo(NonPublicEnum.VALUE_1);
 	}
 
+	@Test
+	void parallelPreInstantiationWithDeclaredDependencies() {
+		List<String> initialized = Collections.synchronizedList(new ArrayList<>());
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				initialized.add(beanName);
+				return bean;
+			}
+		});
+		for (int i = 0; i < 20; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			if (i > 0) {
+				bd.getPropertyValues().add("spouse", new RuntimeBeanReference("tb" + (i - 1)));
+			}
+			lbf.registerBeanDefinition("tb" + i, bd);
+		}
+		RootBeanDefinition dependent = new RootBeanDefinition(DerivedTestBean.class);
+		dependent.setDependsOn("tb19");
+		lbf.registerBeanDefinition("dependent", dependent);
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertThat(lbf.containsSingleton("lazy")).isFalse();
+		assertThat(initialized).hasSize(21);
+		for (int i = 1; i < 20; i++) {
+			assertThat(initialized.indexOf("tb" + (i - 1))).isLessThan(initialized.indexOf("tb" + i));
+			assertThat(lbf.getBean("tb" + i, TestBean.class).getSpouse()).isSameAs(lbf.getBean("tb" + (i - 1)));
+		}
+		assertThat(initialized.indexOf("tb19")).isLessThan(initialized.indexOf("dependent"));
+	}
+
+	@Test
+	void parallelPreInstantiationWithCircularReferences() {
+		int count = 20;
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (beanName.startsWith("tb")) {
+					// Undeclared circular references between all "tb" beans
+					int index = Integer.parseInt(beanName.substring(2));
+					((TestBean) bean).setSpouse((TestBean) lbf.getBean("tb" + ((index + 1) % count)));
+				}
+				return bean;
+			}
+		});
+		for (int i = 0; i < count; i++) {
+			lbf.registerBeanDefinition("tb" + i, new RootBeanDefinition(TestBean.class));
+		}
+		RootBeanDefinition declared1 = new RootBeanDefinition(TestBean.class);
+		declared1.getPropertyValues().add("spouse", new RuntimeBeanReference("declared2"));
+		lbf.registerBeanDefinition("declared1", declared1);
+		RootBeanDefinition declared2 = new RootBeanDefinition(TestBean.class);
+		declared2.getPropertyValues().add("spouse", new RuntimeBeanReference("declared1"));
+		lbf.registerBeanDefinition("declared2", declared2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		for (int i = 0; i < count; i++) {
+			assertThat(lbf.getBean("tb" + i, TestBean.class).getSpouse()).isSameAs(lbf.getBean("tb" + ((i + 1) % count)));
+		}
+		assertThat(lbf.getBean("declared1", TestBean.class).getSpouse()).isSameAs(lbf.getBean("declared2"));
+		assertThat(lbf.getBean("declared2", TestBean.class).getSpouse()).isSameAs(lbf.getBean("declared1"));
+	}
+
+	@Test
+	void parallelPreInstantiationWithFailure() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition failing = new RootBeanDefinition(TestBean.class);
+		failing.setInitMethodName("bogus");
+		lbf.registerBeanDefinition("failing", failing);
+		RootBeanDefinition tb2 = new RootBeanDefinition(TestBean.class);
+		tb2.setDependsOn("failing");
+		lbf.registerBeanDefinition("tb2", tb2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(lbf::preInstantiateSingletons)
+					.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(lbf.containsSingleton("tb2")).isFalse();
+	}
+
 
 	@SuppressWarnings("deprecation")
 	private int registerBeanDefinitions(Properties p) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,12 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.BeansException;
@@ -101,4 +107,54 @@ public class DefaultSingletonBeanRegistryTests {
 		assertThat(beanRegistry.isDependent("c", "c")).isTrue();
 	}
 
+	@Test
+	public void testSingletonCreationWithinSingletonMutexByDefault() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		TestBean tb = (TestBean) beanRegistry.getSingleton("tb", () -> {
+			assertThat(Thread.holdsLock(beanRegistry.getSingletonMutex())).isTrue();
+			return new TestBean();
+		});
+		assertThat(beanRegistry.getSingleton("tb")).isSameAs(tb);
+	}
+
+	@Test
+	public void testSingletonCreationInDifferentThreads() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry() {
+			@Override
+			protected boolean isSingletonCreationLockingEnabled() {
+				return true;
+			}
+		};
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> slow = executor.submit(() -> beanRegistry.getSingleton("slow", () -> {
+				assertThat(Thread.holdsLock(beanRegistry.getSingletonMutex())).isFalse();
+				inCreation.countDown();
+				try {
+					proceed.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return new TestBean();
+			}));
+			assertThat(inCreation.await(10, TimeUnit.SECONDS)).isTrue();
+
+			// Not blocked by the creation of another singleton in progress
+			TestBean tb = (TestBean) beanRegistry.getSingleton("tb", TestBean::new);
+			assertThat(beanRegistry.getSingleton("tb")).isSameAs(tb);
+			assertThat(beanRegistry.isSingletonCurrentlyInCreation("slow")).isTrue();
+			assertThat(beanRegistry.getSingleton("slow")).isNull();
+
+			proceed.countDown();
+			assertThat(beanRegistry.getSingleton("slow", TestBean::new)).isSameAs(slow.get(10, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 }
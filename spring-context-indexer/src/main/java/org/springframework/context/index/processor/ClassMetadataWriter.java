@@ -0,0 +1,550 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Write the class metadata of a candidate component, that is its class header,
+ * enclosing and member classes, runtime-visible annotations and annotated methods,
+ * in the binary format of {@code ClassMetadataRecorder} in {@code spring-core}.
+ * This allows for building the annotation metadata of indexed components at
+ * runtime without reading their class files.
+ *
+ * <p>As with the class file, only explicitly declared annotation attribute values
+ * are written, leaving default values to be resolved from the annotation type.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ */
+class ClassMetadataWriter {
+
+	// Tags as in org.springframework.core.type.classreading.ClassMetadataRecorder
+
+	private static final int CLASS = 'C';
+
+	private static final int INNER_CLASS = 'I';
+
+	private static final int ANNOTATION = '@';
+
+	private static final int METHOD = 'M';
+
+	private static final int END = '.';
+
+	private static final int VALUE = 'V';
+
+	private static final int ENUM = 'E';
+
+	private static final int NESTED_ANNOTATION = 'A';
+
+	private static final int ARRAY = '[';
+
+	private static final int ANNOTATION_END = ';';
+
+	// Access flags as defined by the JVM specification
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_VARARGS = 0x0080;
+
+	private static final int ACC_NATIVE = 0x0100;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_STRICT = 0x0800;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public ClassMetadataWriter(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Write the class metadata for the specified {@link Element}.
+	 * @param element the candidate element
+	 * @return the Base64-encoded class metadata, or {@code null} if the
+	 * element is not a top-level or member type or refers to types that
+	 * cannot be resolved
+	 */
+	public String write(Element element) {
+		if (!(element instanceof TypeElement)) {
+			return null;
+		}
+		TypeElement type = (TypeElement) element;
+		NestingKind nestingKind = type.getNestingKind();
+		if (nestingKind != NestingKind.TOP_LEVEL && nestingKind != NestingKind.MEMBER) {
+			return null;
+		}
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+		try {
+			writeClass(type, new DataOutputStream(buffer));
+		}
+		catch (IOException ex) {
+			// Unresolvable type -> leave it to class file parsing at runtime.
+			return null;
+		}
+		return Base64.getEncoder().encodeToString(buffer.toByteArray());
+	}
+
+	private void writeClass(TypeElement type, DataOutputStream out) throws IOException {
+		out.writeByte(CLASS);
+		out.writeInt(0);  // class file version not known yet
+		out.writeInt(getClassAccess(type));
+		out.writeUTF(getInternalName(type));
+		writeNullableString(out, getSuperName(type));
+		List<? extends TypeMirror> interfaces = type.getInterfaces();
+		out.writeShort(interfaces.size());
+		for (TypeMirror ifc : interfaces) {
+			out.writeUTF(getInternalName(ifc));
+		}
+
+		if (type.getNestingKind() == NestingKind.MEMBER) {
+			writeInnerClass(type, (TypeElement) type.getEnclosingElement(), out);
+		}
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed instanceof TypeElement) {
+				writeInnerClass((TypeElement) enclosed, type, out);
+			}
+		}
+
+		for (AnnotationMirror annotation : getVisibleAnnotations(type)) {
+			writeAnnotation(annotation, out);
+		}
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed.getKind() == ElementKind.METHOD || enclosed.getKind() == ElementKind.CONSTRUCTOR) {
+				writeMethod((ExecutableElement) enclosed, type, out);
+			}
+		}
+		out.writeByte(END);
+	}
+
+	private void writeInnerClass(TypeElement type, TypeElement outerType, DataOutputStream out) throws IOException {
+		out.writeByte(INNER_CLASS);
+		out.writeUTF(getInternalName(type));
+		writeNullableString(out, getInternalName(outerType));
+		writeNullableString(out, type.getSimpleName().toString());
+		out.writeInt(getInnerClassAccess(type, outerType));
+	}
+
+	private void writeMethod(ExecutableElement method, TypeElement owner, DataOutputStream out) throws IOException {
+		List<AnnotationMirror> annotations = getVisibleAnnotations(method);
+		if (annotations.isEmpty()) {
+			return;
+		}
+		out.writeByte(METHOD);
+		out.writeInt(getMethodAccess(method));
+		out.writeUTF(method.getKind() == ElementKind.CONSTRUCTOR ? "<init>" : method.getSimpleName().toString());
+		out.writeUTF(getMethodDescriptor(method, owner));
+		for (AnnotationMirror annotation : annotations) {
+			writeAnnotation(annotation, out);
+		}
+		out.writeByte(END);
+	}
+
+	private void writeAnnotation(AnnotationMirror annotation, DataOutputStream out) throws IOException {
+		out.writeByte(ANNOTATION);
+		out.writeUTF(getDescriptor(annotation.getAnnotationType()));
+		writeAnnotationValues(annotation, out);
+	}
+
+	private void writeAnnotationValues(AnnotationMirror annotation, DataOutputStream out) throws IOException {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			ExecutableElement attribute = entry.getKey();
+			writeAnnotationValue(attribute.getSimpleName().toString(), attribute.getReturnType(),
+					entry.getValue(), out);
+		}
+		out.writeByte(ANNOTATION_END);
+	}
+
+	private void writeAnnotationValue(String name, TypeMirror attributeType, AnnotationValue annotationValue,
+			DataOutputStream out) throws IOException {
+
+		Object value = annotationValue.getValue();
+		if (value instanceof List) {
+			List<?> elements = (List<?>) value;
+			TypeMirror componentType = (attributeType instanceof ArrayType ?
+					((ArrayType) attributeType).getComponentType() : attributeType);
+			if (!elements.isEmpty() && componentType.getKind().isPrimitive()) {
+				// Non-empty primitive arrays get exposed as a single value by ASM
+				out.writeByte(VALUE);
+				writeNullableString(out, name);
+				writePrimitiveArray(componentType.getKind(), elements, out);
+			}
+			else {
+				out.writeByte(ARRAY);
+				writeNullableString(out, name);
+				for (Object element : elements) {
+					writeAnnotationValue(null, componentType, (AnnotationValue) element, out);
+				}
+				out.writeByte(ANNOTATION_END);
+			}
+		}
+		else if (value instanceof VariableElement) {
+			VariableElement enumConstant = (VariableElement) value;
+			out.writeByte(ENUM);
+			writeNullableString(out, name);
+			out.writeUTF(getDescriptor(enumConstant.getEnclosingElement().asType()));
+			out.writeUTF(enumConstant.getSimpleName().toString());
+		}
+		else if (value instanceof AnnotationMirror) {
+			AnnotationMirror nested = (AnnotationMirror) value;
+			out.writeByte(NESTED_ANNOTATION);
+			writeNullableString(out, name);
+			out.writeUTF(getDescriptor(nested.getAnnotationType()));
+			writeAnnotationValues(nested, out);
+		}
+		else {
+			out.writeByte(VALUE);
+			writeNullableString(out, name);
+			writeScalarValue(value, out);
+		}
+	}
+
+	private void writeScalarValue(Object value, DataOutputStream out) throws IOException {
+		if (value instanceof String) {
+			out.writeByte('s');
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof TypeMirror) {
+			out.writeByte('T');
+			out.writeUTF(getDescriptor((TypeMirror) value));
+		}
+		else if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte('B');
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte('C');
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		}
+		else {
+			throw new IOException("Unsupported annotation value: " + value);
+		}
+	}
+
+	private void writePrimitiveArray(TypeKind componentKind, List<?> elements, DataOutputStream out)
+			throws IOException {
+
+		switch (componentKind) {
+			case INT:
+				out.writeByte('i');
+				break;
+			case LONG:
+				out.writeByte('j');
+				break;
+			case BOOLEAN:
+				out.writeByte('z');
+				break;
+			case BYTE:
+				out.writeByte('b');
+				break;
+			case CHAR:
+				out.writeByte('c');
+				break;
+			case SHORT:
+				out.writeByte('h');
+				break;
+			case FLOAT:
+				out.writeByte('f');
+				break;
+			case DOUBLE:
+				out.writeByte('d');
+				break;
+			default:
+				throw new IOException("Unsupported array component type: " + componentKind);
+		}
+		out.writeInt(elements.size());
+		for (Object element : elements) {
+			Object value = ((AnnotationValue) element).getValue();
+			switch (componentKind) {
+				case INT:
+					out.writeInt((Integer) value);
+					break;
+				case LONG:
+					out.writeLong((Long) value);
+					break;
+				case BOOLEAN:
+					out.writeBoolean((Boolean) value);
+					break;
+				case BYTE:
+					out.writeByte((Byte) value);
+					break;
+				case CHAR:
+					out.writeChar((Character) value);
+					break;
+				case SHORT:
+					out.writeShort((Short) value);
+					break;
+				case FLOAT:
+					out.writeFloat((Float) value);
+					break;
+				default:
+					out.writeDouble((Double) value);
+			}
+		}
+	}
+
+
+	/**
+	 * Return the annotations of the given element that are retained at runtime.
+	 */
+	private List<AnnotationMirror> getVisibleAnnotations(Element element) throws IOException {
+		List<AnnotationMirror> result = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			DeclaredType annotationType = annotation.getAnnotationType();
+			if (annotationType.getKind() == TypeKind.ERROR) {
+				throw new IOException("Unresolvable annotation type: " + annotationType);
+			}
+			Retention retention = annotationType.asElement().getAnnotation(Retention.class);
+			if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+				result.add(annotation);
+			}
+		}
+		return result;
+	}
+
+	private String getSuperName(TypeElement type) throws IOException {
+		if (type.getKind().isInterface()) {
+			return "java/lang/Object";
+		}
+		TypeMirror superclass = type.getSuperclass();
+		return (superclass.getKind() != TypeKind.NONE ? getInternalName(superclass) : null);
+	}
+
+	private String getInternalName(TypeMirror type) throws IOException {
+		TypeMirror erasure = this.types.erasure(type);
+		if (erasure.getKind() != TypeKind.DECLARED) {
+			throw new IOException("Unresolvable type: " + type);
+		}
+		return getInternalName((TypeElement) ((DeclaredType) erasure).asElement());
+	}
+
+	private String getInternalName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString().replace('.', '/');
+	}
+
+	private String getMethodDescriptor(ExecutableElement method, TypeElement owner) throws IOException {
+		StringBuilder descriptor = new StringBuilder("(");
+		if (method.getKind() == ElementKind.CONSTRUCTOR) {
+			if (owner.getKind() == ElementKind.ENUM) {
+				// Implicit name and ordinal parameters
+				descriptor.append("Ljava/lang/String;I");
+			}
+			else if (owner.getNestingKind() == NestingKind.MEMBER &&
+					!owner.getModifiers().contains(Modifier.STATIC)) {
+				// Implicit outer instance parameter
+				descriptor.append(getDescriptor(owner.getEnclosingElement().asType()));
+			}
+		}
+		for (VariableElement parameter : method.getParameters()) {
+			descriptor.append(getDescriptor(parameter.asType()));
+		}
+		descriptor.append(')').append(getDescriptor(method.getReturnType()));
+		return descriptor.toString();
+	}
+
+	private String getDescriptor(TypeMirror type) throws IOException {
+		TypeMirror erasure = this.types.erasure(type);
+		switch (erasure.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case CHAR:
+				return "C";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case VOID:
+				return "V";
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) erasure).getComponentType());
+			case DECLARED:
+				return "L" + getInternalName((TypeElement) ((DeclaredType) erasure).asElement()) + ";";
+			default:
+				throw new IOException("Unresolvable type: " + type);
+		}
+	}
+
+	private static int getClassAccess(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED)) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		return access | getKindAccess(type, modifiers);
+	}
+
+	private static int getInnerClassAccess(TypeElement type, TypeElement outerType) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = getVisibilityAccess(modifiers);
+		if (modifiers.contains(Modifier.STATIC) || type.getKind() != ElementKind.CLASS ||
+				outerType.getKind().isInterface()) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		return access | (getKindAccess(type, modifiers) & ~ACC_SUPER);
+	}
+
+	private static int getKindAccess(TypeElement type, Set<Modifier> modifiers) {
+		switch (type.getKind()) {
+			case ANNOTATION_TYPE:
+				return ACC_ANNOTATION | ACC_INTERFACE | ACC_ABSTRACT;
+			case INTERFACE:
+				return ACC_INTERFACE | ACC_ABSTRACT;
+			case ENUM:
+				return ACC_ENUM | ACC_SUPER;
+			default:
+				return ACC_SUPER | (modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		}
+	}
+
+	private static int getMethodAccess(ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		int access = getVisibilityAccess(modifiers);
+		if (modifiers.contains(Modifier.STATIC)) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.SYNCHRONIZED)) {
+			access |= ACC_SYNCHRONIZED;
+		}
+		if (modifiers.contains(Modifier.NATIVE)) {
+			access |= ACC_NATIVE;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		if (modifiers.contains(Modifier.STRICTFP)) {
+			access |= ACC_STRICT;
+		}
+		if (method.isVarArgs()) {
+			access |= ACC_VARARGS;
+		}
+		return access;
+	}
+
+	private static int getVisibilityAccess(Set<Modifier> modifiers) {
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			return ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.PROTECTED)) {
+			return ACC_PROTECTED;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			return ACC_PRIVATE;
+		}
+		return 0;
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+}
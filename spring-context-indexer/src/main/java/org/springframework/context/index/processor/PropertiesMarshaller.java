@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,13 +39,32 @@ abstract class PropertiesMarshaller {
 		props.store(out, null);
 	}
 
+	public static void writeClassMetadata(CandidateComponentsMetadata metadata, OutputStream out)
+			throws IOException {
+
+		Properties props = new SortedProperties(true);
+		metadata.getItems().stream().filter(m -> m.getClassMetadata() != null)
+				.forEach(m -> props.put(m.getType(), m.getClassMetadata()));
+		props.store(out, null);
+	}
+
 	public static CandidateComponentsMetadata read(InputStream in) throws IOException {
+		return read(in, null);
+	}
+
+	public static CandidateComponentsMetadata read(InputStream in, InputStream classMetadataIn)
+			throws IOException {
+
 		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
 		Properties props = new Properties();
 		props.load(in);
+		Properties classMetadata = new Properties();
+		if (classMetadataIn != null) {
+			classMetadata.load(classMetadataIn);
+		}
 		props.forEach((type, value) -> {
 			Set<String> candidates = new HashSet<>(Arrays.asList(((String) value).split(",")));
-			result.add(new ItemMetadata((String) type, candidates));
+			result.add(new ItemMetadata((String) type, candidates, classMetadata.getProperty((String) type)));
 		});
 		return result;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,15 @@ package org.springframework.context.index.processor;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
@@ -33,6 +41,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
 import org.springframework.context.index.sample.SampleComponent;
@@ -40,6 +53,7 @@ import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleEmbedded;
 import org.springframework.context.index.sample.SampleMetaController;
 import org.springframework.context.index.sample.SampleMetaIndexedController;
+import org.springframework.context.index.sample.SampleMetadataComponent;
 import org.springframework.context.index.sample.SampleNonStaticEmbedded;
 import org.springframework.context.index.sample.SampleNone;
 import org.springframework.context.index.sample.SampleRepository;
@@ -58,6 +72,16 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -218,6 +242,48 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(0);
 	}
 
+	@Test
+	void classMetadataMatchesClassFile() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleMetadataComponent.class);
+		assertSameClassMetadata(metadata, SampleMetadataComponent.class.getName(), SampleMetadataComponent.class);
+	}
+
+	@Test
+	void classMetadataForEmbeddedCandidates() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleEmbedded.class);
+		assertSameClassMetadata(metadata, SampleEmbedded.PublicCandidate.class.getName(),
+				SampleEmbedded.PublicCandidate.class);
+		assertSameClassMetadata(metadata,
+				"org.springframework.context.index.sample.SampleEmbedded.Another$AnotherPublicCandidate",
+				SampleEmbedded.Another.AnotherPublicCandidate.class);
+	}
+
+	@Test
+	void classMetadataUsedForScanning() throws IOException {
+		compile(SampleMetadataComponent.class);
+		URL outputUrl = this.compiler.getOutputLocation().toURI().toURL();
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {outputUrl}, getClass().getClassLoader())) {
+			StandardEnvironment environment = new StandardEnvironment();
+			environment.setActiveProfiles("dev");
+			ClassPathScanningCandidateComponentProvider provider =
+					new ClassPathScanningCandidateComponentProvider(true, environment);
+			provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+			provider.setMetadataReaderFactory(new SimpleMetadataReaderFactory(classLoader) {
+				@Override
+				public MetadataReader getMetadataReader(Resource resource) {
+					throw new IllegalStateException("Unexpected class file access: " + resource);
+				}
+			});
+
+			Set<BeanDefinition> candidates = provider.findCandidateComponents("org.springframework.context.index.sample");
+			assertThat(candidates).hasSize(1);
+			ScannedGenericBeanDefinition candidate = (ScannedGenericBeanDefinition) candidates.iterator().next();
+			assertThat(candidate.getBeanClassName()).isEqualTo(SampleMetadataComponent.class.getName());
+			assertThat(candidate.getMetadata().getAnnotationAttributes(Component.class.getName()))
+					.containsEntry("value", "sampleMetadata");
+		}
+	}
+
 	private void testComponent(Class<?>... classes) {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -232,6 +298,54 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(1);
 	}
 
+	private void assertSameClassMetadata(CandidateComponentsMetadata metadata, String type, Class<?> target)
+			throws IOException {
+
+		ItemMetadata item = metadata.getItems().stream()
+				.filter(candidate -> candidate.getType().equals(type)).findFirst().get();
+		assertThat(item.getClassMetadata()).isNotNull();
+		SimpleMetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory(getClass().getClassLoader());
+		metadataReaderFactory.setPersistentCache(null);
+		AnnotationMetadata actual = metadataReaderFactory.getMetadataReader(
+				Base64.getDecoder().decode(item.getClassMetadata())).getAnnotationMetadata();
+		File classFile = new File(this.compiler.getOutputLocation(),
+				ClassUtils.convertClassNameToResourcePath(target.getName()) + ClassUtils.CLASS_FILE_SUFFIX);
+		AnnotationMetadata expected = metadataReaderFactory.getMetadataReader(
+				new FileSystemResource(classFile)).getAnnotationMetadata();
+
+		assertThat(actual.getClassName()).isEqualTo(expected.getClassName());
+		assertThat(actual.getSuperClassName()).isEqualTo(expected.getSuperClassName());
+		assertThat(actual.getInterfaceNames()).isEqualTo(expected.getInterfaceNames());
+		assertThat(actual.getEnclosingClassName()).isEqualTo(expected.getEnclosingClassName());
+		assertThat(actual.getMemberClassNames()).containsExactlyInAnyOrder(expected.getMemberClassNames());
+		assertThat(actual.isIndependent()).isEqualTo(expected.isIndependent());
+		assertThat(actual.isInterface()).isEqualTo(expected.isInterface());
+		assertThat(actual.isAbstract()).isEqualTo(expected.isAbstract());
+		assertThat(actual.isFinal()).isEqualTo(expected.isFinal());
+		assertThat(actual.getAnnotationTypes()).isEqualTo(expected.getAnnotationTypes());
+		assertThat(synthesize(actual.getAnnotations())).isEqualTo(synthesize(expected.getAnnotations()));
+		for (MethodMetadata expectedMethod : expected.getAnnotatedMethods(Autowired.class.getName())) {
+			assertSameMethodMetadata(actual.getAnnotatedMethods(Autowired.class.getName()), expectedMethod);
+		}
+		for (MethodMetadata expectedMethod : expected.getAnnotatedMethods(Bean.class.getName())) {
+			assertSameMethodMetadata(actual.getAnnotatedMethods(Bean.class.getName()), expectedMethod);
+		}
+	}
+
+	private void assertSameMethodMetadata(Set<MethodMetadata> actualMethods, MethodMetadata expected) {
+		MethodMetadata actual = actualMethods.stream()
+				.filter(method -> method.getMethodName().equals(expected.getMethodName())).findFirst().get();
+		assertThat(actual.getReturnTypeName()).isEqualTo(expected.getReturnTypeName());
+		assertThat(actual.isStatic()).isEqualTo(expected.isStatic());
+		assertThat(actual.isAbstract()).isEqualTo(expected.isAbstract());
+		assertThat(actual.isOverridable()).isEqualTo(expected.isOverridable());
+		assertThat(synthesize(actual.getAnnotations())).isEqualTo(synthesize(expected.getAnnotations()));
+	}
+
+	private static List<Annotation> synthesize(MergedAnnotations annotations) {
+		return annotations.stream().map(MergedAnnotation::synthesize).collect(Collectors.toList());
+	}
+
 	private CandidateComponentsMetadata compile(Class<?>... types) {
 		CandidateComponentsIndexer processor = new CandidateComponentsIndexer();
 		this.compiler.getTask(types).call(processor);
@@ -246,9 +360,12 @@ class CandidateComponentsIndexerTests {
 
 	private CandidateComponentsMetadata readGeneratedMetadata(File outputLocation) {
 		File metadataFile = new File(outputLocation, MetadataStore.METADATA_PATH);
+		File classMetadataFile = new File(outputLocation, MetadataStore.CLASS_METADATA_PATH);
 		if (metadataFile.isFile()) {
-			try (FileInputStream fileInputStream = new FileInputStream(metadataFile)) {
-				CandidateComponentsMetadata metadata = PropertiesMarshaller.read(fileInputStream);
+			try (FileInputStream fileInputStream = new FileInputStream(metadataFile);
+					InputStream classMetadataInputStream = (classMetadataFile.isFile() ?
+							new FileInputStream(classMetadataFile) : null)) {
+				CandidateComponentsMetadata metadata = PropertiesMarshaller.read(fileInputStream, classMetadataInputStream);
 				return metadata;
 			}
 			catch (IOException ex) {
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Test candidate with a variety of annotations, for checking its indexed
+ * class metadata.
+ */
+@Component("sampleMetadata")
+@Lazy
+@DependsOn({"one", "two"})
+@Profile("dev")
+@PropertySource("classpath:one.properties")
+@PropertySource("classpath:two.properties")
+@SampleMetadataComponent.Attributes(numbers = {1, 2}, flags = {}, letter = 'y', type = String[].class,
+		policy = RetentionPolicy.CLASS, nested = @Component("nested"))
+@SampleMetadataComponent.Invisible("ignored")
+public class SampleMetadataComponent implements Serializable {
+
+	@Autowired
+	public SampleMetadataComponent(String name) {
+	}
+
+	@Bean(initMethod = "init")
+	public static <T extends Number> List<T> sampleBean(T[] values, int count) {
+		return null;
+	}
+
+	public void plainMethod() {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public @interface Attributes {
+
+		int[] numbers() default {};
+
+		boolean[] flags() default true;
+
+		char letter() default 'x';
+
+		Class<?> type() default Object.class;
+
+		RetentionPolicy policy() default RetentionPolicy.RUNTIME;
+
+		Component nested() default @Component;
+	}
+
+
+	@Retention(RetentionPolicy.CLASS)
+	public @interface Invisible {
+
+		String value();
+	}
+
+
+	public static class Inner {
+	}
+
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinitionReader;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.Conventions;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Bean definition reader for snapshots written by {@link BeanDefinitionSnapshotWriter},
+ * registering the pre-processed bean definitions as-is. Configuration class parsing,
+ * component scanning and factory method candidate resolution are skipped for
+ * all bean definitions loaded from a snapshot.
+ *
+ * <p>Typical usage with a {@link org.springframework.context.support.GenericApplicationContext}:
+ *
+ * <pre class="code">
+ * GenericApplicationContext ctx = new GenericApplicationContext();
+ * new BeanDefinitionSnapshotReader(ctx).loadBeanDefinitions(new ClassPathResource("beans.snapshot"));
+ * ctx.refresh();</pre>
+ *
+ * <p>{@link ConfigurationClassPostProcessor} remains part of the loaded bean
+ * definitions: it still enhances {@link Configuration @Configuration} classes at
+ * runtime and processes any further configuration classes registered next to the
+ * snapshot, but it does not parse the snapshot's bean definitions again.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see BeanDefinitionSnapshotWriter
+ */
+public class BeanDefinitionSnapshotReader extends AbstractBeanDefinitionReader {
+
+	/**
+	 * Attribute marking a bean definition as loaded from a snapshot, indicating
+	 * that it does not have to be checked for configuration class candidacy again.
+	 */
+	static final String SNAPSHOT_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(BeanDefinitionSnapshotReader.class, "snapshot");
+
+
+	/**
+	 * Create a new {@code BeanDefinitionSnapshotReader} for the given registry.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public BeanDefinitionSnapshotReader(BeanDefinitionRegistry registry) {
+		super(registry);
+	}
+
+
+	@Override
+	public int loadBeanDefinitions(Resource resource) throws BeanDefinitionStoreException {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Loading bean definition snapshot from " + resource);
+		}
+		try (InputStream is = resource.getInputStream()) {
+			int count = loadBeanDefinitions(is, resource.getDescription());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " bean definitions from snapshot " + resource);
+			}
+			return count;
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("Could not read bean definition snapshot from " + resource, ex);
+		}
+	}
+
+	/**
+	 * Load bean definitions from the given snapshot stream.
+	 * <p>The stream will not be closed by this method.
+	 * @param is the stream to read the snapshot from
+	 * @param resourceDescription description of the snapshot source (for error messages)
+	 * @return the number of bean definitions found
+	 * @throws IOException in case of I/O errors or an unsupported snapshot format
+	 */
+	public int loadBeanDefinitions(InputStream is, @Nullable String resourceDescription) throws IOException {
+		DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+		if (dis.readInt() != BeanDefinitionSnapshotWriter.MAGIC) {
+			throw new IOException("Not a bean definition snapshot: " + resourceDescription);
+		}
+		int version = dis.readInt();
+		if (version != BeanDefinitionSnapshotWriter.VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version " + version +
+					": " + resourceDescription);
+		}
+
+		BeanDefinitionRegistry registry = getRegistry();
+		int count = dis.readInt();
+		for (int i = 0; i < count; i++) {
+			BeanDefinitionHolder holder = readBeanDefinitionHolder(dis);
+			holder.getBeanDefinition().setAttribute(SNAPSHOT_ATTRIBUTE, Boolean.TRUE);
+			registry.registerBeanDefinition(holder.getBeanName(), holder.getBeanDefinition());
+			String[] aliases = holder.getAliases();
+			if (aliases != null) {
+				for (String alias : aliases) {
+					registry.registerAlias(holder.getBeanName(), alias);
+				}
+			}
+		}
+
+		if (registry.containsBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+			// Captured from an annotation-based context -> apply the corresponding
+			// autowire candidate resolver and dependency comparator as well.
+			AnnotationConfigUtils.registerAnnotationConfigProcessors(registry);
+		}
+
+		int importCount = dis.readInt();
+		if (importCount > 0) {
+			SnapshotImportRegistry importRegistry = obtainImportRegistry();
+			for (int i = 0; i < importCount; i++) {
+				importRegistry.registerImport(dis.readUTF(), dis.readUTF());
+			}
+		}
+		return count;
+	}
+
+	private BeanDefinitionHolder readBeanDefinitionHolder(DataInputStream dis) throws IOException {
+		String[] aliases = readStrings(dis);
+		String beanName = dis.readUTF();
+		String parentName = readString(dis);
+		AbstractBeanDefinition bd = (parentName != null ? new GenericBeanDefinition() : new RootBeanDefinition());
+		if (parentName != null) {
+			bd.setParentName(parentName);
+		}
+		bd.setBeanClassName(readString(dis));
+		bd.setScope(readString(dis));
+		byte lazyInit = dis.readByte();
+		if (lazyInit >= 0) {
+			bd.setLazyInit(lazyInit == 1);
+		}
+		bd.setAbstract(dis.readBoolean());
+		bd.setPrimary(dis.readBoolean());
+		bd.setAutowireCandidate(dis.readBoolean());
+		bd.setSynthetic(dis.readBoolean());
+		bd.setNonPublicAccessAllowed(dis.readBoolean());
+		bd.setLenientConstructorResolution(dis.readBoolean());
+		bd.setAutowireMode(dis.readInt());
+		bd.setDependencyCheck(dis.readInt());
+		bd.setRole(dis.readInt());
+		bd.setDependsOn(readStrings(dis));
+
+		bd.setFactoryBeanName(readString(dis));
+		bd.setFactoryMethodName(readString(dis));
+		if (dis.readBoolean()) {
+			String declaringClassName = dis.readUTF();
+			String[] parameterTypeNames = new String[dis.readInt()];
+			for (int i = 0; i < parameterTypeNames.length; i++) {
+				parameterTypeNames[i] = dis.readUTF();
+			}
+			Method factoryMethod = resolveFactoryMethod(declaringClassName, bd.getFactoryMethodName(), parameterTypeNames);
+			if (factoryMethod != null && bd instanceof RootBeanDefinition) {
+				RootBeanDefinition rbd = (RootBeanDefinition) bd;
+				rbd.setUniqueFactoryMethodName(factoryMethod.getName());
+				rbd.setResolvedFactoryMethod(factoryMethod);
+			}
+		}
+
+		bd.setInitMethodName(readString(dis));
+		bd.setEnforceInitMethod(dis.readBoolean());
+		bd.setDestroyMethodName(readString(dis));
+		bd.setEnforceDestroyMethod(dis.readBoolean());
+		bd.setDescription(readString(dis));
+		bd.setResourceDescription(readString(dis));
+
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		int indexedArgCount = dis.readInt();
+		for (int i = 0; i < indexedArgCount; i++) {
+			int index = dis.readInt();
+			cargs.addIndexedArgumentValue(index, readValueHolder(dis));
+		}
+		int genericArgCount = dis.readInt();
+		for (int i = 0; i < genericArgCount; i++) {
+			cargs.addGenericArgumentValue(readValueHolder(dis));
+		}
+
+		int propertyCount = dis.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			bd.getPropertyValues().add(dis.readUTF(), readValue(dis));
+		}
+
+		int attributeCount = dis.readInt();
+		for (int i = 0; i < attributeCount; i++) {
+			bd.setAttribute(dis.readUTF(), readValue(dis));
+		}
+
+		if (dis.readBoolean()) {
+			BeanDefinitionHolder decoratedDefinition = readBeanDefinitionHolder(dis);
+			if (bd instanceof RootBeanDefinition) {
+				((RootBeanDefinition) bd).setDecoratedDefinition(decoratedDefinition);
+			}
+		}
+		return new BeanDefinitionHolder(bd, beanName, aliases);
+	}
+
+	@Nullable
+	private Method resolveFactoryMethod(String declaringClassName, @Nullable String methodName,
+			String[] parameterTypeNames) {
+
+		if (methodName == null) {
+			return null;
+		}
+		try {
+			ClassLoader classLoader = getResolvingClassLoader();
+			Class<?> declaringClass = ClassUtils.forName(declaringClassName, classLoader);
+			Class<?>[] parameterTypes = new Class<?>[parameterTypeNames.length];
+			for (int i = 0; i < parameterTypeNames.length; i++) {
+				parameterTypes[i] = ClassUtils.forName(parameterTypeNames[i], classLoader);
+			}
+			return ReflectionUtils.findMethod(declaringClass, methodName, parameterTypes);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			// Fall back to regular factory method resolution at runtime.
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not resolve factory method '" + methodName + "' on class [" +
+						declaringClassName + "] from snapshot: " + ex);
+			}
+			return null;
+		}
+	}
+
+	private ConstructorArgumentValues.ValueHolder readValueHolder(DataInputStream dis) throws IOException {
+		Object value = readValue(dis);
+		return new ConstructorArgumentValues.ValueHolder(value, readString(dis), readString(dis));
+	}
+
+	@Nullable
+	private Object readValue(DataInputStream dis) throws IOException {
+		byte type = dis.readByte();
+		switch (type) {
+			case BeanDefinitionSnapshotWriter.NULL_VALUE:
+				return null;
+			case BeanDefinitionSnapshotWriter.STRING_VALUE:
+				return dis.readUTF();
+			case BeanDefinitionSnapshotWriter.TYPED_STRING_VALUE:
+				String value = readString(dis);
+				String targetTypeName = readString(dis);
+				return (targetTypeName != null ?
+						new TypedStringValue(value, targetTypeName) : new TypedStringValue(value));
+			case BeanDefinitionSnapshotWriter.BEAN_REFERENCE_VALUE:
+				return new RuntimeBeanReference(dis.readUTF(), dis.readBoolean());
+			case BeanDefinitionSnapshotWriter.BEAN_NAME_REFERENCE_VALUE:
+				return new RuntimeBeanNameReference(dis.readUTF());
+			case BeanDefinitionSnapshotWriter.BOOLEAN_VALUE:
+				return dis.readBoolean();
+			case BeanDefinitionSnapshotWriter.INTEGER_VALUE:
+				return dis.readInt();
+			case BeanDefinitionSnapshotWriter.LONG_VALUE:
+				return dis.readLong();
+			case BeanDefinitionSnapshotWriter.CLASS_VALUE:
+				String className = dis.readUTF();
+				try {
+					return ClassUtils.forName(className, getResolvingClassLoader());
+				}
+				catch (ClassNotFoundException ex) {
+					throw new IOException("Class [" + className + "] referenced in snapshot not found", ex);
+				}
+			default:
+				throw new IOException("Unknown value type in bean definition snapshot: " + type);
+		}
+	}
+
+	private ClassLoader getResolvingClassLoader() {
+		ClassLoader classLoader = getBeanClassLoader();
+		if (classLoader == null && getResourceLoader() != null) {
+			classLoader = getResourceLoader().getClassLoader();
+		}
+		return (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Obtain the import registry to populate for {@link ImportAware} beans,
+	 * registering a new one with the underlying bean factory if necessary.
+	 */
+	private SnapshotImportRegistry obtainImportRegistry() {
+		BeanDefinitionRegistry registry = getRegistry();
+		SingletonBeanRegistry sbr = (registry instanceof SingletonBeanRegistry ? (SingletonBeanRegistry) registry :
+				AnnotationConfigUtils.unwrapDefaultListableBeanFactory(registry));
+		if (sbr == null) {
+			return new SnapshotImportRegistry(getResolvingClassLoader());
+		}
+		Object existing = sbr.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		if (existing instanceof SnapshotImportRegistry) {
+			return (SnapshotImportRegistry) existing;
+		}
+		SnapshotImportRegistry importRegistry = new SnapshotImportRegistry(getResolvingClassLoader());
+		sbr.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME, importRegistry);
+		return importRegistry;
+	}
+
+	@Nullable
+	private static String readString(DataInputStream dis) throws IOException {
+		return (dis.readBoolean() ? dis.readUTF() : null);
+	}
+
+	@Nullable
+	private static String[] readStrings(DataInputStream dis) throws IOException {
+		int length = dis.readInt();
+		if (length < 0) {
+			return null;
+		}
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = dis.readUTF();
+		}
+		return values;
+	}
+
+
+	/**
+	 * {@link ImportRegistry} backed by the importing class names captured in a
+	 * snapshot, introspecting an importing class only once it is actually requested.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final ClassLoader classLoader;
+
+		private final Map<String, String> importingClassNames = new ConcurrentHashMap<>();
+
+		public SnapshotImportRegistry(ClassLoader classLoader) {
+			this.classLoader = classLoader;
+		}
+
+		public void registerImport(String importedClass, String importingClass) {
+			this.importingClassNames.put(importedClass, importingClass);
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClassName = this.importingClassNames.get(importedClass);
+			if (importingClassName == null) {
+				return null;
+			}
+			try {
+				return AnnotationMetadata.introspect(ClassUtils.forName(importingClassName, this.classLoader));
+			}
+			catch (ClassNotFoundException ex) {
+				throw new IllegalStateException("Importing class [" + importingClassName + "] not found", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClassNames.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
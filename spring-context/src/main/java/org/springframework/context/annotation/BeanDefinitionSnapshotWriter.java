@@ -0,0 +1,390 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Build-time counterpart of {@link BeanDefinitionSnapshotReader}: runs the
+ * configuration class phase against a not-yet-refreshed
+ * {@link GenericApplicationContext} and writes the resulting bean definitions
+ * in a compact binary format.
+ *
+ * <p>The snapshot captures the outcome of {@link ConfigurationClassPostProcessor}
+ * processing, i.e. all bean definitions derived from component scanning,
+ * {@link Import @Import} declarations and {@link Bean @Bean} methods, including
+ * the unique factory method to invoke for each {@code @Bean} definition where
+ * applicable. Regular {@code BeanFactoryPostProcessors} (e.g. for placeholder
+ * resolution) are not applied. Note however that {@link Profile @Profile} and
+ * {@link Conditional @Conditional} declarations are evaluated at build time,
+ * against the environment of the given context, and their outcome is part of
+ * the snapshot: a snapshot is therefore specific to the active profiles and
+ * conditions at build time, and needs to be written again for a different
+ * runtime environment.
+ *
+ * <p>Supported bean definition content is limited to what annotation-based
+ * configuration typically produces: plain and typed String values, bean references,
+ * primitive wrapper values and class references. Bean definitions with instance
+ * suppliers, method overrides or explicit qualifiers are rejected with an
+ * {@link IllegalStateException}.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see BeanDefinitionSnapshotReader
+ */
+public class BeanDefinitionSnapshotWriter {
+
+	static final int MAGIC = 0x53424453;
+
+	static final int VERSION = 1;
+
+	static final byte NULL_VALUE = 0;
+
+	static final byte STRING_VALUE = 1;
+
+	static final byte TYPED_STRING_VALUE = 2;
+
+	static final byte BEAN_REFERENCE_VALUE = 3;
+
+	static final byte BEAN_NAME_REFERENCE_VALUE = 4;
+
+	static final byte BOOLEAN_VALUE = 5;
+
+	static final byte INTEGER_VALUE = 6;
+
+	static final byte LONG_VALUE = 7;
+
+	static final byte CLASS_VALUE = 8;
+
+
+	private final GenericApplicationContext context;
+
+
+	/**
+	 * Create a new {@code BeanDefinitionSnapshotWriter} for the given context.
+	 * @param context the context holding the bean definitions to capture
+	 * (typically with configuration classes registered, but not refreshed yet)
+	 */
+	public BeanDefinitionSnapshotWriter(GenericApplicationContext context) {
+		Assert.notNull(context, "GenericApplicationContext must not be null");
+		this.context = context;
+	}
+
+
+	/**
+	 * Process the configuration classes of the underlying context and write
+	 * the resulting bean definitions to the given stream.
+	 * <p>The stream will not be closed by this method.
+	 * @param out the stream to write to
+	 * @return the number of bean definitions written
+	 * @throws IOException in case of I/O errors
+	 * @throws IllegalStateException if the context has been refreshed already or
+	 * if one of its bean definitions cannot be represented in a snapshot
+	 */
+	public int write(OutputStream out) throws IOException {
+		Assert.state(!this.context.isActive(), "Cannot capture snapshot of an active ApplicationContext");
+		DefaultListableBeanFactory beanFactory = this.context.getDefaultListableBeanFactory();
+		processConfigurationClasses(beanFactory);
+
+		String[] beanNames = beanFactory.getBeanDefinitionNames();
+		Map<String, String> importingClasses = determineImportingClasses(beanFactory, beanNames);
+
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+		dos.writeInt(beanNames.length);
+		for (String beanName : beanNames) {
+			writeStrings(dos, beanFactory.getAliases(beanName));
+			writeBeanDefinition(dos, beanFactory, beanName, beanFactory.getBeanDefinition(beanName));
+		}
+		dos.writeInt(importingClasses.size());
+		for (Map.Entry<String, String> entry : importingClasses.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeUTF(entry.getValue());
+		}
+		dos.flush();
+		return beanNames.length;
+	}
+
+	/**
+	 * Apply all {@link ConfigurationClassPostProcessor} definitions registered
+	 * in the given bean factory, with the context's environment and resource loader.
+	 */
+	private void processConfigurationClasses(DefaultListableBeanFactory beanFactory) {
+		String[] ppNames = beanFactory.getBeanNamesForType(ConfigurationClassPostProcessor.class, true, false);
+		for (String ppName : ppNames) {
+			ConfigurationClassPostProcessor pp = beanFactory.getBean(ppName, ConfigurationClassPostProcessor.class);
+			pp.setEnvironment(this.context.getEnvironment());
+			pp.setResourceLoader(this.context);
+			pp.processConfigBeanDefinitions(beanFactory);
+		}
+	}
+
+	/**
+	 * Determine the importing class for each bean class that has been imported,
+	 * in order to support {@link ImportAware} beans at runtime.
+	 */
+	private Map<String, String> determineImportingClasses(DefaultListableBeanFactory beanFactory, String[] beanNames) {
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		Object registry = beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		if (registry instanceof ImportRegistry) {
+			ImportRegistry importRegistry = (ImportRegistry) registry;
+			for (String beanName : beanNames) {
+				String className = beanFactory.getBeanDefinition(beanName).getBeanClassName();
+				if (className != null) {
+					AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+					if (importingClass != null) {
+						importingClasses.put(className, importingClass.getClassName());
+					}
+				}
+			}
+		}
+		return importingClasses;
+	}
+
+	private void writeBeanDefinition(DataOutputStream dos, DefaultListableBeanFactory beanFactory,
+			String beanName, BeanDefinition bd) throws IOException {
+
+		if (!(bd instanceof AbstractBeanDefinition)) {
+			throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+					"' since it is not an AbstractBeanDefinition: " + bd);
+		}
+		AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+		if (abd.getInstanceSupplier() != null) {
+			throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+					"' with an instance supplier: " + bd);
+		}
+		if (abd.hasMethodOverrides() || !abd.getQualifiers().isEmpty()) {
+			throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+					"' with method overrides or qualifiers: " + bd);
+		}
+
+		dos.writeUTF(beanName);
+		writeString(dos, abd.getParentName());
+		writeString(dos, abd.getBeanClassName());
+		writeString(dos, abd.getScope());
+		Boolean lazyInit = abd.getLazyInit();
+		dos.writeByte(lazyInit != null ? (lazyInit ? 1 : 0) : -1);
+		dos.writeBoolean(abd.isAbstract());
+		dos.writeBoolean(abd.isPrimary());
+		dos.writeBoolean(abd.isAutowireCandidate());
+		dos.writeBoolean(abd.isSynthetic());
+		dos.writeBoolean(abd.isNonPublicAccessAllowed());
+		dos.writeBoolean(abd.isLenientConstructorResolution());
+		dos.writeInt(abd.getAutowireMode());
+		dos.writeInt(abd.getDependencyCheck());
+		dos.writeInt(abd.getRole());
+		writeStrings(dos, abd.getDependsOn());
+
+		writeString(dos, abd.getFactoryBeanName());
+		writeString(dos, abd.getFactoryMethodName());
+		Method factoryMethod = determineUniqueFactoryMethod(beanFactory, abd);
+		dos.writeBoolean(factoryMethod != null);
+		if (factoryMethod != null) {
+			dos.writeUTF(factoryMethod.getDeclaringClass().getName());
+			Class<?>[] parameterTypes = factoryMethod.getParameterTypes();
+			dos.writeInt(parameterTypes.length);
+			for (Class<?> parameterType : parameterTypes) {
+				dos.writeUTF(parameterType.getName());
+			}
+		}
+
+		writeString(dos, abd.getInitMethodName());
+		dos.writeBoolean(abd.isEnforceInitMethod());
+		writeString(dos, abd.getDestroyMethodName());
+		dos.writeBoolean(abd.isEnforceDestroyMethod());
+		writeString(dos, abd.getDescription());
+		writeString(dos, abd.getResourceDescription());
+
+		ConstructorArgumentValues cargs = abd.getConstructorArgumentValues();
+		Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+		dos.writeInt(indexedArgs.size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexedArgs.entrySet()) {
+			dos.writeInt(entry.getKey());
+			writeValueHolder(dos, beanName, entry.getValue());
+		}
+		List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+		dos.writeInt(genericArgs.size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : genericArgs) {
+			writeValueHolder(dos, beanName, valueHolder);
+		}
+
+		PropertyValue[] pvs = abd.getPropertyValues().getPropertyValues();
+		dos.writeInt(pvs.length);
+		for (PropertyValue pv : pvs) {
+			dos.writeUTF(pv.getName());
+			writeValue(dos, beanName, pv.getValue());
+		}
+
+		String[] attributeNames = abd.attributeNames();
+		dos.writeInt(attributeNames.length);
+		for (String attributeName : attributeNames) {
+			dos.writeUTF(attributeName);
+			writeValue(dos, beanName, abd.getAttribute(attributeName));
+		}
+
+		BeanDefinitionHolder decoratedDefinition = (bd instanceof RootBeanDefinition ?
+				((RootBeanDefinition) bd).getDecoratedDefinition() : null);
+		dos.writeBoolean(decoratedDefinition != null);
+		if (decoratedDefinition != null) {
+			writeStrings(dos, decoratedDefinition.getAliases());
+			writeBeanDefinition(dos, beanFactory, decoratedDefinition.getBeanName(),
+					decoratedDefinition.getBeanDefinition());
+		}
+	}
+
+	/**
+	 * Determine the factory method for the given bean definition if it can be
+	 * identified unambiguously, so that it does not have to be resolved among
+	 * overloaded candidates at runtime.
+	 */
+	@Nullable
+	private Method determineUniqueFactoryMethod(DefaultListableBeanFactory beanFactory, AbstractBeanDefinition bd) {
+		String factoryMethodName = bd.getFactoryMethodName();
+		if (factoryMethodName == null) {
+			return null;
+		}
+		if (bd instanceof RootBeanDefinition) {
+			Method resolvedFactoryMethod = ((RootBeanDefinition) bd).getResolvedFactoryMethod();
+			if (resolvedFactoryMethod != null) {
+				return resolvedFactoryMethod;
+			}
+		}
+		try {
+			Class<?> factoryClass;
+			boolean isStatic;
+			if (bd.getFactoryBeanName() != null) {
+				factoryClass = beanFactory.getType(bd.getFactoryBeanName(), false);
+				isStatic = false;
+			}
+			else {
+				String className = bd.getBeanClassName();
+				factoryClass = (className != null ?
+						ClassUtils.forName(className, this.context.getClassLoader()) : null);
+				isStatic = true;
+			}
+			if (factoryClass == null) {
+				return null;
+			}
+			Method[] candidates = ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(factoryClass),
+					method -> method.getName().equals(factoryMethodName));
+			if (candidates.length == 1 && Modifier.isStatic(candidates[0].getModifiers()) == isStatic) {
+				return candidates[0];
+			}
+		}
+		catch (ClassNotFoundException | LinkageError | BeansException | IllegalStateException ex) {
+			// Factory class not resolvable or introspectable at build time -> leave resolution to runtime.
+		}
+		return null;
+	}
+
+	private void writeValueHolder(DataOutputStream dos, String beanName,
+			ConstructorArgumentValues.ValueHolder valueHolder) throws IOException {
+
+		writeValue(dos, beanName, valueHolder.getValue());
+		writeString(dos, valueHolder.getType());
+		writeString(dos, valueHolder.getName());
+	}
+
+	private void writeValue(DataOutputStream dos, String beanName, @Nullable Object value) throws IOException {
+		if (value == null) {
+			dos.writeByte(NULL_VALUE);
+		}
+		else if (value instanceof String) {
+			dos.writeByte(STRING_VALUE);
+			dos.writeUTF((String) value);
+		}
+		else if (value instanceof TypedStringValue && !((TypedStringValue) value).isDynamic()) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			dos.writeByte(TYPED_STRING_VALUE);
+			writeString(dos, typedValue.getValue());
+			writeString(dos, typedValue.getTargetTypeName());
+		}
+		else if (value instanceof RuntimeBeanReference && ((RuntimeBeanReference) value).getBeanType() == null) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			dos.writeByte(BEAN_REFERENCE_VALUE);
+			dos.writeUTF(reference.getBeanName());
+			dos.writeBoolean(reference.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			dos.writeByte(BEAN_NAME_REFERENCE_VALUE);
+			dos.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof Boolean) {
+			dos.writeByte(BOOLEAN_VALUE);
+			dos.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			dos.writeByte(INTEGER_VALUE);
+			dos.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			dos.writeByte(LONG_VALUE);
+			dos.writeLong((Long) value);
+		}
+		else if (value instanceof Class) {
+			dos.writeByte(CLASS_VALUE);
+			dos.writeUTF(((Class<?>) value).getName());
+		}
+		else {
+			throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+					"' with value of type [" + value.getClass().getName() + "]: " + value);
+		}
+	}
+
+	private static void writeString(DataOutputStream dos, @Nullable String value) throws IOException {
+		dos.writeBoolean(value != null);
+		if (value != null) {
+			dos.writeUTF(value);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream dos, @Nullable String[] values) throws IOException {
+		dos.writeInt(values != null ? values.length : -1);
+		if (values != null) {
+			for (String value : values) {
+				dos.writeUTF(value);
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,17 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,8 +52,10 @@ import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.ConstantPoolFilter;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.TypeFilter;
@@ -59,6 +67,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * A component provider that provides candidate components from a base package. Can
@@ -88,6 +97,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/** Number of class resources per task when scanning in parallel. */
+	private static final int PARALLEL_SCAN_CHUNK_SIZE = 64;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -112,6 +124,11 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private Executor scanExecutor;
+
+	private boolean useConstantPoolFilter = true;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -301,6 +318,59 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Set an {@link Executor} for reading and filtering the class files of a
+	 * classpath scan in parallel, in chunks of class resources per task.
+	 * The resulting candidate components and their order are the same as
+	 * for a sequential scan; chunks rejected by the Executor get processed
+	 * in the calling thread.
+	 * <p>Note that custom type filters, {@code @Conditional} conditions and
+	 * overridden {@code isCandidateComponent} methods need to be thread-safe
+	 * in such a scenario, as does a custom {@link MetadataReaderFactory}.
+	 * <p>Default is none, scanning the class files in the calling thread.
+	 * This setting does not apply to candidates from a components index.
+	 * @since 5.3.10
+	 * @see #findCandidateComponents(String)
+	 */
+	public void setScanExecutor(@Nullable Executor scanExecutor) {
+		this.scanExecutor = scanExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for parallel classpath scanning, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public Executor getScanExecutor() {
+		return this.scanExecutor;
+	}
+
+	/**
+	 * Set whether to check the constant pool of every scanned class file for
+	 * the annotations required by the include filters before building its
+	 * full {@link MetadataReader}, skipping classes which cannot match early.
+	 * <p>Default is "true". The check only applies if all include filters are
+	 * plain {@link AnnotationTypeFilter AnnotationTypeFilters} for non-inherited
+	 * annotations, if {@link #isCandidateComponent(MetadataReader)} is not
+	 * overridden, and if the {@link MetadataReaderFactory} reads class files
+	 * through a {@link SimpleMetadataReaderFactory}; otherwise, every class
+	 * file goes through the regular metadata reading step.
+	 * @since 5.3.10
+	 * @see ConstantPoolFilter
+	 */
+	public void setUseConstantPoolFilter(boolean useConstantPoolFilter) {
+		this.useConstantPoolFilter = useConstantPoolFilter;
+	}
+
+	/**
+	 * Return whether to check the constant pool of scanned class files
+	 * before building their full metadata.
+	 * @since 5.3.10
+	 */
+	public boolean isUseConstantPoolFilter() {
+		return this.useConstantPoolFilter;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -383,7 +453,7 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
 			for (String type : types) {
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				MetadataReader metadataReader = getIndexedMetadataReader(index, type);
 				if (isCandidateComponent(metadataReader)) {
 					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 					sbd.setSource(metadataReader.getResource());
@@ -412,58 +482,195 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Obtain a MetadataReader for the given indexed type, building it from the
+	 * class metadata precomputed in the index where possible, falling back to
+	 * reading the class file otherwise.
+	 * @see CandidateComponentsIndex#getClassMetadata(String)
+	 */
+	private MetadataReader getIndexedMetadataReader(CandidateComponentsIndex index, String type) throws IOException {
+		MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+		if (metadataReaderFactory instanceof SimpleMetadataReaderFactory) {
+			byte[] classMetadata = index.getClassMetadata(type);
+			if (classMetadata != null) {
+				try {
+					return ((SimpleMetadataReaderFactory) metadataReaderFactory).getMetadataReader(classMetadata);
+				}
+				catch (IOException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring malformed class metadata from index for " + type + ": " + ex);
+					}
+				}
+			}
+		}
+		return metadataReaderFactory.getMetadataReader(type);
+	}
+
 	private Set<BeanDefinition> scanCandidateComponents(String basePackage) {
 		Set<BeanDefinition> candidates = new LinkedHashSet<>();
 		try {
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			ConstantPoolFilter constantPoolFilter = (this.useConstantPoolFilter ? buildConstantPoolFilter() : null);
+			if (this.scanExecutor != null && resources.length > PARALLEL_SCAN_CHUNK_SIZE) {
+				scanCandidateComponentsInParallel(resources, constantPoolFilter, this.scanExecutor, candidates);
+			}
+			else {
+				for (Resource resource : resources) {
+					scanCandidateComponent(resource, constantPoolFilter, candidates);
 				}
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Split the given class resources into chunks and scan them through the
+	 * given Executor, collecting the candidates in the original resource order.
+	 */
+	private void scanCandidateComponentsInParallel(Resource[] resources,
+			@Nullable ConstantPoolFilter constantPoolFilter, Executor executor, Set<BeanDefinition> candidates) {
+
+		// Initialize lazily created shared state before going concurrent.
+		getMetadataReaderFactory();
+		if (this.conditionEvaluator == null) {
+			this.conditionEvaluator =
+					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+		}
+
+		List<FutureTask<List<BeanDefinition>>> chunks =
+				new ArrayList<>(resources.length / PARALLEL_SCAN_CHUNK_SIZE + 1);
+		for (int offset = 0; offset < resources.length; offset += PARALLEL_SCAN_CHUNK_SIZE) {
+			int start = offset;
+			int end = Math.min(offset + PARALLEL_SCAN_CHUNK_SIZE, resources.length);
+			FutureTask<List<BeanDefinition>> chunk = new FutureTask<>(() -> {
+				List<BeanDefinition> chunkCandidates = new ArrayList<>();
+				for (int i = start; i < end; i++) {
+					scanCandidateComponent(resources[i], constantPoolFilter, chunkCandidates);
+				}
+				return chunkCandidates;
+			});
+			chunks.add(chunk);
+			try {
+				executor.execute(chunk);
+			}
+			catch (RejectedExecutionException ex) {
+				chunk.run();
+			}
+		}
+
+		for (FutureTask<List<BeanDefinition>> chunk : chunks) {
+			try {
+				candidates.addAll(chunk.get());
+			}
+			catch (ExecutionException ex) {
+				chunks.forEach(remaining -> remaining.cancel(false));
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new BeanDefinitionStoreException("Failed to scan candidate component classes", cause);
+			}
+			catch (InterruptedException ex) {
+				chunks.forEach(remaining -> remaining.cancel(false));
+				Thread.currentThread().interrupt();
+				throw new BeanDefinitionStoreException("Interrupted during parallel classpath scanning", ex);
+			}
+		}
+	}
+
+	/**
+	 * Check the given class resource and add a corresponding bean definition
+	 * to the given candidates if it qualifies as a candidate component.
+	 */
+	private void scanCandidateComponent(Resource resource,
+			@Nullable ConstantPoolFilter constantPoolFilter, Collection<BeanDefinition> candidates) {
+
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		if (resource.isReadable()) {
+			try {
+				if (constantPoolFilter != null && !constantPoolFilter.matches(resource)) {
+					if (traceEnabled) {
+						logger.trace("Ignored because not matching any filter: " + resource);
+					}
+					return;
+				}
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
 						}
+						candidates.add(sbd);
 					}
-					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+	}
+
+	/**
+	 * Build a {@link ConstantPoolFilter} for the current include filters,
+	 * provided that it is guaranteed not to exclude any class which would
+	 * otherwise qualify as a candidate component.
+	 * @return the filter, or {@code null} if not applicable
+	 */
+	@Nullable
+	private ConstantPoolFilter buildConstantPoolFilter() {
+		if (this.includeFilters.isEmpty() || !(getMetadataReaderFactory() instanceof SimpleMetadataReaderFactory)) {
+			return null;
+		}
+		Method candidateMethod = ReflectionUtils.findMethod(getClass(), "isCandidateComponent", MetadataReader.class);
+		if (candidateMethod == null ||
+				candidateMethod.getDeclaringClass() != ClassPathScanningCandidateComponentProvider.class) {
+			return null;
+		}
+		Set<String> constants = new LinkedHashSet<>();
+		for (TypeFilter filter : this.includeFilters) {
+			if (filter.getClass() != AnnotationTypeFilter.class) {
+				return null;
+			}
+			AnnotationTypeFilter annotationFilter = (AnnotationTypeFilter) filter;
+			if (annotationFilter.isConsiderInherited() || annotationFilter.isConsiderInterfaces()) {
+				return null;
+			}
+			// Any meta-annotated annotation requires a class-level annotation attribute,
+			// whereas a direct annotation match requires the annotation descriptor.
+			constants.add(annotationFilter.isConsiderMetaAnnotations() ? "RuntimeVisibleAnnotations" :
+					'L' + ClassUtils.convertClassNameToResourcePath(annotationFilter.getAnnotationType().getName()) + ';');
+		}
+		return new ConstantPoolFilter(constants);
 	}
 
 
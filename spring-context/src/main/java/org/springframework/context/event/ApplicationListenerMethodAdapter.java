@@ -85,6 +85,9 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final List<ResolvableType> declaredEventTypes;
 
+	@Nullable
+	private final ResolvableType batchEventType;
+
 	@Nullable
 	private final String condition;
 
@@ -115,6 +118,7 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
 		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
+		this.batchEventType = resolveBatchEventType(method, ann);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
 		String id = (ann != null ? ann.id() : "");
@@ -146,6 +150,19 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return Collections.singletonList(ResolvableType.forMethodParameter(method, 0));
 	}
 
+	@Nullable
+	private static ResolvableType resolveBatchEventType(Method method, @Nullable EventListener ann) {
+		if (ann == null || !ann.batch()) {
+			return null;
+		}
+		if (ann.classes().length > 0 || method.getParameterCount() != 1 ||
+				method.getParameterTypes()[0] != List.class) {
+			throw new IllegalStateException(
+					"Batch event listener method must declare a single List parameter: " + method);
+		}
+		return ResolvableType.forMethodParameter(method, 0).getGeneric();
+	}
+
 	private static int resolveOrder(Method method) {
 		Order ann = AnnotatedElementUtils.findMergedAnnotation(method, Order.class);
 		return (ann != null ? ann.value() : Ordered.LOWEST_PRECEDENCE);
@@ -182,6 +199,46 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return eventType.hasUnresolvableGenerics();
 	}
 
+	/**
+	 * Determine whether the target method has been declared as a batch listener
+	 * through {@link EventListener#batch()}, qualifying it for receiving batches
+	 * of events from a multicaster which is capable of batching.
+	 * <p>Subclasses which rely on {@link #onApplicationEvent} being called for
+	 * every event may override this method to opt out of batching.
+	 * @since 5.3.10
+	 * @see #supportsBatchEventType(ResolvableType)
+	 * @see #processEvents(List)
+	 * @see AsyncApplicationEventMulticaster
+	 */
+	public boolean isBatchListener() {
+		return (this.batchEventType != null);
+	}
+
+	/**
+	 * Determine whether this listener supports the given event type as an element
+	 * of a batch, i.e. whether the event (or its payload) is assignable to the
+	 * element type of the {@link List} parameter of the target method.
+	 * @param eventType the event type to check
+	 * @since 5.3.10
+	 * @see #isBatchListener()
+	 */
+	public boolean supportsBatchEventType(ResolvableType eventType) {
+		ResolvableType elementType = this.batchEventType;
+		if (elementType == null) {
+			return false;
+		}
+		if (elementType.isAssignableFrom(eventType)) {
+			return true;
+		}
+		if (PayloadApplicationEvent.class.isAssignableFrom(eventType.toClass())) {
+			ResolvableType payloadType = eventType.as(PayloadApplicationEvent.class).getGeneric();
+			if (elementType.isAssignableFrom(payloadType)) {
+				return true;
+			}
+		}
+		return eventType.hasUnresolvableGenerics();
+	}
+
 	@Override
 	public boolean supportsSourceType(@Nullable Class<?> sourceType) {
 		return true;
@@ -236,6 +293,42 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		}
 	}
 
+	/**
+	 * Process the given batch of events with a single invocation of the target
+	 * method, passing the events (or their payloads) as a {@link List}.
+	 * A condition, if any, is evaluated for each event individually.
+	 * @param events the events to process, in publication order
+	 * @since 5.3.10
+	 * @see #isBatchListener()
+	 */
+	public void processEvents(List<ApplicationEvent> events) {
+		ResolvableType elementType = this.batchEventType;
+		Assert.state(elementType != null, "Not a batch listener method");
+		Class<?> elementClass = elementType.toClass();
+		List<Object> batch = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			Object element = event;
+			if (!ApplicationEvent.class.isAssignableFrom(elementClass) && event instanceof PayloadApplicationEvent) {
+				Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+				if (elementClass.isInstance(payload)) {
+					element = payload;
+				}
+			}
+			if (shouldHandle(event, new Object[] {element})) {
+				batch.add(element);
+			}
+		}
+		if (!batch.isEmpty()) {
+			Object result = doInvoke(batch);
+			if (result != null) {
+				handleResult(result);
+			}
+			else {
+				logger.trace("No result object given - no result to handle");
+			}
+		}
+	}
+
 	/**
 	 * Resolve the method arguments to use for the specified {@link ApplicationEvent}.
 	 * <p>These arguments will be used to invoke the method handled by this instance.
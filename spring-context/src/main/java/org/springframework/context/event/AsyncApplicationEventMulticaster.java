@@ -0,0 +1,577 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Asynchronous implementation of the {@link ApplicationEventMulticaster}
+ * interface, dispatching events through a bounded queue per listener.
+ *
+ * <p>Each listener receives its events in publication order: the queue of a
+ * listener is drained by at most one task at any given time, with different
+ * listeners being processed concurrently on the given {@link #setTaskExecutor
+ * task executor}. Listener retrieval goes through the same cached event type
+ * matching as in {@link SimpleApplicationEventMulticaster}.
+ *
+ * <p>{@link EventListener @EventListener} methods declared as
+ * {@link EventListener#batch() batch} listeners with a single {@code List<E>}
+ * parameter receive events of type {@code E} in batches: queued events get
+ * coalesced into lists of up to {@link #setMaxBatchSize maxBatchSize}
+ * elements per invocation.
+ *
+ * <p>When the queue of a listener is full, the configured {@link OverflowPolicy}
+ * applies: blocking the publisher (the default, providing backpressure) or
+ * dropping the newest or oldest event. The current queue depth and the number
+ * of dropped events are exposed for monitoring purposes.
+ *
+ * <p>Note that asynchronous execution will not participate in the publisher's
+ * thread context (class loader, transaction association). A queue is kept per
+ * registered listener instance and per singleton listener bean; a non-singleton
+ * listener bean gets a transient queue for each retrieved instance, without
+ * any ordering guarantees across events and not being exposed for monitoring.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see #setTaskExecutor
+ * @see #setQueueCapacity
+ * @see #setOverflowPolicy
+ * @see ApplicationListenerMethodAdapter#isBatchListener()
+ */
+public class AsyncApplicationEventMulticaster extends AbstractApplicationEventMulticaster {
+
+	/** Default maximum number of queued events per listener: 10000. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+	/** Default maximum number of events per batch listener invocation: 100. */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+	/**
+	 * Maximum number of events to process per drain task, allowing other
+	 * listeners to proceed on a limited number of executor threads.
+	 */
+	private static final int DRAIN_LIMIT = 1000;
+
+
+	/**
+	 * Policy to apply when the queue of a listener is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the listener's queue has room again.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event being published.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drop the oldest queued event in favor of the event being published.
+		 */
+		DROP_OLDEST
+	}
+
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private Executor taskExecutor = new SimpleAsyncTaskExecutor("event-multicaster-");
+
+	@Nullable
+	private ErrorHandler errorHandler;
+
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	@Nullable
+	private ConfigurableBeanFactory beanFactory;
+
+	private final Set<ApplicationListener<?>> registeredListeners = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> registeredListenerBeans = ConcurrentHashMap.newKeySet();
+
+	private final Map<ApplicationListener<?>, ListenerQueue> listenerQueues = new ConcurrentHashMap<>(64);
+
+	private final LongAdder droppedEventCount = new LongAdder();
+
+	private final ThreadLocal<ListenerQueue> currentQueue = new NamedThreadLocal<>("Current listener queue");
+
+
+	/**
+	 * Create a new AsyncApplicationEventMulticaster.
+	 */
+	public AsyncApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new AsyncApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public AsyncApplicationEventMulticaster(BeanFactory beanFactory) {
+		setBeanFactory(beanFactory);
+	}
+
+
+	/**
+	 * Set the executor (typically a {@link org.springframework.core.task.TaskExecutor})
+	 * to drain the listener queues with.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}. Consider specifying a thread
+	 * pool here; at most one thread per listener is going to be busy at any time.
+	 * If the executor rejects a drain task, the queue gets drained in the
+	 * publishing thread instead.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "Executor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Return the current task executor for this multicaster.
+	 */
+	protected Executor getTaskExecutor() {
+		return this.taskExecutor;
+	}
+
+	/**
+	 * Set the {@link ErrorHandler} to invoke in case an exception is thrown
+	 * from a listener.
+	 * <p>Default is none, with a listener exception getting propagated to the
+	 * executor and the remaining queued events being processed by a new task.
+	 */
+	public void setErrorHandler(@Nullable ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Return the current error handler for this multicaster.
+	 */
+	@Nullable
+	protected ErrorHandler getErrorHandler() {
+		return this.errorHandler;
+	}
+
+	/**
+	 * Set the maximum number of queued events per listener.
+	 * Default is {@link #DEFAULT_QUEUE_CAPACITY}.
+	 * <p>Only applies to listener queues created after this call.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Return the maximum number of queued events per listener.
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of events to pass to a batch listener per invocation.
+	 * Default is {@link #DEFAULT_MAX_BATCH_SIZE}.
+	 * <p>A batch only contains events which are queued already at the time of
+	 * invocation; there is no waiting for a batch to fill up.
+	 * @see ApplicationListenerMethodAdapter#isBatchListener()
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of events to pass to a batch listener per invocation.
+	 */
+	public int getMaxBatchSize() {
+		return this.maxBatchSize;
+	}
+
+	/**
+	 * Set the policy to apply when the queue of a listener is full.
+	 * Default is {@link OverflowPolicy#BLOCK}.
+	 * <p>Note that an event published from within a listener invoked by this
+	 * multicaster is dropped rather than blocking when the target queue is full,
+	 * in order to avoid a deadlock: e.g. between listeners publishing to each
+	 * other, or with all executor threads waiting for a queue to be drained.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Return the policy to apply when the queue of a listener is full.
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+
+	/**
+	 * Return the total number of events currently queued across all listeners.
+	 * @see #getQueueDepths()
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (ListenerQueue queue : this.listenerQueues.values()) {
+			depth += queue.size();
+		}
+		return depth;
+	}
+
+	/**
+	 * Return the number of events currently queued per listener.
+	 * @return a Map with the listeners as keys and their queue depth as values
+	 * (only including singleton listeners which received events so far)
+	 */
+	public Map<ApplicationListener<?>, Integer> getQueueDepths() {
+		Map<ApplicationListener<?>, Integer> depths = new LinkedHashMap<>(this.listenerQueues.size());
+		this.listenerQueues.forEach((listener, queue) -> depths.put(listener, queue.size()));
+		return depths;
+	}
+
+	/**
+	 * Return the number of events dropped so far due to full listener queues.
+	 * @see #setOverflowPolicy
+	 */
+	public long getDroppedEventCount() {
+		return this.droppedEventCount.sum();
+	}
+
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void addApplicationListener(ApplicationListener<?> listener) {
+		super.addApplicationListener(listener);
+		this.registeredListeners.add(listener);
+	}
+
+	@Override
+	public void addApplicationListenerBean(String listenerBeanName) {
+		super.addApplicationListenerBean(listenerBeanName);
+		this.registeredListenerBeans.add(listenerBeanName);
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.registeredListeners.remove(listener);
+		this.listenerQueues.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+		super.removeApplicationListenerBean(listenerBeanName);
+		this.registeredListenerBeans.remove(listenerBeanName);
+		removeSingletonListenerQueue(listenerBeanName);
+	}
+
+	@Override
+	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+		super.removeApplicationListeners(predicate);
+		this.registeredListeners.removeIf(predicate);
+		this.listenerQueues.keySet().removeIf(predicate);
+	}
+
+	@Override
+	public void removeApplicationListenerBeans(Predicate<String> predicate) {
+		super.removeApplicationListenerBeans(predicate);
+		this.registeredListenerBeans.removeIf(listenerBeanName -> {
+			if (predicate.test(listenerBeanName)) {
+				removeSingletonListenerQueue(listenerBeanName);
+				return true;
+			}
+			return false;
+		});
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.registeredListeners.clear();
+		this.registeredListenerBeans.clear();
+		this.listenerQueues.clear();
+	}
+
+	private void removeSingletonListenerQueue(String listenerBeanName) {
+		if (this.beanFactory != null) {
+			Object listener = this.beanFactory.getSingleton(listenerBeanName);
+			if (listener != null) {
+				this.listenerQueues.remove(listener);
+			}
+		}
+	}
+
+	@Override
+	protected boolean supportsEvent(
+			ApplicationListener<?> listener, ResolvableType eventType, @Nullable Class<?> sourceType) {
+
+		if (listener instanceof ApplicationListenerMethodAdapter &&
+				((ApplicationListenerMethodAdapter) listener).isBatchListener()) {
+			ApplicationListenerMethodAdapter batchListener = (ApplicationListenerMethodAdapter) listener;
+			return (batchListener.supportsBatchEventType(eventType) && batchListener.supportsSourceType(sourceType));
+		}
+		return super.supportsEvent(listener, eventType, sourceType);
+	}
+
+	@Override
+	public void multicastEvent(ApplicationEvent event) {
+		multicastEvent(event, null);
+	}
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			ListenerQueue queue = this.listenerQueues.get(listener);
+			if (queue == null) {
+				if (isSingletonListener(listener)) {
+					queue = this.listenerQueues.computeIfAbsent(listener, ListenerQueue::new);
+				}
+				else {
+					// Non-singleton listener bean: a new instance for every retrieval,
+					// so there is no point in keeping a queue around for it.
+					queue = new ListenerQueue(listener);
+				}
+			}
+			queue.enqueue(event);
+		}
+	}
+
+	/**
+	 * Determine whether the given listener is a registered listener instance
+	 * or a singleton listener bean, as opposed to an instance of a non-singleton
+	 * listener bean which is going to be retrieved anew for every event.
+	 * @param listener the listener to check
+	 * @return whether to keep a dedicated queue for the given listener
+	 */
+	protected boolean isSingletonListener(ApplicationListener<?> listener) {
+		if (this.registeredListeners.contains(listener)) {
+			return true;
+		}
+		if (this.beanFactory != null) {
+			for (String listenerBeanName : this.registeredListenerBeans) {
+				if (this.beanFactory.getSingleton(listenerBeanName) == listener) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Invoke the given listener with the given event.
+	 * @param listener the ApplicationListener to invoke
+	 * @param event the current event to propagate
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeListener(ApplicationListener listener, ApplicationEvent event) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				listener.onApplicationEvent(event);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			listener.onApplicationEvent(event);
+		}
+	}
+
+	/**
+	 * Invoke the given batch listener with the given events.
+	 * @param listener the batch listener to invoke
+	 * @param events the current events to propagate, in publication order
+	 */
+	protected void invokeBatchListener(ApplicationListenerMethodAdapter listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				listener.processEvents(events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			listener.processEvents(events);
+		}
+	}
+
+
+	/**
+	 * Bounded queue of events for a specific listener, drained by at most
+	 * one task at a time in order to preserve the publication order.
+	 */
+	private class ListenerQueue implements Runnable {
+
+		private final ApplicationListener<?> listener;
+
+		@Nullable
+		private final ApplicationListenerMethodAdapter batchListener;
+
+		private final BlockingQueue<ApplicationEvent> events;
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		ListenerQueue(ApplicationListener<?> listener) {
+			this.listener = listener;
+			this.batchListener = (listener instanceof ApplicationListenerMethodAdapter &&
+					((ApplicationListenerMethodAdapter) listener).isBatchListener() ?
+					(ApplicationListenerMethodAdapter) listener : null);
+			this.events = new LinkedBlockingQueue<>(queueCapacity);
+		}
+
+		public int size() {
+			return this.events.size();
+		}
+
+		public void enqueue(ApplicationEvent event) {
+			if (offer(event)) {
+				schedule();
+			}
+			else {
+				droppedEventCount.increment();
+				if (logger.isDebugEnabled()) {
+					logger.debug("Dropped " + event + " for listener " + this.listener + " due to full queue");
+				}
+			}
+		}
+
+		private boolean offer(ApplicationEvent event) {
+			if (this.events.offer(event)) {
+				return true;
+			}
+			switch (overflowPolicy) {
+				case BLOCK:
+					if (currentQueue.get() != null) {
+						// Published from within a listener: blocking may deadlock
+						return false;
+					}
+					try {
+						this.events.put(event);
+						return true;
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				case DROP_OLDEST:
+					while (!this.events.offer(event)) {
+						ApplicationEvent dropped = this.events.poll();
+						if (dropped != null) {
+							droppedEventCount.increment();
+						}
+					}
+					return true;
+				default:
+					return false;
+			}
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					taskExecutor.execute(this);
+				}
+				catch (RejectedExecutionException ex) {
+					// Drain in the publishing thread instead
+					run();
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			ListenerQueue previousQueue = currentQueue.get();
+			currentQueue.set(this);
+			try {
+				int processed = 0;
+				while (processed < DRAIN_LIMIT) {
+					if (this.batchListener != null) {
+						List<ApplicationEvent> batch = new ArrayList<>(Math.min(maxBatchSize, this.events.size()));
+						if (this.events.drainTo(batch, maxBatchSize) == 0) {
+							break;
+						}
+						processed += batch.size();
+						invokeBatchListener(this.batchListener, batch);
+					}
+					else {
+						ApplicationEvent event = this.events.poll();
+						if (event == null) {
+							break;
+						}
+						processed++;
+						invokeListener(this.listener, event);
+					}
+				}
+			}
+			finally {
+				if (previousQueue != null) {
+					currentQueue.set(previousQueue);
+				}
+				else {
+					currentQueue.remove();
+				}
+				this.scheduled.set(false);
+				// Pick up events queued in the meantime or left over from this run
+				if (!this.events.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+	}
+
+}
@@ -139,4 +139,18 @@ public @interface EventListener {
 	 */
 	String id() default "";
 
+	/**
+	 * Whether the annotated method is a batch listener, declaring a single
+	 * {@code List<E>} parameter for receiving several events of type {@code E}
+	 * per invocation.
+	 * <p>Batches are only formed by a multicaster capable of batching, i.e.
+	 * {@link AsyncApplicationEventMulticaster}. Other multicasters treat the
+	 * {@code List} parameter as a regular payload type.
+	 * <p>The default is {@code false}, with a {@code List} parameter indicating
+	 * a listener for {@code List} payloads.
+	 * @since 5.3.10
+	 * @see ApplicationListenerMethodAdapter#isBatchListener()
+	 */
+	boolean batch() default false;
+
 }
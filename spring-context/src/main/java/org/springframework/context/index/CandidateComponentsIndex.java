@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,16 @@
 
 package org.springframework.context.index;
 
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,10 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>The index may also provide the class metadata of its candidates, as precomputed
+ * in {@code META-INF/spring.components.metadata}, allowing for building their bean
+ * definitions without reading their class files.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,9 +60,16 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, String> classMetadata;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList());
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> metadata) {
 		this.index = parseIndex(content);
+		this.classMetadata = parseMetadata(metadata);
 	}
 
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
@@ -70,6 +85,15 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static Map<String, String> parseMetadata(List<Properties> metadata) {
+		Map<String, String> classMetadata = new HashMap<>();
+		for (Properties entry : metadata) {
+			// First occurrence on the classpath wins, as with class loading
+			entry.forEach((type, value) -> classMetadata.putIfAbsent((String) type, (String) value));
+		}
+		return classMetadata;
+	}
+
 
 	/**
 	 * Return the candidate types that are associated with the specified stereotype.
@@ -89,6 +113,21 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the class metadata that has been precomputed for the specified
+	 * candidate type at build time, if any.
+	 * @param type the candidate type, as returned by {@link #getCandidateTypes}
+	 * @return the class metadata in the format accepted by
+	 * {@link org.springframework.core.type.classreading.SimpleMetadataReaderFactory#getMetadataReader(byte[])},
+	 * or {@code null} if none is available for the specified type
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public byte[] getClassMetadata(String type) {
+		String value = this.classMetadata.get(type);
+		return (value != null ? Base64.getDecoder().decode(value) : null);
+	}
+
 
 	private static class Entry {
 
@@ -19,6 +19,7 @@ package org.springframework.context.index;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
@@ -47,6 +48,14 @@ public final class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for precomputed class metadata of the components.
+	 * <p>Can be present in multiple JAR files, next to a
+	 * {@value #COMPONENTS_RESOURCE_LOCATION} file.
+	 * @since 5.3.10
+	 */
+	public static final String COMPONENTS_METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
 	/**
 	 * System property that instructs Spring to ignore the components index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -58,9 +67,22 @@ public final class CandidateComponentsIndexLoader {
 	 */
 	public static final String IGNORE_INDEX = "spring.index.ignore";
 
+	/**
+	 * System property that instructs Spring to ignore the class metadata in the
+	 * components index, i.e. to always read the class files of indexed components.
+	 * <p>The default is "false", building the metadata of indexed components from
+	 * {@value #COMPONENTS_METADATA_RESOURCE_LOCATION} where available. Switching
+	 * this flag to {@code true} is useful when class files get post-processed after
+	 * compilation, e.g. by bytecode enhancement that adds annotations.
+	 * @since 5.3.10
+	 */
+	public static final String IGNORE_INDEX_METADATA = "spring.index.metadata.ignore";
+
 
 	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
 
+	private static final boolean shouldIgnoreIndexMetadata = SpringProperties.getFlag(IGNORE_INDEX_METADATA);
+
 	private static final Log logger = LogFactory.getLog(CandidateComponentsIndexLoader.class);
 
 	private static final ConcurrentMap<ClassLoader, CandidateComponentsIndex> cache =
@@ -110,7 +132,7 @@ public final class CandidateComponentsIndexLoader {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			return (totalCount > 0 ? new CandidateComponentsIndex(result, loadMetadata(classLoader)) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -118,4 +140,17 @@ public final class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static List<Properties> loadMetadata(ClassLoader classLoader) throws IOException {
+		if (shouldIgnoreIndexMetadata) {
+			return Collections.emptyList();
+		}
+		Enumeration<URL> urls = classLoader.getResources(COMPONENTS_METADATA_RESOURCE_LOCATION);
+		List<Properties> result = new ArrayList<>();
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			result.add(PropertiesLoaderUtils.loadProperties(new UrlResource(url)));
+		}
+		return result;
+	}
+
 }
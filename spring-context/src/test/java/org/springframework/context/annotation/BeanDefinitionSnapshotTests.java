@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshotWriter} and {@link BeanDefinitionSnapshotReader}.
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Test
+	public void snapshotRoundTrip() throws IOException {
+		GenericApplicationContext ctx = loadSnapshot(writeSnapshot(SnapshotConfig.class));
+		ctx.refresh();
+
+		SnapshotConfig config = ctx.getBean(SnapshotConfig.class);
+		TestBean testBean = ctx.getBean("testBean", TestBean.class);
+		assertThat(testBean.getName()).isEqualTo("snapshot");
+		assertThat(config.testBean()).isSameAs(testBean);
+		assertThat(ctx.getBean(SnapshotComponent.class).testBean).isSameAs(testBean);
+		assertThat(ctx.getAliases("testBean")).containsExactly("myTestBean");
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotWithResolvedFactoryMethod() throws IOException {
+		GenericApplicationContext ctx = loadSnapshot(writeSnapshot(SnapshotConfig.class));
+
+		RootBeanDefinition bd = (RootBeanDefinition) ctx.getBeanDefinition("testBean");
+		assertThat(bd.getFactoryBeanName()).isEqualTo("beanDefinitionSnapshotTests.SnapshotConfig");
+		assertThat(bd.getResolvedFactoryMethod()).isNotNull();
+		assertThat(bd.getResolvedFactoryMethod().getName()).isEqualTo("testBean");
+		assertThat(bd.getAttribute(BeanDefinitionSnapshotReader.SNAPSHOT_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+	}
+
+	@Test
+	public void snapshotWithImportAwareConfiguration() throws IOException {
+		GenericApplicationContext ctx = loadSnapshot(writeSnapshot(ImportAwareTests.ImportingConfig.class));
+		ctx.refresh();
+
+		AnnotationMetadata importMetadata = ctx.getBean(ImportAwareTests.ImportedConfig.class).importMetadata;
+		assertThat(importMetadata).isNotNull();
+		assertThat(importMetadata.getClassName()).isEqualTo(ImportAwareTests.ImportingConfig.class.getName());
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotWithInstanceSupplier() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.registerBean("testBean", TestBean.class, TestBean::new);
+		assertThatIllegalStateException().isThrownBy(() ->
+				new BeanDefinitionSnapshotWriter(ctx).write(new ByteArrayOutputStream()));
+	}
+
+	@Test
+	public void snapshotOfActiveContext() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(SnapshotConfig.class);
+		assertThatIllegalStateException().isThrownBy(() ->
+				new BeanDefinitionSnapshotWriter(ctx).write(new ByteArrayOutputStream()));
+		ctx.close();
+	}
+
+	@Test
+	public void invalidSnapshot() {
+		GenericApplicationContext ctx = new GenericApplicationContext();
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				new BeanDefinitionSnapshotReader(ctx).loadBeanDefinitions(new ByteArrayResource(new byte[] {1, 2, 3, 4})));
+	}
+
+
+	private static byte[] writeSnapshot(Class<?> configClass) throws IOException {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.register(configClass);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(ctx).write(out);
+		return out.toByteArray();
+	}
+
+	private static GenericApplicationContext loadSnapshot(byte[] snapshot) {
+		GenericApplicationContext ctx = new GenericApplicationContext();
+		new BeanDefinitionSnapshotReader(ctx).loadBeanDefinitions(new ByteArrayResource(snapshot));
+		return ctx;
+	}
+
+
+	@Configuration
+	@Import(SnapshotComponent.class)
+	static class SnapshotConfig {
+
+		@Bean({"testBean", "myTestBean"})
+		public TestBean testBean() {
+			return new TestBean("snapshot");
+		}
+	}
+
+
+	static class SnapshotComponent {
+
+		@Autowired
+		TestBean testBean;
+	}
+
+}
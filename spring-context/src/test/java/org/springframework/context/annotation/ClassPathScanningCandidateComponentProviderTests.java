@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,13 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.gh24375.AnnotatedComponent;
 import example.profilescan.DevComponent;
@@ -502,6 +507,60 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertThat(components.iterator().next().getBeanClassName()).isEqualTo(AnnotatedComponent.class.getName());
 	}
 
+	@Test
+	public void parallelScanWithSameResultsAsSequentialScan() {
+		String basePackage = getClass().getPackage().getName();
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		List<String> expected = beanClassNames(provider.findCandidateComponents(basePackage));
+		assertThat(expected).isNotEmpty();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			provider.setScanExecutor(executor);
+			assertThat(beanClassNames(provider.findCandidateComponents(basePackage))).isEqualTo(expected);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void parallelScanWithRejectingExecutor() {
+		String basePackage = getClass().getPackage().getName();
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		List<String> expected = beanClassNames(provider.findCandidateComponents(basePackage));
+
+		provider.setScanExecutor(task -> {
+			throw new RejectedExecutionException();
+		});
+		assertThat(beanClassNames(provider.findCandidateComponents(basePackage))).isEqualTo(expected);
+	}
+
+	@Test
+	public void constantPoolFilterWithSameResults() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		assertThat(provider.isUseConstantPoolFilter()).isTrue();
+		testDefault(provider);
+		List<String> expected = beanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE));
+		provider.setUseConstantPoolFilter(false);
+		assertThat(beanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE))).isEqualTo(expected);
+	}
+
+	@Test
+	public void constantPoolFilterWithDirectAnnotationIncludeFilter() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.addIncludeFilter(new AnnotationTypeFilter(CustomStereotype.class, false));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertThat(beanClassNames(candidates)).containsExactly(DefaultNamedComponent.class.getName());
+		provider.setUseConstantPoolFilter(false);
+		assertThat(beanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE)))
+				.isEqualTo(beanClassNames(candidates));
+	}
+
 
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
@@ -512,6 +571,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		return false;
 	}
 
+	private List<String> beanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	private void assertBeanDefinitionType(Set<BeanDefinition> candidates) {
 		candidates.forEach(c ->
 			assertThat(c).isInstanceOf(ScannedGenericBeanDefinition.class)
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.context.event;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -157,6 +158,27 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		assertThatIllegalStateException().isThrownBy(() -> createTestInstance(method));
 	}
 
+	@Test
+	public void listPayloadListenerIsNoBatchListener() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "listPayload", List.class);
+		assertThat(createTestInstance(method).isBatchListener()).isFalse();
+	}
+
+	@Test
+	public void batchListener() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "batch", List.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		assertThat(adapter.isBatchListener()).isTrue();
+		assertThat(adapter.supportsBatchEventType(ResolvableType.forClass(String.class))).isTrue();
+		assertThat(adapter.supportsBatchEventType(ResolvableType.forClass(Integer.class))).isFalse();
+	}
+
+	@Test
+	public void batchListenerWithoutListParameter() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "batchWithoutList", String.class);
+		assertThatIllegalStateException().isThrownBy(() -> createTestInstance(method));
+	}
+
 	@Test
 	public void defaultOrder() {
 		Method method = ReflectionUtils.findMethod(
@@ -417,6 +439,18 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		public void moreThanOneParameter(String foo, Integer bar) {
 		}
 
+		@EventListener
+		public void listPayload(List<String> payload) {
+		}
+
+		@EventListener(batch = true)
+		public void batch(List<String> events) {
+		}
+
+		@EventListener(batch = true)
+		public void batchWithoutList(String event) {
+		}
+
 		@EventListener
 		public void generateRuntimeException(GenericTestEvent<String> event) {
 			if ("fail".equals(event.getPayload())) {
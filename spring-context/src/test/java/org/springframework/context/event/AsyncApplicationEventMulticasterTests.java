@@ -0,0 +1,357 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AsyncApplicationEventMulticaster}.
+ *
+ * @since 5.3.10
+ */
+class AsyncApplicationEventMulticasterTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void orderingPerListener() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		OrderedListener listener1 = new OrderedListener(1000);
+		OrderedListener listener2 = new OrderedListener(1000);
+		multicaster.addApplicationListener(listener1);
+		multicaster.addApplicationListener(listener2);
+
+		for (int i = 0; i < 1000; i++) {
+			multicaster.multicastEvent(new PayloadApplicationEvent<>(this, i));
+		}
+		assertThat(listener1.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener2.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 1000; i++) {
+			assertThat(listener1.received.get(i)).isEqualTo(i);
+			assertThat(listener2.received.get(i)).isEqualTo(i);
+		}
+		assertThat(multicaster.getDroppedEventCount()).isEqualTo(0);
+	}
+
+	@Test
+	void batchListenerMethod() throws Exception {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+				AsyncApplicationEventMulticaster.class, () -> {
+					AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+					multicaster.setTaskExecutor(this.executor);
+					multicaster.setMaxBatchSize(50);
+					return multicaster;
+				});
+		context.registerBean(EventListenerMethodProcessor.class);
+		context.registerBean(DefaultEventListenerFactory.class);
+		context.registerBean(BatchListener.class);
+		context.refresh();
+
+		BatchListener listener = context.getBean(BatchListener.class);
+		for (int i = 0; i < 1000; i++) {
+			context.publishEvent("event" + i);
+		}
+		assertThat(listener.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.received).hasSize(1000);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(listener.received.get(i)).isEqualTo("event" + i);
+		}
+		assertThat(listener.batchSizes).allSatisfy(size -> assertThat(size).isBetween(1, 50));
+		assertThat(listener.integerBatches).isEmpty();
+		assertThat(listener.listPayloads).isEmpty();
+
+		context.publishEvent(Arrays.asList("a", "b"));
+		assertThat(listener.listLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.listPayloads).containsExactly(Arrays.asList("a", "b"));
+		assertThat(listener.received).hasSize(1000);
+		context.close();
+	}
+
+	@Test
+	void dropNewestWhenFull() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		multicaster.setQueueCapacity(2);
+		multicaster.setOverflowPolicy(AsyncApplicationEventMulticaster.OverflowPolicy.DROP_NEWEST);
+		BlockingListener listener = new BlockingListener(3);
+		multicaster.addApplicationListener(listener);
+
+		publishWhileBlocked(multicaster, listener);
+		assertThat(multicaster.getQueueDepth()).isEqualTo(2);
+		assertThat(multicaster.getQueueDepths()).containsEntry(listener, 2);
+		assertThat(multicaster.getDroppedEventCount()).isEqualTo(2);
+
+		listener.block.countDown();
+		assertThat(listener.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.received).containsExactly("p0", "p1", "p2");
+	}
+
+	@Test
+	void dropOldestWhenFull() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		multicaster.setQueueCapacity(2);
+		multicaster.setOverflowPolicy(AsyncApplicationEventMulticaster.OverflowPolicy.DROP_OLDEST);
+		BlockingListener listener = new BlockingListener(3);
+		multicaster.addApplicationListener(listener);
+
+		publishWhileBlocked(multicaster, listener);
+		assertThat(multicaster.getQueueDepth()).isEqualTo(2);
+		assertThat(multicaster.getDroppedEventCount()).isEqualTo(2);
+
+		listener.block.countDown();
+		assertThat(listener.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.received).containsExactly("p0", "p3", "p4");
+	}
+
+	@Test
+	void blockWhenFull() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		multicaster.setQueueCapacity(1);
+		BlockingListener listener = new BlockingListener(4);
+		multicaster.addApplicationListener(listener);
+
+		Thread publisher = new Thread(() -> {
+			for (int i = 0; i < 4; i++) {
+				multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "b" + i));
+			}
+		});
+		publisher.start();
+		assertThat(listener.started.await(10, TimeUnit.SECONDS)).isTrue();
+		publisher.join(200);
+		assertThat(publisher.isAlive()).isTrue();
+
+		listener.block.countDown();
+		publisher.join(10000);
+		assertThat(listener.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.received).containsExactly("b0", "b1", "b2", "b3");
+		assertThat(multicaster.getDroppedEventCount()).isEqualTo(0);
+	}
+
+	@Test
+	void blockWhenFullDropsEventPublishedFromListener() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		multicaster.setQueueCapacity(1);
+		BlockingListener listener = new BlockingListener(2);
+		RelayListener relay = new RelayListener(multicaster);
+		multicaster.addApplicationListener(listener);
+		multicaster.addApplicationListener(relay);
+
+		multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "b0"));
+		assertThat(listener.started.await(10, TimeUnit.SECONDS)).isTrue();
+		multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "b1"));
+		multicaster.multicastEvent(new PayloadApplicationEvent<>(this, 1));
+		assertThat(relay.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(multicaster.getDroppedEventCount()).isEqualTo(1);
+
+		listener.block.countDown();
+		assertThat(listener.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.received).containsExactly("b0", "b1");
+	}
+
+	@Test
+	void removeListenerDiscardsQueue() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		BlockingListener listener = new BlockingListener(1);
+		multicaster.addApplicationListener(listener);
+
+		publishWhileBlocked(multicaster, listener);
+		assertThat(multicaster.getQueueDepth()).isEqualTo(4);
+		multicaster.removeApplicationListener(listener);
+		assertThat(multicaster.getQueueDepths()).isEmpty();
+		listener.block.countDown();
+	}
+
+	@Test
+	void prototypeListenerBeanDoesNotRetainQueue() throws Exception {
+		AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+		multicaster.setTaskExecutor(this.executor);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+				AsyncApplicationEventMulticaster.class, () -> multicaster);
+		OrderedListener listener = new OrderedListener(100);
+		context.registerBean("singletonListener", OrderedListener.class, () -> listener);
+		CountDownLatch latch = new CountDownLatch(100);
+		context.registerBean("prototypeListener", CountingListener.class, () -> new CountingListener(latch),
+				bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+		context.refresh();
+
+		for (int i = 0; i < 100; i++) {
+			context.publishEvent(i);
+		}
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.received).hasSize(100);
+		assertThat(multicaster.getQueueDepths()).containsOnlyKeys(listener);
+		context.close();
+	}
+
+	private void publishWhileBlocked(AsyncApplicationEventMulticaster multicaster, BlockingListener listener)
+			throws InterruptedException {
+
+		multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "p0"));
+		assertThat(listener.started.await(10, TimeUnit.SECONDS)).isTrue();
+		for (int i = 1; i <= 4; i++) {
+			multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "p" + i));
+		}
+	}
+
+
+	static class OrderedListener implements ApplicationListener<PayloadApplicationEvent<Integer>> {
+
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+
+		final CountDownLatch latch;
+
+		OrderedListener(int expected) {
+			this.latch = new CountDownLatch(expected);
+		}
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+			this.received.add(event.getPayload());
+			this.latch.countDown();
+		}
+	}
+
+
+	static class CountingListener implements ApplicationListener<PayloadApplicationEvent<Integer>> {
+
+		final CountDownLatch latch;
+
+		CountingListener(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+			this.latch.countDown();
+		}
+	}
+
+
+	static class BlockingListener implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final CountDownLatch block = new CountDownLatch(1);
+
+		final CountDownLatch latch;
+
+		BlockingListener(int expected) {
+			this.latch = new CountDownLatch(expected);
+		}
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+			this.started.countDown();
+			try {
+				this.block.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.received.add(event.getPayload());
+			this.latch.countDown();
+		}
+	}
+
+
+	static class RelayListener implements ApplicationListener<PayloadApplicationEvent<Integer>> {
+
+		final ApplicationEventMulticaster multicaster;
+
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		RelayListener(ApplicationEventMulticaster multicaster) {
+			this.multicaster = multicaster;
+		}
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+			this.multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "relayed" + event.getPayload()));
+			this.latch.countDown();
+		}
+	}
+
+
+	static class BatchListener {
+
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+		final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+		final List<List<Integer>> integerBatches = Collections.synchronizedList(new ArrayList<>());
+
+		final List<List<?>> listPayloads = Collections.synchronizedList(new ArrayList<>());
+
+		final CountDownLatch latch = new CountDownLatch(1000);
+
+		final CountDownLatch listLatch = new CountDownLatch(1);
+
+		@EventListener(batch = true)
+		public void onStrings(List<String> events) {
+			this.batchSizes.add(events.size());
+			this.received.addAll(events);
+			events.forEach(event -> this.latch.countDown());
+		}
+
+		@EventListener(batch = true)
+		public void onIntegers(List<Integer> events) {
+			this.integerBatches.add(events);
+		}
+
+		@EventListener
+		public void onList(List<?> payload) {
+			this.listPayloads.add(payload);
+			this.listLatch.countDown();
+		}
+	}
+
+}
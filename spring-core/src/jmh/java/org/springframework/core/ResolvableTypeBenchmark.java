@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link ResolvableType#isAssignableFrom} against large generic
+ * type hierarchies, as performed for type matching by bean factories.
+ *
+ * @author agent (agent@local)
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@Benchmark
+	public void isAssignableFromMatchingHierarchy(BenchmarkState state, Blackhole bh) {
+		for (ResolvableType candidate : state.candidates) {
+			bh.consume(state.repositoryType.isAssignableFrom(candidate));
+		}
+	}
+
+	@Benchmark
+	public void isAssignableFromNonMatchingHierarchy(BenchmarkState state, Blackhole bh) {
+		for (ResolvableType candidate : state.candidates) {
+			bh.consume(state.otherRepositoryType.isAssignableFrom(candidate));
+		}
+	}
+
+	@Benchmark
+	public void isAssignableFromClass(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.repositoryType.isAssignableFrom(OrderRepositoryImpl.class));
+	}
+
+	@Benchmark
+	public void forClassAndResolveGenerics(Blackhole bh) {
+		bh.consume(ResolvableType.forClass(OrderRepositoryImpl.class).as(Repository.class).resolveGenerics());
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		ResolvableType repositoryType;
+
+		ResolvableType otherRepositoryType;
+
+		List<ResolvableType> candidates;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.repositoryType = ResolvableType.forClassWithGenerics(Repository.class, Order.class, Long.class);
+			this.otherRepositoryType = ResolvableType.forClassWithGenerics(Repository.class, Customer.class, Long.class);
+			this.candidates = new ArrayList<>();
+			for (Class<?> candidate : new Class<?>[] {OrderRepositoryImpl.class, CustomerRepositoryImpl.class,
+					AuditingOrderRepository.class, OrderService.class, String.class}) {
+				this.candidates.add(ResolvableType.forClass(candidate));
+			}
+		}
+	}
+
+
+	interface Repository<T, ID extends Serializable> {
+	}
+
+
+	interface CrudRepository<T, ID extends Serializable> extends Repository<T, ID> {
+	}
+
+
+	interface PagingAndSortingRepository<T, ID extends Serializable> extends CrudRepository<T, ID> {
+	}
+
+
+	interface QueryRepository<T> {
+	}
+
+
+	interface AuditingRepository<T, ID extends Serializable, U> extends PagingAndSortingRepository<T, ID> {
+	}
+
+
+	abstract static class AbstractRepository<T, ID extends Serializable>
+			implements PagingAndSortingRepository<T, ID>, QueryRepository<T> {
+	}
+
+
+	abstract static class AbstractAuditingRepository<T, U>
+			extends AbstractRepository<T, Long> implements AuditingRepository<T, Long, U> {
+	}
+
+
+	static class Order {
+	}
+
+
+	static class Customer {
+	}
+
+
+	static class OrderRepositoryImpl extends AbstractAuditingRepository<Order, String> {
+	}
+
+
+	static class CustomerRepositoryImpl extends AbstractAuditingRepository<Customer, String> {
+	}
+
+
+	static class AuditingOrderRepository extends OrderRepositoryImpl implements Serializable {
+	}
+
+
+	static class OrderService {
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+/**
+ * Benchmarks for common merged annotation lookups through
+ * {@link AnnotatedElementUtils} and {@link MergedAnnotations}.
+ *
+ * @author agent (agent@local)
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationsBenchmark {
+
+	@Benchmark
+	public void findMergedAnnotationOnClass(Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(SubService.class, Service.class));
+	}
+
+	@Benchmark
+	public void findMergedAnnotationOnMethod(MethodState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(state.method, Service.class));
+	}
+
+	@Benchmark
+	public void findMergedAnnotationMissing(Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(SubService.class, Missing.class));
+	}
+
+	@Benchmark
+	public void getMergedAnnotationOnClass(Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.getMergedAnnotation(ExtendedService.class, Service.class));
+	}
+
+	@Benchmark
+	public void getMergedAnnotationAttributesOnClass(Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.getMergedAnnotationAttributes(SubService.class, Service.class));
+	}
+
+	@Benchmark
+	public void hasAnnotationOnClass(Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.hasAnnotation(SubService.class, Service.class));
+	}
+
+	@Benchmark
+	public void mergedAnnotationsFromClass(Blackhole bh) {
+		bh.consume(MergedAnnotations.from(SubService.class, SearchStrategy.TYPE_HIERARCHY)
+				.get(Service.class).synthesize());
+	}
+
+	@Benchmark
+	public void findMergedAnnotationOnClassUncached(UncachedState state, Blackhole bh) {
+		bh.consume(AnnotatedElementUtils.findMergedAnnotation(SubService.class, Service.class));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class MethodState {
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() throws NoSuchMethodException {
+			this.method = SubService.class.getMethod("handle");
+		}
+	}
+
+
+	@State(Scope.Thread)
+	public static class UncachedState {
+
+		@Setup(Level.Invocation)
+		public void clearCache() {
+			AnnotationUtils.clearCache();
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@Inherited
+	public @interface Service {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Service
+	public @interface Handler {
+
+		@AliasFor(annotation = Service.class)
+		String value() default "handler";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Missing {
+	}
+
+
+	@Service("base")
+	public static class BaseService {
+	}
+
+
+	public static class ExtendedService extends BaseService {
+	}
+
+
+	public interface ServiceContract {
+
+		@Handler
+		void handle();
+	}
+
+
+	@Handler("sub")
+	public static class SubService extends BaseService implements ServiceContract {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
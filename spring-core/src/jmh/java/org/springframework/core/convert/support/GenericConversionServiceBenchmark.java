@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -101,6 +103,56 @@ public class GenericConversionServiceBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void convertStringToIntWithConversionService(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("42", int.class));
+	}
+
+	@Benchmark
+	public void convertStringToLongWithConversionService(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("42", Long.class));
+	}
+
+	@Benchmark
+	public void convertStringToBooleanWithConversionService(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("true", boolean.class));
+	}
+
+	@Benchmark
+	public void convertStringToEnumWithConversionService(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("SECONDS", TimeUnit.class));
+	}
+
+	@Benchmark
+	public void convertStringToUuidWithConversionService(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.uuid, UUID.class));
+	}
+
+	@Benchmark
+	public void convertIntegerToLongWithConversionService(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.number, Long.class));
+	}
+
+	@Benchmark
+	public void convertStringToIntegerWithTypeDescriptors(ScalarBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("42", state.stringTypeDesc, state.integerTypeDesc));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ScalarBenchmarkState {
+
+		GenericConversionService conversionService = new DefaultConversionService();
+
+		String uuid = UUID.randomUUID().toString();
+
+		Integer number = 42;
+
+		TypeDescriptor stringTypeDesc = TypeDescriptor.valueOf(String.class);
+
+		TypeDescriptor integerTypeDesc = TypeDescriptor.valueOf(Integer.class);
+	}
+
 
 	@State(Scope.Benchmark)
 	public static class BenchmarkState {
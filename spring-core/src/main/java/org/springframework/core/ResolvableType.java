@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,12 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final ConcurrentReferenceHashMap<AssignableFromKey, Boolean> assignableFromCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * The underlying Java type being managed.
@@ -191,7 +197,7 @@ public class ResolvableType implements Serializable {
 		this.typeProvider = null;
 		this.variableResolver = null;
 		this.componentType = null;
-		this.hash = null;
+		this.hash = calculateHashCode();
 	}
 
 
@@ -260,7 +266,7 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
-		return isAssignableFrom(forClass(other), null);
+		return isAssignableFrom(forClass(other));
 	}
 
 	/**
@@ -275,7 +281,21 @@ public class ResolvableType implements Serializable {
 	 * {@code ResolvableType}; {@code false} otherwise
 	 */
 	public boolean isAssignableFrom(ResolvableType other) {
-		return isAssignableFrom(other, null);
+		Assert.notNull(other, "ResolvableType must not be null");
+		if (this == NONE || other == NONE || this.hash == null || other.hash == null ||
+				other.getClass() != ResolvableType.class) {
+			return isAssignableFrom(other, null);
+		}
+		// Both types are canonical or cache keys with a pre-calculated hash (and
+		// no raw class variant): remember the result since generic hierarchies
+		// are expensive to walk.
+		AssignableFromKey key = new AssignableFromKey(this, other);
+		Boolean assignable = assignableFromCache.get(key);
+		if (assignable == null) {
+			assignable = isAssignableFrom(other, null);
+			assignableFromCache.put(key, assignable);
+		}
+		return assignable;
 	}
 
 	private boolean isAssignableFrom(ResolvableType other, @Nullable Map<Type, Type> matchedBefore) {
@@ -1007,7 +1027,16 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(@Nullable Class<?> clazz) {
-		return new ResolvableType(clazz);
+		Class<?> classToUse = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(classToUse);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(classToUse);
+			ResolvableType existing = classCache.putIfAbsent(classToUse, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1425,8 +1454,11 @@ public class ResolvableType implements Serializable {
 		}
 
 		// For simple Class references, build the wrapper right away -
-		// no expensive resolution necessary, so not worth caching...
+		// no expensive resolution necessary, so only the plain Class variant is shared...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1440,6 +1472,11 @@ public class ResolvableType implements Serializable {
 			cachedType = new ResolvableType(type, typeProvider, variableResolver, resultType.hash);
 			cache.put(cachedType, cachedType);
 		}
+		if (typeProvider == null) {
+			// No source to preserve: share the canonical instance along with
+			// its lazily resolved supertypes, interfaces and generics.
+			return cachedType;
+		}
 		resultType.resolved = cachedType.resolved;
 		return resultType;
 	}
@@ -1450,6 +1487,8 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
+		assignableFromCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
@@ -1679,6 +1718,43 @@ public class ResolvableType implements Serializable {
 	}
 
 
+	/**
+	 * Key for the {@link #isAssignableFrom(ResolvableType)} result cache,
+	 * combining the pre-calculated hash codes of both types.
+	 */
+	private static final class AssignableFromKey {
+
+		private final ResolvableType type;
+
+		private final ResolvableType other;
+
+		private final int hash;
+
+		AssignableFromKey(ResolvableType type, ResolvableType other) {
+			this.type = type;
+			this.other = other;
+			this.hash = 31 * type.hashCode() + other.hashCode();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AssignableFromKey)) {
+				return false;
+			}
+			AssignableFromKey otherKey = (AssignableFromKey) other;
+			return (this.type.equals(otherKey.type) && this.other.equals(otherKey.other));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+
+
 	/**
 	 * Internal {@link Type} used to represent an empty value.
 	 */
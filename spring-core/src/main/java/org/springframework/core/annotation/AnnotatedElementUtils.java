@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -207,7 +207,7 @@ public abstract class AnnotatedElementUtils {
 			return element.isAnnotationPresent(annotationType);
 		}
 		// Exhaustive retrieval of merged annotations...
-		return getAnnotations(element).isPresent(annotationType);
+		return MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, annotationType).isPresent();
 	}
 
 	/**
@@ -223,7 +223,7 @@ public abstract class AnnotatedElementUtils {
 	 * @return {@code true} if a matching annotation is present
 	 */
 	public static boolean isAnnotated(AnnotatedElement element, String annotationName) {
-		return getAnnotations(element).isPresent(annotationName);
+		return MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, annotationName).isPresent();
 	}
 
 	/**
@@ -247,8 +247,8 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
-		MergedAnnotation<?> mergedAnnotation = getAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared());
+		MergedAnnotation<?> mergedAnnotation =
+				MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, annotationType);
 		return getAnnotationAttributes(mergedAnnotation, false, false);
 	}
 
@@ -307,8 +307,8 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		MergedAnnotation<?> mergedAnnotation = getAnnotations(element)
-				.get(annotationName, null, MergedAnnotationSelectors.firstDirectlyDeclared());
+		MergedAnnotation<?> mergedAnnotation =
+				MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, annotationName);
 		return getAnnotationAttributes(mergedAnnotation, classValuesAsString, nestedAnnotationsAsMap);
 	}
 
@@ -334,9 +334,9 @@ public abstract class AnnotatedElementUtils {
 			return element.getDeclaredAnnotation(annotationType);
 		}
 		// Exhaustive retrieval of merged annotations...
-		return getAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
-				.synthesize(MergedAnnotation::isPresent).orElse(null);
+		MergedAnnotation<A> mergedAnnotation =
+				MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, annotationType);
+		return (mergedAnnotation.isPresent() ? mergedAnnotation.synthesize() : null);
 	}
 
 	/**
@@ -528,7 +528,7 @@ public abstract class AnnotatedElementUtils {
 			return element.isAnnotationPresent(annotationType);
 		}
 		// Exhaustive retrieval of merged annotations...
-		return findAnnotations(element).isPresent(annotationType);
+		return MergedAnnotationsCache.get(element, SearchStrategy.TYPE_HIERARCHY, annotationType).isPresent();
 	}
 
 	/**
@@ -562,8 +562,8 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		MergedAnnotation<?> mergedAnnotation = findAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared());
+		MergedAnnotation<?> mergedAnnotation =
+				MergedAnnotationsCache.get(element, SearchStrategy.TYPE_HIERARCHY, annotationType);
 		return getAnnotationAttributes(mergedAnnotation, classValuesAsString, nestedAnnotationsAsMap);
 	}
 
@@ -598,8 +598,8 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		MergedAnnotation<?> mergedAnnotation = findAnnotations(element)
-				.get(annotationName, null, MergedAnnotationSelectors.firstDirectlyDeclared());
+		MergedAnnotation<?> mergedAnnotation =
+				MergedAnnotationsCache.get(element, SearchStrategy.TYPE_HIERARCHY, annotationName);
 		return getAnnotationAttributes(mergedAnnotation, classValuesAsString, nestedAnnotationsAsMap);
 	}
 
@@ -629,9 +629,9 @@ public abstract class AnnotatedElementUtils {
 			return element.getDeclaredAnnotation(annotationType);
 		}
 		// Exhaustive retrieval of merged annotations...
-		return findAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
-				.synthesize(MergedAnnotation::isPresent).orElse(null);
+		MergedAnnotation<A> mergedAnnotation =
+				MergedAnnotationsCache.get(element, SearchStrategy.TYPE_HIERARCHY, annotationType);
+		return (mergedAnnotation.isPresent() ? mergedAnnotation.synthesize() : null);
 	}
 
 	/**
@@ -750,7 +750,7 @@ public abstract class AnnotatedElementUtils {
 	}
 
 	private static MergedAnnotations getAnnotations(AnnotatedElement element) {
-		return MergedAnnotations.from(element, SearchStrategy.INHERITED_ANNOTATIONS, RepeatableContainers.none());
+		return MergedAnnotationsCache.getAnnotations(element, SearchStrategy.INHERITED_ANNOTATIONS);
 	}
 
 	private static MergedAnnotations getRepeatableAnnotations(AnnotatedElement element,
@@ -761,7 +761,7 @@ public abstract class AnnotatedElementUtils {
 	}
 
 	private static MergedAnnotations findAnnotations(AnnotatedElement element) {
-		return MergedAnnotations.from(element, SearchStrategy.TYPE_HIERARCHY, RepeatableContainers.none());
+		return MergedAnnotationsCache.getAnnotations(element, SearchStrategy.TYPE_HIERARCHY);
 	}
 
 	private static MergedAnnotations findRepeatableAnnotations(AnnotatedElement element,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -195,16 +195,25 @@ final class AnnotationTypeMappings {
 			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
 
 		if (repeatableContainers == RepeatableContainers.standardRepeatables()) {
-			return standardRepeatablesCache.computeIfAbsent(annotationFilter,
-					key -> new Cache(repeatableContainers, key)).get(annotationType);
+			return getCache(standardRepeatablesCache, repeatableContainers, annotationFilter).get(annotationType);
 		}
 		if (repeatableContainers == RepeatableContainers.none()) {
-			return noRepeatablesCache.computeIfAbsent(annotationFilter,
-					key -> new Cache(repeatableContainers, key)).get(annotationType);
+			return getCache(noRepeatablesCache, repeatableContainers, annotationFilter).get(annotationType);
 		}
 		return new AnnotationTypeMappings(repeatableContainers, annotationFilter, annotationType);
 	}
 
+	private static Cache getCache(Map<AnnotationFilter, Cache> caches,
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+
+		// Plain lookup first: avoids allocating a capturing lambda on every call
+		Cache cache = caches.get(annotationFilter);
+		if (cache == null) {
+			cache = caches.computeIfAbsent(annotationFilter, key -> new Cache(repeatableContainers, key));
+		}
+		return cache;
+	}
+
 	static void clearCache() {
 		standardRepeatablesCache.clear();
 		noRepeatablesCache.clear();
@@ -238,7 +247,11 @@ final class AnnotationTypeMappings {
 		 * @return a new or existing {@link AnnotationTypeMappings} instance
 		 */
 		AnnotationTypeMappings get(Class<? extends Annotation> annotationType) {
-			return this.mappings.computeIfAbsent(annotationType, this::createMappings);
+			AnnotationTypeMappings mappings = this.mappings.get(annotationType);
+			if (mappings == null) {
+				mappings = this.mappings.computeIfAbsent(annotationType, this::createMappings);
+			}
+			return mappings;
 		}
 
 		AnnotationTypeMappings createMappings(Class<? extends Annotation> annotationType) {
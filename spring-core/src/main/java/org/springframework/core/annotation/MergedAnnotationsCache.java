@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Cache of {@link MergedAnnotations} and of individual merged annotation
+ * lookups for classes and members, as used by {@link AnnotatedElementUtils}.
+ *
+ * <p>Results are keyed by annotated element, search strategy and annotation
+ * type (or annotation type name), with every cached {@link MergedAnnotation}
+ * also retaining its synthesized annotation once requested. Repeated lookups
+ * are therefore served without re-scanning the annotation hierarchy and
+ * without any allocation. Absent annotations are cached as
+ * {@link MergedAnnotation#missing() missing} results.
+ *
+ * <p>Like the other annotation caches, this cache holds soft references only
+ * and is bounded per annotated element; it is cleared through
+ * {@link AnnotationUtils#clearCache()}.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ */
+final class MergedAnnotationsCache {
+
+	/**
+	 * Maximum number of individual lookups to cache per annotated element
+	 * and search strategy.
+	 */
+	static final int MAX_LOOKUPS_PER_ELEMENT = 32;
+
+
+	private static final Map<AnnotatedElement, Entry> inheritedAnnotationsCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<AnnotatedElement, Entry> typeHierarchyCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	private MergedAnnotationsCache() {
+	}
+
+
+	/**
+	 * Get the {@link MergedAnnotations} for the given element and search
+	 * strategy, with no repeatable containers and plain Java annotations
+	 * filtered.
+	 * @param element the source element
+	 * @param searchStrategy the search strategy to use
+	 * @return the (potentially shared) merged annotations instance
+	 */
+	static MergedAnnotations getAnnotations(AnnotatedElement element, SearchStrategy searchStrategy) {
+		Entry entry = getEntry(element, searchStrategy);
+		return (entry != null ? entry.annotations :
+				MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none()));
+	}
+
+	/**
+	 * Get the first directly declared merged annotation of the given type
+	 * for the given element and search strategy.
+	 * @param element the source element
+	 * @param searchStrategy the search strategy to use
+	 * @param annotationType the annotation type to get
+	 * @return the (potentially shared) merged annotation, or
+	 * {@link MergedAnnotation#missing()} if none was found
+	 */
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation> MergedAnnotation<A> get(
+			AnnotatedElement element, SearchStrategy searchStrategy, Class<A> annotationType) {
+
+		Entry entry = getEntry(element, searchStrategy);
+		if (entry != null) {
+			return (MergedAnnotation<A>) entry.get(annotationType);
+		}
+		return MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none())
+				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared());
+	}
+
+	/**
+	 * Get the first directly declared merged annotation of the given type
+	 * for the given element and search strategy.
+	 * @param element the source element
+	 * @param searchStrategy the search strategy to use
+	 * @param annotationName the fully qualified class name of the annotation type to get
+	 * @return the (potentially shared) merged annotation, or
+	 * {@link MergedAnnotation#missing()} if none was found
+	 */
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation> MergedAnnotation<A> get(
+			AnnotatedElement element, SearchStrategy searchStrategy, String annotationName) {
+
+		Entry entry = getEntry(element, searchStrategy);
+		if (entry != null) {
+			return (MergedAnnotation<A>) entry.get(annotationName);
+		}
+		return MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none())
+				.get(annotationName, null, MergedAnnotationSelectors.firstDirectlyDeclared());
+	}
+
+	@Nullable
+	private static Entry getEntry(AnnotatedElement element, SearchStrategy searchStrategy) {
+		Map<AnnotatedElement, Entry> cache = getCache(searchStrategy);
+		if (cache == null || !isCacheable(element)) {
+			return null;
+		}
+		Entry entry = cache.get(element);
+		if (entry == null) {
+			entry = new Entry(MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none()));
+			Entry existing = cache.putIfAbsent(element, entry);
+			if (existing != null) {
+				entry = existing;
+			}
+		}
+		return entry;
+	}
+
+	@Nullable
+	private static Map<AnnotatedElement, Entry> getCache(SearchStrategy searchStrategy) {
+		switch (searchStrategy) {
+			case INHERITED_ANNOTATIONS:
+				return inheritedAnnotationsCache;
+			case TYPE_HIERARCHY:
+				return typeHierarchyCache;
+			default:
+				return null;
+		}
+	}
+
+	private static boolean isCacheable(AnnotatedElement element) {
+		// Only stable reflection handles: not arbitrary AnnotatedElement adapters
+		return (element instanceof Class || element instanceof Member);
+	}
+
+	/**
+	 * Clear the merged annotations cache.
+	 */
+	static void clearCache() {
+		inheritedAnnotationsCache.clear();
+		typeHierarchyCache.clear();
+	}
+
+
+	/**
+	 * Cached merged annotations for a single element and search strategy,
+	 * along with individual lookup results by annotation type or name.
+	 */
+	private static final class Entry {
+
+		final MergedAnnotations annotations;
+
+		private final Map<Object, MergedAnnotation<?>> lookups = new ConcurrentHashMap<>(8);
+
+		Entry(MergedAnnotations annotations) {
+			this.annotations = annotations;
+		}
+
+		MergedAnnotation<?> get(Object annotationType) {
+			MergedAnnotation<?> mergedAnnotation = this.lookups.get(annotationType);
+			if (mergedAnnotation == null) {
+				mergedAnnotation = (annotationType instanceof Class ?
+						this.annotations.get(getAnnotationType(annotationType), null,
+								MergedAnnotationSelectors.firstDirectlyDeclared()) :
+						this.annotations.get((String) annotationType, null,
+								MergedAnnotationSelectors.firstDirectlyDeclared()));
+				if (this.lookups.size() < MAX_LOOKUPS_PER_ELEMENT) {
+					this.lookups.put(annotationType, mergedAnnotation);
+				}
+			}
+			return mergedAnnotation;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Class<Annotation> getAnnotationType(Object annotationType) {
+			return (Class<Annotation>) annotationType;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -213,12 +213,15 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 	}
 
 	private Object getAttributeValue(Method method) {
-		Object value = this.valueCache.computeIfAbsent(method.getName(), attributeName -> {
-			Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType());
-			return this.annotation.getValue(attributeName, type).orElseThrow(
-					() -> new NoSuchElementException("No value found for attribute named '" + attributeName +
-							"' in merged annotation " + this.annotation.getType().getName()));
-		});
+		Object value = this.valueCache.get(method.getName());
+		if (value == null) {
+			value = this.valueCache.computeIfAbsent(method.getName(), attributeName -> {
+				Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType());
+				return this.annotation.getValue(attributeName, type).orElseThrow(
+						() -> new NoSuchElementException("No value found for attribute named '" + attributeName +
+								"' in merged annotation " + this.annotation.getType().getName()));
+			});
+		}
 
 		// Clone non-empty arrays so that users cannot alter the contents of values in our cache.
 		if (value.getClass().isArray() && Array.getLength(value) > 0) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -74,11 +75,32 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	private static final GenericConverter NO_MATCH = new NoOpConverter("NO_MATCH");
 
+	/**
+	 * Used as a direct converter cache entry when the source object can be returned as-is.
+	 */
+	private static final Converter<Object, Object> NO_OP_DIRECT_CONVERTER = (source -> source);
+
+	/**
+	 * Used as a direct converter cache entry when conversion requires type descriptors.
+	 * This converter is never invoked.
+	 */
+	private static final Converter<Object, Object> NO_DIRECT_CONVERTER = (source -> source);
+
+	/**
+	 * Maximum number of direct converters to cache per source type.
+	 */
+	private static final int DIRECT_CONVERTER_CACHE_LIMIT = 32;
+
 
 	private final Converters converters = new Converters();
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<Class<?>, Map<Class<?>, Converter<Object, Object>>> directConverterCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	private final boolean directConversion = isDirectConversionApplicable(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -172,6 +194,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null && this.directConversion) {
+			// Shortcut: plain Converter for the given classes, with no type descriptors needed?
+			Converter<Object, Object> converter = getDirectConverter(source.getClass(), targetType);
+			if (converter != NO_DIRECT_CONVERTER) {
+				return (T) convertDirectly(converter, source, targetType);
+			}
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -305,6 +334,78 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.directConverterCache.clear();
+	}
+
+	/**
+	 * Direct conversion bypasses {@link #convert(Object, TypeDescriptor, TypeDescriptor)},
+	 * so it only applies if that method has not been overridden in a subclass.
+	 */
+	private static boolean isDirectConversionApplicable(Class<?> serviceClass) {
+		Method convertMethod = ClassUtils.getMethodIfAvailable(
+				serviceClass, "convert", Object.class, TypeDescriptor.class, TypeDescriptor.class);
+		return (convertMethod != null && convertMethod.getDeclaringClass() == GenericConversionService.class);
+	}
+
+	/**
+	 * Determine the plain {@link Converter} to apply for the given source and
+	 * target class, as resolved through {@link #getConverter} and then cached
+	 * per class pair, allowing for repeated conversions without creating
+	 * {@link TypeDescriptor} instances or converter cache keys.
+	 * @return the direct converter, or {@link #NO_DIRECT_CONVERTER} if the
+	 * conversion needs to go through the {@link GenericConverter} variant
+	 */
+	private Converter<Object, Object> getDirectConverter(Class<?> sourceType, Class<?> targetType) {
+		Map<Class<?>, Converter<Object, Object>> converters = this.directConverterCache.get(sourceType);
+		if (converters == null) {
+			converters = new ConcurrentHashMap<>(8);
+			Map<Class<?>, Converter<Object, Object>> existing =
+					this.directConverterCache.putIfAbsent(sourceType, converters);
+			if (existing != null) {
+				converters = existing;
+			}
+		}
+		Converter<Object, Object> converter = converters.get(targetType);
+		if (converter == null) {
+			GenericConverter genericConverter =
+					getConverter(TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType));
+			if (genericConverter == NO_OP_CONVERTER) {
+				converter = NO_OP_DIRECT_CONVERTER;
+			}
+			else if (genericConverter instanceof ConverterAdapter) {
+				converter = ((ConverterAdapter) genericConverter).converter;
+			}
+			else if (genericConverter instanceof ConverterFactoryAdapter) {
+				converter = ((ConverterFactoryAdapter) genericConverter).getConverter(
+						ClassUtils.resolvePrimitiveIfNecessary(targetType));
+			}
+			else {
+				converter = NO_DIRECT_CONVERTER;
+			}
+			if (converters.size() < DIRECT_CONVERTER_CACHE_LIMIT) {
+				converters.put(targetType, converter);
+			}
+		}
+		return converter;
+	}
+
+	@Nullable
+	private Object convertDirectly(Converter<Object, Object> converter, Object source, Class<?> targetType) {
+		Object result;
+		try {
+			result = converter.convert(source);
+		}
+		catch (ConversionFailedException ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new ConversionFailedException(
+					TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType), source, ex);
+		}
+		if (result == null) {
+			assertNotPrimitiveTargetType(TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		}
+		return result;
 	}
 
 	@Nullable
@@ -437,6 +538,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 			return this.converterFactory.getConverter(targetType.getObjectType()).convert(source);
 		}
 
+		Converter<Object, Object> getConverter(Class<?> targetType) {
+			return (Converter<Object, Object>) this.converterFactory.getConverter(targetType);
+		}
+
 		@Override
 		public String toString() {
 			return (this.typeInfo + " : " + this.converterFactory);
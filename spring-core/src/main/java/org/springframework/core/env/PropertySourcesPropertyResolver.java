@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,20 @@
 
 package org.springframework.core.env;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>As of 5.3.10, an index of the property source that each requested key has
+ * been found in (or not) can be enabled through {@link #setUsePropertyIndex},
+ * avoiding a linear search through all property sources for repeated lookups.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -34,6 +42,9 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	@Nullable
 	private final PropertySources propertySources;
 
+	@Nullable
+	private volatile PropertyIndex propertyIndex;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,8 +55,37 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Specify whether to keep an index of the property source that each requested
+	 * key has been found in, as well as of keys that have not been found in any
+	 * property source.
+	 * <p>The index is reset whenever property sources are added, removed or
+	 * replaced, and property values are always read from the indexed property
+	 * source itself. However, keys that are added to a property source after
+	 * having been looked up are only noticed once the index gets reset, so
+	 * this should only be switched on if the set of keys of each individual
+	 * property source does not change.
+	 * <p>Default is "false". Only supported for {@link MutablePropertySources}.
+	 * @since 5.3.10
+	 */
+	public void setUsePropertyIndex(boolean usePropertyIndex) {
+		if (usePropertyIndex) {
+			Assert.state(this.propertySources instanceof MutablePropertySources,
+					"Property index requires MutablePropertySources");
+			this.propertyIndex = new PropertyIndex((MutablePropertySources) this.propertySources);
+		}
+		else {
+			this.propertyIndex = null;
+		}
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
+		PropertyIndex propertyIndex = this.propertyIndex;
+		if (propertyIndex != null) {
+			return (findIndexedPropertySource(propertyIndex, key) != null);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (propertySource.containsProperty(key)) {
@@ -76,6 +116,10 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		PropertyIndex propertyIndex = this.propertyIndex;
+		if (propertyIndex != null) {
+			return getIndexedProperty(propertyIndex, key, targetValueType, resolveNestedPlaceholders);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
@@ -98,6 +142,70 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	@Nullable
+	private <T> T getIndexedProperty(PropertyIndex propertyIndex, String key, Class<T> targetValueType,
+			boolean resolveNestedPlaceholders) {
+
+		Map<String, Object> entries = propertyIndex.getEntries();
+		Object entry = entries.get(key);
+		PropertySource<?> propertySource = null;
+		Object value = null;
+		if (entry instanceof PropertySource) {
+			propertySource = (PropertySource<?>) entry;
+			value = propertySource.getProperty(key);
+		}
+		if (value == null && entry != PropertyIndex.NOT_FOUND) {
+			propertySource = findPropertySource(propertyIndex, entries, key);
+			value = (propertySource != null ? propertySource.getProperty(key) : null);
+		}
+		if (propertySource != null && value != null) {
+			if (resolveNestedPlaceholders && value instanceof String) {
+				value = resolveNestedPlaceholders((String) value);
+			}
+			logKeyFound(key, propertySource, value);
+			return convertValueIfNecessary(value, targetValueType);
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Could not find key '" + key + "' in any property source");
+		}
+		return null;
+	}
+
+	@Nullable
+	private PropertySource<?> findIndexedPropertySource(PropertyIndex propertyIndex, String key) {
+		Map<String, Object> entries = propertyIndex.getEntries();
+		Object entry = entries.get(key);
+		if (entry instanceof PropertySource && ((PropertySource<?>) entry).getProperty(key) != null) {
+			return (PropertySource<?>) entry;
+		}
+		if (entry == PropertyIndex.NOT_FOUND) {
+			return null;
+		}
+		return findPropertySource(propertyIndex, entries, key);
+	}
+
+	/**
+	 * Search all property sources for the given key, recording the outcome
+	 * in the given index entries.
+	 */
+	@Nullable
+	private PropertySource<?> findPropertySource(PropertyIndex propertyIndex, Map<String, Object> entries,
+			String key) {
+
+		for (PropertySource<?> propertySource : propertyIndex.propertySources) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Searching for key '" + key + "' in PropertySource '" +
+						propertySource.getName() + "'");
+			}
+			if (propertySource.getProperty(key) != null) {
+				entries.put(key, propertySource);
+				return propertySource;
+			}
+		}
+		entries.put(key, PropertyIndex.NOT_FOUND);
+		return null;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -117,4 +225,41 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Index of the property source that each key has been found in, or
+	 * {@link #NOT_FOUND} for keys not contained in any property source,
+	 * valid for a specific state of the underlying property sources.
+	 */
+	private static final class PropertyIndex {
+
+		static final Object NOT_FOUND = new Object();
+
+		final MutablePropertySources propertySources;
+
+		private volatile int modificationCount = -1;
+
+		private volatile Map<String, Object> entries = new ConcurrentHashMap<>();
+
+		PropertyIndex(MutablePropertySources propertySources) {
+			this.propertySources = propertySources;
+		}
+
+		/**
+		 * Return the index entries for the current state of the property sources.
+		 */
+		Map<String, Object> getEntries() {
+			int modificationCount = this.propertySources.getModificationCount();
+			if (modificationCount != this.modificationCount) {
+				synchronized (this) {
+					if (modificationCount != this.modificationCount) {
+						this.entries = new ConcurrentHashMap<>();
+						this.modificationCount = modificationCount;
+					}
+				}
+			}
+			return this.entries;
+		}
+	}
+
 }
@@ -0,0 +1,598 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+
+/**
+ * ASM {@link ClassVisitor} which forwards the class structure relevant for
+ * annotation metadata to a target visitor, recording it in a compact binary
+ * form at the same time. The recording can be {@linkplain #replay replayed}
+ * into another visitor later on, without access to the original class file.
+ *
+ * <p>Records the class header, outer and inner class declarations, visible
+ * class annotations and every method with visible annotations, including
+ * all annotation attribute values. Invisible annotations, fields and
+ * method code are not recorded.
+ *
+ * <p>The same format is written at compile time by the
+ * {@code ClassMetadataWriter} in {@code spring-context-indexer}, so both
+ * need to be kept in sync.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see PersistentMetadataCache
+ * @see SimpleMetadataReaderFactory#getMetadataReader(byte[])
+ */
+final class ClassMetadataRecorder extends ClassVisitor {
+
+	private static final byte CLASS = 'C';
+
+	private static final byte OUTER_CLASS = 'O';
+
+	private static final byte INNER_CLASS = 'I';
+
+	private static final byte ANNOTATION = '@';
+
+	private static final byte METHOD = 'M';
+
+	private static final byte END = '.';
+
+	private static final byte VALUE = 'V';
+
+	private static final byte ENUM = 'E';
+
+	private static final byte NESTED_ANNOTATION = 'A';
+
+	private static final byte ARRAY = '[';
+
+	private static final byte ANNOTATION_END = ';';
+
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+	private final DataOutputStream out = new DataOutputStream(this.buffer);
+
+
+	ClassMetadataRecorder(ClassVisitor target) {
+		super(SpringAsmInfo.ASM_VERSION, target);
+	}
+
+
+	@Override
+	public void visit(int version, int access, String name, @Nullable String signature,
+			@Nullable String superName, @Nullable String[] interfaces) {
+
+		record(() -> {
+			this.out.writeByte(CLASS);
+			this.out.writeInt(version);
+			this.out.writeInt(access);
+			this.out.writeUTF(name);
+			writeNullableString(this.out, superName);
+			this.out.writeShort(interfaces != null ? interfaces.length : 0);
+			if (interfaces != null) {
+				for (String ifc : interfaces) {
+					this.out.writeUTF(ifc);
+				}
+			}
+		});
+		super.visit(version, access, name, signature, superName, interfaces);
+	}
+
+	@Override
+	public void visitOuterClass(String owner, @Nullable String name, @Nullable String descriptor) {
+		record(() -> {
+			this.out.writeByte(OUTER_CLASS);
+			this.out.writeUTF(owner);
+			writeNullableString(this.out, name);
+			writeNullableString(this.out, descriptor);
+		});
+		super.visitOuterClass(owner, name, descriptor);
+	}
+
+	@Override
+	public void visitInnerClass(String name, @Nullable String outerName, @Nullable String innerName, int access) {
+		record(() -> {
+			this.out.writeByte(INNER_CLASS);
+			this.out.writeUTF(name);
+			writeNullableString(this.out, outerName);
+			writeNullableString(this.out, innerName);
+			this.out.writeInt(access);
+		});
+		super.visitInnerClass(name, outerName, innerName, access);
+	}
+
+	@Override
+	@Nullable
+	public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+		AnnotationVisitor target = super.visitAnnotation(descriptor, visible);
+		if (!visible) {
+			return target;
+		}
+		record(() -> {
+			this.out.writeByte(ANNOTATION);
+			this.out.writeUTF(descriptor);
+		});
+		return new AnnotationRecorder(target, this.out);
+	}
+
+	@Override
+	@Nullable
+	public MethodVisitor visitMethod(int access, String name, String descriptor,
+			@Nullable String signature, @Nullable String[] exceptions) {
+
+		MethodVisitor target = super.visitMethod(access, name, descriptor, signature, exceptions);
+		return (target != null ? new MethodRecorder(target, access, name, descriptor) : null);
+	}
+
+	@Override
+	public void visitEnd() {
+		record(() -> this.out.writeByte(END));
+		super.visitEnd();
+	}
+
+	/**
+	 * Return the recording of all visited parts of the class so far.
+	 */
+	byte[] toByteArray() {
+		return this.buffer.toByteArray();
+	}
+
+	private void record(IoAction action) {
+		try {
+			action.run();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+
+	/**
+	 * Replay the given recording into the given visitor.
+	 * @param recording the recording created by a {@code ClassMetadataRecorder}
+	 * @param visitor the visitor to call
+	 * @throws IOException if the recording is malformed
+	 */
+	static void replay(byte[] recording, ClassVisitor visitor) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(recording));
+		while (true) {
+			byte tag = in.readByte();
+			switch (tag) {
+				case CLASS:
+					int version = in.readInt();
+					int access = in.readInt();
+					String name = in.readUTF();
+					String superName = readNullableString(in);
+					String[] interfaces = new String[in.readUnsignedShort()];
+					for (int i = 0; i < interfaces.length; i++) {
+						interfaces[i] = in.readUTF();
+					}
+					visitor.visit(version, access, name, null, superName, interfaces);
+					break;
+				case OUTER_CLASS:
+					visitor.visitOuterClass(in.readUTF(), readNullableString(in), readNullableString(in));
+					break;
+				case INNER_CLASS:
+					visitor.visitInnerClass(in.readUTF(), readNullableString(in), readNullableString(in), in.readInt());
+					break;
+				case ANNOTATION:
+					replayAnnotation(in, visitor.visitAnnotation(in.readUTF(), true));
+					break;
+				case METHOD:
+					MethodVisitor mv = visitor.visitMethod(in.readInt(), in.readUTF(), in.readUTF(), null, null);
+					while (in.readByte() == ANNOTATION) {
+						String descriptor = in.readUTF();
+						replayAnnotation(in, (mv != null ? mv.visitAnnotation(descriptor, true) : null));
+					}
+					if (mv != null) {
+						mv.visitEnd();
+					}
+					break;
+				case END:
+					visitor.visitEnd();
+					return;
+				default:
+					throw new IOException("Unexpected tag in metadata recording: " + tag);
+			}
+		}
+	}
+
+	private static void replayAnnotation(DataInputStream in, @Nullable AnnotationVisitor av) throws IOException {
+		while (true) {
+			byte tag = in.readByte();
+			if (tag == ANNOTATION_END) {
+				if (av != null) {
+					av.visitEnd();
+				}
+				return;
+			}
+			String name = readNullableString(in);
+			switch (tag) {
+				case VALUE:
+					Object value = readValue(in);
+					if (av != null) {
+						av.visit(name, value);
+					}
+					break;
+				case ENUM:
+					String descriptor = in.readUTF();
+					String enumValue = in.readUTF();
+					if (av != null) {
+						av.visitEnum(name, descriptor, enumValue);
+					}
+					break;
+				case NESTED_ANNOTATION:
+					String nestedDescriptor = in.readUTF();
+					replayAnnotation(in, (av != null ? av.visitAnnotation(name, nestedDescriptor) : null));
+					break;
+				case ARRAY:
+					replayAnnotation(in, (av != null ? av.visitArray(name) : null));
+					break;
+				default:
+					throw new IOException("Unexpected tag in annotation recording: " + tag);
+			}
+		}
+	}
+
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte('s');
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Type) {
+			out.writeByte('T');
+			out.writeUTF(((Type) value).getDescriptor());
+		}
+		else if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte('B');
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte('C');
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof int[]) {
+			int[] array = (int[]) value;
+			out.writeByte('i');
+			out.writeInt(array.length);
+			for (int element : array) {
+				out.writeInt(element);
+			}
+		}
+		else if (value instanceof long[]) {
+			long[] array = (long[]) value;
+			out.writeByte('j');
+			out.writeInt(array.length);
+			for (long element : array) {
+				out.writeLong(element);
+			}
+		}
+		else if (value instanceof boolean[]) {
+			boolean[] array = (boolean[]) value;
+			out.writeByte('z');
+			out.writeInt(array.length);
+			for (boolean element : array) {
+				out.writeBoolean(element);
+			}
+		}
+		else if (value instanceof byte[]) {
+			byte[] array = (byte[]) value;
+			out.writeByte('b');
+			out.writeInt(array.length);
+			out.write(array);
+		}
+		else if (value instanceof char[]) {
+			char[] array = (char[]) value;
+			out.writeByte('c');
+			out.writeInt(array.length);
+			for (char element : array) {
+				out.writeChar(element);
+			}
+		}
+		else if (value instanceof short[]) {
+			short[] array = (short[]) value;
+			out.writeByte('h');
+			out.writeInt(array.length);
+			for (short element : array) {
+				out.writeShort(element);
+			}
+		}
+		else if (value instanceof float[]) {
+			float[] array = (float[]) value;
+			out.writeByte('f');
+			out.writeInt(array.length);
+			for (float element : array) {
+				out.writeFloat(element);
+			}
+		}
+		else if (value instanceof double[]) {
+			double[] array = (double[]) value;
+			out.writeByte('d');
+			out.writeInt(array.length);
+			for (double element : array) {
+				out.writeDouble(element);
+			}
+		}
+		else {
+			throw new IOException("Unsupported annotation value type: " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+			case 's':
+				return in.readUTF();
+			case 'T':
+				return Type.getType(in.readUTF());
+			case 'I':
+				return in.readInt();
+			case 'J':
+				return in.readLong();
+			case 'Z':
+				return in.readBoolean();
+			case 'B':
+				return in.readByte();
+			case 'C':
+				return in.readChar();
+			case 'S':
+				return in.readShort();
+			case 'F':
+				return in.readFloat();
+			case 'D':
+				return in.readDouble();
+			case 'i': {
+				int[] array = new int[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readInt();
+				}
+				return array;
+			}
+			case 'j': {
+				long[] array = new long[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readLong();
+				}
+				return array;
+			}
+			case 'z': {
+				boolean[] array = new boolean[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readBoolean();
+				}
+				return array;
+			}
+			case 'b': {
+				byte[] array = new byte[in.readInt()];
+				in.readFully(array);
+				return array;
+			}
+			case 'c': {
+				char[] array = new char[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readChar();
+				}
+				return array;
+			}
+			case 'h': {
+				short[] array = new short[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readShort();
+				}
+				return array;
+			}
+			case 'f': {
+				float[] array = new float[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readFloat();
+				}
+				return array;
+			}
+			case 'd': {
+				double[] array = new double[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readDouble();
+				}
+				return array;
+			}
+			default:
+				throw new IOException("Unexpected value tag in annotation recording: " + tag);
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+
+	@FunctionalInterface
+	private interface IoAction {
+
+		void run() throws IOException;
+	}
+
+
+	/**
+	 * Recording {@link AnnotationVisitor}, also used for array values.
+	 */
+	private static final class AnnotationRecorder extends AnnotationVisitor {
+
+		private final DataOutputStream out;
+
+		AnnotationRecorder(@Nullable AnnotationVisitor target, DataOutputStream out) {
+			super(SpringAsmInfo.ASM_VERSION, target);
+			this.out = out;
+		}
+
+		@Override
+		public void visit(@Nullable String name, Object value) {
+			write(() -> {
+				this.out.writeByte(VALUE);
+				writeNullableString(this.out, name);
+				writeValue(this.out, value);
+			});
+			super.visit(name, value);
+		}
+
+		@Override
+		public void visitEnum(@Nullable String name, String descriptor, String value) {
+			write(() -> {
+				this.out.writeByte(ENUM);
+				writeNullableString(this.out, name);
+				this.out.writeUTF(descriptor);
+				this.out.writeUTF(value);
+			});
+			super.visitEnum(name, descriptor, value);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(@Nullable String name, String descriptor) {
+			write(() -> {
+				this.out.writeByte(NESTED_ANNOTATION);
+				writeNullableString(this.out, name);
+				this.out.writeUTF(descriptor);
+			});
+			return new AnnotationRecorder(super.visitAnnotation(name, descriptor), this.out);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(@Nullable String name) {
+			write(() -> {
+				this.out.writeByte(ARRAY);
+				writeNullableString(this.out, name);
+			});
+			return new AnnotationRecorder(super.visitArray(name), this.out);
+		}
+
+		@Override
+		public void visitEnd() {
+			write(() -> this.out.writeByte(ANNOTATION_END));
+			super.visitEnd();
+		}
+
+		private void write(IoAction action) {
+			try {
+				action.run();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Recording {@link MethodVisitor}, buffering the method header and its
+	 * visible annotations until the end of the method, only writing them to
+	 * the class recording if the method has any visible annotations at all.
+	 */
+	private final class MethodRecorder extends MethodVisitor {
+
+		private final int access;
+
+		private final String name;
+
+		private final String descriptor;
+
+		private final ByteArrayOutputStream methodBuffer = new ByteArrayOutputStream(64);
+
+		private final DataOutputStream methodOut = new DataOutputStream(this.methodBuffer);
+
+		MethodRecorder(MethodVisitor target, int access, String name, String descriptor) {
+			super(SpringAsmInfo.ASM_VERSION, target);
+			this.access = access;
+			this.name = name;
+			this.descriptor = descriptor;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			AnnotationVisitor target = super.visitAnnotation(descriptor, visible);
+			if (!visible) {
+				return target;
+			}
+			record(() -> {
+				this.methodOut.writeByte(ANNOTATION);
+				this.methodOut.writeUTF(descriptor);
+			});
+			return new AnnotationRecorder(target, this.methodOut);
+		}
+
+		@Override
+		public void visitEnd() {
+			if (this.methodBuffer.size() > 0) {
+				record(() -> {
+					out.writeByte(METHOD);
+					out.writeInt(this.access);
+					out.writeUTF(this.name);
+					out.writeUTF(this.descriptor);
+					this.methodBuffer.writeTo(out);
+					out.writeByte(END);
+				});
+			}
+			super.visitEnd();
+		}
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * Cheap pre-filter for class files, checking whether the constant pool of a
+ * class contains at least one of a given set of UTF-8 constants (for example,
+ * an annotation descriptor such as {@code "Lorg/springframework/stereotype/Component;"}
+ * or the {@code "RuntimeVisibleAnnotations"} attribute name) before a full
+ * ASM-based {@link MetadataReader} gets built for it.
+ *
+ * <p>A class which does not contain any of the constants cannot possibly
+ * declare a corresponding annotation, so the filter may be used to exclude
+ * classes early. A match does not imply that the annotation is actually
+ * present, and unparseable class files are always reported as a match in
+ * order to leave any error handling to the regular metadata reading step.
+ *
+ * <p>Class bytes are read into a buffer which is reused per thread.
+ * Instances of this class are immutable and thread-safe.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ */
+public final class ConstantPoolFilter {
+
+	private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+	private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<byte[]> bufferHolder = ThreadLocal.withInitial(() -> new byte[8192]);
+
+
+	private final byte[][] constants;
+
+
+	/**
+	 * Create a new {@code ConstantPoolFilter} for the given constants.
+	 * @param constants the UTF-8 constants to look for (at least one)
+	 */
+	public ConstantPoolFilter(Collection<String> constants) {
+		Assert.notEmpty(constants, "At least one constant is required");
+		List<byte[]> encoded = new ArrayList<>(constants.size());
+		for (String constant : constants) {
+			encoded.add(encode(constant));
+		}
+		this.constants = encoded.toArray(new byte[0][]);
+	}
+
+
+	/**
+	 * Determine whether the class file behind the given resource contains
+	 * any of the constants of this filter.
+	 * @param resource the class file resource
+	 * @return {@code true} if a constant was found or if the class file
+	 * could not be parsed, {@code false} otherwise
+	 * @throws IOException in case of an I/O failure
+	 */
+	public boolean matches(Resource resource) throws IOException {
+		byte[] buffer = bufferHolder.get();
+		int length = 0;
+		try (InputStream is = resource.getInputStream()) {
+			int read;
+			while ((read = is.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+			}
+		}
+		if (buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+			bufferHolder.set(buffer);
+		}
+		return matches(buffer, length);
+	}
+
+	/**
+	 * Determine whether the given class file bytes contain any of the
+	 * constants of this filter.
+	 * @param classFile the class file bytes
+	 * @param length the number of valid bytes in the given array
+	 * @return {@code true} if a constant was found or if the class file
+	 * could not be parsed, {@code false} otherwise
+	 */
+	public boolean matches(byte[] classFile, int length) {
+		if (length < 10 || readInt(classFile, 0) != CLASS_FILE_MAGIC) {
+			return true;
+		}
+		int count = readUnsignedShort(classFile, 8);
+		int offset = 10;
+		for (int i = 1; i < count; i++) {
+			if (offset >= length) {
+				return true;
+			}
+			int tag = classFile[offset];
+			switch (tag) {
+				case 1:  // Utf8
+					if (offset + 3 > length) {
+						return true;
+					}
+					int utf8Length = readUnsignedShort(classFile, offset + 1);
+					if (offset + 3 + utf8Length > length) {
+						return true;
+					}
+					if (matchesConstant(classFile, offset + 3, utf8Length)) {
+						return true;
+					}
+					offset += 3 + utf8Length;
+					break;
+				case 7:  // Class
+				case 8:  // String
+				case 16:  // MethodType
+				case 19:  // Module
+				case 20:  // Package
+					offset += 3;
+					break;
+				case 15:  // MethodHandle
+					offset += 4;
+					break;
+				case 3:  // Integer
+				case 4:  // Float
+				case 9:  // Fieldref
+				case 10:  // Methodref
+				case 11:  // InterfaceMethodref
+				case 12:  // NameAndType
+				case 17:  // Dynamic
+				case 18:  // InvokeDynamic
+					offset += 5;
+					break;
+				case 5:  // Long
+				case 6:  // Double
+					offset += 9;
+					i++;
+					break;
+				default:
+					// Unknown constant pool entry -> let the regular reader decide.
+					return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matchesConstant(byte[] classFile, int offset, int length) {
+		for (byte[] constant : this.constants) {
+			if (constant.length == length) {
+				boolean match = true;
+				for (int i = 0; i < length; i++) {
+					if (classFile[offset + i] != constant[i]) {
+						match = false;
+						break;
+					}
+				}
+				if (match) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	private static int readUnsignedShort(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+	}
+
+	private static int readInt(byte[] bytes, int offset) {
+		return (readUnsignedShort(bytes, offset) << 16) | readUnsignedShort(bytes, offset + 2);
+	}
+
+	/**
+	 * Encode the given String in the modified UTF-8 format used by class files.
+	 */
+	private static byte[] encode(String constant) {
+		byte[] bytes = new byte[constant.length() * 3];
+		int length = 0;
+		for (int i = 0; i < constant.length(); i++) {
+			char c = constant.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				bytes[length++] = (byte) c;
+			}
+			else if (c <= 0x07FF) {
+				bytes[length++] = (byte) (0xC0 | (c >> 6));
+				bytes[length++] = (byte) (0x80 | (c & 0x3F));
+			}
+			else {
+				bytes[length++] = (byte) (0xE0 | (c >> 12));
+				bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				bytes[length++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return Arrays.copyOf(bytes, length);
+	}
+
+}
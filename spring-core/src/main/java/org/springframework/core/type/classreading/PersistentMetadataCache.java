@@ -0,0 +1,455 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.core.NestedIOException;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Persistent cache for class metadata, storing the annotation-relevant
+ * structure of every class read through it in a compact binary file and
+ * reloading it on subsequent runs without parsing the class file again.
+ *
+ * <p>Entries are keyed by the URL of the class file resource and validated
+ * against its last-modified timestamp (for classes in a jar file, the timestamp
+ * of the jar file) as well as the length and CRC-32 checksum of its content,
+ * re-parsing the class file and replacing the entry whenever any of these has
+ * changed. The class file content is therefore still loaded on every lookup,
+ * just not parsed again for a valid entry. Entries are checksummed,
+ * and corrupted or incompatible entries are discarded. Entries which have
+ * not been used in the last {@value #MAX_UNUSED_GENERATIONS} JVM runs which
+ * wrote the cache file are dropped on {@link #flush()}.
+ *
+ * <p>The cache file is only written on {@link #flush()}, replacing any
+ * existing file atomically where supported by the file system. A
+ * {@link CachingMetadataReaderFactory} flushes its persistent cache on
+ * {@link CachingMetadataReaderFactory#clearCache() clearCache()}, which
+ * happens after configuration class processing in an application context.
+ *
+ * <p>A shared cache instance may be activated for all metadata reader factories
+ * through the {@value #CACHE_DIRECTORY_PROPERTY_NAME} system property or Spring
+ * property, pointing to the directory to keep the cache file in.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see SimpleMetadataReaderFactory#setPersistentCache
+ */
+public class PersistentMetadataCache {
+
+	/**
+	 * System property that specifies the directory for the default shared
+	 * persistent metadata cache: {@value}.
+	 * @see #getDefaultCache()
+	 * @see org.springframework.core.SpringProperties
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.metadata.cache.dir";
+
+	/** Name of the cache file within a cache directory. */
+	public static final String CACHE_FILE_NAME = "spring-metadata.cache";
+
+	static final int MAX_UNUSED_GENERATIONS = 16;
+
+	private static final int MAGIC = 0x53504D43;
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final int MAX_RECORDING_LENGTH = 1024 * 1024;
+
+	private static final Map<File, PersistentMetadataCache> sharedCaches = new ConcurrentHashMap<>(4);
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataCache.class);
+
+
+	private final Path cacheFile;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>(256);
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private volatile boolean loaded;
+
+	private volatile boolean dirty;
+
+	private int generation;
+
+
+	/**
+	 * Create a new {@code PersistentMetadataCache} for the given cache file.
+	 * @param cacheFile the file to load the cache from and to write it to
+	 * (does not need to exist yet)
+	 * @see #forDirectory(File)
+	 */
+	public PersistentMetadataCache(File cacheFile) {
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		this.cacheFile = cacheFile.getAbsoluteFile().toPath();
+	}
+
+
+	/**
+	 * Return the cache file of this persistent cache.
+	 */
+	public File getCacheFile() {
+		return this.cacheFile.toFile();
+	}
+
+	/**
+	 * Obtain a {@link MetadataReader} for the given class file resource,
+	 * reusing the cached metadata if it is still valid.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader to resolve annotation types against
+	 * @return the MetadataReader for the resource
+	 * @throws IOException in case of an I/O failure when reading the class file
+	 */
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
+		String key;
+		long lastModified;
+		try {
+			key = resource.getURL().toString();
+			lastModified = resource.lastModified();
+		}
+		catch (IOException ex) {
+			// Not a resource with a stable identity -> regular reading
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		if (lastModified <= 0) {
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		byte[] content;
+		try (InputStream is = resource.getInputStream()) {
+			content = StreamUtils.copyToByteArray(is);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(content, 0, content.length);
+		long contentChecksum = crc.getValue();
+
+		loadIfNecessary();
+		Entry entry = this.entries.get(key);
+		if (entry != null) {
+			if (entry.lastModified == lastModified && entry.contentLength == content.length &&
+					entry.contentChecksum == contentChecksum) {
+				try {
+					SimpleAnnotationMetadataReadingVisitor visitor = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+					ClassMetadataRecorder.replay(entry.recording, visitor);
+					entry.used = true;
+					this.hitCount.increment();
+					return new SimpleMetadataReader(resource, visitor.getMetadata());
+				}
+				catch (IOException | RuntimeException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Discarding corrupted metadata cache entry for " + key, ex);
+					}
+				}
+			}
+			this.entries.remove(key, entry);
+			this.dirty = true;
+		}
+
+		this.missCount.increment();
+		SimpleAnnotationMetadataReadingVisitor visitor = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+		ClassMetadataRecorder recorder = new ClassMetadataRecorder(visitor);
+		try {
+			new ClassReader(content).accept(recorder, SimpleMetadataReader.PARSING_OPTIONS);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new NestedIOException("ASM ClassReader failed to parse class file - " +
+					"probably due to a new Java class file version that isn't supported yet: " + resource, ex);
+		}
+		catch (UncheckedIOException ex) {
+			// Class structure not recordable -> regular reading without caching
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		Entry newEntry = new Entry(lastModified, content.length, contentChecksum,
+				recorder.toByteArray(), this.generation);
+		newEntry.used = true;
+		this.entries.put(key, newEntry);
+		this.dirty = true;
+		return new SimpleMetadataReader(resource, visitor.getMetadata());
+	}
+
+	/**
+	 * Write the current cache content to the cache file if anything changed
+	 * since the cache file has been loaded or last written.
+	 * <p>I/O failures are logged and otherwise ignored, keeping the changes
+	 * for a subsequent attempt.
+	 */
+	public void flush() {
+		if (!this.loaded || !this.dirty) {
+			return;
+		}
+		synchronized (this) {
+			if (!this.dirty) {
+				return;
+			}
+			this.dirty = false;
+			Path tempFile = null;
+			try {
+				Path directory = this.cacheFile.getParent();
+				if (directory != null) {
+					Files.createDirectories(directory);
+				}
+				tempFile = Files.createTempFile(directory, CACHE_FILE_NAME, ".tmp");
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+					writeEntries(out);
+				}
+				try {
+					Files.move(tempFile, this.cacheFile,
+							StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tempFile, this.cacheFile, StandardCopyOption.REPLACE_EXISTING);
+				}
+				tempFile = null;
+			}
+			catch (IOException ex) {
+				this.dirty = true;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to write metadata cache file [" + this.cacheFile + "]", ex);
+				}
+			}
+			finally {
+				if (tempFile != null) {
+					try {
+						Files.deleteIfExists(tempFile);
+					}
+					catch (IOException ex) {
+						// ignore
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache and delete the cache file.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.dirty = false;
+		this.loaded = true;
+		try {
+			Files.deleteIfExists(this.cacheFile);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to delete metadata cache file [" + this.cacheFile + "]", ex);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of entries in this cache.
+	 */
+	public int size() {
+		loadIfNecessary();
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the number of metadata lookups served from this cache.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of metadata lookups which required reading the class file.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+
+	private void loadIfNecessary() {
+		if (!this.loaded) {
+			synchronized (this) {
+				if (!this.loaded) {
+					load();
+					this.loaded = true;
+				}
+			}
+		}
+	}
+
+	private void load() {
+		// The generation of the current JVM run, unless read from the cache file below
+		this.generation = 1;
+		if (!Files.isRegularFile(this.cacheFile)) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring incompatible metadata cache file [" + this.cacheFile + "]");
+				}
+				this.dirty = true;
+				return;
+			}
+			this.generation = in.readInt() + 1;
+			int count = in.readInt();
+			CRC32 crc = new CRC32();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long lastModified = in.readLong();
+				long contentLength = in.readLong();
+				long contentChecksum = in.readInt() & 0xFFFFFFFFL;
+				int lastUsed = in.readInt();
+				int length = in.readInt();
+				if (length < 0 || length > MAX_RECORDING_LENGTH) {
+					throw new IOException("Invalid entry length: " + length);
+				}
+				long checksum = in.readInt() & 0xFFFFFFFFL;
+				byte[] recording = new byte[length];
+				in.readFully(recording);
+				crc.reset();
+				crc.update(recording, 0, length);
+				if (crc.getValue() == checksum) {
+					this.entries.put(key, new Entry(lastModified, contentLength, contentChecksum, recording, lastUsed));
+				}
+				else {
+					this.dirty = true;
+				}
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Loaded " + this.entries.size() + " entries from metadata cache file [" +
+						this.cacheFile + "]");
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			// Truncated or corrupted cache file -> keep the entries read so far
+			this.dirty = true;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to fully read metadata cache file [" + this.cacheFile + "]", ex);
+			}
+		}
+	}
+
+	private void writeEntries(DataOutputStream out) throws IOException {
+		List<Map.Entry<String, Entry>> retained = new ArrayList<>(this.entries.size());
+		for (Map.Entry<String, Entry> mapEntry : this.entries.entrySet()) {
+			Entry entry = mapEntry.getValue();
+			if (entry.used) {
+				entry.lastUsed = this.generation;
+			}
+			if (this.generation - entry.lastUsed > MAX_UNUSED_GENERATIONS) {
+				this.entries.remove(mapEntry.getKey(), entry);
+			}
+			else {
+				retained.add(mapEntry);
+			}
+		}
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(this.generation);
+		out.writeInt(retained.size());
+		CRC32 crc = new CRC32();
+		for (Map.Entry<String, Entry> mapEntry : retained) {
+			Entry entry = mapEntry.getValue();
+			crc.reset();
+			crc.update(entry.recording, 0, entry.recording.length);
+			out.writeUTF(mapEntry.getKey());
+			out.writeLong(entry.lastModified);
+			out.writeLong(entry.contentLength);
+			out.writeInt((int) entry.contentChecksum);
+			out.writeInt(entry.lastUsed);
+			out.writeInt(entry.recording.length);
+			out.writeInt((int) crc.getValue());
+			out.write(entry.recording);
+		}
+	}
+
+
+	/**
+	 * Return a shared persistent cache which keeps its cache file in the given directory.
+	 * @param directory the cache directory
+	 * @return the shared cache instance for the given directory
+	 */
+	public static PersistentMetadataCache forDirectory(File directory) {
+		Assert.notNull(directory, "Cache directory must not be null");
+		return sharedCaches.computeIfAbsent(directory.getAbsoluteFile(),
+				dir -> new PersistentMetadataCache(new File(dir, CACHE_FILE_NAME)));
+	}
+
+	/**
+	 * Return the shared persistent cache for the directory specified through the
+	 * {@value #CACHE_DIRECTORY_PROPERTY_NAME} property, if any.
+	 * @return the shared cache instance, or {@code null} if none configured
+	 */
+	@Nullable
+	public static PersistentMetadataCache getDefaultCache() {
+		String directory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		return (StringUtils.hasText(directory) ? forDirectory(new File(directory.trim())) : null);
+	}
+
+
+	/**
+	 * A cache entry: the recorded class structure plus its validation stamp.
+	 */
+	private static final class Entry {
+
+		final long lastModified;
+
+		final long contentLength;
+
+		final long contentChecksum;
+
+		final byte[] recording;
+
+		volatile int lastUsed;
+
+		volatile boolean used;
+
+		Entry(long lastModified, long contentLength, long contentChecksum, byte[] recording, int lastUsed) {
+			this.lastModified = lastModified;
+			this.contentLength = contentLength;
+			this.contentChecksum = contentChecksum;
+			this.recording = recording;
+			this.lastUsed = lastUsed;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.io.IOException;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 
@@ -36,6 +37,9 @@ public class SimpleMetadataReaderFactory implements MetadataReaderFactory {
 
 	private final ResourceLoader resourceLoader;
 
+	@Nullable
+	private PersistentMetadataCache persistentCache = PersistentMetadataCache.getDefaultCache();
+
 
 	/**
 	 * Create a new SimpleMetadataReaderFactory for the default class loader.
@@ -71,6 +75,28 @@ public class SimpleMetadataReaderFactory implements MetadataReaderFactory {
 		return this.resourceLoader;
 	}
 
+	/**
+	 * Specify a {@link PersistentMetadataCache} to obtain class metadata from,
+	 * reusing the metadata of unchanged class files across JVM runs.
+	 * <p>Default is the shared cache for the directory specified through the
+	 * {@value PersistentMetadataCache#CACHE_DIRECTORY_PROPERTY_NAME} property,
+	 * if any. Set this to {@code null} to always read class files directly.
+	 * @since 5.3.10
+	 * @see PersistentMetadataCache#getDefaultCache()
+	 */
+	public void setPersistentCache(@Nullable PersistentMetadataCache persistentCache) {
+		this.persistentCache = persistentCache;
+	}
+
+	/**
+	 * Return the {@link PersistentMetadataCache} to obtain class metadata from, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public PersistentMetadataCache getPersistentCache() {
+		return this.persistentCache;
+	}
+
 
 	@Override
 	public MetadataReader getMetadataReader(String className) throws IOException {
@@ -100,7 +126,31 @@ public class SimpleMetadataReaderFactory implements MetadataReaderFactory {
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		if (this.persistentCache != null) {
+			return this.persistentCache.getMetadataReader(resource, this.resourceLoader.getClassLoader());
+		}
 		return new SimpleMetadataReader(resource, this.resourceLoader.getClassLoader());
 	}
 
+	/**
+	 * Obtain a MetadataReader for pre-recorded class metadata, as precomputed
+	 * at compile time by {@code spring-context-indexer}, without reading the
+	 * class file itself.
+	 * <p>The returned reader exposes the regular class file resource for the
+	 * described class; that resource does not get accessed here.
+	 * @param classMetadata the recorded class metadata
+	 * @return a MetadataReader for the described class
+	 * @throws IOException if the given class metadata is malformed
+	 * @since 5.3.10
+	 */
+	public MetadataReader getMetadataReader(byte[] classMetadata) throws IOException {
+		SimpleAnnotationMetadataReadingVisitor visitor =
+				new SimpleAnnotationMetadataReadingVisitor(this.resourceLoader.getClassLoader());
+		ClassMetadataRecorder.replay(classMetadata, visitor);
+		AnnotationMetadata metadata = visitor.getMetadata();
+		String resourcePath = ResourceLoader.CLASSPATH_URL_PREFIX +
+				ClassUtils.convertClassNameToResourcePath(metadata.getClassName()) + ClassUtils.CLASS_FILE_SUFFIX;
+		return new SimpleMetadataReader(this.resourceLoader.getResource(resourcePath), metadata);
+	}
+
 }
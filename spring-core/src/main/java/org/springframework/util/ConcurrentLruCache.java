@@ -18,6 +18,7 @@ package org.springframework.util;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
@@ -29,6 +30,10 @@ import java.util.function.Function;
  * the cached values and a {@code ConcurrentLinkedDeque} for ordering the keys
  * and choosing the least recently used key when the cache is at full capacity.
  *
+ * <p>As of 5.3.10, the cache keeps track of hits, misses and evictions,
+ * exposed through {@link #hitCount()}, {@link #missCount()} and
+ * {@link #evictionCount()} for monitoring purposes.
+ *
  * @author Brian Clozel
  * @author Juergen Hoeller
  * @since 5.3
@@ -48,6 +53,12 @@ public class ConcurrentLruCache<K, V> {
 
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
 	private volatile int size;
 
 
@@ -73,11 +84,13 @@ public class ConcurrentLruCache<K, V> {
 	 */
 	public V get(K key) {
 		if (this.sizeLimit == 0) {
+			this.missCount.increment();
 			return this.generator.apply(key);
 		}
 
 		V cached = this.cache.get(key);
 		if (cached != null) {
+			this.hitCount.increment();
 			if (this.size < this.sizeLimit) {
 				return cached;
 			}
@@ -98,17 +111,20 @@ public class ConcurrentLruCache<K, V> {
 			// Retrying in case of concurrent reads on the same key
 			cached = this.cache.get(key);
 			if (cached != null) {
+				this.hitCount.increment();
 				if (this.queue.removeLastOccurrence(key)) {
 					this.queue.offer(key);
 				}
 				return cached;
 			}
 			// Generate value first, to prevent size inconsistency
+			this.missCount.increment();
 			V value = this.generator.apply(key);
 			if (this.size == this.sizeLimit) {
 				K leastUsed = this.queue.poll();
 				if (leastUsed != null) {
 					this.cache.remove(leastUsed);
+					this.evictionCount.increment();
 				}
 			}
 			this.queue.offer(key);
@@ -182,4 +198,34 @@ public class ConcurrentLruCache<K, V> {
 		return this.sizeLimit;
 	}
 
+	/**
+	 * Return the number of {@link #get} calls which found a cached value
+	 * since the creation of this cache.
+	 * @since 5.3.10
+	 * @see #missCount()
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls which had to generate a new value
+	 * since the creation of this cache.
+	 * @since 5.3.10
+	 * @see #hitCount()
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries which got evicted in favor of newly
+	 * generated values since the creation of this cache. Explicit removals
+	 * through {@link #remove} or {@link #clear()} do not count here.
+	 * @since 5.3.10
+	 */
+	public long evictionCount() {
+		return this.evictionCount.sum();
+	}
+
 }
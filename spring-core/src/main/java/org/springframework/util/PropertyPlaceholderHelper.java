@@ -16,8 +16,10 @@
 
 package org.springframework.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -35,12 +37,18 @@ import org.springframework.lang.Nullable;
  * <p>Values for substitution can be supplied using a {@link Properties} instance or
  * using a {@link PlaceholderResolver}.
  *
+ * <p>As of 5.3.10, the position of the placeholders within a given String is
+ * cached per helper instance, so that repeated resolution of the same String
+ * does not need to scan it for placeholders again.
+ *
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @since 3.0
  */
 public class PropertyPlaceholderHelper {
 
+	private static final int TEMPLATE_CACHE_LIMIT = 256;
+
 	private static final Log logger = LogFactory.getLog(PropertyPlaceholderHelper.class);
 
 	private static final Map<String, String> wellKnownSimplePrefixes = new HashMap<>(4);
@@ -63,6 +71,9 @@ public class PropertyPlaceholderHelper {
 
 	private final boolean ignoreUnresolvablePlaceholders;
 
+	private final ConcurrentLruCache<String, PlaceholderTemplate> templateCache =
+			new ConcurrentLruCache<>(TEMPLATE_CACHE_LIMIT, this::parseTemplate);
+
 
 	/**
 	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
@@ -129,66 +140,88 @@ public class PropertyPlaceholderHelper {
 	protected String parseStringValue(
 			String value, PlaceholderResolver placeholderResolver, @Nullable Set<String> visitedPlaceholders) {
 
-		int startIndex = value.indexOf(this.placeholderPrefix);
-		if (startIndex == -1) {
+		if (value.indexOf(this.placeholderPrefix) == -1) {
 			return value;
 		}
 
-		StringBuilder result = new StringBuilder(value);
-		while (startIndex != -1) {
-			int endIndex = findPlaceholderEndIndex(result, startIndex);
-			if (endIndex != -1) {
-				String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
-				String originalPlaceholder = placeholder;
-				if (visitedPlaceholders == null) {
-					visitedPlaceholders = new HashSet<>(4);
-				}
-				if (!visitedPlaceholders.add(originalPlaceholder)) {
-					throw new IllegalArgumentException(
-							"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
-				}
-				// Recursive invocation, parsing placeholders contained in the placeholder key.
-				placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
-				// Now obtain the value for the fully resolved key...
-				String propVal = placeholderResolver.resolvePlaceholder(placeholder);
-				if (propVal == null && this.valueSeparator != null) {
-					int separatorIndex = placeholder.indexOf(this.valueSeparator);
-					if (separatorIndex != -1) {
-						String actualPlaceholder = placeholder.substring(0, separatorIndex);
-						String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
-						propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
-						if (propVal == null) {
-							propVal = defaultValue;
-						}
-					}
-				}
-				if (propVal != null) {
-					// Recursive invocation, parsing placeholders contained in the
-					// previously resolved placeholder value.
-					propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
-					result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Resolved placeholder '" + placeholder + "'");
+		PlaceholderTemplate template = this.templateCache.get(value);
+		if (template.placeholders.length == 0) {
+			return value;
+		}
+
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i = 0; i < template.placeholders.length; i++) {
+			result.append(template.literals[i]);
+			String placeholder = template.placeholders[i];
+			String originalPlaceholder = placeholder;
+			if (visitedPlaceholders == null) {
+				visitedPlaceholders = new HashSet<>(4);
+			}
+			if (!visitedPlaceholders.add(originalPlaceholder)) {
+				throw new IllegalArgumentException(
+						"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
+			}
+			// Recursive invocation, parsing placeholders contained in the placeholder key.
+			placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
+			// Now obtain the value for the fully resolved key...
+			String propVal = placeholderResolver.resolvePlaceholder(placeholder);
+			if (propVal == null && this.valueSeparator != null) {
+				int separatorIndex = placeholder.indexOf(this.valueSeparator);
+				if (separatorIndex != -1) {
+					String actualPlaceholder = placeholder.substring(0, separatorIndex);
+					String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
+					propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
+					if (propVal == null) {
+						propVal = defaultValue;
 					}
-					startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
 				}
-				else if (this.ignoreUnresolvablePlaceholders) {
-					// Proceed with unprocessed value.
-					startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
-				}
-				else {
-					throw new IllegalArgumentException("Could not resolve placeholder '" +
-							placeholder + "'" + " in value \"" + value + "\"");
+			}
+			if (propVal != null) {
+				// Recursive invocation, parsing placeholders contained in the
+				// previously resolved placeholder value.
+				propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
+				result.append(propVal);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Resolved placeholder '" + placeholder + "'");
 				}
-				visitedPlaceholders.remove(originalPlaceholder);
+			}
+			else if (this.ignoreUnresolvablePlaceholders) {
+				// Proceed with unprocessed value.
+				result.append(this.placeholderPrefix).append(originalPlaceholder).append(this.placeholderSuffix);
 			}
 			else {
-				startIndex = -1;
+				throw new IllegalArgumentException("Could not resolve placeholder '" +
+						placeholder + "'" + " in value \"" + value + "\"");
 			}
+			visitedPlaceholders.remove(originalPlaceholder);
 		}
+		result.append(template.literals[template.placeholders.length]);
 		return result.toString();
 	}
 
+	/**
+	 * Split the given value into the literal parts and the top-level placeholders
+	 * in between, as encountered by a sequential scan of the value.
+	 */
+	private PlaceholderTemplate parseTemplate(String value) {
+		List<String> literals = new ArrayList<>(4);
+		List<String> placeholders = new ArrayList<>(4);
+		int literalStart = 0;
+		int startIndex = value.indexOf(this.placeholderPrefix);
+		while (startIndex != -1) {
+			int endIndex = findPlaceholderEndIndex(value, startIndex);
+			if (endIndex == -1) {
+				break;
+			}
+			literals.add(value.substring(literalStart, startIndex));
+			placeholders.add(value.substring(startIndex + this.placeholderPrefix.length(), endIndex));
+			literalStart = endIndex + this.placeholderSuffix.length();
+			startIndex = value.indexOf(this.placeholderPrefix, literalStart);
+		}
+		literals.add(value.substring(literalStart));
+		return new PlaceholderTemplate(StringUtils.toStringArray(literals), StringUtils.toStringArray(placeholders));
+	}
+
 	private int findPlaceholderEndIndex(CharSequence buf, int startIndex) {
 		int index = startIndex + this.placeholderPrefix.length();
 		int withinNestedPlaceholder = 0;
@@ -229,4 +262,21 @@ public class PropertyPlaceholderHelper {
 		String resolvePlaceholder(String placeholderName);
 	}
 
+
+	/**
+	 * Pre-parsed String value: the top-level placeholders, each preceded by the
+	 * literal text in front of it, followed by the trailing literal text.
+	 */
+	private static final class PlaceholderTemplate {
+
+		final String[] literals;
+
+		final String[] placeholders;
+
+		PlaceholderTemplate(String[] literals, String[] placeholders) {
+			this.literals = literals;
+			this.placeholders = placeholders;
+		}
+	}
+
 }
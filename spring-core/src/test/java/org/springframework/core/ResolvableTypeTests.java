@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -1232,6 +1232,41 @@ class ResolvableTypeTests {
 		assertThat(deserializedNone).isSameAs(ResolvableType.NONE);
 	}
 
+	@Test
+	void forClassReturnsSharedInstance() {
+		ResolvableType type = ResolvableType.forClass(ArrayList.class);
+		assertThat(ResolvableType.forClass(ArrayList.class)).isSameAs(type);
+		assertThat(ResolvableType.forType(ArrayList.class)).isSameAs(type);
+		assertThat(type.getGenerics()).isSameAs(ResolvableType.forClass(ArrayList.class).getGenerics());
+
+		ResolvableType.clearCache();
+		assertThat(ResolvableType.forClass(ArrayList.class)).isNotSameAs(type).isEqualTo(type);
+	}
+
+	@Test
+	void forTypeReturnsSharedInstance() throws Exception {
+		Type type = Fields.class.getField("stringList").getGenericType();
+		assertThat(ResolvableType.forType(type)).isSameAs(ResolvableType.forType(type));
+		assertThat(ResolvableType.forField(Fields.class.getField("stringList")).getSource())
+				.isEqualTo(Fields.class.getField("stringList"));
+	}
+
+	@Test
+	void isAssignableFromWithRepeatedChecks() throws Exception {
+		ResolvableType charSequenceList = ResolvableType.forField(Fields.class.getField("charSequenceList"));
+		ResolvableType stringList = ResolvableType.forField(Fields.class.getField("stringList"));
+		ResolvableType rawList = ResolvableType.forClass(List.class);
+		for (int i = 0; i < 3; i++) {
+			assertThat(charSequenceList.isAssignableFrom(stringList)).isFalse();
+			assertThat(charSequenceList.isAssignableFrom(charSequenceList)).isTrue();
+			assertThat(rawList.isAssignableFrom(stringList)).isTrue();
+			assertThat(rawList.isAssignableFrom(ArrayList.class)).isTrue();
+			assertThat(rawList.isAssignableFrom(ResolvableType.forClass(List.class))).isTrue();
+			assertThat(rawList.isAssignableFrom(ResolvableType.forRawClass(List.class))).isFalse();
+			assertThat(stringList.isAssignableFrom(String.class)).isFalse();
+		}
+	}
+
 	@Test
 	void canResolveVoid() throws Exception {
 		ResolvableType type = ResolvableType.forClass(void.class);
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MergedAnnotationsCache} and its use in
+ * {@link AnnotatedElementUtils}.
+ *
+ * @since 5.3.10
+ */
+class MergedAnnotationsCacheTests {
+
+	@AfterEach
+	void clearCache() {
+		AnnotationUtils.clearCache();
+	}
+
+
+	@Test
+	void findMergedAnnotationIsReused() {
+		Service service = AnnotatedElementUtils.findMergedAnnotation(SubService.class, Service.class);
+		assertThat(service).isNotNull();
+		assertThat(service.value()).isEqualTo("sub");
+		assertThat(AnnotatedElementUtils.findMergedAnnotation(SubService.class, Service.class)).isSameAs(service);
+	}
+
+	@Test
+	void getMergedAnnotationIsReused() {
+		Service service = AnnotatedElementUtils.getMergedAnnotation(ExtendedService.class, Service.class);
+		assertThat(service).isNotNull();
+		assertThat(service.value()).isEqualTo("base");
+		assertThat(AnnotatedElementUtils.getMergedAnnotation(ExtendedService.class, Service.class)).isSameAs(service);
+	}
+
+	@Test
+	void findMergedAnnotationOnMethodIsReused() throws Exception {
+		Method method = SubService.class.getMethod("handle");
+		Service service = AnnotatedElementUtils.findMergedAnnotation(method, Service.class);
+		assertThat(service).isNotNull();
+		assertThat(service.value()).isEqualTo("handler");
+		assertThat(AnnotatedElementUtils.findMergedAnnotation(method, Service.class)).isSameAs(service);
+	}
+
+	@Test
+	void missingAnnotationIsCached() {
+		MergedAnnotation<Order> missing =
+				MergedAnnotationsCache.get(SubService.class, SearchStrategy.TYPE_HIERARCHY, Order.class);
+		assertThat(missing.isPresent()).isFalse();
+		assertThat(MergedAnnotationsCache.get(SubService.class, SearchStrategy.TYPE_HIERARCHY, Order.class))
+				.isSameAs(missing);
+		assertThat(AnnotatedElementUtils.findMergedAnnotation(SubService.class, Order.class)).isNull();
+		assertThat(AnnotatedElementUtils.hasAnnotation(SubService.class, Order.class)).isFalse();
+	}
+
+	@Test
+	void lookupsByTypeAndByNameAreConsistent() {
+		MergedAnnotation<Service> byType =
+				MergedAnnotationsCache.get(SubService.class, SearchStrategy.TYPE_HIERARCHY, Service.class);
+		MergedAnnotation<Service> byName =
+				MergedAnnotationsCache.get(SubService.class, SearchStrategy.TYPE_HIERARCHY, Service.class.getName());
+		assertThat(byName.synthesize()).isEqualTo(byType.synthesize());
+		assertThat(AnnotatedElementUtils.isAnnotated(SubService.class, Service.class.getName())).isTrue();
+	}
+
+	@Test
+	void mergedAnnotationAttributesAreNotShared() {
+		AnnotationAttributes attributes =
+				AnnotatedElementUtils.findMergedAnnotationAttributes(SubService.class, Service.class, false, false);
+		assertThat(attributes).isNotNull();
+		attributes.put("value", "modified");
+		AnnotationAttributes other =
+				AnnotatedElementUtils.findMergedAnnotationAttributes(SubService.class, Service.class, false, false);
+		assertThat(other).isNotSameAs(attributes);
+		assertThat(other.getString("value")).isEqualTo("sub");
+	}
+
+	@Test
+	void mergedAnnotationsAreSharedPerSearchStrategy() {
+		assertThat(MergedAnnotationsCache.getAnnotations(SubService.class, SearchStrategy.TYPE_HIERARCHY))
+				.isSameAs(MergedAnnotationsCache.getAnnotations(SubService.class, SearchStrategy.TYPE_HIERARCHY));
+		assertThat(MergedAnnotationsCache.getAnnotations(SubService.class, SearchStrategy.INHERITED_ANNOTATIONS))
+				.isNotSameAs(MergedAnnotationsCache.getAnnotations(SubService.class, SearchStrategy.TYPE_HIERARCHY));
+		assertThat(MergedAnnotationsCache.getAnnotations(SubService.class, SearchStrategy.DIRECT))
+				.isNotSameAs(MergedAnnotationsCache.getAnnotations(SubService.class, SearchStrategy.DIRECT));
+	}
+
+	@Test
+	void annotatedElementAdapterIsNotCached() {
+		AnnotatedElement element = AnnotatedElementUtils.forAnnotations(SubService.class.getAnnotations());
+		MergedAnnotation<Service> service =
+				MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, Service.class);
+		assertThat(service.isPresent()).isTrue();
+		assertThat(MergedAnnotationsCache.get(element, SearchStrategy.INHERITED_ANNOTATIONS, Service.class))
+				.isNotSameAs(service);
+	}
+
+	@Test
+	void clearCacheDiscardsCachedResults() {
+		Service service = AnnotatedElementUtils.findMergedAnnotation(SubService.class, Service.class);
+		AnnotationUtils.clearCache();
+		Service other = AnnotatedElementUtils.findMergedAnnotation(SubService.class, Service.class);
+		assertThat(other).isNotSameAs(service);
+		assertThat(other).isEqualTo(service);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@Inherited
+	@interface Service {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Service
+	@interface Handler {
+
+		@AliasFor(annotation = Service.class)
+		String value() default "handler";
+	}
+
+
+	@Service("base")
+	static class BaseService {
+	}
+
+
+	static class ExtendedService extends BaseService {
+	}
+
+
+	interface ServiceContract {
+
+		@Handler
+		void handle();
+	}
+
+
+	@Handler("sub")
+	static class SubService extends BaseService implements ServiceContract {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
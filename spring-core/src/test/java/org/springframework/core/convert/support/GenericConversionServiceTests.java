@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.awt.Color;
 import java.awt.SystemColor;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -30,6 +31,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 
@@ -576,6 +578,65 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection")))).isEqualTo(Collections.singleton("testX"));
 	}
 
+	@Test
+	void directConversionOfCommonTypes() {
+		DefaultConversionService.addDefaultConverters(conversionService);
+		for (int i = 0; i < 2; i++) {
+			assertThat(conversionService.convert("42", int.class)).isEqualTo(42);
+			assertThat(conversionService.convert("42", Long.class)).isEqualTo(42L);
+			assertThat(conversionService.convert("true", boolean.class)).isTrue();
+			assertThat(conversionService.convert("B", MyEnum.class)).isEqualTo(MyEnum.B);
+			assertThat(conversionService.convert("FIRST", EnumWithSubclass.class)).isEqualTo(EnumWithSubclass.FIRST);
+			assertThat(conversionService.convert("7c9b0dae-3c07-4a4b-9fcc-1a2b3c4d5e6f", UUID.class))
+					.isEqualTo(UUID.fromString("7c9b0dae-3c07-4a4b-9fcc-1a2b3c4d5e6f"));
+			assertThat(conversionService.convert(3, Long.class)).isEqualTo(3L);
+			assertThat(conversionService.convert(3.5d, BigDecimal.class)).isEqualTo(BigDecimal.valueOf(3.5d));
+			assertThat(conversionService.convert("test", CharSequence.class)).isEqualTo("test");
+		}
+	}
+
+	@Test
+	void directConversionAfterAddingConverter() {
+		DefaultConversionService.addDefaultConverters(conversionService);
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(1);
+		conversionService.addConverter(String.class, Integer.class, source -> 42);
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(42);
+		conversionService.removeConvertible(String.class, Integer.class);
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	void directConversionFailure() {
+		DefaultConversionService.addDefaultConverters(conversionService);
+		assertThatExceptionOfType(ConversionFailedException.class)
+				.isThrownBy(() -> conversionService.convert("x", int.class))
+				.withCauseInstanceOf(NumberFormatException.class)
+				.satisfies(ex -> {
+					assertThat(ex.getSourceType()).isEqualTo(TypeDescriptor.valueOf(String.class));
+					assertThat(ex.getTargetType()).isEqualTo(TypeDescriptor.valueOf(int.class));
+				});
+	}
+
+	@Test
+	void directConversionWithNullResultForPrimitive() {
+		conversionService.addConverter(String.class, Integer.class, source -> null);
+		assertThat(conversionService.convert("1", Integer.class)).isNull();
+		assertThatExceptionOfType(ConversionFailedException.class)
+				.isThrownBy(() -> conversionService.convert("1", int.class));
+	}
+
+	@Test
+	void directConversionWithOverriddenConvertMethod() {
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return 42;
+			}
+		};
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertThat(conversionService.convert("1", Integer.class)).isEqualTo(42);
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
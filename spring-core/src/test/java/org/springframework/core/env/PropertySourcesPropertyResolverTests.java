@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -332,4 +332,51 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+
+	@Test
+	void getPropertyWithPropertyIndex() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setUsePropertyIndex(true);
+		testProperties.put("foo", "bar");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		testProperties.put("foo", "baz");
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+
+		propertySources.addFirst(new MockPropertySource().withProperty("foo", "qux"));
+		assertThat(resolver.getProperty("foo")).isEqualTo("qux");
+		assertThat(resolver.containsProperty("foo")).isTrue();
+	}
+
+	@Test
+	void getMissingPropertyWithPropertyIndex() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setUsePropertyIndex(true);
+		assertThat(resolver.getProperty("foo")).isNull();
+		assertThat(resolver.containsProperty("foo")).isFalse();
+
+		// Missing keys are indexed until the property sources change
+		testProperties.put("foo", "bar");
+		assertThat(resolver.getProperty("foo")).isNull();
+		propertySources.addLast(new MockPropertySource());
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+	}
+
+	@Test
+	void getRemovedPropertyWithPropertyIndex() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setUsePropertyIndex(true);
+		testProperties.put("foo", "bar");
+		propertySources.addLast(new MockPropertySource().withProperty("foo", "baz"));
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+
+		testProperties.remove("foo");
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+	}
+
+	@Test
+	void propertyIndexRequiresMutablePropertySources() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(null);
+		assertThatIllegalStateException().isThrownBy(() -> resolver.setUsePropertyIndex(true));
+	}
+
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.testfixture.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ConstantPoolFilter}.
+ *
+ * @since 5.3.10
+ */
+class ConstantPoolFilterTests {
+
+	private static final String COMPONENT_DESCRIPTOR = "Lorg/springframework/core/testfixture/stereotype/Component;";
+
+
+	@Test
+	void matchesAnnotationDescriptor() throws IOException {
+		ConstantPoolFilter filter = new ConstantPoolFilter(Collections.singleton(COMPONENT_DESCRIPTOR));
+		assertThat(filter.matches(classFile(AnnotatedClass.class))).isTrue();
+		assertThat(filter.matches(classFile(PlainClass.class))).isFalse();
+		assertThat(filter.matches(classFile(OtherAnnotatedClass.class))).isFalse();
+	}
+
+	@Test
+	void matchesAnnotationAttribute() throws IOException {
+		ConstantPoolFilter filter = new ConstantPoolFilter(Collections.singleton("RuntimeVisibleAnnotations"));
+		assertThat(filter.matches(classFile(AnnotatedClass.class))).isTrue();
+		assertThat(filter.matches(classFile(OtherAnnotatedClass.class))).isTrue();
+		assertThat(filter.matches(classFile(PlainClass.class))).isFalse();
+	}
+
+	@Test
+	void matchesWithWideConstants() throws IOException {
+		ConstantPoolFilter filter = new ConstantPoolFilter(Collections.singleton(COMPONENT_DESCRIPTOR));
+		assertThat(filter.matches(classFile(AnnotatedClassWithConstants.class))).isTrue();
+	}
+
+	@Test
+	void matchesUnparseableClassFile() {
+		ConstantPoolFilter filter = new ConstantPoolFilter(Collections.singleton(COMPONENT_DESCRIPTOR));
+		byte[] bytes = "no class file".getBytes();
+		assertThat(filter.matches(bytes, bytes.length)).isTrue();
+		byte[] truncated = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 52, 0, 5, 1, 0};
+		assertThat(filter.matches(truncated, truncated.length)).isTrue();
+	}
+
+	@Test
+	void noConstants() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ConstantPoolFilter(Collections.emptySet()));
+	}
+
+
+	private static Resource classFile(Class<?> clazz) {
+		return new ClassPathResource(ClassUtils.convertClassNameToResourcePath(clazz.getName()) + ".class");
+	}
+
+
+	@Component
+	static class AnnotatedClass {
+	}
+
+	@Deprecated
+	static class OtherAnnotatedClass {
+	}
+
+	static class PlainClass {
+
+		public String getName() {
+			return "plain";
+		}
+	}
+
+	@Component
+	static class AnnotatedClassWithConstants {
+
+		long longValue = Long.MAX_VALUE;
+
+		double doubleValue = Math.PI;
+
+		String stringValue = "constant";
+	}
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentMetadataCache}.
+ *
+ * @since 5.3.10
+ */
+class PersistentMetadataCacheTests {
+
+	@TempDir
+	Path tempDir;
+
+	private File cacheFile;
+
+	private final SimpleMetadataReaderFactory directFactory = new SimpleMetadataReaderFactory();
+
+
+	@BeforeEach
+	void setup() {
+		this.cacheFile = this.tempDir.resolve("metadata.cache").toFile();
+		this.directFactory.setPersistentCache(null);
+	}
+
+
+	@Test
+	void metadataFromRecordingMatchesClassFile() throws IOException {
+		Resource resource = classFile(AnnotatedClass.class);
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		assertSameMetadata(cache.getMetadataReader(resource, getClass().getClassLoader()), resource);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+
+		assertSameMetadata(cache.getMetadataReader(resource, getClass().getClassLoader()), resource);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void reloadFromCacheFile() throws IOException {
+		Resource resource = classFile(AnnotatedClass.class);
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		cache.getMetadataReader(resource, getClass().getClassLoader());
+		cache.getMetadataReader(classFile(PlainClass.class), getClass().getClassLoader());
+		assertThat(this.cacheFile).doesNotExist();
+		cache.flush();
+		assertThat(this.cacheFile).exists();
+
+		PersistentMetadataCache reloaded = new PersistentMetadataCache(this.cacheFile);
+		assertThat(reloaded.size()).isEqualTo(2);
+		assertSameMetadata(reloaded.getMetadataReader(resource, getClass().getClassLoader()), resource);
+		assertThat(reloaded.getHitCount()).isEqualTo(1);
+		assertThat(reloaded.getMissCount()).isEqualTo(0);
+	}
+
+	@Test
+	void staleEntryGetsReplaced() throws IOException {
+		Path classFile = this.tempDir.resolve("Sample.class");
+		copy(classFile(AnnotatedClass.class), classFile);
+		Resource resource = new FileSystemResource(classFile);
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		assertThat(cache.getMetadataReader(resource, getClass().getClassLoader())
+				.getClassMetadata().getClassName()).isEqualTo(AnnotatedClass.class.getName());
+
+		copy(classFile(PlainClass.class), classFile);
+		classFile.toFile().setLastModified(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1));
+		assertThat(cache.getMetadataReader(resource, getClass().getClassLoader())
+				.getClassMetadata().getClassName()).isEqualTo(PlainClass.class.getName());
+		assertThat(cache.getMissCount()).isEqualTo(2);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void changedContentWithSameTimestampAndLengthGetsDetected() throws IOException {
+		Path classFile = this.tempDir.resolve("Sample.class");
+		copy(classFile(AnnotatedClass.class), classFile);
+		long lastModified = classFile.toFile().lastModified();
+		Resource resource = new FileSystemResource(classFile);
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		assertThat(cache.getMetadataReader(resource, getClass().getClassLoader()).getAnnotationMetadata()
+				.getAnnotatedMethods(Sample.class.getName())).extracting(MethodMetadata::getMethodName)
+				.containsExactly("annotatedMethod");
+
+		// Same length, same timestamp, different method name
+		byte[] content = Files.readAllBytes(classFile);
+		byte[] original = "annotatedMethod".getBytes(StandardCharsets.UTF_8);
+		byte[] replacement = "annotatedMethoX".getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i <= content.length - original.length; i++) {
+			if (Arrays.equals(Arrays.copyOfRange(content, i, i + original.length), original)) {
+				System.arraycopy(replacement, 0, content, i, replacement.length);
+			}
+		}
+		Files.write(classFile, content);
+		classFile.toFile().setLastModified(lastModified);
+
+		assertThat(cache.getMetadataReader(resource, getClass().getClassLoader()).getAnnotationMetadata()
+				.getAnnotatedMethods(Sample.class.getName())).extracting(MethodMetadata::getMethodName)
+				.containsExactly("annotatedMethoX");
+		assertThat(cache.getMissCount()).isEqualTo(2);
+		assertThat(cache.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	void corruptedCacheFileGetsIgnored() throws IOException {
+		Resource resource = classFile(AnnotatedClass.class);
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		cache.getMetadataReader(resource, getClass().getClassLoader());
+		cache.flush();
+
+		byte[] content = Files.readAllBytes(this.cacheFile.toPath());
+		for (int i = content.length - 20; i < content.length; i++) {
+			content[i] ^= 0x5A;
+		}
+		Files.write(this.cacheFile.toPath(), content);
+		PersistentMetadataCache corrupted = new PersistentMetadataCache(this.cacheFile);
+		assertThat(corrupted.size()).isEqualTo(0);
+		assertSameMetadata(corrupted.getMetadataReader(resource, getClass().getClassLoader()), resource);
+		assertThat(corrupted.getMissCount()).isEqualTo(1);
+
+		Files.write(this.cacheFile.toPath(), new byte[] {1, 2, 3});
+		assertThat(new PersistentMetadataCache(this.cacheFile).size()).isEqualTo(0);
+	}
+
+	@Test
+	void cachingMetadataReaderFactoryFlushesOnClearCache() throws IOException {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		factory.setPersistentCache(cache);
+		MetadataReader metadataReader = factory.getMetadataReader(AnnotatedClass.class.getName());
+		assertSameMetadata(metadataReader, classFile(AnnotatedClass.class));
+		assertThat(cache.getMissCount()).isEqualTo(1);
+
+		factory.clearCache();
+		assertThat(this.cacheFile).exists();
+		assertThat(new PersistentMetadataCache(this.cacheFile).size()).isEqualTo(1);
+	}
+
+	@Test
+	void clear() throws IOException {
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.cacheFile);
+		cache.getMetadataReader(classFile(AnnotatedClass.class), getClass().getClassLoader());
+		cache.flush();
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(this.cacheFile).doesNotExist();
+	}
+
+	@Test
+	void sharedCacheForDirectory() {
+		PersistentMetadataCache cache = PersistentMetadataCache.forDirectory(this.tempDir.toFile());
+		assertThat(PersistentMetadataCache.forDirectory(this.tempDir.toFile())).isSameAs(cache);
+		assertThat(cache.getCacheFile()).isEqualTo(
+				this.tempDir.resolve(PersistentMetadataCache.CACHE_FILE_NAME).toFile().getAbsoluteFile());
+	}
+
+
+	private void assertSameMetadata(MetadataReader actual, Resource resource) throws IOException {
+		AnnotationMetadata expected = this.directFactory.getMetadataReader(resource).getAnnotationMetadata();
+		AnnotationMetadata metadata = actual.getAnnotationMetadata();
+		assertThat(metadata.getClassName()).isEqualTo(expected.getClassName());
+		assertThat(metadata.getSuperClassName()).isEqualTo(expected.getSuperClassName());
+		assertThat(metadata.getInterfaceNames()).isEqualTo(expected.getInterfaceNames());
+		assertThat(metadata.getEnclosingClassName()).isEqualTo(expected.getEnclosingClassName());
+		assertThat(metadata.getMemberClassNames()).isEqualTo(expected.getMemberClassNames());
+		assertThat(metadata.isIndependent()).isEqualTo(expected.isIndependent());
+		assertThat(metadata.getAnnotationTypes()).isEqualTo(expected.getAnnotationTypes());
+		for (String type : expected.getAnnotationTypes()) {
+			assertThat(metadata.getAnnotationAttributes(type, true))
+					.isEqualTo(expected.getAnnotationAttributes(type, true));
+			Set<MethodMetadata> methods = metadata.getAnnotatedMethods(type);
+			assertThat(methods).hasSameSizeAs(expected.getAnnotatedMethods(type));
+		}
+		Set<MethodMetadata> methods = metadata.getAnnotatedMethods(Sample.class.getName());
+		if (!methods.isEmpty()) {
+			MethodMetadata method = methods.iterator().next();
+			AnnotationAttributes attributes = AnnotationAttributes.fromMap(
+					method.getAnnotationAttributes(Sample.class.getName(), true));
+			assertThat(attributes.getStringArray("names")).containsExactly("m");
+			assertThat(method.getReturnTypeName()).isEqualTo("java.lang.String");
+		}
+	}
+
+	private static Resource classFile(Class<?> clazz) {
+		return new ClassPathResource(ClassUtils.convertClassNameToResourcePath(clazz.getName()) + ".class");
+	}
+
+	private static void copy(Resource resource, Path target) throws IOException {
+		try (InputStream is = resource.getInputStream()) {
+			Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@interface Sample {
+
+		String[] names() default {};
+
+		Class<?> type() default Object.class;
+
+		RetentionPolicy policy() default RetentionPolicy.RUNTIME;
+
+		long number() default 0;
+
+		double[] values() default {};
+
+		Nested nested() default @Nested;
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Nested {
+
+		char value() default 'x';
+	}
+
+
+	@Sample(names = {"a", "b"}, type = String[].class, policy = RetentionPolicy.CLASS, number = Long.MAX_VALUE,
+			values = {1.5, 2.5}, nested = @Nested('y'))
+	static class AnnotatedClass implements Cloneable {
+
+		@Sample(names = "m")
+		public String annotatedMethod() {
+			return "";
+		}
+
+		public void plainMethod() {
+		}
+
+		static class Inner {
+		}
+	}
+
+
+	static class PlainClass {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -108,4 +108,28 @@ class PropertyPlaceholderHelperTests {
 				helper.replacePlaceholders(text, props));
 	}
 
+
+	@Test
+	void withRepeatedResolution() {
+		String text = "foo=${foo},bar=${bar},baz=${baz}";
+		Properties props = new Properties();
+		props.setProperty("foo", "bar");
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("foo=bar,bar=${bar},baz=${baz}");
+
+		props.setProperty("baz", "${foo}");
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("foo=bar,bar=${bar},baz=bar");
+
+		props.setProperty("foo", "qux");
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("foo=qux,bar=${bar},baz=qux");
+	}
+
+	@Test
+	void withUnterminatedPlaceholder() {
+		String text = "foo=${foo},bar=${bar";
+		Properties props = new Properties();
+		props.setProperty("foo", "bar");
+
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("foo=bar,bar=${bar");
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,18 @@
 
 package org.springframework.expression.spel;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 
 import org.springframework.expression.EvaluationContext;
@@ -103,4 +108,91 @@ public class SpelBenchmark {
 		return data.expression.getValue(data.context);
 	}
 
+
+	@State(Scope.Benchmark)
+	public static class CompilationBenchmarkData {
+
+		@Param({"OFF", "IMMEDIATE"})
+		public SpelCompilerMode compilerMode;
+
+		public EvaluationContext context;
+
+		public Expression selection;
+
+		public Expression projection;
+
+		public Expression mapIndexer;
+
+		public Expression inlineList;
+
+		public Expression inlineMap;
+
+		public Expression elvis;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			StandardEvaluationContext context = new StandardEvaluationContext(new Inventory());
+			context.setVariable("key", "item42");
+			this.context = context;
+			ExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(this.compilerMode, null));
+			this.selection = parser.parseExpression("numbers.?[#this > 50]");
+			this.projection = parser.parseExpression("numbers.![#this * 2]");
+			this.mapIndexer = parser.parseExpression("stock[#key]");
+			this.inlineList = parser.parseExpression("{name, size}");
+			this.inlineMap = parser.parseExpression("{name: name, size: size}");
+			this.elvis = parser.parseExpression("description ?: name");
+		}
+	}
+
+	@Benchmark
+	public Object selection(CompilationBenchmarkData data) {
+		return data.selection.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object projection(CompilationBenchmarkData data) {
+		return data.projection.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object mapIndexer(CompilationBenchmarkData data) {
+		return data.mapIndexer.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object inlineList(CompilationBenchmarkData data) {
+		return data.inlineList.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object inlineMap(CompilationBenchmarkData data) {
+		return data.inlineMap.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object elvis(CompilationBenchmarkData data) {
+		return data.elvis.getValue(data.context);
+	}
+
+
+	public static class Inventory {
+
+		public String name = "inventory";
+
+		public String description;
+
+		public int size = 100;
+
+		public List<Integer> numbers = new ArrayList<>();
+
+		public Map<String, Integer> stock = new HashMap<>();
+
+		public Inventory() {
+			for (int i = 0; i < this.size; i++) {
+				this.numbers.add(i);
+				this.stock.put("item" + i, i);
+			}
+		}
+	}
+
 }
@@ -85,9 +85,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Local variables holding the active context object for nested evaluation,
+	 * e.g. the current element of a selection or projection. If empty, the
+	 * target passed to the compiled expression method is the active context object.
+	 */
+	private final Deque<Integer> activeContextObjects = new ArrayDeque<>();
 
 
 	/**
@@ -105,11 +113,36 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context)), or the currently active context
+	 * object if one has been pushed through {@link #pushActiveContextObject(int)}.
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer variableId = this.activeContextObjects.peek();
+		mv.visitVarInsn(ALOAD, (variableId != null ? variableId : 1));
+	}
+
+	/**
+	 * Make the object held in the given local variable the active context object,
+	 * as loaded by {@link #loadTarget(MethodVisitor)}, for subsequently generated code.
+	 * <p>Typically used while generating the code for the criteria of a selection or
+	 * projection, which is evaluated against each element of the input in turn.
+	 * @param variableId the id of the local variable holding the active context object
+	 * (as obtained from {@link #nextFreeVariableId()}), or 1 for the target
+	 * @since 5.3.10
+	 * @see #popActiveContextObject()
+	 */
+	public void pushActiveContextObject(int variableId) {
+		this.activeContextObjects.push(variableId);
+	}
+
+	/**
+	 * Restore the previous active context object.
+	 * @since 5.3.10
+	 * @see #pushActiveContextObject(int)
+	 */
+	public void popActiveContextObject() {
+		this.activeContextObjects.pop();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -98,11 +98,10 @@ public class Elvis extends SpelNodeImpl {
 		mv.visitInsn(POP);
 		cf.enterCompilationScope();
 		this.children[1].generateCode(mv, cf);
-		if (!CodeFlow.isPrimitive(this.exitTypeDescriptor)) {
-			lastDesc = cf.lastDescriptor();
-			Assert.state(lastDesc != null, "No last descriptor");
-			CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
-		}
+		// The condition value has been boxed above, so the result is always a reference
+		lastDesc = cf.lastDescriptor();
+		Assert.state(lastDesc != null, "No last descriptor");
+		CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
 		cf.exitCompilationScope();
 		mv.visitLabel(endOfIf);
 		cf.pushDescriptor(this.exitTypeDescriptor);
@@ -113,7 +112,14 @@ public class Elvis extends SpelNodeImpl {
 				this.children[1].exitTypeDescriptor != null) {
 			String conditionDescriptor = this.children[0].exitTypeDescriptor;
 			String ifNullValueDescriptor = this.children[1].exitTypeDescriptor;
+			if (CodeFlow.isPrimitive(conditionDescriptor)) {
+				conditionDescriptor = CodeFlow.toBoxedDescriptor(conditionDescriptor);
+			}
+			if (CodeFlow.isPrimitive(ifNullValueDescriptor)) {
+				ifNullValueDescriptor = CodeFlow.toBoxedDescriptor(ifNullValueDescriptor);
+			}
 			if (ObjectUtils.nullSafeEquals(conditionDescriptor, ifNullValueDescriptor)) {
+				// Same type, possibly after boxing: e.g. an int property and an Integer default
 				this.exitTypeDescriptor = conditionDescriptor;
 			}
 			else {
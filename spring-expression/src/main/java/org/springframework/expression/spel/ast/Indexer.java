@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -90,6 +90,10 @@ public class Indexer extends SpelNodeImpl {
 	@Nullable
 	private IndexedType indexedType;
 
+	// Whether the key for indexing into a map had to be converted to the key type
+	// of the map, which compiled code does not do
+	private boolean mapKeyConverted;
+
 
 	public Indexer(int startPos, int endPos, SpelNodeImpl expr) {
 		super(startPos, endPos, expr);
@@ -152,6 +156,9 @@ public class Indexer extends SpelNodeImpl {
 			Object key = index;
 			if (targetDescriptor.getMapKeyTypeDescriptor() != null) {
 				key = state.convertValue(key, targetDescriptor.getMapKeyTypeDescriptor());
+				if (key != index) {
+					this.mapKeyConverted = true;
+				}
 			}
 			this.indexedType = IndexedType.MAP;
 			return new MapIndexingValueRef(state.getTypeConverter(), (Map<?, ?>) target, key, targetDescriptor);
@@ -195,13 +202,15 @@ public class Indexer extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		if (this.indexedType == IndexedType.ARRAY) {
-			return (this.exitTypeDescriptor != null);
+			return (this.exitTypeDescriptor != null &&
+					this.children[0].isCompilable() && isIntegerIndex(this.children[0].exitTypeDescriptor));
 		}
 		else if (this.indexedType == IndexedType.LIST) {
-			return this.children[0].isCompilable();
+			return (this.children[0].isCompilable() && isIntegerIndex(this.children[0].exitTypeDescriptor));
 		}
 		else if (this.indexedType == IndexedType.MAP) {
-			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
+			return (this.children[0] instanceof PropertyOrFieldReference ||
+					(this.children[0].isCompilable() && !this.mapKeyConverted));
 		}
 		else if (this.indexedType == IndexedType.OBJECT) {
 			// If the string name is changing the accessor is clearly going to change (so no compilation possible)
@@ -256,18 +265,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, 'I');
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, 'I');
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -281,9 +285,7 @@ public class Indexer extends SpelNodeImpl {
 				mv.visitLdcInsn(mapKeyName);
 			}
 			else {
-				cf.enterCompilationScope();
-				this.children[0].generateCode(mv, cf);
-				cf.exitCompilationScope();
+				generateIndexCode(mv, cf, 'L');
 			}
 			mv.visitMethodInsn(
 					INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
@@ -319,6 +321,32 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Generate the code for the index expression, evaluated against the root object
+	 * as in {@link #getValueRef(ExpressionState)}.
+	 * @param targetDescriptor 'I' for an {@code int} index, 'L' for an object key
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf, char targetDescriptor) {
+		cf.enterCompilationScope();
+		cf.pushActiveContextObject(1);
+		this.children[0].generateCode(mv, cf);
+		cf.popActiveContextObject();
+		String indexDescriptor = cf.lastDescriptor();
+		if (targetDescriptor == 'I') {
+			if (!"I".equals(indexDescriptor)) {
+				CodeFlow.insertUnboxInsns(mv, 'I', indexDescriptor);
+			}
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, indexDescriptor);
+		}
+		cf.exitCompilationScope();
+	}
+
+	private static boolean isIntegerIndex(@Nullable String descriptor) {
+		return ("I".equals(descriptor) || "Ljava/lang/Integer".equals(descriptor));
+	}
+
 	@Override
 	public String toStringAST() {
 		StringJoiner sj = new StringJoiner(",", "[", "]");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,7 @@ public class InlineList extends SpelNodeImpl {
 	public InlineList(int startPos, int endPos, SpelNodeImpl... args) {
 		super(startPos, endPos, args);
 		checkIfConstant();
+		this.exitTypeDescriptor = "Ljava/util/List";
 	}
 
 
@@ -126,13 +127,28 @@ public class InlineList extends SpelNodeImpl {
 		return (List<Object>) this.constant.getValue();
 	}
 
+	/**
+	 * An inline list is compilable if it is constant or if all of its elements are compilable.
+	 */
 	@Override
 	public boolean isCompilable() {
-		return isConstant();
+		if (isConstant()) {
+			return true;
+		}
+		for (SpelNodeImpl child : this.children) {
+			if (!child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (!isConstant()) {
+			generateListCode(mv, codeflow);
+			return;
+		}
 		final String constantFieldName = "inlineList$" + codeflow.nextFieldId();
 		final String className = codeflow.getClassName();
 
@@ -179,4 +195,36 @@ public class InlineList extends SpelNodeImpl {
 		}
 	}
 
+	/**
+	 * Generate the code for building a new list from the (non-constant) elements
+	 * on every evaluation, as in {@link #getValueInternal(ExpressionState)}.
+	 */
+	private void generateListCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (codeflow.lastDescriptor() != null) {
+			// Elements would have to be evaluated against the value on the stack
+			throw new IllegalStateException("Cannot compile non-constant inline list within compound expression");
+		}
+		int childCount = getChildCount();
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		CodeFlow.insertOptimalLoad(mv, childCount);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "(I)V", false);
+		for (int c = 0; c < childCount; c++) {
+			mv.visitInsn(DUP);
+			codeflow.enterCompilationScope();
+			this.children[c].generateCode(mv, codeflow);
+			String lastDesc = codeflow.lastDescriptor();
+			if ("V".equals(lastDesc)) {
+				mv.visitInsn(ACONST_NULL);
+			}
+			else {
+				CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+			}
+			codeflow.exitCompilationScope();
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+		}
+		codeflow.pushDescriptor("Ljava/util/List");
+	}
+
 }
@@ -20,9 +20,11 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -105,7 +107,10 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * ConstructorReference
 	 * FunctionReference
 	 * InlineList
+	 * InlineMap
 	 * OpModulus
+	 * Projection (on a collection or map)
+	 * Selection (on a collection or map)
 	 *
 	 * Not yet compiled (some may never need to be):
 	 * Assign
@@ -116,9 +121,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * OpMatches
 	 * OpPower
 	 * OpInc
-	 * Projection
 	 * QualifiedId
-	 * Selection
 	 */
 
 
@@ -1028,7 +1031,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 
 		expression = parser.parseExpression("#negate(#ints.?[#this<2][0])");
 		assertThat(expression.getValue(context, Integer.class).toString()).isEqualTo("-1");
-		// Selection isn't compilable.
+		// Selection on an array isn't compilable.
 		assertThat(((SpelNodeImpl)((SpelExpression) expression).getAST()).isCompilable()).isFalse();
 	}
 
@@ -5096,6 +5099,235 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertThat(classloadersUsed.size() > 1).isTrue();
 	}
 
+	@Test
+	void selection() {
+		Catalog catalog = new Catalog();
+
+		expression = parser.parseExpression("items.?[price > 15]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("b c");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("b c");
+
+		expression = parser.parseExpression("items.^[price > 15]");
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("b");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("b");
+
+		expression = parser.parseExpression("items.$[price > 15]");
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("c");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("c");
+
+		expression = parser.parseExpression("items.^[price > 100]");
+		assertThat(expression.getValue(catalog)).isNull();
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isNull();
+
+		// Criteria referring back to the root object
+		expression = parser.parseExpression("items.?[price > #root.threshold].size()");
+		assertThat(expression.getValue(catalog)).isEqualTo(2);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(2);
+
+		expression = parser.parseExpression("codes.?[#this > 1]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("2 3");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("2 3");
+
+		Map<String, Integer> expected = new HashMap<>();
+		expected.put("two", 2);
+		expected.put("three", 3);
+		expression = parser.parseExpression("stock.?[value > 1]");
+		assertThat(expression.getValue(catalog)).isEqualTo(expected);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(expected);
+
+		expression = parser.parseExpression("stock.^[value > 1]");
+		assertThat(expression.getValue(catalog)).isEqualTo(Collections.singletonMap("two", 2));
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(Collections.singletonMap("two", 2));
+
+		expression = parser.parseExpression("stock.$[value > 1]");
+		assertThat(expression.getValue(catalog)).isEqualTo(Collections.singletonMap("three", 3));
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(Collections.singletonMap("three", 3));
+
+		expression = parser.parseExpression("stock.$[value > 5]");
+		assertThat(expression.getValue(catalog)).isNull();
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isNull();
+
+		// Null-safe selection
+		expression = parser.parseExpression("codes?.?[#this > 1]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("2 3");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("2 3");
+		assertThat(expression.getValue(new Catalog(null))).isNull();
+
+		// Selection on an array isn't compilable
+		expression = parser.parseExpression("prices.?[#this > 15]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("20 30");
+		assertCantCompile(expression);
+	}
+
+	@Test
+	void projection() {
+		Catalog catalog = new Catalog();
+
+		expression = parser.parseExpression("items.![name]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("a b c");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("a b c");
+
+		expression = parser.parseExpression("items.![price]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("10 20 30");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("10 20 30");
+
+		expression = parser.parseExpression("items.![#root.label(name)]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("[a] [b] [c]");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("[a] [b] [c]");
+
+		expression = parser.parseExpression("items.![{name, price}]");
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("[[a, 10], [b, 20], [c, 30]]");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("[[a, 10], [b, 20], [c, 30]]");
+
+		expression = parser.parseExpression("stock.![key]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("one two three");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("one two three");
+
+		expression = parser.parseExpression("items.?[price > 15].![name]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("b c");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("b c");
+
+		expression = parser.parseExpression("items.![discount ?: -1]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("1 -1 3");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("1 -1 3");
+
+		expression = parser.parseExpression("codes?.![#this * 2]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("2 4 6");
+		assertCanCompile(expression);
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("2 4 6");
+		assertThat(expression.getValue(new Catalog(null))).isNull();
+
+		// Projection on an array isn't compilable
+		expression = parser.parseExpression("prices.![#this]");
+		assertThat(stringify(expression.getValue(catalog))).isEqualTo("10 20 30");
+		assertCantCompile(expression);
+	}
+
+	@Test
+	void indexerWithNonLiteralIndex() {
+		Catalog catalog = new Catalog();
+		StandardEvaluationContext context = new StandardEvaluationContext(catalog);
+		context.setVariable("key", "three");
+		context.setVariable("index", 2);
+
+		expression = parser.parseExpression("stock[getKey()]");
+		assertThat(expression.getValue(context)).isEqualTo(2);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo(2);
+
+		expression = parser.parseExpression("stock[#key]");
+		assertThat(expression.getValue(context)).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo(3);
+
+		expression = parser.parseExpression("names[1]");
+		assertThat(expression.getValue(context)).isEqualTo("uno");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo("uno");
+
+		expression = parser.parseExpression("codes[#index]");
+		assertThat(expression.getValue(context)).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo(3);
+
+		expression = parser.parseExpression("prices[#index]");
+		assertThat(expression.getValue(context)).isEqualTo(30);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo(30);
+	}
+
+	@Test
+	void inlineCollectionsWithNonLiteralElements() {
+		Catalog catalog = new Catalog();
+
+		expression = parser.parseExpression("{key, {1, 2}, threshold}");
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("[two, [1, 2], 15]");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("[two, [1, 2], 15]");
+
+		expression = parser.parseExpression("{a: key, b: threshold}");
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("{a=two, b=15}");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("{a=two, b=15}");
+
+		expression = parser.parseExpression("{a: 1, b: {1, 2}, c: {d: 'e'}}");
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("{a=1, b=[1, 2], c={d=e}}");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog).toString()).isEqualTo("{a=1, b=[1, 2], c={d=e}}");
+
+		expression = parser.parseExpression("{a: 1}['a']");
+		assertThat(expression.getValue(catalog)).isEqualTo(1);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(1);
+	}
+
+	@Test
+	void elvisWithPrimitiveOperands() {
+		Catalog catalog = new Catalog();
+
+		expression = parser.parseExpression("threshold ?: 5");
+		assertThat(expression.getValue(catalog)).isEqualTo(15);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(15);
+
+		expression = parser.parseExpression("missingName ?: 5");
+		assertThat(expression.getValue(catalog)).isEqualTo(5);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(5);
+
+		expression = parser.parseExpression("3L ?: 4L");
+		assertThat(expression.getValue(catalog)).isEqualTo(3L);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(3L);
+	}
+
+	@Test
+	void thisReferenceAsRoot() {
+		Catalog catalog = new Catalog();
+
+		expression = parser.parseExpression("#this");
+		assertThat(expression.getValue(catalog)).isSameAs(catalog);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isSameAs(catalog);
+
+		expression = parser.parseExpression("#this.key");
+		assertThat(expression.getValue(catalog)).isEqualTo("two");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo("two");
+	}
+
+	@Test
+	void interfaceMethodOnNonPublicImplementation() {
+		Catalog catalog = new Catalog();
+
+		expression = parser.parseExpression("readOnlyNames.size()");
+		assertThat(expression.getValue(catalog)).isEqualTo(2);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(2);
+
+		expression = parser.parseExpression("readOnlyNames.contains('x')");
+		assertThat(expression.getValue(catalog)).isEqualTo(true);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(catalog)).isEqualTo(true);
+	}
 
 	// Helper methods
 
@@ -6256,4 +6488,68 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		}
 	}
 
+
+	public static class Catalog {
+
+		public List<Item> items = Arrays.asList(new Item("a", 10, 1), new Item("b", 20, null), new Item("c", 30, 3));
+
+		public Map<String, Integer> stock = new LinkedHashMap<>();
+
+		public Map<Integer, String> names = new HashMap<>();
+
+		public List<Integer> codes;
+
+		public int[] prices = new int[] {10, 20, 30};
+
+		public List<String> readOnlyNames = Collections.unmodifiableList(Arrays.asList("x", "y"));
+
+		public String missingName;
+
+		public String key = "two";
+
+		public int threshold = 15;
+
+		public Catalog() {
+			this(Arrays.asList(1, 2, 3));
+		}
+
+		public Catalog(List<Integer> codes) {
+			this.codes = codes;
+			this.stock.put("one", 1);
+			this.stock.put("two", 2);
+			this.stock.put("three", 3);
+			this.names.put(1, "uno");
+			this.names.put(2, "dos");
+		}
+
+		public String getKey() {
+			return this.key;
+		}
+
+		public String label(String name) {
+			return "[" + name + "]";
+		}
+	}
+
+
+	public static class Item {
+
+		public String name;
+
+		public int price;
+
+		public Integer discount;
+
+		public Item(String name, int price, Integer discount) {
+			this.name = name;
+			this.price = price;
+			this.discount = discount;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
 }
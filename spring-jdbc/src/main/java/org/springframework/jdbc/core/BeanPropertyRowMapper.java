@@ -16,12 +16,21 @@
 
 package org.springframework.jdbc.core;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +41,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
@@ -43,6 +53,8 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -69,7 +81,9 @@ import org.springframework.util.StringUtils;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation, or switch
+ * on {@link #setCompiledMapping "compiledMapping"} which resolves the column-to-property
+ * mapping once per column layout and writes assignable values without a BeanWrapper lookup.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
@@ -79,6 +93,11 @@ import org.springframework.util.StringUtils;
  */
 public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 
+	private static final int MAPPING_PLAN_CACHE_LIMIT = 64;
+
+	private static final MethodType WRITE_METHOD_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+
 	/** Logger available to subclasses. */
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -104,6 +123,17 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	@Nullable
 	private Set<String> mappedProperties;
 
+	/** Whether we're compiling a mapping plan per column layout. */
+	private boolean compiledMapping = false;
+
+	/** Cache of compiled mapping plans, keyed by result set column names. */
+	private final ConcurrentLruCache<List<String>, MappingPlan> mappingPlanCache =
+			new ConcurrentLruCache<>(MAPPING_PLAN_CACHE_LIMIT, this::compileMappingPlan);
+
+	/** The mapping plan for the most recently mapped ResultSet. */
+	@Nullable
+	private volatile ResultSetMappingPlan currentMappingPlan;
+
 
 	/**
 	 * Create a new {@code BeanPropertyRowMapper} for bean-style configuration.
@@ -191,6 +221,32 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return this.primitivesDefaultedForNullValue;
 	}
 
+	/**
+	 * Set whether to compile the mapping from result set columns to bean properties
+	 * once per column layout, reusing it for all rows of all subsequent queries
+	 * which return the same columns.
+	 * <p>A compiled mapping resolves the target property for each column index
+	 * upfront and writes every column value which is assignable to its property
+	 * type through a pre-resolved {@link MethodHandle} for the property's setter,
+	 * only falling back to {@link BeanWrapper} property access for values which
+	 * need to be converted. As a consequence, custom editors registered in
+	 * {@link #initBeanWrapper} only apply to such non-assignable values.
+	 * <p>Default is {@code false}, resolving the mapping for each row.
+	 * @since 5.3.10
+	 */
+	public void setCompiledMapping(boolean compiledMapping) {
+		this.compiledMapping = compiledMapping;
+	}
+
+	/**
+	 * Return whether we're compiling the mapping from result set columns
+	 * to bean properties once per column layout.
+	 * @since 5.3.10
+	 */
+	public boolean isCompiledMapping() {
+		return this.compiledMapping;
+	}
+
 	/**
 	 * Set a {@link ConversionService} for binding JDBC values to bean properties,
 	 * or {@code null} for none.
@@ -222,6 +278,8 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		this.mappedClass = mappedClass;
 		this.mappedFields = new HashMap<>();
 		this.mappedProperties = new HashSet<>();
+		this.mappingPlanCache.clear();
+		this.currentMappingPlan = null;
 
 		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
 			if (pd.getWriteMethod() != null) {
@@ -246,6 +304,8 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 			this.mappedFields.remove(lowerCaseName(propertyName));
 			this.mappedFields.remove(underscoreName(propertyName));
 		}
+		this.mappingPlanCache.clear();
+		this.currentMappingPlan = null;
 	}
 
 	/**
@@ -290,9 +350,14 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 * Extract the values for all columns in the current row.
 	 * <p>Utilizes public setters and result set meta-data.
 	 * @see java.sql.ResultSetMetaData
+	 * @see #setCompiledMapping
 	 */
 	@Override
 	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		if (this.compiledMapping) {
+			return mapRow(rs, rowNumber, getMappingPlan(rs));
+		}
+
 		BeanWrapperImpl bw = new BeanWrapperImpl();
 		initBeanWrapper(bw);
 
@@ -308,36 +373,14 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 			String field = lowerCaseName(StringUtils.delete(column, " "));
 			PropertyDescriptor pd = (this.mappedFields != null ? this.mappedFields.get(field) : null);
 			if (pd != null) {
-				try {
-					Object value = getColumnValue(rs, index, pd);
-					if (rowNumber == 0 && logger.isDebugEnabled()) {
-						logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
-								"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
-					}
-					try {
-						bw.setPropertyValue(pd.getName(), value);
-					}
-					catch (TypeMismatchException ex) {
-						if (value == null && this.primitivesDefaultedForNullValue) {
-							if (logger.isDebugEnabled()) {
-								logger.debug("Intercepted TypeMismatchException for row " + rowNumber +
-										" and column '" + column + "' with null value when setting property '" +
-										pd.getName() + "' of type '" +
-										ClassUtils.getQualifiedName(pd.getPropertyType()) +
-										"' on object: " + mappedObject, ex);
-							}
-						}
-						else {
-							throw ex;
-						}
-					}
-					if (populatedProperties != null) {
-						populatedProperties.add(pd.getName());
-					}
+				Object value = getColumnValue(rs, index, pd);
+				if (rowNumber == 0 && logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
 				}
-				catch (NotWritablePropertyException ex) {
-					throw new DataRetrievalFailureException(
-							"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
+				setPropertyValue(bw, pd, column, value, rowNumber);
+				if (populatedProperties != null) {
+					populatedProperties.add(pd.getName());
 				}
 			}
 			else {
@@ -356,6 +399,142 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return mappedObject;
 	}
 
+	/**
+	 * Extract the values for all columns in the current row, following the
+	 * given pre-compiled mapping plan.
+	 */
+	private T mapRow(ResultSet rs, int rowNumber, MappingPlan plan) throws SQLException {
+		BeanWrapperImpl bw = new BeanWrapperImpl();
+		initBeanWrapper(bw);
+
+		T mappedObject = constructMappedInstance(rs, bw);
+		bw.setBeanInstance(mappedObject);
+
+		for (MappedColumn mappedColumn : plan.mappedColumns) {
+			PropertyDescriptor pd = mappedColumn.property;
+			Object value = getColumnValue(rs, mappedColumn.index, pd);
+			MethodHandle writeMethod = mappedColumn.writeMethod;
+			if (writeMethod != null && ClassUtils.isAssignableValue(mappedColumn.propertyType, value)) {
+				try {
+					writeMethod.invokeExact((Object) mappedObject, value);
+				}
+				catch (Throwable ex) {
+					PropertyChangeEvent event = new PropertyChangeEvent(mappedObject, pd.getName(), null, value);
+					throw new MethodInvocationException(event, ex);
+				}
+			}
+			else {
+				setPropertyValue(bw, pd, mappedColumn.column, value, rowNumber);
+			}
+		}
+
+		if (isCheckFullyPopulated() && !plan.fullyPopulated) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of " + this.mappedClass + ": " + this.mappedProperties);
+		}
+
+		return mappedObject;
+	}
+
+	private void setPropertyValue(
+			BeanWrapper bw, PropertyDescriptor pd, String column, @Nullable Object value, int rowNumber) {
+
+		try {
+			bw.setPropertyValue(pd.getName(), value);
+		}
+		catch (TypeMismatchException ex) {
+			if (value == null && this.primitivesDefaultedForNullValue) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Intercepted TypeMismatchException for row " + rowNumber +
+							" and column '" + column + "' with null value when setting property '" +
+							pd.getName() + "' of type '" +
+							ClassUtils.getQualifiedName(pd.getPropertyType()) +
+							"' on object: " + bw.getWrappedInstance(), ex);
+				}
+			}
+			else {
+				throw ex;
+			}
+		}
+		catch (NotWritablePropertyException ex) {
+			throw new DataRetrievalFailureException(
+					"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
+		}
+	}
+
+	/**
+	 * Obtain the mapping plan for the given ResultSet, reusing the plan for
+	 * the most recently mapped ResultSet or a cached plan for the same columns.
+	 */
+	private MappingPlan getMappingPlan(ResultSet rs) throws SQLException {
+		ResultSetMappingPlan current = this.currentMappingPlan;
+		if (current != null && current.resultSet.get() == rs) {
+			return current.plan;
+		}
+
+		ResultSetMetaData rsmd = rs.getMetaData();
+		String[] columns = new String[rsmd.getColumnCount()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = JdbcUtils.lookupColumnName(rsmd, i + 1);
+		}
+		MappingPlan plan = this.mappingPlanCache.get(Arrays.asList(columns));
+		this.currentMappingPlan = new ResultSetMappingPlan(rs, plan);
+		return plan;
+	}
+
+	/**
+	 * Compile a mapping plan for the given result set columns.
+	 */
+	private MappingPlan compileMappingPlan(List<String> columns) {
+		List<MappedColumn> mappedColumns = new ArrayList<>(columns.size());
+		Set<String> populatedProperties = new HashSet<>();
+
+		for (int i = 0; i < columns.size(); i++) {
+			String column = columns.get(i);
+			String field = lowerCaseName(StringUtils.delete(column, " "));
+			PropertyDescriptor pd = (this.mappedFields != null ? this.mappedFields.get(field) : null);
+			if (pd != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+				mappedColumns.add(new MappedColumn(i + 1, column, pd, getWriteMethodHandle(pd)));
+				populatedProperties.add(pd.getName());
+			}
+			else {
+				// No PropertyDescriptor found
+				if (logger.isDebugEnabled()) {
+					logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+				}
+			}
+		}
+
+		return new MappingPlan(mappedColumns, populatedProperties.equals(this.mappedProperties));
+	}
+
+	/**
+	 * Obtain a {@link MethodHandle} for the write method of the given property,
+	 * adapted to a generic {@code (Object, Object)void} signature.
+	 * @return the write method handle, or {@code null} if not accessible
+	 */
+	@Nullable
+	private MethodHandle getWriteMethodHandle(PropertyDescriptor pd) {
+		Method writeMethod = pd.getWriteMethod();
+		if (writeMethod == null || pd.getPropertyType() == null) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(writeMethod);
+			return MethodHandles.lookup().unreflect(writeMethod).asType(WRITE_METHOD_TYPE);
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Falling back to BeanWrapper access for property '" + pd.getName() + "': " + ex);
+			}
+			return null;
+		}
+	}
+
 	/**
 	 * Construct an instance of the mapped class for the current row.
 	 * @param rs the ResultSet to map (pre-initialized for the current row)
@@ -447,4 +626,64 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return rowMapper;
 	}
 
+
+	/**
+	 * Pre-resolved mapping from the columns of a specific column layout
+	 * to the corresponding bean properties.
+	 */
+	private static final class MappingPlan {
+
+		final MappedColumn[] mappedColumns;
+
+		final boolean fullyPopulated;
+
+		MappingPlan(List<MappedColumn> mappedColumns, boolean fullyPopulated) {
+			this.mappedColumns = mappedColumns.toArray(new MappedColumn[0]);
+			this.fullyPopulated = fullyPopulated;
+		}
+	}
+
+
+	/**
+	 * A single column to be mapped to a bean property.
+	 */
+	private static final class MappedColumn {
+
+		final int index;
+
+		final String column;
+
+		final PropertyDescriptor property;
+
+		final Class<?> propertyType;
+
+		@Nullable
+		final MethodHandle writeMethod;
+
+		MappedColumn(int index, String column, PropertyDescriptor property, @Nullable MethodHandle writeMethod) {
+			this.index = index;
+			this.column = column;
+			this.property = property;
+			this.propertyType = property.getPropertyType();
+			this.writeMethod = writeMethod;
+		}
+	}
+
+
+	/**
+	 * Holder for the mapping plan of a specific ResultSet, weakly referencing
+	 * the ResultSet in order to not keep it around after processing.
+	 */
+	private static final class ResultSetMappingPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		ResultSetMappingPlan(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
 }
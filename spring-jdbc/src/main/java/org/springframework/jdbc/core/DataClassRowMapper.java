@@ -49,7 +49,7 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 	private Constructor<T> mappedConstructor;
 
 	@Nullable
-	private String[] constructorParameterNames;
+	private String[] constructorParameterColumns;
 
 	@Nullable
 	private TypeDescriptor[] constructorParameterTypes;
@@ -79,9 +79,12 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 		this.mappedConstructor = BeanUtils.getResolvableConstructor(mappedClass);
 		int paramCount = this.mappedConstructor.getParameterCount();
 		if (paramCount > 0) {
-			this.constructorParameterNames = BeanUtils.getParameterNames(this.mappedConstructor);
-			for (String name : this.constructorParameterNames) {
+			String[] parameterNames = BeanUtils.getParameterNames(this.mappedConstructor);
+			this.constructorParameterColumns = new String[paramCount];
+			for (int i = 0; i < paramCount; i++) {
+				String name = parameterNames[i];
 				suppressProperty(name);
+				this.constructorParameterColumns[i] = underscoreName(name);
 			}
 			this.constructorParameterTypes = new TypeDescriptor[paramCount];
 			for (int i = 0; i < paramCount; i++) {
@@ -95,12 +98,11 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 		Assert.state(this.mappedConstructor != null, "Mapped constructor was not initialized");
 
 		Object[] args;
-		if (this.constructorParameterNames != null && this.constructorParameterTypes != null) {
-			args = new Object[this.constructorParameterNames.length];
+		if (this.constructorParameterColumns != null && this.constructorParameterTypes != null) {
+			args = new Object[this.constructorParameterColumns.length];
 			for (int i = 0; i < args.length; i++) {
-				String name = underscoreName(this.constructorParameterNames[i]);
 				TypeDescriptor td = this.constructorParameterTypes[i];
-				Object value = getColumnValue(rs, rs.findColumn(name), td.getType());
+				Object value = getColumnValue(rs, rs.findColumn(this.constructorParameterColumns[i]), td.getType());
 				args[i] = tc.convertIfNecessary(value, td.getType(), td);
 			}
 		}
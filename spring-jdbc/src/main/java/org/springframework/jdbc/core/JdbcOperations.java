@@ -591,6 +591,103 @@ public interface JdbcOperations {
 	<T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
 			throws DataAccessException;
 
+	/**
+	 * Query using a prepared statement with specific streaming options,
+	 * mapping each row to a result object via a RowMapper, and turning it
+	 * into an iterable and closeable Stream.
+	 * <p>The fetch size and max rows of the given options override the
+	 * settings of this template, whereas the cursor type is up to the given
+	 * PreparedStatementCreator (see {@link PreparedStatementCreatorFactory#setResultSetType}).
+	 * <p>All JDBC resources get released as soon as the last row has been read,
+	 * or when the stream gets closed before, whatever happens first.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param rowMapper a callback that will map one object per row
+	 * @param options the streaming options for the query
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if there is any problem
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper, StreamingQueryOptions options)
+			throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement with specific streaming
+	 * options from SQL and a list of arguments to bind to the query, mapping
+	 * each row to a result object via a RowMapper, and turning it into an
+	 * iterable and closeable Stream.
+	 * <p>All JDBC resources get released as soon as the last row has been read,
+	 * or when the stream gets closed before, whatever happens first.
+	 * @param sql the SQL query to execute
+	 * @param options the streaming options for the query, including the
+	 * fetch size and the type and concurrency of the cursor
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<T> queryForStream(String sql, StreamingQueryOptions options, RowMapper<T> rowMapper,
+			@Nullable Object... args) throws DataAccessException;
+
+	/**
+	 * Query using a prepared statement with specific streaming options,
+	 * mapping each row to a result object via a RowMapper, and turning it
+	 * into an iterable and closeable Stream of chunks with up to the given
+	 * number of mapped objects each.
+	 * <p>Only a single chunk is being held in memory at any time, unless the
+	 * caller holds on to previous chunks; {@link Stream#iterator()} exposes
+	 * the chunks as a plain {@code Iterator<List<T>>}. All JDBC resources get
+	 * released as soon as the last row has been read, or when the stream gets
+	 * closed before, whatever happens first.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param rowMapper a callback that will map one object per row
+	 * @param chunkSize the maximum number of mapped objects per chunk
+	 * @param options the streaming options for the query
+	 * @return the result Stream, containing chunks of mapped objects, needing
+	 * to be closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if there is any problem
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<List<T>> queryForChunks(PreparedStatementCreator psc, RowMapper<T> rowMapper, int chunkSize,
+			StreamingQueryOptions options) throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement with specific streaming
+	 * options from SQL and a list of arguments to bind to the query, mapping
+	 * each row to a result object via a RowMapper, and turning it into an
+	 * iterable and closeable Stream of chunks with up to the given number
+	 * of mapped objects each.
+	 * <p>Only a single chunk is being held in memory at any time, unless the
+	 * caller holds on to previous chunks; {@link Stream#iterator()} exposes
+	 * the chunks as a plain {@code Iterator<List<T>>}. All JDBC resources get
+	 * released as soon as the last row has been read, or when the stream gets
+	 * closed before, whatever happens first.
+	 * @param sql the SQL query to execute
+	 * @param options the streaming options for the query, including the
+	 * fetch size and the type and concurrency of the cursor
+	 * @param chunkSize the maximum number of mapped objects per chunk
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return the result Stream, containing chunks of mapped objects, needing
+	 * to be closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<List<T>> queryForChunks(String sql, StreamingQueryOptions options, int chunkSize,
+			RowMapper<T> rowMapper, @Nullable Object... args) throws DataAccessException;
+
 	/**
 	 * Query given SQL to create a prepared statement from SQL and a list
 	 * of arguments to bind to the query, mapping a single result row to a
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,12 +29,19 @@ import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -43,10 +50,12 @@ import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.InvalidResultSetAccessException;
 import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
 import org.springframework.jdbc.datasource.ConnectionProxy;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcAccessor;
@@ -54,9 +63,11 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -153,6 +164,16 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/** Executor for splitting large batch updates across several Connections, if any. */
+	@Nullable
+	private Executor batchExecutor;
+
+	/** The number of statements per sub-batch when splitting batch updates. */
+	private int parallelBatchSize = 1000;
+
+	/** Whether to reuse prepared statements on transactional Connections. */
+	private boolean cacheStatements = false;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -317,6 +338,86 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set an {@link Executor} for splitting large batch updates into sub-batches
+	 * which get executed in parallel, each on its own Connection from the pool.
+	 * <p>This only applies to {@link #batchUpdate(String, BatchPreparedStatementSetter)}
+	 * and the variants with batch argument lists delegating to it, for batches
+	 * exceeding the {@link #setParallelBatchSize parallel batch size}, and only
+	 * if there is no active transaction and no Connection bound to the current
+	 * thread for the DataSource, since every sub-batch is going to be committed
+	 * on its own Connection. A given {@link BatchPreparedStatementSetter} needs
+	 * to be able to handle concurrent {@code setValues} calls for different
+	 * indexes in such a scenario; {@link InterruptibleBatchPreparedStatementSetter}
+	 * implementations are always executed on a single Connection.
+	 * <p>Default is none, executing every batch update on a single Connection.
+	 * @since 5.3.10
+	 * @see #setParallelBatchSize
+	 */
+	public void setBatchExecutor(@Nullable Executor batchExecutor) {
+		this.batchExecutor = batchExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for parallel batch updates, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public Executor getBatchExecutor() {
+		return this.batchExecutor;
+	}
+
+	/**
+	 * Set the number of statements per sub-batch when splitting batch updates
+	 * through the {@link #setBatchExecutor batch executor}.
+	 * <p>Default is 1000. Batches up to this size are executed as a whole.
+	 * @since 5.3.10
+	 */
+	public void setParallelBatchSize(int parallelBatchSize) {
+		Assert.isTrue(parallelBatchSize > 0, "Parallel batch size must be greater than 0");
+		this.parallelBatchSize = parallelBatchSize;
+	}
+
+	/**
+	 * Return the number of statements per sub-batch for parallel batch updates.
+	 * @since 5.3.10
+	 */
+	public int getParallelBatchSize() {
+		return this.parallelBatchSize;
+	}
+
+	/**
+	 * Set whether to reuse prepared statements for repeated SQL on the same
+	 * transactional Connection, caching them in the thread-bound
+	 * {@link ConnectionHolder} until transaction completion.
+	 * <p>This applies to the operations taking a plain SQL String, e.g.
+	 * {@code query(String, RowMapper, Object...)}, {@code update(String, Object...)}
+	 * and {@code batchUpdate(String, BatchPreparedStatementSetter)}, when
+	 * executed within a transaction managed by {@code DataSourceTransactionManager}
+	 * or with {@link DataSourceUtils} transaction synchronization. Parameters get
+	 * cleared before each reuse; statements are distinguished per SQL String and
+	 * per fetch size, max rows and query timeout setting of this template.
+	 * Statements for streams, statements created by custom
+	 * {@link PreparedStatementCreator PreparedStatementCreators} and statements
+	 * exposed to a custom {@link PreparedStatementCallback} are never cached.
+	 * <p>Default is "false", preparing a new statement for every call and relying
+	 * on statement caching in the connection pool or driver, if any.
+	 * @since 5.3.10
+	 * @see ConnectionHolder#obtainCachedStatement
+	 * @see ConnectionHolder#setStatementCacheLimit
+	 */
+	public void setCacheStatements(boolean cacheStatements) {
+		this.cacheStatements = cacheStatements;
+	}
+
+	/**
+	 * Return whether to reuse prepared statements on transactional Connections.
+	 * @since 5.3.10
+	 */
+	public boolean isCacheStatements() {
+		return this.cacheStatements;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -644,12 +745,28 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		ConnectionHolder statementCacheHolder = (closeResources ? getStatementCacheHolder(con, psc) : null);
+		Object statementCacheKey = null;
 		PreparedStatement ps = null;
 		try {
-			ps = psc.createPreparedStatement(con);
+			if (statementCacheHolder != null) {
+				statementCacheKey = new StatementCacheKey(((SqlProvider) psc).getSql(), this);
+				ps = statementCacheHolder.obtainCachedStatement(con, statementCacheKey);
+				if (ps != null) {
+					ps.clearParameters();
+				}
+			}
+			if (ps == null) {
+				ps = psc.createPreparedStatement(con);
+			}
 			applyStatementSettings(ps);
 			T result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			if (statementCacheHolder != null) {
+				// Keep statement open for reuse until transaction completion
+				statementCacheHolder.cacheStatement(con, statementCacheKey, ps);
+				ps = null;
+			}
 			return result;
 		}
 		catch (SQLException ex) {
@@ -677,6 +794,22 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+	/**
+	 * Determine the ConnectionHolder to cache the statement for the given
+	 * creator in, if {@link #setCacheStatements statement caching} applies.
+	 */
+	@Nullable
+	private ConnectionHolder getStatementCacheHolder(Connection con, PreparedStatementCreator psc) {
+		if (!this.cacheStatements || !(psc instanceof CacheablePreparedStatementCreator)) {
+			return null;
+		}
+		DataSource dataSource = getDataSource();
+		if (dataSource == null || !DataSourceUtils.isConnectionTransactional(con, dataSource)) {
+			return null;
+		}
+		return (ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
+	}
+
 	@Override
 	@Nullable
 	public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
@@ -741,7 +874,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	@Nullable
 	public <T> T query(String sql, @Nullable PreparedStatementSetter pss, ResultSetExtractor<T> rse) throws DataAccessException {
-		return query(new SimplePreparedStatementCreator(sql), pss, rse);
+		return query(new CacheablePreparedStatementCreator(sql), pss, rse);
 	}
 
 	@Override
@@ -863,6 +996,66 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper,
+			StreamingQueryOptions options) throws DataAccessException {
+
+		return queryForStream(psc, null, options, (rs, releaser) -> new ResultSetSpliterator<>(rs, rowMapper, releaser));
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, StreamingQueryOptions options, RowMapper<T> rowMapper,
+			@Nullable Object... args) throws DataAccessException {
+
+		return queryForStream(new StreamingPreparedStatementCreator(sql, options), newArgPreparedStatementSetter(args),
+				options, (rs, releaser) -> new ResultSetSpliterator<>(rs, rowMapper, releaser));
+	}
+
+	@Override
+	public <T> Stream<List<T>> queryForChunks(PreparedStatementCreator psc, RowMapper<T> rowMapper,
+			int chunkSize, StreamingQueryOptions options) throws DataAccessException {
+
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+		return queryForStream(psc, null, options,
+				(rs, releaser) -> new ChunkedResultSetSpliterator<>(rs, rowMapper, chunkSize, releaser));
+	}
+
+	@Override
+	public <T> Stream<List<T>> queryForChunks(String sql, StreamingQueryOptions options, int chunkSize,
+			RowMapper<T> rowMapper, @Nullable Object... args) throws DataAccessException {
+
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+		return queryForStream(new StreamingPreparedStatementCreator(sql, options), newArgPreparedStatementSetter(args),
+				options, (rs, releaser) -> new ChunkedResultSetSpliterator<>(rs, rowMapper, chunkSize, releaser));
+	}
+
+	/**
+	 * Query using a prepared statement with specific streaming options,
+	 * turning the ResultSet into a Stream through the given Spliterator
+	 * factory, with all JDBC resources getting released once the Spliterator
+	 * is exhausted or the Stream is closed, whatever happens first.
+	 */
+	private <R> Stream<R> queryForStream(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+			StreamingQueryOptions options, BiFunction<ResultSet, Runnable, Spliterator<R>> spliteratorFactory)
+			throws DataAccessException {
+
+		Assert.notNull(options, "StreamingQueryOptions must not be null");
+		return result(execute(psc, ps -> {
+			if (options.getFetchSize() != -1) {
+				ps.setFetchSize(options.getFetchSize());
+			}
+			if (options.getMaxRows() != -1) {
+				ps.setMaxRows(options.getMaxRows());
+			}
+			if (pss != null) {
+				pss.setValues(ps);
+			}
+			ResultSet rs = ps.executeQuery();
+			Runnable releaser = new StreamingResourceReleaser(rs, pss, ps, ps.getConnection());
+			return StreamSupport.stream(spliteratorFactory.apply(rs, releaser), false).onClose(releaser);
+		}, false));
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -1012,7 +1205,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int update(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
-		return update(new SimplePreparedStatementCreator(sql), pss);
+		return update(new CacheablePreparedStatementCreator(sql), pss);
 	}
 
 	@Override
@@ -1027,11 +1220,15 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int[] batchUpdate(String sql, final BatchPreparedStatementSetter pss) throws DataAccessException {
+		if (this.batchExecutor != null && isParallelBatchUpdatePossible(pss)) {
+			return parallelBatchUpdate(sql, pss, this.batchExecutor);
+		}
+
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing SQL batch update [" + sql + "]");
 		}
 
-		int[] result = execute(sql, (PreparedStatementCallback<int[]>) ps -> {
+		int[] result = execute(new CacheablePreparedStatementCreator(sql), (PreparedStatementCallback<int[]>) ps -> {
 			try {
 				int batchSize = pss.getBatchSize();
 				InterruptibleBatchPreparedStatementSetter ipss =
@@ -1074,6 +1271,80 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	/**
+	 * Determine whether the given batch may be split into parallel sub-batches:
+	 * i.e. whether it exceeds the parallel batch size and whether we're not
+	 * within a transaction or otherwise bound to a specific Connection.
+	 */
+	private boolean isParallelBatchUpdatePossible(BatchPreparedStatementSetter pss) {
+		return (!(pss instanceof InterruptibleBatchPreparedStatementSetter) &&
+				pss.getBatchSize() > this.parallelBatchSize &&
+				!TransactionSynchronizationManager.isActualTransactionActive() &&
+				!TransactionSynchronizationManager.hasResource(obtainDataSource()));
+	}
+
+	/**
+	 * Split the given batch into sub-batches of the parallel batch size and
+	 * execute them through the given Executor, each on its own Connection.
+	 * Sub-batches rejected by the Executor get executed in the calling thread.
+	 */
+	private int[] parallelBatchUpdate(String sql, BatchPreparedStatementSetter pss, Executor executor) {
+		int batchSize = pss.getBatchSize();
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL batch update [" + sql + "] in parallel sub-batches of " +
+					this.parallelBatchSize + " out of " + batchSize + " statements");
+		}
+
+		try {
+			List<FutureTask<int[]>> subBatches = new ArrayList<>(batchSize / this.parallelBatchSize + 1);
+			for (int offset = 0; offset < batchSize; offset += this.parallelBatchSize) {
+				BatchPreparedStatementSetter subBatch = new SubBatchPreparedStatementSetter(
+						pss, offset, Math.min(this.parallelBatchSize, batchSize - offset));
+				FutureTask<int[]> task = new FutureTask<>(() -> batchUpdate(sql, subBatch));
+				subBatches.add(task);
+				try {
+					executor.execute(task);
+				}
+				catch (RejectedExecutionException ex) {
+					task.run();
+				}
+			}
+
+			int[] result = new int[batchSize];
+			int resultSize = 0;
+			Throwable failure = null;
+			for (FutureTask<int[]> task : subBatches) {
+				try {
+					int[] subResult = task.get();
+					if (resultSize + subResult.length > result.length) {
+						result = Arrays.copyOf(result, resultSize + subResult.length);
+					}
+					System.arraycopy(subResult, 0, result, resultSize, subResult.length);
+					resultSize += subResult.length;
+				}
+				catch (ExecutionException ex) {
+					if (failure == null) {
+						failure = ex.getCause();
+					}
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new TransientDataAccessResourceException(
+							"Interrupted while waiting for parallel batch update [" + sql + "]", ex);
+				}
+			}
+			if (failure != null) {
+				ReflectionUtils.rethrowRuntimeException(failure);
+			}
+			return (resultSize < result.length ? Arrays.copyOf(result, resultSize) : result);
+		}
+		finally {
+			if (pss instanceof ParameterDisposer) {
+				((ParameterDisposer) pss).cleanupParameters();
+			}
+		}
+	}
+
 	@Override
 	public int[] batchUpdate(String sql, List<Object[]> batchArgs) throws DataAccessException {
 		return batchUpdate(sql, batchArgs, new int[0]);
@@ -1124,7 +1395,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing SQL batch update [" + sql + "] with a batch size of " + batchSize);
 		}
-		int[][] result = execute(sql, (PreparedStatementCallback<int[][]>) ps -> {
+		int[][] result = execute(new CacheablePreparedStatementCreator(sql), (PreparedStatementCallback<int[][]>) ps -> {
 			List<int[]> rowsAffected = new ArrayList<>();
 			try {
 				boolean batchSupported = JdbcUtils.supportsBatchUpdates(ps.getConnection());
@@ -1628,6 +1899,47 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Cache key for a prepared statement: the SQL String plus the statement
+	 * settings applied by the template that created it.
+	 */
+	private static final class StatementCacheKey {
+
+		private final String sql;
+
+		private final int fetchSize;
+
+		private final int maxRows;
+
+		private final int queryTimeout;
+
+		public StatementCacheKey(String sql, JdbcTemplate template) {
+			this.sql = sql;
+			this.fetchSize = template.getFetchSize();
+			this.maxRows = template.getMaxRows();
+			this.queryTimeout = template.getQueryTimeout();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof StatementCacheKey)) {
+				return false;
+			}
+			StatementCacheKey otherKey = (StatementCacheKey) other;
+			return (this.sql.equals(otherKey.sql) && this.fetchSize == otherKey.fetchSize &&
+					this.maxRows == otherKey.maxRows && this.queryTimeout == otherKey.queryTimeout);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.sql.hashCode() * 29 + this.fetchSize * 31 + this.maxRows * 17 + this.queryTimeout;
+		}
+	}
+
+
 	/**
 	 * Simple adapter for PreparedStatementCreator, allowing to use a plain SQL statement.
 	 */
@@ -1652,6 +1964,78 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Variant of {@link SimplePreparedStatementCreator} for template-internal
+	 * callbacks which leave the statement in reusable state, marking it as
+	 * eligible for {@link #setCacheStatements statement caching}.
+	 */
+	private static class CacheablePreparedStatementCreator extends SimplePreparedStatementCreator {
+
+		public CacheablePreparedStatementCreator(String sql) {
+			super(sql);
+		}
+	}
+
+
+	/**
+	 * Adapter for a range of statements within a BatchPreparedStatementSetter,
+	 * for parallel execution of sub-batches.
+	 */
+	private static class SubBatchPreparedStatementSetter implements BatchPreparedStatementSetter {
+
+		private final BatchPreparedStatementSetter pss;
+
+		private final int offset;
+
+		private final int batchSize;
+
+		public SubBatchPreparedStatementSetter(BatchPreparedStatementSetter pss, int offset, int batchSize) {
+			this.pss = pss;
+			this.offset = offset;
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		public void setValues(PreparedStatement ps, int i) throws SQLException {
+			this.pss.setValues(ps, this.offset + i);
+		}
+
+		@Override
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+	}
+
+
+	/**
+	 * Adapter for PreparedStatementCreator, creating a PreparedStatement for a
+	 * plain SQL statement with the cursor type of the given streaming options.
+	 */
+	private static class StreamingPreparedStatementCreator implements PreparedStatementCreator, SqlProvider {
+
+		private final String sql;
+
+		private final StreamingQueryOptions options;
+
+		public StreamingPreparedStatementCreator(String sql, StreamingQueryOptions options) {
+			Assert.notNull(sql, "SQL must not be null");
+			Assert.notNull(options, "StreamingQueryOptions must not be null");
+			this.sql = sql;
+			this.options = options;
+		}
+
+		@Override
+		public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+			return con.prepareStatement(this.sql, this.options.getResultSetType(), this.options.getResultSetConcurrency());
+		}
+
+		@Override
+		public String getSql() {
+			return this.sql;
+		}
+	}
+
+
 	/**
 	 * Simple adapter for CallableStatementCreator, allowing to use a plain SQL statement.
 	 */
@@ -1710,25 +2094,39 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		private final RowMapper<T> rowMapper;
 
+		@Nullable
+		private final Runnable releaser;
+
 		private int rowNum = 0;
 
 		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper) {
+			this(rs, rowMapper, null);
+		}
+
+		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper, @Nullable Runnable releaser) {
 			this.rs = rs;
 			this.rowMapper = rowMapper;
+			this.releaser = releaser;
 		}
 
 		@Override
 		public boolean tryAdvance(Consumer<? super T> action) {
+			boolean advanced = false;
 			try {
 				if (this.rs.next()) {
 					action.accept(this.rowMapper.mapRow(this.rs, this.rowNum++));
-					return true;
+					advanced = true;
 				}
-				return false;
+				return advanced;
 			}
 			catch (SQLException ex) {
 				throw new InvalidResultSetAccessException(ex);
 			}
+			finally {
+				if (!advanced && this.releaser != null) {
+					this.releaser.run();
+				}
+			}
 		}
 
 		@Override
@@ -1752,4 +2150,123 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+
+	/**
+	 * Spliterator for queryForChunks adaptation of a ResultSet to a Stream
+	 * of chunks, releasing the ResultSet's resources once exhausted.
+	 * @since 5.3.10
+	 */
+	private static class ChunkedResultSetSpliterator<T> implements Spliterator<List<T>> {
+
+		private final ResultSet rs;
+
+		private final RowMapper<T> rowMapper;
+
+		private final int chunkSize;
+
+		private final Runnable releaser;
+
+		private int rowNum = 0;
+
+		private boolean exhausted;
+
+		public ChunkedResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper, int chunkSize, Runnable releaser) {
+			this.rs = rs;
+			this.rowMapper = rowMapper;
+			this.chunkSize = chunkSize;
+			this.releaser = releaser;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super List<T>> action) {
+			if (this.exhausted) {
+				return false;
+			}
+			List<T> chunk = new ArrayList<>(this.chunkSize);
+			boolean completed = false;
+			try {
+				while (chunk.size() < this.chunkSize && !this.exhausted) {
+					if (this.rs.next()) {
+						chunk.add(this.rowMapper.mapRow(this.rs, this.rowNum++));
+					}
+					else {
+						this.exhausted = true;
+					}
+				}
+				completed = true;
+			}
+			catch (SQLException ex) {
+				throw new InvalidResultSetAccessException(ex);
+			}
+			finally {
+				if (this.exhausted || !completed) {
+					this.exhausted = true;
+					this.releaser.run();
+				}
+			}
+			if (chunk.isEmpty()) {
+				return false;
+			}
+			action.accept(chunk);
+			return true;
+		}
+
+		@Override
+		@Nullable
+		public Spliterator<List<T>> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.NONNULL;
+		}
+	}
+
+
+	/**
+	 * Idempotent callback for releasing the JDBC resources behind a streaming
+	 * query, either on exhaustion of the ResultSet or on closing of the Stream.
+	 * @since 5.3.10
+	 */
+	private class StreamingResourceReleaser implements Runnable {
+
+		private final ResultSet rs;
+
+		@Nullable
+		private final PreparedStatementSetter pss;
+
+		private final Statement stmt;
+
+		private final Connection con;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		public StreamingResourceReleaser(
+				ResultSet rs, @Nullable PreparedStatementSetter pss, Statement stmt, Connection con) {
+
+			this.rs = rs;
+			this.pss = pss;
+			this.stmt = stmt;
+			this.con = con;
+		}
+
+		@Override
+		public void run() {
+			if (this.released.compareAndSet(false, true)) {
+				JdbcUtils.closeResultSet(this.rs);
+				if (this.pss instanceof ParameterDisposer) {
+					((ParameterDisposer) this.pss).cleanupParameters();
+				}
+				JdbcUtils.closeStatement(this.stmt);
+				DataSourceUtils.releaseConnection(this.con, getDataSource());
+			}
+		}
+	}
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Immutable per-query settings for streaming queries, overriding the
+ * statement settings of the {@link JdbcTemplate} for a specific query:
+ * fetch size, maximum number of rows, and the cursor characteristics of
+ * the resulting {@link ResultSet}.
+ *
+ * <p>Typically derived from {@link #defaults()} which indicates a forward-only,
+ * read-only cursor along with the template's fetch size and max rows:
+ *
+ * <pre class="code">
+ * StreamingQueryOptions options = StreamingQueryOptions.defaults().fetchSize(500);
+ * try (Stream&lt;Customer&gt; customers = jdbcTemplate.queryForStream(sql, options, rowMapper)) {
+ *     customers.forEach(exporter::write);
+ * }</pre>
+ *
+ * <p>Note that many drivers only stream a result set with a positive fetch size
+ * within a transaction, i.e. on a Connection with auto-commit switched off
+ * (PostgreSQL), or with a fetch size of {@code Integer.MIN_VALUE} (MySQL).
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @see JdbcOperations#queryForStream(String, StreamingQueryOptions, RowMapper, Object...)
+ * @see JdbcOperations#queryForChunks(String, StreamingQueryOptions, int, RowMapper, Object...)
+ */
+public final class StreamingQueryOptions {
+
+	private static final StreamingQueryOptions DEFAULTS =
+			new StreamingQueryOptions(-1, -1, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+
+	private final int fetchSize;
+
+	private final int maxRows;
+
+	private final int resultSetType;
+
+	private final int resultSetConcurrency;
+
+
+	private StreamingQueryOptions(int fetchSize, int maxRows, int resultSetType, int resultSetConcurrency) {
+		this.fetchSize = fetchSize;
+		this.maxRows = maxRows;
+		this.resultSetType = resultSetType;
+		this.resultSetConcurrency = resultSetConcurrency;
+	}
+
+
+	/**
+	 * Return options with the given fetch size, i.e. the number of rows
+	 * that the driver is supposed to fetch per round trip.
+	 * <p>Default is -1, indicating to use the fetch size of the template.
+	 * @see java.sql.Statement#setFetchSize
+	 * @see JdbcTemplate#setFetchSize
+	 */
+	public StreamingQueryOptions fetchSize(int fetchSize) {
+		return new StreamingQueryOptions(fetchSize, this.maxRows, this.resultSetType, this.resultSetConcurrency);
+	}
+
+	/**
+	 * Return the fetch size for the query, or -1 for the template's fetch size.
+	 */
+	public int getFetchSize() {
+		return this.fetchSize;
+	}
+
+	/**
+	 * Return options with the given maximum number of rows.
+	 * <p>Default is -1, indicating to use the max rows setting of the template.
+	 * @see java.sql.Statement#setMaxRows
+	 * @see JdbcTemplate#setMaxRows
+	 */
+	public StreamingQueryOptions maxRows(int maxRows) {
+		return new StreamingQueryOptions(this.fetchSize, maxRows, this.resultSetType, this.resultSetConcurrency);
+	}
+
+	/**
+	 * Return the maximum number of rows for the query, or -1 for the
+	 * template's max rows setting.
+	 */
+	public int getMaxRows() {
+		return this.maxRows;
+	}
+
+	/**
+	 * Return options with the given result set type.
+	 * <p>Default is {@link ResultSet#TYPE_FORWARD_ONLY}.
+	 * @param resultSetType one of {@link ResultSet#TYPE_FORWARD_ONLY},
+	 * {@link ResultSet#TYPE_SCROLL_INSENSITIVE} or {@link ResultSet#TYPE_SCROLL_SENSITIVE}
+	 */
+	public StreamingQueryOptions resultSetType(int resultSetType) {
+		return new StreamingQueryOptions(this.fetchSize, this.maxRows, resultSetType, this.resultSetConcurrency);
+	}
+
+	/**
+	 * Return the result set type for the query.
+	 */
+	public int getResultSetType() {
+		return this.resultSetType;
+	}
+
+	/**
+	 * Return options with the given result set concurrency.
+	 * <p>Default is {@link ResultSet#CONCUR_READ_ONLY}.
+	 * @param resultSetConcurrency either {@link ResultSet#CONCUR_READ_ONLY}
+	 * or {@link ResultSet#CONCUR_UPDATABLE}
+	 */
+	public StreamingQueryOptions resultSetConcurrency(int resultSetConcurrency) {
+		return new StreamingQueryOptions(this.fetchSize, this.maxRows, this.resultSetType, resultSetConcurrency);
+	}
+
+	/**
+	 * Return the result set concurrency for the query.
+	 */
+	public int getResultSetConcurrency() {
+		return this.resultSetConcurrency;
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof StreamingQueryOptions)) {
+			return false;
+		}
+		StreamingQueryOptions otherOptions = (StreamingQueryOptions) other;
+		return (this.fetchSize == otherOptions.fetchSize && this.maxRows == otherOptions.maxRows &&
+				this.resultSetType == otherOptions.resultSetType &&
+				this.resultSetConcurrency == otherOptions.resultSetConcurrency);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = this.fetchSize;
+		result = 31 * result + this.maxRows;
+		result = 31 * result + this.resultSetType;
+		result = 31 * result + this.resultSetConcurrency;
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "StreamingQueryOptions: fetchSize=" + this.fetchSize + ", maxRows=" + this.maxRows +
+				", resultSetType=" + this.resultSetType + ", resultSetConcurrency=" + this.resultSetConcurrency;
+	}
+
+
+	/**
+	 * Return the default options: a forward-only, read-only cursor with
+	 * the fetch size and max rows settings of the template.
+	 */
+	public static StreamingQueryOptions defaults() {
+		return DEFAULTS;
+	}
+
+}
@@ -272,6 +272,23 @@ public class TableMetaDataContext {
 	 * @return the insert string to be used
 	 */
 	public String createInsertString(String... generatedKeyNames) {
+		return createMultiRowInsertString(1, generatedKeyNames);
+	}
+
+	/**
+	 * Build a multi-row insert string based on configuration and meta-data
+	 * information, i.e. an insert statement with a {@code VALUES} clause
+	 * containing the given number of parameter rows.
+	 * <p>The parameters for the resulting statement are expected row by row,
+	 * with the columns of each row in the order of {@link #getTableColumns()}.
+	 * @param rowCount the number of rows to insert with a single statement
+	 * @param generatedKeyNames the names of the generated key columns to skip
+	 * @return the insert string to be used
+	 * @since 5.3.10
+	 * @see #createInsertString(String...)
+	 */
+	public String createMultiRowInsertString(int rowCount, String... generatedKeyNames) {
+		Assert.isTrue(rowCount > 0, "Row count must be greater than 0");
 		Set<String> keys = new LinkedHashSet<>(generatedKeyNames.length);
 		for (String key : generatedKeyNames) {
 			keys.add(key.toUpperCase());
@@ -314,6 +331,11 @@ public class TableMetaDataContext {
 		String params = String.join(", ", Collections.nCopies(columnCount, "?"));
 		insertStatement.append(params);
 		insertStatement.append(')');
+		for (int i = 1; i < rowCount; i++) {
+			insertStatement.append(", (");
+			insertStatement.append(params);
+			insertStatement.append(')');
+		}
 		return insertStatement.toString();
 	}
 
@@ -26,6 +26,7 @@ import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.StreamingQueryOptions;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
@@ -258,6 +259,102 @@ public interface NamedParameterJdbcOperations {
 	<T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
 			throws DataAccessException;
 
+	/**
+	 * Query given SQL to create a prepared statement with specific streaming
+	 * options from SQL and a list of arguments to bind to the query, mapping
+	 * each row to a Java object via a RowMapper, and turning it into an
+	 * iterable and closeable Stream.
+	 * <p>All JDBC resources get released as soon as the last row has been read,
+	 * or when the stream gets closed before, whatever happens first.
+	 * @param sql the SQL query to execute
+	 * @param paramSource container of arguments to bind to the query
+	 * @param rowMapper object that will map one object per row
+	 * @param options the streaming options for the query, including the
+	 * fetch size and the type and concurrency of the cursor
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper,
+			StreamingQueryOptions options) throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement with specific streaming
+	 * options from SQL and a list of arguments to bind to the query, mapping
+	 * each row to a Java object via a RowMapper, and turning it into an
+	 * iterable and closeable Stream.
+	 * <p>All JDBC resources get released as soon as the last row has been read,
+	 * or when the stream gets closed before, whatever happens first.
+	 * @param sql the SQL query to execute
+	 * @param paramMap map of parameters to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type)
+	 * @param rowMapper object that will map one object per row
+	 * @param options the streaming options for the query, including the
+	 * fetch size and the type and concurrency of the cursor
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper,
+			StreamingQueryOptions options) throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement with specific streaming
+	 * options from SQL and a list of arguments to bind to the query, mapping
+	 * each row to a Java object via a RowMapper, and turning it into an
+	 * iterable and closeable Stream of chunks with up to the given number
+	 * of mapped objects each.
+	 * <p>Only a single chunk is being held in memory at any time, unless the
+	 * caller holds on to previous chunks; {@link Stream#iterator()} exposes
+	 * the chunks as a plain {@code Iterator<List<T>>}. All JDBC resources get
+	 * released as soon as the last row has been read, or when the stream gets
+	 * closed before, whatever happens first.
+	 * @param sql the SQL query to execute
+	 * @param paramSource container of arguments to bind to the query
+	 * @param rowMapper object that will map one object per row
+	 * @param chunkSize the maximum number of mapped objects per chunk
+	 * @param options the streaming options for the query, including the
+	 * fetch size and the type and concurrency of the cursor
+	 * @return the result Stream, containing chunks of mapped objects, needing
+	 * to be closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<List<T>> queryForChunks(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper,
+			int chunkSize, StreamingQueryOptions options) throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement with specific streaming
+	 * options from SQL and a list of arguments to bind to the query, mapping
+	 * each row to a Java object via a RowMapper, and turning it into an
+	 * iterable and closeable Stream of chunks with up to the given number
+	 * of mapped objects each.
+	 * <p>Only a single chunk is being held in memory at any time, unless the
+	 * caller holds on to previous chunks; {@link Stream#iterator()} exposes
+	 * the chunks as a plain {@code Iterator<List<T>>}. All JDBC resources get
+	 * released as soon as the last row has been read, or when the stream gets
+	 * closed before, whatever happens first.
+	 * @param sql the SQL query to execute
+	 * @param paramMap map of parameters to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type)
+	 * @param rowMapper object that will map one object per row
+	 * @param chunkSize the maximum number of mapped objects per chunk
+	 * @param options the streaming options for the query, including the
+	 * fetch size and the type and concurrency of the cursor
+	 * @return the result Stream, containing chunks of mapped objects, needing
+	 * to be closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3.10
+	 * @see StreamingQueryOptions
+	 */
+	<T> Stream<List<T>> queryForChunks(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper,
+			int chunkSize, StreamingQueryOptions options) throws DataAccessException;
+
 	/**
 	 * Query given SQL to create a prepared statement from SQL and a list
 	 * of arguments to bind to the query, mapping a single result row to a
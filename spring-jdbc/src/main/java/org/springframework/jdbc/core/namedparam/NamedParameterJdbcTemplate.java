@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,7 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
+import org.springframework.jdbc.core.StreamingQueryOptions;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
@@ -126,6 +128,9 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
 	 * Default is 256. 0 indicates no caching, always parsing each statement.
+	 * <p>Each cached statement also holds its expanded variants, i.e. the
+	 * SQL with placeholders for each number of collection elements passed
+	 * to an {@code IN} clause, up to a fixed limit of variants per statement.
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.parsedSqlCache = new ConcurrentLruCache<>(cacheLimit, NamedParameterUtils::parseSqlStatement);
@@ -138,6 +143,37 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return this.parsedSqlCache.sizeLimit();
 	}
 
+	/**
+	 * Return the number of lookups in this template's SQL cache which found
+	 * an already parsed statement.
+	 * @since 5.3.10
+	 * @see ConcurrentLruCache#hitCount()
+	 */
+	public long getCacheHitCount() {
+		return this.parsedSqlCache.hitCount();
+	}
+
+	/**
+	 * Return the number of lookups in this template's SQL cache which had
+	 * to parse the given statement.
+	 * @since 5.3.10
+	 * @see ConcurrentLruCache#missCount()
+	 */
+	public long getCacheMissCount() {
+		return this.parsedSqlCache.missCount();
+	}
+
+	/**
+	 * Return the number of parsed statements which got evicted from this
+	 * template's SQL cache since its creation, as an indication that the
+	 * {@link #setCacheLimit cache limit} is too low for the statements in use.
+	 * @since 5.3.10
+	 * @see ConcurrentLruCache#evictionCount()
+	 */
+	public long getCacheEvictionCount() {
+		return this.parsedSqlCache.evictionCount();
+	}
+
 
 	@Override
 	@Nullable
@@ -235,6 +271,36 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper,
+			StreamingQueryOptions options) throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(
+				getStreamingPreparedStatementCreator(sql, paramSource, options), rowMapper, options);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper,
+			StreamingQueryOptions options) throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper, options);
+	}
+
+	@Override
+	public <T> Stream<List<T>> queryForChunks(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper,
+			int chunkSize, StreamingQueryOptions options) throws DataAccessException {
+
+		return getJdbcOperations().queryForChunks(
+				getStreamingPreparedStatementCreator(sql, paramSource, options), rowMapper, chunkSize, options);
+	}
+
+	@Override
+	public <T> Stream<List<T>> queryForChunks(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper,
+			int chunkSize, StreamingQueryOptions options) throws DataAccessException {
+
+		return queryForChunks(sql, new MapSqlParameterSource(paramMap), rowMapper, chunkSize, options);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -426,6 +492,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return pscf.newPreparedStatementCreator(params);
 	}
 
+	/**
+	 * Build a {@link PreparedStatementCreator} for a streaming query, applying
+	 * the cursor type of the given {@link StreamingQueryOptions}.
+	 * @since 5.3.10
+	 */
+	private PreparedStatementCreator getStreamingPreparedStatementCreator(
+			String sql, SqlParameterSource paramSource, StreamingQueryOptions options) {
+
+		return getPreparedStatementCreator(sql, paramSource, pscf -> {
+			pscf.setResultSetType(options.getResultSetType());
+			pscf.setUpdatableResults(options.getResultSetConcurrency() == ResultSet.CONCUR_UPDATABLE);
+		});
+	}
+
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
 	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries.
@@ -17,8 +17,8 @@
 package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -266,55 +266,58 @@ public abstract class NamedParameterUtils {
 	 * @see #parseSqlStatement
 	 */
 	public static String substituteNamedParameters(ParsedSql parsedSql, @Nullable SqlParameterSource paramSource) {
-		String originalSql = parsedSql.getOriginalSql();
-		List<String> paramNames = parsedSql.getParameterNames();
-		if (paramNames.isEmpty()) {
-			return originalSql;
+		if (parsedSql.getParameterNames().isEmpty()) {
+			return parsedSql.getOriginalSql();
 		}
+		ExpansionShape shape = ExpansionShape.of(parsedSql, paramSource);
+		String expandedSql = parsedSql.getExpandedSql(shape);
+		if (expandedSql == null) {
+			expandedSql = expandSql(parsedSql, shape);
+			parsedSql.cacheExpandedSql(shape, expandedSql);
+		}
+		return expandedSql;
+	}
+
+	/**
+	 * Build the SQL statement for the given expansion shape,
+	 * substituting each named parameter with the required placeholders.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param shape the number of placeholders per parameter
+	 * @return the SQL statement with substituted parameters
+	 */
+	private static String expandSql(ParsedSql parsedSql, ExpansionShape shape) {
+		String originalSql = parsedSql.getOriginalSql();
 		StringBuilder actualSql = new StringBuilder(originalSql.length());
+		int[] codes = shape.codes;
+		int codeIndex = 0;
 		int lastIndex = 0;
-		for (int i = 0; i < paramNames.size(); i++) {
-			String paramName = paramNames.get(i);
+		for (int i = 0; i < parsedSql.getParameterNames().size(); i++) {
 			int[] indexes = parsedSql.getParameterIndexes(i);
 			int startIndex = indexes[0];
 			int endIndex = indexes[1];
 			actualSql.append(originalSql, lastIndex, startIndex);
-			if (paramSource != null && paramSource.hasValue(paramName)) {
-				Object value = paramSource.getValue(paramName);
-				if (value instanceof SqlParameterValue) {
-					value = ((SqlParameterValue) value).getValue();
-				}
-				if (value instanceof Iterable) {
-					Iterator<?> entryIter = ((Iterable<?>) value).iterator();
-					int k = 0;
-					while (entryIter.hasNext()) {
-						if (k > 0) {
-							actualSql.append(", ");
-						}
-						k++;
-						Object entryItem = entryIter.next();
-						if (entryItem instanceof Object[]) {
-							Object[] expressionList = (Object[]) entryItem;
-							actualSql.append('(');
-							for (int m = 0; m < expressionList.length; m++) {
-								if (m > 0) {
-									actualSql.append(", ");
-								}
-								actualSql.append('?');
-							}
-							actualSql.append(')');
-						}
-						else {
-							actualSql.append('?');
-						}
-					}
-				}
-				else {
-					actualSql.append('?');
-				}
+			int code = codes[codeIndex++];
+			if (code == ExpansionShape.SINGLE_VALUE) {
+				actualSql.append('?');
+			}
+			else if (code < ExpansionShape.SINGLE_VALUE) {
+				appendPlaceholders(actualSql, ExpansionShape.SINGLE_VALUE - code - 1);
 			}
 			else {
-				actualSql.append('?');
+				for (int k = 0; k < code; k++) {
+					if (k > 0) {
+						actualSql.append(", ");
+					}
+					int entryCode = codes[codeIndex++];
+					if (entryCode == ExpansionShape.SINGLE_VALUE) {
+						actualSql.append('?');
+					}
+					else {
+						actualSql.append('(');
+						appendPlaceholders(actualSql, entryCode);
+						actualSql.append(')');
+					}
+				}
 			}
 			lastIndex = endIndex;
 		}
@@ -322,6 +325,15 @@ public abstract class NamedParameterUtils {
 		return actualSql.toString();
 	}
 
+	private static void appendPlaceholders(StringBuilder actualSql, int count) {
+		for (int m = 0; m < count; m++) {
+			if (m > 0) {
+				actualSql.append(", ");
+			}
+			actualSql.append('?');
+		}
+	}
+
 	/**
 	 * Convert a Map of named parameter values to a corresponding array.
 	 * @param parsedSql the parsed SQL statement
@@ -513,4 +525,85 @@ public abstract class NamedParameterUtils {
 		}
 	}
 
+
+	/**
+	 * Key for the expanded variants of a parsed SQL statement: the number of
+	 * placeholders for each parameter occurrence, as determined by the given
+	 * parameter values. Encoded as a sequence of codes per parameter:
+	 * {@code -1} for a single value, {@code -2 - n} for an {@link Iterable}
+	 * of {@code n} single values, and {@code n} followed by one code per entry
+	 * ({@code -1} or the array length) for an {@code Iterable} containing
+	 * {@code Object[]} expression lists.
+	 */
+	private static final class ExpansionShape {
+
+		static final int SINGLE_VALUE = -1;
+
+		final int[] codes;
+
+		private final int hashCode;
+
+		private ExpansionShape(int[] codes) {
+			this.codes = codes;
+			this.hashCode = Arrays.hashCode(codes);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof ExpansionShape &&
+					Arrays.equals(this.codes, ((ExpansionShape) other).codes)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		static ExpansionShape of(ParsedSql parsedSql, @Nullable SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] codes = new int[paramNames.size()];
+			int length = 0;
+			for (String paramName : paramNames) {
+				Object value = null;
+				if (paramSource != null && paramSource.hasValue(paramName)) {
+					value = paramSource.getValue(paramName);
+					if (value instanceof SqlParameterValue) {
+						value = ((SqlParameterValue) value).getValue();
+					}
+				}
+				if (!(value instanceof Iterable)) {
+					codes = ensureCapacity(codes, length + 1);
+					codes[length++] = SINGLE_VALUE;
+					continue;
+				}
+				int headerIndex = length;
+				codes = ensureCapacity(codes, length + 1);
+				length++;
+				int count = 0;
+				boolean expressionLists = false;
+				for (Object entryItem : (Iterable<?>) value) {
+					if (entryItem instanceof Object[] && !expressionLists) {
+						// Switch to a code per entry, back-filling the preceding single values
+						expressionLists = true;
+						codes = ensureCapacity(codes, length + count);
+						Arrays.fill(codes, length, length + count, SINGLE_VALUE);
+						length += count;
+					}
+					if (expressionLists) {
+						codes = ensureCapacity(codes, length + 1);
+						codes[length++] = (entryItem instanceof Object[] ?
+								((Object[]) entryItem).length : SINGLE_VALUE);
+					}
+					count++;
+				}
+				codes[headerIndex] = (expressionLists ? count : SINGLE_VALUE - count - 1);
+			}
+			return new ExpansionShape(length == codes.length ? codes : Arrays.copyOf(codes, length));
+		}
+
+		private static int[] ensureCapacity(int[] codes, int minLength) {
+			return (codes.length >= minLength ? codes : Arrays.copyOf(codes, Math.max(minLength, codes.length * 2)));
+		}
+	}
+
 }
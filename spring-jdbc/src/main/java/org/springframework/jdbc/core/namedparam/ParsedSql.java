@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,10 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
 
 /**
  * Holds information about a parsed SQL statement.
@@ -28,6 +32,10 @@ import java.util.List;
  */
 public class ParsedSql {
 
+	/** Maximum number of expanded SQL statements to cache per parsed statement. */
+	private static final int EXPANDED_SQL_CACHE_LIMIT = 32;
+
+
 	private final String originalSql;
 
 	private final List<String> parameterNames = new ArrayList<>();
@@ -40,6 +48,8 @@ public class ParsedSql {
 
 	private int totalParameterCount;
 
+	private final Map<Object, String> expandedSqlCache = new ConcurrentHashMap<>(4);
+
 
 	/**
 	 * Create a new instance of the {@link ParsedSql} class.
@@ -133,6 +143,32 @@ public class ParsedSql {
 		return this.totalParameterCount;
 	}
 
+	/**
+	 * Return the expanded SQL statement for the given expansion shape,
+	 * if cached already.
+	 * @param shape the key representing the number of placeholders per parameter
+	 * @return the expanded SQL statement, or {@code null} if none cached
+	 * @since 5.3.10
+	 * @see #cacheExpandedSql
+	 */
+	@Nullable
+	String getExpandedSql(Object shape) {
+		return this.expandedSqlCache.get(shape);
+	}
+
+	/**
+	 * Cache the expanded SQL statement for the given expansion shape,
+	 * unless the limit of cached variants for this statement has been reached.
+	 * @param shape the key representing the number of placeholders per parameter
+	 * @param expandedSql the expanded SQL statement
+	 * @since 5.3.10
+	 */
+	void cacheExpandedSql(Object shape, String expandedSql) {
+		if (this.expandedSqlCache.size() < EXPANDED_SQL_CACHE_LIMIT) {
+			this.expandedSqlCache.putIfAbsent(shape, expandedSql);
+		}
+	}
+
 
 	/**
 	 * Exposes the original SQL String.
@@ -88,6 +88,12 @@ public abstract class AbstractJdbcInsert {
 	/** The SQL type information for the insert columns. */
 	private int[] insertTypes = new int[0];
 
+	/** The number of rows to insert with a single statement in a batch insert. */
+	private int multiRowInsertSize = 1;
+
+	/** The generated string used for multi-row insert statements. */
+	private String multiRowInsertString = "";
+
 
 	/**
 	 * Constructor to be used when initializing using a {@link DataSource}.
@@ -221,6 +227,35 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify the number of rows to combine into a single multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statement for batch inserts.
+	 * <p>Default is 1, executing a JDBC batch of single-row statements and
+	 * therefore relying on the driver for reducing the number of round trips.
+	 * A higher value lets {@code doExecuteBatch} send all rows in chunks of the
+	 * given size, with one statement per chunk (still within a JDBC batch),
+	 * plus one statement for the remaining rows. Note that the total number
+	 * of parameters per statement is limited by many databases.
+	 * <p>The update count for each row in a multi-row statement is derived from
+	 * the statement's update count: 1 if it matches the number of rows in the
+	 * statement, {@link Statement#SUCCESS_NO_INFO} otherwise.
+	 * @since 5.3.10
+	 * @see TableMetaDataContext#createMultiRowInsertString
+	 */
+	public void setMultiRowInsertSize(int multiRowInsertSize) {
+		Assert.isTrue(multiRowInsertSize > 0, "Multi-row insert size must be greater than 0");
+		checkIfConfigurationModificationIsAllowed();
+		this.multiRowInsertSize = multiRowInsertSize;
+	}
+
+	/**
+	 * Return the number of rows to combine into a single statement for batch inserts.
+	 * @since 5.3.10
+	 */
+	public int getMultiRowInsertSize() {
+		return this.multiRowInsertSize;
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -277,6 +312,10 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.processMetaData(dataSource, getColumnNames(), getGeneratedKeyNames());
 		this.insertString = this.tableMetaDataContext.createInsertString(getGeneratedKeyNames());
 		this.insertTypes = this.tableMetaDataContext.createInsertTypes();
+		if (this.multiRowInsertSize > 1) {
+			this.multiRowInsertString = this.tableMetaDataContext.createMultiRowInsertString(
+					this.multiRowInsertSize, getGeneratedKeyNames());
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Compiled insert object: insert string is [" + this.insertString + "]");
 		}
@@ -433,7 +472,7 @@ public abstract class AbstractJdbcInsert {
 			getJdbcTemplate().update(
 					con -> {
 						PreparedStatement ps = prepareStatementForGeneratedKeys(con);
-						setParameterValues(ps, values, getInsertTypes());
+						setParameterValues(ps, values, 0, getInsertTypes());
 						return ps;
 					},
 					keyHolder);
@@ -476,7 +515,7 @@ public abstract class AbstractJdbcInsert {
 					PreparedStatement ps = null;
 					try {
 						ps = con.prepareStatement(getInsertString());
-						setParameterValues(ps, values, getInsertTypes());
+						setParameterValues(ps, values, 0, getInsertTypes());
 						ps.executeUpdate();
 					}
 					finally {
@@ -566,6 +605,9 @@ public abstract class AbstractJdbcInsert {
 	 * Delegate method to execute the batch insert.
 	 */
 	private int[] executeBatchInternal(final List<List<Object>> batchValues) {
+		if (this.multiRowInsertSize > 1 && batchValues.size() > 1) {
+			return executeMultiRowBatchInternal(batchValues);
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
@@ -573,7 +615,7 @@ public abstract class AbstractJdbcInsert {
 				new BatchPreparedStatementSetter() {
 					@Override
 					public void setValues(PreparedStatement ps, int i) throws SQLException {
-						setParameterValues(ps, batchValues.get(i), getInsertTypes());
+						setParameterValues(ps, batchValues.get(i), 0, getInsertTypes());
 					}
 					@Override
 					public int getBatchSize() {
@@ -582,22 +624,94 @@ public abstract class AbstractJdbcInsert {
 				});
 	}
 
+	/**
+	 * Delegate method to execute the batch insert through multi-row insert statements,
+	 * with full chunks of rows in a JDBC batch and a separate statement for the remainder.
+	 */
+	private int[] executeMultiRowBatchInternal(final List<List<Object>> batchValues) {
+		int rowsPerStatement = this.multiRowInsertSize;
+		int fullStatements = batchValues.size() / rowsPerStatement;
+		int remainingRows = batchValues.size() % rowsPerStatement;
+		int[] rowsAffected = new int[batchValues.size()];
+
+		if (fullStatements > 0) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing statement " + this.multiRowInsertString + " with batch of size: " +
+						fullStatements + " (" + rowsPerStatement + " rows per statement)");
+			}
+			int[] updateCounts = getJdbcTemplate().batchUpdate(this.multiRowInsertString,
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							setMultiRowParameterValues(ps, batchValues, i * rowsPerStatement, rowsPerStatement);
+						}
+						@Override
+						public int getBatchSize() {
+							return fullStatements;
+						}
+					});
+			for (int i = 0; i < updateCounts.length; i++) {
+				setRowsAffected(rowsAffected, i * rowsPerStatement, rowsPerStatement, updateCounts[i]);
+			}
+		}
+
+		if (remainingRows > 0) {
+			int offset = fullStatements * rowsPerStatement;
+			String insertString = (remainingRows > 1 ?
+					this.tableMetaDataContext.createMultiRowInsertString(remainingRows, getGeneratedKeyNames()) :
+					getInsertString());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing statement " + insertString + " for remaining " + remainingRows + " rows");
+			}
+			int updateCount = getJdbcTemplate().update(insertString,
+					ps -> setMultiRowParameterValues(ps, batchValues, offset, remainingRows));
+			setRowsAffected(rowsAffected, offset, remainingRows, updateCount);
+		}
+
+		return rowsAffected;
+	}
+
+	/**
+	 * Set the parameter values for the given range of rows on a multi-row insert statement.
+	 */
+	private void setMultiRowParameterValues(PreparedStatement ps, List<List<Object>> batchValues,
+			int offset, int rowCount) throws SQLException {
+
+		int paramIndex = 0;
+		for (int row = offset; row < offset + rowCount; row++) {
+			List<Object> values = batchValues.get(row);
+			setParameterValues(ps, values, paramIndex, getInsertTypes());
+			paramIndex += values.size();
+		}
+	}
+
+	/**
+	 * Derive the update counts for the rows of a multi-row insert statement.
+	 */
+	private static void setRowsAffected(int[] rowsAffected, int offset, int rowCount, int updateCount) {
+		int rowUpdateCount = (updateCount == rowCount ? 1 : Statement.SUCCESS_NO_INFO);
+		Arrays.fill(rowsAffected, offset, offset + rowCount, rowUpdateCount);
+	}
+
 	/**
 	 * Internal implementation for setting parameter values.
 	 * @param preparedStatement the PreparedStatement
 	 * @param values the values to be set
+	 * @param paramOffset the number of statement parameters preceding the given values
 	 */
-	private void setParameterValues(PreparedStatement preparedStatement, List<?> values, @Nullable int... columnTypes)
-			throws SQLException {
+	private void setParameterValues(PreparedStatement preparedStatement, List<?> values, int paramOffset,
+			@Nullable int... columnTypes) throws SQLException {
 
 		int colIndex = 0;
 		for (Object value : values) {
 			colIndex++;
 			if (columnTypes == null || colIndex > columnTypes.length) {
-				StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, SqlTypeValue.TYPE_UNKNOWN, value);
+				StatementCreatorUtils.setParameterValue(
+						preparedStatement, paramOffset + colIndex, SqlTypeValue.TYPE_UNKNOWN, value);
 			}
 			else {
-				StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, columnTypes[colIndex - 1], value);
+				StatementCreatorUtils.setParameterValue(
+						preparedStatement, paramOffset + colIndex, columnTypes[colIndex - 1], value);
 			}
 		}
 	}
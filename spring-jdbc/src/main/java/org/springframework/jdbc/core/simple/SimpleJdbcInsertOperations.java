@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,6 +80,23 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	SimpleJdbcInsertOperations includeSynonymsForTableColumnMetaData();
 
+	/**
+	 * Combine the given number of rows into a single multi-row insert statement
+	 * for batch inserts, i.e. {@code INSERT ... VALUES (...), (...)}.
+	 * <p>Note: This is only beneficial for drivers which do not rewrite JDBC
+	 * batches into multi-row statements themselves, and the total number of
+	 * parameters per statement is limited by many databases.
+	 * <p>The default implementation throws {@link UnsupportedOperationException};
+	 * {@link SimpleJdbcInsert} overrides it.
+	 * @param rowsPerStatement the number of rows per insert statement
+	 * @return the instance of this SimpleJdbcInsert
+	 * @throws UnsupportedOperationException if not supported by this implementation
+	 * @since 5.3.10
+	 */
+	default SimpleJdbcInsertOperations usingMultiRowInserts(int rowsPerStatement) {
+		throw new UnsupportedOperationException("Multi-row inserts not supported by " + getClass().getName());
+	}
+
 
 	/**
 	 * Execute the insert using the values passed in.
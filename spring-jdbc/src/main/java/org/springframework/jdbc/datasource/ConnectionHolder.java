@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,15 @@
 package org.springframework.jdbc.datasource;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.ResourceHolderSupport;
 import org.springframework.util.Assert;
@@ -32,6 +38,12 @@ import org.springframework.util.Assert;
  * <p>Inherits rollback-only support for nested JDBC transactions
  * and reference count functionality from the base class.
  *
+ * <p>As of 5.3.10, a ConnectionHolder may also hold a cache of
+ * {@link PreparedStatement PreparedStatements} for its current Connection,
+ * to be reused by {@link org.springframework.jdbc.core.JdbcTemplate} for
+ * repeated statements within the same transaction. Cached statements get
+ * closed on transaction completion.
+ *
  * <p>Note: This is an SPI class, not intended to be used by applications.
  *
  * @author Juergen Hoeller
@@ -46,6 +58,12 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	 */
 	public static final String SAVEPOINT_NAME_PREFIX = "SAVEPOINT_";
 
+	/**
+	 * Default maximum number of cached statements per Connection: 32.
+	 * @since 5.3.10
+	 */
+	public static final int DEFAULT_STATEMENT_CACHE_LIMIT = 32;
+
 
 	@Nullable
 	private ConnectionHandle connectionHandle;
@@ -60,6 +78,14 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
 	private int savepointCounter = 0;
 
+	private int statementCacheLimit = DEFAULT_STATEMENT_CACHE_LIMIT;
+
+	@Nullable
+	private Connection statementCacheConnection;
+
+	@Nullable
+	private Map<Object, PreparedStatement> statementCache;
+
 
 	/**
 	 * Create a new ConnectionHolder for the given ConnectionHandle.
@@ -134,6 +160,7 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	 * argument) and setting a fresh Connection on resume.
 	 */
 	protected void setConnection(@Nullable Connection connection) {
+		closeCachedStatements();
 		if (this.currentConnection != null) {
 			if (this.connectionHandle != null) {
 				this.connectionHandle.releaseConnection(this.currentConnection);
@@ -206,8 +233,123 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	}
 
 
+	/**
+	 * Specify the maximum number of statements to cache for the current Connection.
+	 * Default is {@link #DEFAULT_STATEMENT_CACHE_LIMIT}; the least recently
+	 * used statement gets closed when the limit is exceeded.
+	 * @since 5.3.10
+	 * @see #cacheStatement
+	 */
+	public void setStatementCacheLimit(int statementCacheLimit) {
+		Assert.isTrue(statementCacheLimit >= 0, "Statement cache limit must not be negative");
+		this.statementCacheLimit = statementCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of statements to cache for the current Connection.
+	 * @since 5.3.10
+	 */
+	public int getStatementCacheLimit() {
+		return this.statementCacheLimit;
+	}
+
+	/**
+	 * Obtain a cached statement for the given key, removing it from the cache
+	 * for exclusive use by the caller until it gets returned through
+	 * {@link #cacheStatement}.
+	 * @param con the Connection that the statement is going to be used with
+	 * @param key the key that the statement has been cached for
+	 * (typically including its SQL String)
+	 * @return the cached statement, or {@code null} if none found for the given
+	 * Connection and key
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public PreparedStatement obtainCachedStatement(Connection con, Object key) {
+		synchronized (this) {
+			if (this.statementCache == null || this.statementCacheConnection != con) {
+				return null;
+			}
+			PreparedStatement ps = this.statementCache.remove(key);
+			try {
+				if (ps != null && ps.isClosed()) {
+					ps = null;
+				}
+			}
+			catch (SQLException ex) {
+				JdbcUtils.closeStatement(ps);
+				ps = null;
+			}
+			return ps;
+		}
+	}
+
+	/**
+	 * Put the given statement into the cache for the given key, to be reused
+	 * for subsequent executions on the same Connection within the current
+	 * transaction. If a statement is cached for the key already or the cache
+	 * limit is 0, the given statement gets closed right away.
+	 * @param con the Connection that the statement has been created for
+	 * @param key the key to cache the statement for
+	 * @param ps the statement to cache
+	 * @since 5.3.10
+	 * @see #obtainCachedStatement
+	 * @see #closeCachedStatements()
+	 */
+	public void cacheStatement(Connection con, Object key, PreparedStatement ps) {
+		PreparedStatement statementToClose = ps;
+		List<PreparedStatement> evicted = null;
+		synchronized (this) {
+			if (this.statementCacheConnection != con) {
+				evicted = removeCachedStatements();
+				this.statementCacheConnection = con;
+			}
+			if (this.statementCacheLimit > 0) {
+				if (this.statementCache == null) {
+					this.statementCache = new LinkedHashMap<>(16, 0.75f, true);
+				}
+				if (this.statementCache.putIfAbsent(key, ps) == null) {
+					statementToClose = null;
+					if (this.statementCache.size() > this.statementCacheLimit) {
+						Map.Entry<Object, PreparedStatement> eldest = this.statementCache.entrySet().iterator().next();
+						this.statementCache.remove(eldest.getKey());
+						statementToClose = eldest.getValue();
+					}
+				}
+			}
+		}
+		if (evicted != null) {
+			evicted.forEach(JdbcUtils::closeStatement);
+		}
+		JdbcUtils.closeStatement(statementToClose);
+	}
+
+	/**
+	 * Close all statements cached for the current Connection.
+	 * <p>Called on transaction completion, before the Connection gets released.
+	 * @since 5.3.10
+	 */
+	public void closeCachedStatements() {
+		List<PreparedStatement> statements;
+		synchronized (this) {
+			statements = removeCachedStatements();
+			this.statementCacheConnection = null;
+		}
+		statements.forEach(JdbcUtils::closeStatement);
+	}
+
+	private List<PreparedStatement> removeCachedStatements() {
+		if (this.statementCache == null || this.statementCache.isEmpty()) {
+			return new ArrayList<>(0);
+		}
+		List<PreparedStatement> statements = new ArrayList<>(this.statementCache.values());
+		this.statementCache.clear();
+		return statements;
+	}
+
 	@Override
 	public void clear() {
+		closeCachedStatements();
 		super.clear();
 		this.transactionActive = false;
 		this.savepointsSupported = null;
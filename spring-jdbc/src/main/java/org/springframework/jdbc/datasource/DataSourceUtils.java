@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -496,6 +496,7 @@ public abstract class DataSourceUtils {
 					// a handle to it anymore. We will fetch a fresh Connection if the
 					// application accesses the ConnectionHolder again after resume,
 					// assuming that it will participate in the same transaction.
+					this.connectionHolder.closeCachedStatements();
 					releaseConnection(this.connectionHolder.getConnection(), this.dataSource);
 					this.connectionHolder.setConnection(null);
 				}
@@ -520,6 +521,7 @@ public abstract class DataSourceUtils {
 				TransactionSynchronizationManager.unbindResource(this.dataSource);
 				this.holderActive = false;
 				if (this.connectionHolder.hasConnection()) {
+					this.connectionHolder.closeCachedStatements();
 					releaseConnection(this.connectionHolder.getConnection(), this.dataSource);
 				}
 			}
@@ -536,6 +538,7 @@ public abstract class DataSourceUtils {
 				TransactionSynchronizationManager.unbindResourceIfPossible(this.dataSource);
 				this.holderActive = false;
 				if (this.connectionHolder.hasConnection()) {
+					this.connectionHolder.closeCachedStatements();
 					releaseConnection(this.connectionHolder.getConnection(), this.dataSource);
 					// Reset the ConnectionHolder: It might remain bound to the thread.
 					this.connectionHolder.setConnection(null);
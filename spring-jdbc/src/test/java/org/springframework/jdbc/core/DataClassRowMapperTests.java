@@ -79,4 +79,23 @@ public class DataClassRowMapperTests extends AbstractRowMapperTests {
 		mock.verifyClosed();
 	}
 
+	@Test
+	public void testStaticQueryWithDataClassAndSettersAndCompiledMapping() throws Exception {
+		DataClassRowMapper<ConstructorPersonWithSetters> mapper =
+				new DataClassRowMapper<>(ConstructorPersonWithSetters.class);
+		mapper.setCompiledMapping(true);
+		for (int i = 0; i < 2; i++) {
+			Mock mock = new Mock();
+			List<ConstructorPersonWithSetters> result = mock.getJdbcTemplate().query(
+					"select name, age, birth_date, balance from people", mapper);
+			assertThat(result.size()).isEqualTo(1);
+			ConstructorPersonWithSetters person = result.get(0);
+			assertThat(person.name()).isEqualTo("BUBBA");
+			assertThat(person.age()).isEqualTo(22L);
+			assertThat(person.birth_date()).usingComparator(Date::compareTo).isEqualTo(new java.util.Date(1221222L));
+			assertThat(person.balance()).isEqualTo(new BigDecimal("1234.56"));
+			mock.verifyClosed();
+		}
+	}
+
 }
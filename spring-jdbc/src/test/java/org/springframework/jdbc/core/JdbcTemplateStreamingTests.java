@@ -0,0 +1,232 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Integration tests for the streaming query variants of {@link JdbcTemplate}
+ * and {@link NamedParameterJdbcTemplate} against an embedded H2 database.
+ *
+ * @since 5.3.10
+ */
+class JdbcTemplateStreamingTests {
+
+	private static final int ROW_COUNT = 100_000;
+
+	private static final String QUERY = "select id, name from item order by id";
+
+
+	private EmbeddedDatabase database;
+
+	private final AtomicInteger openConnections = new AtomicInteger();
+
+	private final AtomicInteger lastFetchSize = new AtomicInteger();
+
+	private final AtomicInteger mappedRows = new AtomicInteger();
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final RowMapper<String> rowMapper = (rs, rowNum) -> {
+		this.mappedRows.incrementAndGet();
+		return rs.getString(2);
+	};
+
+
+	@BeforeEach
+	void setup() {
+		this.database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true).build();
+		new JdbcTemplate(this.database).execute("create table item as " +
+				"select x as id, concat('item', x) as name from system_range(1, " + ROW_COUNT + ")");
+		this.jdbcTemplate = new JdbcTemplate(new TrackingDataSource());
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void streamWithFetchSize() {
+		StreamingQueryOptions options = StreamingQueryOptions.defaults().fetchSize(100);
+		try (Stream<String> stream = this.jdbcTemplate.queryForStream(QUERY, options, this.rowMapper)) {
+			assertThat(this.openConnections.get()).isEqualTo(1);
+			assertThat(this.lastFetchSize.get()).isEqualTo(100);
+			Iterator<String> it = stream.iterator();
+			assertThat(it.next()).isEqualTo("item1");
+			assertThat(this.mappedRows.get()).isEqualTo(1);
+			int count = 1;
+			while (it.hasNext()) {
+				it.next();
+				count++;
+			}
+			assertThat(count).isEqualTo(ROW_COUNT);
+			// released on exhaustion, before closing the stream
+			assertThat(this.openConnections.get()).isEqualTo(0);
+		}
+		assertThat(this.openConnections.get()).isEqualTo(0);
+	}
+
+	@Test
+	void streamReleasedOnEarlyClose() {
+		try (Stream<String> stream = this.jdbcTemplate.queryForStream(
+				QUERY, StreamingQueryOptions.defaults(), this.rowMapper)) {
+			assertThat(stream.limit(10).count()).isEqualTo(10);
+			assertThat(this.openConnections.get()).isEqualTo(1);
+		}
+		assertThat(this.openConnections.get()).isEqualTo(0);
+		assertThat(this.mappedRows.get()).isEqualTo(10);
+	}
+
+	@Test
+	void streamReleasedOnMappingFailure() {
+		RowMapper<String> failingMapper = (rs, rowNum) -> {
+			if (rowNum == 5) {
+				throw new IllegalStateException("Mapping failure");
+			}
+			return rs.getString(2);
+		};
+		try (Stream<String> stream = this.jdbcTemplate.queryForStream(
+				QUERY, StreamingQueryOptions.defaults(), failingMapper)) {
+			assertThatIllegalStateException().isThrownBy(() -> stream.forEach(name -> {}));
+			assertThat(this.openConnections.get()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	void chunksWithBoundedMemory() {
+		StreamingQueryOptions options = StreamingQueryOptions.defaults().fetchSize(500);
+		try (Stream<List<String>> chunks = this.jdbcTemplate.queryForChunks(QUERY, options, 768, this.rowMapper)) {
+			Iterator<List<String>> it = chunks.iterator();
+			List<String> first = it.next();
+			assertThat(first).hasSize(768);
+			assertThat(first.get(0)).isEqualTo("item1");
+			// only the rows of the current chunk have been mapped so far
+			assertThat(this.mappedRows.get()).isEqualTo(768);
+			assertThat(this.lastFetchSize.get()).isEqualTo(500);
+
+			int count = first.size();
+			int chunkCount = 1;
+			List<String> last = first;
+			while (it.hasNext()) {
+				last = it.next();
+				assertThat(last.size()).isLessThanOrEqualTo(768);
+				count += last.size();
+				chunkCount++;
+				assertThat(this.mappedRows.get()).isEqualTo(count);
+			}
+			assertThat(count).isEqualTo(ROW_COUNT);
+			assertThat(chunkCount).isEqualTo(ROW_COUNT / 768 + 1);
+			assertThat(last).hasSize(ROW_COUNT % 768);
+			assertThat(last.get(last.size() - 1)).isEqualTo("item" + ROW_COUNT);
+			assertThat(this.openConnections.get()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	void chunksWithArguments() {
+		try (Stream<List<String>> chunks = this.jdbcTemplate.queryForChunks(
+				"select id, name from item where id > ? order by id",
+				StreamingQueryOptions.defaults(), 10, this.rowMapper, ROW_COUNT - 25)) {
+			assertThat(chunks.mapToInt(List::size).toArray()).containsExactly(10, 10, 5);
+		}
+		assertThat(this.openConnections.get()).isEqualTo(0);
+	}
+
+	@Test
+	void namedParameterStreamAndChunks() {
+		NamedParameterJdbcTemplate template = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		String sql = "select id, name from item where id <= :max order by id";
+		MapSqlParameterSource params = new MapSqlParameterSource("max", 1000);
+		StreamingQueryOptions options = StreamingQueryOptions.defaults().fetchSize(50);
+
+		try (Stream<String> stream = template.queryForStream(sql, params, this.rowMapper, options)) {
+			assertThat(stream.count()).isEqualTo(1000);
+			assertThat(this.lastFetchSize.get()).isEqualTo(50);
+		}
+		try (Stream<List<String>> chunks = template.queryForChunks(sql, params, this.rowMapper, 300, options)) {
+			assertThat(chunks.mapToInt(List::size).toArray()).containsExactly(300, 300, 300, 100);
+		}
+		assertThat(this.openConnections.get()).isEqualTo(0);
+	}
+
+
+	/**
+	 * DataSource which tracks open connections and the fetch size
+	 * of the most recently prepared statement.
+	 */
+	private class TrackingDataSource extends DelegatingDataSource {
+
+		TrackingDataSource() {
+			super(database);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection con = super.getConnection();
+			openConnections.incrementAndGet();
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+						if (method.getName().equals("close")) {
+							openConnections.decrementAndGet();
+						}
+						Object result = method.invoke(con, args);
+						if (result instanceof PreparedStatement) {
+							PreparedStatement ps = (PreparedStatement) result;
+							assertThat(ps.getResultSetType()).isEqualTo(ResultSet.TYPE_FORWARD_ONLY);
+							assertThat(ps.getResultSetConcurrency()).isEqualTo(ResultSet.CONCUR_READ_ONLY);
+							return Proxy.newProxyInstance(getClass().getClassLoader(),
+									new Class<?>[] {PreparedStatement.class}, (psProxy, psMethod, psArgs) -> {
+										if (psMethod.getName().equals("getConnection")) {
+											return proxy;
+										}
+										if (psMethod.getName().equals("setFetchSize")) {
+											lastFetchSize.set((Integer) psArgs[0]);
+										}
+										return psMethod.invoke(ps, psArgs);
+									});
+						}
+						return result;
+					});
+		}
+	}
+
+}
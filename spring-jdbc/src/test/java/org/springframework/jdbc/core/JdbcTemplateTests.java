@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,11 +32,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.sql.DataSource;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -45,19 +48,27 @@ import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.support.AbstractInterruptibleBatchPreparedStatementSetter;
+import org.springframework.jdbc.datasource.ConnectionHolder;
 import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -557,6 +568,176 @@ public class JdbcTemplateTests {
 		verify(this.connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testParallelBatchUpdate() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final int[] ids = new int[] {100, 200, 300, 400, 500};
+		List<Connection> connections = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> boundIds = Collections.synchronizedList(new ArrayList<>());
+		given(this.dataSource.getConnection()).willAnswer(invocation -> {
+			Connection con = mock(Connection.class);
+			PreparedStatement ps = mock(PreparedStatement.class);
+			DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+			given(databaseMetaData.supportsBatchUpdates()).willReturn(true);
+			given(con.getMetaData()).willReturn(databaseMetaData);
+			given(con.prepareStatement(sql)).willReturn(ps);
+			given(ps.getConnection()).willReturn(con);
+			List<Integer> batch = new ArrayList<>();
+			willAnswer(psInvocation -> batch.add(psInvocation.getArgument(1))).given(ps).setInt(eq(1), anyInt());
+			given(ps.executeBatch()).willAnswer(psInvocation -> batch.stream().mapToInt(id -> id / 100).toArray());
+			connections.add(con);
+			return con;
+		});
+
+		BatchPreparedStatementSetter setter = new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				boundIds.add(ids[i]);
+				ps.setInt(1, ids[i]);
+			}
+			@Override
+			public int getBatchSize() {
+				return ids.length;
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+			template.setBatchExecutor(executor);
+			template.setParallelBatchSize(2);
+			int[] actualRowsAffected = template.batchUpdate(sql, setter);
+			assertThat(actualRowsAffected).containsExactly(1, 2, 3, 4, 5);
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertThat(boundIds).containsExactlyInAnyOrder(100, 200, 300, 400, 500);
+		assertThat(connections).hasSize(3);
+		for (Connection con : connections) {
+			verify(con).close();
+		}
+	}
+
+	@Test
+	public void testParallelBatchUpdateWithinTransaction() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final int[] ids = new int[] {100, 200, 300};
+		final int[] rowsAffected = new int[] {1, 2, 3};
+
+		given(this.preparedStatement.executeBatch()).willReturn(rowsAffected);
+		mockDatabaseMetaData(true);
+
+		BatchPreparedStatementSetter setter = new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setInt(1, ids[i]);
+			}
+			@Override
+			public int getBatchSize() {
+				return ids.length;
+			}
+		};
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+		template.setBatchExecutor(task -> {
+			throw new IllegalStateException("Should not execute in parallel");
+		});
+		template.setParallelBatchSize(1);
+		TransactionSynchronizationManager.bindResource(this.dataSource, new ConnectionHolder(this.connection));
+		try {
+			int[] actualRowsAffected = template.batchUpdate(sql, setter);
+			assertThat(actualRowsAffected).containsExactly(1, 2, 3);
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(this.dataSource);
+		}
+
+		verify(this.preparedStatement, times(3)).addBatch();
+		verify(this.preparedStatement).close();
+	}
+
+	@Test
+	public void testStatementCachingWithinTransaction() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final String otherSql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = NULL WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+
+		this.template.setCacheStatements(true);
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.executeWithoutResult(status -> {
+			assertThat(this.template.update(sql, 1)).isEqualTo(1);
+			assertThat(this.template.update(sql, 2)).isEqualTo(1);
+			assertThat(this.template.update(otherSql, 3)).isEqualTo(1);
+			assertThat(this.template.update(sql, 4)).isEqualTo(1);
+		});
+
+		verify(this.connection).prepareStatement(sql);
+		verify(this.connection).prepareStatement(otherSql);
+		verify(this.preparedStatement, times(2)).clearParameters();
+		verify(this.preparedStatement, times(4)).executeUpdate();
+		InOrder ordered = inOrder(this.connection, this.preparedStatement);
+		ordered.verify(this.connection).commit();
+		ordered.verify(this.preparedStatement, times(2)).close();
+		ordered.verify(this.connection).close();
+	}
+
+	@Test
+	public void testStatementCachingOutsideOfTransaction() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+
+		this.template.setCacheStatements(true);
+		assertThat(this.template.update(sql, 1)).isEqualTo(1);
+		assertThat(this.template.update(sql, 2)).isEqualTo(1);
+
+		verify(this.connection, times(2)).prepareStatement(sql);
+		verify(this.preparedStatement, never()).clearParameters();
+		verify(this.preparedStatement, times(2)).close();
+		verify(this.connection, times(2)).close();
+	}
+
+	@Test
+	public void testStatementCachingNotAppliedToCustomCallback() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+
+		this.template.setCacheStatements(true);
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.executeWithoutResult(status -> {
+			for (int i = 0; i < 2; i++) {
+				this.template.execute(sql, (PreparedStatementCallback<Integer>) ps -> {
+					ps.setMaxRows(10);
+					return ps.executeUpdate();
+				});
+			}
+		});
+
+		verify(this.connection, times(2)).prepareStatement(sql);
+		verify(this.preparedStatement, never()).clearParameters();
+		verify(this.preparedStatement, times(2)).close();
+	}
+
+	@Test
+	public void testStatementCachingWithFailure() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1).willThrow(new SQLException("failure")).willReturn(1);
+
+		this.template.setCacheStatements(true);
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.executeWithoutResult(status -> {
+			this.template.update(sql, 1);
+			assertThatExceptionOfType(DataAccessException.class).isThrownBy(() -> this.template.update(sql, 2));
+			this.template.update(sql, 3);
+		});
+
+		// Failed statement closed right away, not reused for the third call
+		verify(this.connection, times(2)).prepareStatement(sql);
+		verify(this.preparedStatement, times(2)).close();
+		verify(this.connection).close();
+	}
+
 	@Test
 	public void testInterruptibleBatchUpdateWithBaseClass() throws Exception {
 		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
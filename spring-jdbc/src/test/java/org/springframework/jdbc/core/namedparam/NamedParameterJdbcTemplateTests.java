@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -132,6 +132,28 @@ public class NamedParameterJdbcTemplateTests {
 		assertThat(namedParameterTemplate.getJdbcTemplate().getDataSource()).isSameAs(dataSource);
 	}
 
+	@Test
+	public void testCacheStatistics() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(1);
+		namedParameterTemplate.setCacheLimit(1);
+
+		params.put("perfId", 1);
+		params.put("priceId", 1);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		assertThat(namedParameterTemplate.getCacheHitCount()).isEqualTo(1);
+		assertThat(namedParameterTemplate.getCacheMissCount()).isEqualTo(1);
+		assertThat(namedParameterTemplate.getCacheEvictionCount()).isEqualTo(0);
+
+		params.put("id", 1);
+		params.put("country", "UK");
+		namedParameterTemplate.update(SELECT_NAMED_PARAMETERS, params);
+		assertThat(namedParameterTemplate.getCacheMissCount()).isEqualTo(2);
+		assertThat(namedParameterTemplate.getCacheEvictionCount()).isEqualTo(1);
+		verify(connection, times(2)).prepareStatement(UPDATE_NAMED_PARAMETERS_PARSED);
+		verify(connection).prepareStatement(SELECT_NAMED_PARAMETERS_PARSED);
+	}
+
 	@Test
 	public void testExecute() throws SQLException {
 		given(preparedStatement.executeUpdate()).willReturn(1);
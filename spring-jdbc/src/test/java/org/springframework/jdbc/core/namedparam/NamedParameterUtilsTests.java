@@ -16,6 +16,8 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -70,6 +72,33 @@ public class NamedParameterUtilsTests {
 		assertThat(NamedParameterUtils.substituteNamedParameters("xxx :a :b :c xx :a :a", namedParams)).isEqualTo("xxx ? ? ? xx ? ?");
 	}
 
+	@Test
+	public void substituteNamedParametersWithCollectionShapes() {
+		ParsedSql psql = NamedParameterUtils.parseSqlStatement(
+				"select * from t where id in (:ids) and (a, b) in (:pairs) and c = :c");
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("ids", Arrays.asList(1, 2, 3))
+				.addValue("pairs", Arrays.asList(new Object[] {1, "a"}, 2, new Object[] {3}))
+				.addValue("c", "c");
+		String expanded = NamedParameterUtils.substituteNamedParameters(psql, params);
+		assertThat(expanded).isEqualTo(
+				"select * from t where id in (?, ?, ?) and (a, b) in ((?, ?), ?, (?)) and c = ?");
+
+		params.addValue("ids", Arrays.asList(4, 5, 6)).addValue("c", "d");
+		assertThat(NamedParameterUtils.substituteNamedParameters(psql, params)).isSameAs(expanded);
+
+		params.addValue("ids", new SqlParameterValue(Types.INTEGER, Collections.singleton(1)));
+		params.addValue("pairs", Collections.emptyList());
+		assertThat(NamedParameterUtils.substituteNamedParameters(psql, params)).isEqualTo(
+				"select * from t where id in (?) and (a, b) in () and c = ?");
+
+		params.addValue("ids", 1).addValue("pairs", Arrays.asList(2, new Object[] {3, 4}));
+		assertThat(NamedParameterUtils.substituteNamedParameters(psql, params)).isEqualTo(
+				"select * from t where id in (?) and (a, b) in (?, (?, ?)) and c = ?");
+		assertThat(NamedParameterUtils.substituteNamedParameters(psql, null)).isEqualTo(
+				"select * from t where id in (?) and (a, b) in (?) and c = ?");
+	}
+
 	@Test
 	public void convertParamMapToArray() {
 		Map<String, String> paramMap = new HashMap<>();
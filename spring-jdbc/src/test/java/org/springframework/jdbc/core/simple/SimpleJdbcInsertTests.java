@@ -18,10 +18,13 @@ package org.springframework.jdbc.core.simple;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -35,6 +38,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -107,6 +111,61 @@ class SimpleJdbcInsertTests {
 		verify(tableResultSet).close();
 	}
 
+	@Test
+	void multiRowBatchInsert() throws Exception {
+		ResultSet tableResultSet = mock(ResultSet.class);
+		given(tableResultSet.next()).willReturn(true, false);
+
+		given(databaseMetaData.getUserName()).willReturn("me");
+		given(databaseMetaData.getTables(null, null, "me", null)).willReturn(tableResultSet);
+
+		ResultSet columnResultSet = mock(ResultSet.class);
+		given(databaseMetaData.getColumns(null, "me", null, null)).willReturn(columnResultSet);
+		given(columnResultSet.next()).willReturn(true, true, false);
+		given(columnResultSet.getString("COLUMN_NAME")).willReturn("col1", "col2");
+		given(columnResultSet.getInt("DATA_TYPE")).willReturn(Types.VARCHAR);
+		given(columnResultSet.getBoolean("NULLABLE")).willReturn(false);
+
+		Connection execConnection = mock(Connection.class);
+		DatabaseMetaData execMetaData = mock(DatabaseMetaData.class);
+		given(execMetaData.supportsBatchUpdates()).willReturn(true);
+		given(execConnection.getMetaData()).willReturn(execMetaData);
+		PreparedStatement chunkStatement = mock(PreparedStatement.class);
+		given(chunkStatement.getConnection()).willReturn(execConnection);
+		given(chunkStatement.executeBatch()).willReturn(new int[] {3});
+		given(execConnection.prepareStatement("INSERT INTO me (col1, col2) VALUES(?, ?), (?, ?), (?, ?)"))
+				.willReturn(chunkStatement);
+		PreparedStatement remainderStatement = mock(PreparedStatement.class);
+		given(remainderStatement.executeUpdate()).willReturn(2);
+		given(execConnection.prepareStatement("INSERT INTO me (col1, col2) VALUES(?, ?), (?, ?)"))
+				.willReturn(remainderStatement);
+		given(dataSource.getConnection()).willReturn(connection, execConnection);
+
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(dataSource).withTableName("me").usingMultiRowInserts(3);
+		@SuppressWarnings("unchecked")
+		Map<String, Object>[] batch = new Map[5];
+		for (int i = 0; i < batch.length; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("col1", "a" + i);
+			row.put("col2", "b" + i);
+			batch[i] = row;
+		}
+		int[] rowsAffected = insert.executeBatch(batch);
+
+		assertThat(insert.getInsertString()).isEqualTo("INSERT INTO me (col1, col2) VALUES(?, ?)");
+		assertThat(rowsAffected).containsExactly(1, 1, 1, 1, 1);
+		verify(chunkStatement).setString(1, "a0");
+		verify(chunkStatement).setString(2, "b0");
+		verify(chunkStatement).setString(5, "a2");
+		verify(chunkStatement).setString(6, "b2");
+		verify(chunkStatement).addBatch();
+		verify(remainderStatement).setString(1, "a3");
+		verify(remainderStatement).setString(4, "b4");
+		verify(chunkStatement).close();
+		verify(remainderStatement).close();
+		verify(execConnection, times(2)).close();
+	}
+
 	@Test  // gh-26486
 	void exceptionThrownWhileRetrievingColumnNamesFromMetadata() throws Exception {
 		ResultSet tableResultSet = mock(ResultSet.class);
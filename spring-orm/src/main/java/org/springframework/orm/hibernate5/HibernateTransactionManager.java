@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -714,7 +714,10 @@ public class HibernateTransactionManager extends AbstractPlatformTransactionMana
 
 		// Remove the JDBC connection holder from the thread, if exposed.
 		if (getDataSource() != null) {
-			TransactionSynchronizationManager.unbindResource(getDataSource());
+			Object conHolder = TransactionSynchronizationManager.unbindResource(getDataSource());
+			if (conHolder instanceof ConnectionHolder) {
+				((ConnectionHolder) conHolder).closeCachedStatements();
+			}
 		}
 
 		SessionImplementor session = txObject.getSessionHolder().getSession().unwrap(SessionImplementor.class);
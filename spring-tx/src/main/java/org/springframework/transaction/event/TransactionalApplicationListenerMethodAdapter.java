@@ -106,4 +106,14 @@ public class TransactionalApplicationListenerMethodAdapter extends ApplicationLi
 		}
 	}
 
+	/**
+	 * Never process events in batches, since every event needs to go through
+	 * {@link #onApplicationEvent} for binding it to the transaction phase.
+	 * @since 5.3.10
+	 */
+	@Override
+	public boolean isBatchListener() {
+		return false;
+	}
+
 }
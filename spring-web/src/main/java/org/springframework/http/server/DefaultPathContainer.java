@@ -131,20 +131,21 @@ final class DefaultPathContainer implements PathContainer {
 	}
 
 	private static PathSegment decodeAndParsePathSegment(String segment) {
-		Charset charset = StandardCharsets.UTF_8;
 		int index = segment.indexOf(';');
 		if (index == -1) {
-			String valueToMatch = StringUtils.uriDecode(segment, charset);
-			return DefaultPathSegment.from(segment, valueToMatch);
+			return DefaultPathSegment.from(segment, decode(segment));
 		}
 		else {
-			String valueToMatch = StringUtils.uriDecode(segment.substring(0, index), charset);
-			String pathParameterContent = segment.substring(index);
-			MultiValueMap<String, String> parameters = parsePathParams(pathParameterContent, charset);
-			return DefaultPathSegment.from(segment, valueToMatch, parameters);
+			// Path parameters are parsed on first access
+			String valueToMatch = decode(segment.substring(0, index));
+			return DefaultPathSegment.from(segment, valueToMatch, segment.substring(index));
 		}
 	}
 
+	private static String decode(String value) {
+		return (value.indexOf('%') != -1 ? StringUtils.uriDecode(value, StandardCharsets.UTF_8) : value);
+	}
+
 	private static MultiValueMap<String, String> parsePathParams(String input, Charset charset) {
 		MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
 		int begin = 1;
@@ -234,7 +235,11 @@ final class DefaultPathContainer implements PathContainer {
 
 		private final String valueToMatch;
 
-		private final MultiValueMap<String, String> parameters;
+		@Nullable
+		private final String parameterContent;
+
+		@Nullable
+		private volatile MultiValueMap<String, String> parameters;
 
 		/**
 		 * Factory for segments without decoding and parsing.
@@ -249,20 +254,22 @@ final class DefaultPathContainer implements PathContainer {
 		 * Factory for decoded and parsed segments.
 		 */
 		static DefaultPathSegment from(String value, String valueToMatch) {
-			return new DefaultPathSegment(value, valueToMatch, EMPTY_PARAMS);
+			return new DefaultPathSegment(value, valueToMatch, null);
 		}
 
 		/**
-		 * Factory for decoded and parsed segments.
+		 * Factory for decoded segments with path parameters to be parsed lazily.
+		 * @since 5.3.10
 		 */
-		static DefaultPathSegment from(String value, String valueToMatch, MultiValueMap<String, String> params) {
-			return new DefaultPathSegment(value, valueToMatch, CollectionUtils.unmodifiableMultiValueMap(params));
+		static DefaultPathSegment from(String value, String valueToMatch, String parameterContent) {
+			return new DefaultPathSegment(value, valueToMatch, parameterContent);
 		}
 
-		private DefaultPathSegment(String value, String valueToMatch, MultiValueMap<String, String> params) {
+		private DefaultPathSegment(String value, String valueToMatch, @Nullable String parameterContent) {
 			this.value = value;
 			this.valueToMatch = valueToMatch;
-			this.parameters = params;
+			this.parameterContent = parameterContent;
+			this.parameters = (parameterContent != null ? null : EMPTY_PARAMS);
 		}
 
 
@@ -283,7 +290,14 @@ final class DefaultPathContainer implements PathContainer {
 
 		@Override
 		public MultiValueMap<String, String> parameters() {
-			return this.parameters;
+			MultiValueMap<String, String> parameters = this.parameters;
+			if (parameters == null) {
+				Assert.state(this.parameterContent != null, "No parameter content");
+				parameters = CollectionUtils.unmodifiableMultiValueMap(
+						parsePathParams(this.parameterContent, StandardCharsets.UTF_8));
+				this.parameters = parameters;
+			}
+			return parameters;
 		}
 
 		@Override
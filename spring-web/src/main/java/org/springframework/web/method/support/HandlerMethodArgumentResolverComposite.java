@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,7 +30,9 @@ import org.springframework.web.context.request.NativeWebRequest;
 /**
  * Resolves method parameters by delegating to a list of registered
  * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
- * Previously resolved method parameters are cached for faster lookups.
+ * Previously resolved method parameters are cached for faster lookups, and
+ * the resolvers for all parameters of a method can be obtained at once through
+ * {@link #getArgumentResolvers(MethodParameter[])}.
  *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -38,11 +40,16 @@ import org.springframework.web.context.request.NativeWebRequest;
  */
 public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentResolver {
 
+	private static final HandlerMethodArgumentResolver[] EMPTY_RESOLVERS = new HandlerMethodArgumentResolver[0];
+
 	private final List<HandlerMethodArgumentResolver> argumentResolvers = new ArrayList<>();
 
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodParameter, HandlerMethodArgumentResolver[]> methodResolverCache =
+			new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
@@ -90,6 +97,8 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 	 */
 	public void clear() {
 		this.argumentResolvers.clear();
+		this.argumentResolverCache.clear();
+		this.methodResolverCache.clear();
 	}
 
 
@@ -121,6 +130,40 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Return the registered {@link HandlerMethodArgumentResolver} for each of
+	 * the given parameters of a single method, in the same order and with
+	 * {@code null} for unsupported parameters.
+	 * <p>The result is cached per method once all parameters are supported,
+	 * so that a handler method invocation needs a single lookup rather than
+	 * one per parameter. The returned array must not be modified.
+	 * @param parameters the parameters of one method, as returned from
+	 * {@code HandlerMethod#getMethodParameters()}
+	 * @since 5.3.10
+	 */
+	public HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter[] parameters) {
+		if (parameters.length == 0) {
+			return EMPTY_RESOLVERS;
+		}
+		// All parameters share the same method and containing class
+		HandlerMethodArgumentResolver[] result = this.methodResolverCache.get(parameters[0]);
+		if (result == null) {
+			result = new HandlerMethodArgumentResolver[parameters.length];
+			boolean complete = true;
+			for (int i = 0; i < parameters.length; i++) {
+				result[i] = getArgumentResolver(parameters[i]);
+				if (result[i] == null) {
+					complete = false;
+				}
+			}
+			// Unsupported parameters may get resolved by resolvers added later on
+			if (complete) {
+				this.methodResolverCache.put(parameters[0], result);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
@@ -61,10 +61,16 @@ public abstract class ServletRequestPathUtils {
 	 * if any {@code HandlerMapping} indicates that it uses parsed patterns.
 	 * After that the pre-parsed and cached {@code RequestPath} can be accessed
 	 * through {@link #getParsedRequestPath(ServletRequest)}.
+	 * <p>As of 5.3.10, a {@code RequestPath} that is already cached for the
+	 * same request URI, contextPath and servletPath prefix is reused rather
+	 * than parsed again, e.g. after a {@code ServletRequestPathFilter}.
 	 */
 	public static RequestPath parseAndCache(HttpServletRequest request) {
-		RequestPath requestPath = ServletRequestPath.parse(request);
-		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		RequestPath previousPath = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		RequestPath requestPath = ServletRequestPath.parse(request, previousPath);
+		if (requestPath != previousPath) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
 		return requestPath;
 	}
 
@@ -244,18 +250,44 @@ public abstract class ServletRequestPathUtils {
 		}
 
 
-		public static RequestPath parse(HttpServletRequest request) {
+		public static RequestPath parse(HttpServletRequest request, @Nullable RequestPath previousPath) {
 			String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
 			if (requestUri == null) {
 				requestUri = request.getRequestURI();
 			}
+			String contextPath = request.getContextPath();
 			if (UrlPathHelper.servlet4Present) {
 				String servletPathPrefix = Servlet4Delegate.getServletPathPrefix(request);
 				if (StringUtils.hasText(servletPathPrefix)) {
-					return new ServletRequestPath(requestUri, request.getContextPath(), servletPathPrefix);
+					if (previousPath instanceof ServletRequestPath && isParsedFrom(
+							((ServletRequestPath) previousPath).requestPath, requestUri, contextPath + servletPathPrefix)) {
+						return previousPath;
+					}
+					return new ServletRequestPath(requestUri, contextPath, servletPathPrefix);
 				}
 			}
-			return RequestPath.parse(requestUri, request.getContextPath());
+			if (previousPath != null && !(previousPath instanceof ServletRequestPath) &&
+					isParsedFrom(previousPath, requestUri, contextPath)) {
+				return previousPath;
+			}
+			return RequestPath.parse(requestUri, contextPath);
+		}
+
+		/**
+		 * Whether the given path is what {@link RequestPath#parse(String, String)}
+		 * returns for the given raw path and contextPath.
+		 */
+		private static boolean isParsedFrom(RequestPath path, String rawPath, @Nullable String contextPath) {
+			if (!path.value().equals(rawPath)) {
+				return false;
+			}
+			String contextPathValue = path.contextPath().value();
+			if (!(StringUtils.hasText(contextPath) ? contextPath : "").equals(contextPathValue)) {
+				return false;
+			}
+			String pathWithinApplication = path.pathWithinApplication().value();
+			return (contextPathValue.length() + pathWithinApplication.length() == rawPath.length() &&
+					rawPath.endsWith(pathWithinApplication));
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,6 @@ import java.util.List;
 
 import org.springframework.http.server.PathContainer.Element;
 import org.springframework.http.server.PathContainer.PathSegment;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.pattern.PathPattern.MatchingContext;
 
 /**
@@ -62,22 +60,9 @@ class CaptureTheRestPathElement extends PathElement {
 			matchingContext.remainingPathIndex = matchingContext.pathLength;
 		}
 		if (matchingContext.extractingVariables) {
-			// Collect the parameters from all the remaining segments
-			MultiValueMap<String,String> parametersCollector = null;
-			for (int i = pathIndex; i < matchingContext.pathLength; i++) {
-				Element element = matchingContext.pathElements.get(i);
-				if (element instanceof PathSegment) {
-					MultiValueMap<String, String> parameters = ((PathSegment) element).parameters();
-					if (!parameters.isEmpty()) {
-						if (parametersCollector == null) {
-							parametersCollector = new LinkedMultiValueMap<>();
-						}
-						parametersCollector.addAll(parameters);
-					}
-				}
-			}
+			// Parameters from all the remaining segments are collected on access
 			matchingContext.set(this.variableName, pathToString(pathIndex, matchingContext.pathElements),
-					parametersCollector == null?NO_PARAMETERS:parametersCollector);
+					matchingContext.pathElements.subList(pathIndex, matchingContext.pathLength));
 		}
 		return true;
 	}
@@ -19,7 +19,6 @@ package org.springframework.web.util.pattern;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.springframework.http.server.PathContainer.PathSegment;
 import org.springframework.lang.Nullable;
 
 /**
@@ -119,8 +118,7 @@ class CaptureVariablePathElement extends PathElement {
 		}
 
 		if (match && matchingContext.extractingVariables) {
-			matchingContext.set(this.variableName, candidateCapture,
-					((PathSegment)matchingContext.pathElements.get(pathIndex-1)).parameters());
+			matchingContext.set(this.variableName, candidateCapture, matchingContext.pathElements.get(pathIndex-1));
 		}
 		return match;
 	}
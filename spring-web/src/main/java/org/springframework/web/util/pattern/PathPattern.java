@@ -16,6 +16,7 @@
 
 package org.springframework.web.util.pattern;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -25,9 +26,11 @@ import java.util.StringJoiner;
 
 import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
 import org.springframework.http.server.PathContainer.Separator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 
@@ -549,40 +552,117 @@ public class PathPattern implements Comparable<PathPattern> {
 	/**
 	 * Holder for URI variables and path parameters (matrix variables) extracted
 	 * based on the pattern for a given matched path.
+	 * <p>As of 5.3.10, the maps are created on first access from the captured
+	 * values, and path parameters are only parsed for matrix variables.
 	 */
 	public static class PathMatchInfo {
 
 		private static final PathMatchInfo EMPTY = new PathMatchInfo(Collections.emptyMap(), Collections.emptyMap());
 
-		private final Map<String, String> uriVariables;
+		@Nullable
+		private final String[] variableNames;
+
+		@Nullable
+		private final String[] variableValues;
+
+		@Nullable
+		private final Object[] parameterSources;
+
+		private final int variableCount;
 
-		private final Map<String, MultiValueMap<String, String>> matrixVariables;
+		@Nullable
+		private volatile Map<String, String> uriVariables;
+
+		@Nullable
+		private volatile Map<String, MultiValueMap<String, String>> matrixVariables;
 
 		PathMatchInfo(Map<String, String> uriVars, @Nullable Map<String, MultiValueMap<String, String>> matrixVars) {
+			this.variableNames = null;
+			this.variableValues = null;
+			this.parameterSources = null;
+			this.variableCount = 0;
 			this.uriVariables = Collections.unmodifiableMap(uriVars);
 			this.matrixVariables = (matrixVars != null ?
 					Collections.unmodifiableMap(matrixVars) : Collections.emptyMap());
 		}
 
+		PathMatchInfo(String[] variableNames, String[] variableValues, Object[] parameterSources, int variableCount) {
+			this.variableNames = variableNames;
+			this.variableValues = variableValues;
+			this.parameterSources = parameterSources;
+			this.variableCount = variableCount;
+		}
+
 		/**
 		 * Return the extracted URI variables.
 		 */
+		@SuppressWarnings("ConstantConditions")
 		public Map<String, String> getUriVariables() {
-			return this.uriVariables;
+			Map<String, String> uriVariables = this.uriVariables;
+			if (uriVariables == null) {
+				Map<String, String> result = CollectionUtils.newHashMap(this.variableCount);
+				for (int i = 0; i < this.variableCount; i++) {
+					result.put(this.variableNames[i], this.variableValues[i]);
+				}
+				uriVariables = Collections.unmodifiableMap(result);
+				this.uriVariables = uriVariables;
+			}
+			return uriVariables;
 		}
 
 		/**
 		 * Return maps of matrix variables per path segment, keyed off by URI
 		 * variable name.
 		 */
+		@SuppressWarnings("ConstantConditions")
 		public Map<String, MultiValueMap<String, String>> getMatrixVariables() {
-			return this.matrixVariables;
+			Map<String, MultiValueMap<String, String>> matrixVariables = this.matrixVariables;
+			if (matrixVariables == null) {
+				Map<String, MultiValueMap<String, String>> result = null;
+				for (int i = 0; i < this.variableCount; i++) {
+					MultiValueMap<String, String> parameters = getParameters(this.parameterSources[i]);
+					if (!parameters.isEmpty()) {
+						if (result == null) {
+							result = new HashMap<>();
+						}
+						result.put(this.variableNames[i], CollectionUtils.unmodifiableMultiValueMap(parameters));
+					}
+				}
+				matrixVariables = (result != null ? Collections.unmodifiableMap(result) : Collections.emptyMap());
+				this.matrixVariables = matrixVariables;
+			}
+			return matrixVariables;
+		}
+
+		private static MultiValueMap<String, String> getParameters(@Nullable Object parameterSource) {
+			if (parameterSource instanceof PathSegment) {
+				return ((PathSegment) parameterSource).parameters();
+			}
+			else if (parameterSource instanceof List) {
+				// Path elements captured by a "{*...}" variable
+				MultiValueMap<String, String> result = null;
+				for (Object element : (List<?>) parameterSource) {
+					if (element instanceof PathSegment) {
+						MultiValueMap<String, String> parameters = ((PathSegment) element).parameters();
+						if (!parameters.isEmpty()) {
+							if (result == null) {
+								result = new LinkedMultiValueMap<>();
+							}
+							result.addAll(parameters);
+						}
+					}
+				}
+				if (result != null) {
+					return result;
+				}
+			}
+			return PathElement.NO_PARAMETERS;
 		}
 
 		@Override
 		public String toString() {
-			return "PathMatchInfo[uriVariables=" + this.uriVariables + ", " +
-					"matrixVariables=" + this.matrixVariables + "]";
+			return "PathMatchInfo[uriVariables=" + getUriVariables() + ", " +
+					"matrixVariables=" + getMatrixVariables() + "]";
 		}
 	}
 
@@ -658,10 +738,15 @@ public class PathPattern implements Comparable<PathPattern> {
 		final int pathLength;
 
 		@Nullable
-		private Map<String, String> extractedUriVariables;
+		private String[] variableNames;
 
 		@Nullable
-		private Map<String, MultiValueMap<String, String>> extractedMatrixVariables;
+		private String[] variableValues;
+
+		@Nullable
+		private Object[] parameterSources;
+
+		private int variableCount;
 
 		boolean extractingVariables;
 
@@ -687,26 +772,42 @@ public class PathPattern implements Comparable<PathPattern> {
 			return matchOptionalTrailingSeparator;
 		}
 
-		public void set(String key, String value, MultiValueMap<String,String> parameters) {
-			if (this.extractedUriVariables == null) {
-				this.extractedUriVariables = new HashMap<>();
+		/**
+		 * Record a captured variable.
+		 * @param key the variable name
+		 * @param value the captured value
+		 * @param parameterSource the source of path parameters for the variable,
+		 * either a {@link PathSegment}, a {@code List} of captured path elements,
+		 * or {@code null} for none; parameters are parsed only if
+		 * {@link PathMatchInfo#getMatrixVariables() matrix variables} are accessed
+		 */
+		public void set(String key, String value, @Nullable Object parameterSource) {
+			if (this.variableNames == null || this.variableValues == null || this.parameterSources == null) {
+				int size = Math.max(capturedVariableCount, 1);
+				this.variableNames = new String[size];
+				this.variableValues = new String[size];
+				this.parameterSources = new Object[size];
 			}
-			this.extractedUriVariables.put(key, value);
-
-			if (!parameters.isEmpty()) {
-				if (this.extractedMatrixVariables == null) {
-					this.extractedMatrixVariables = new HashMap<>();
-				}
-				this.extractedMatrixVariables.put(key, CollectionUtils.unmodifiableMultiValueMap(parameters));
+			else if (this.variableCount == this.variableNames.length) {
+				int size = this.variableCount * 2;
+				this.variableNames = Arrays.copyOf(this.variableNames, size);
+				this.variableValues = Arrays.copyOf(this.variableValues, size);
+				this.parameterSources = Arrays.copyOf(this.parameterSources, size);
 			}
+			this.variableNames[this.variableCount] = key;
+			this.variableValues[this.variableCount] = value;
+			this.parameterSources[this.variableCount] = parameterSource;
+			this.variableCount++;
 		}
 
 		public PathMatchInfo getPathMatchResult() {
-			if (this.extractedUriVariables == null) {
+			if (this.variableCount == 0 ||
+					this.variableNames == null || this.variableValues == null || this.parameterSources == null) {
 				return PathMatchInfo.EMPTY;
 			}
 			else {
-				return new PathMatchInfo(this.extractedUriVariables, this.extractedMatrixVariables);
+				return new PathMatchInfo(
+						this.variableNames, this.variableValues, this.parameterSources, this.variableCount);
 			}
 		}
 
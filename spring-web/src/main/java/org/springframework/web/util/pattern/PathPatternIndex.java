@@ -0,0 +1,267 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Index of values keyed by {@link PathPattern}s, used to narrow down the
+ * values whose patterns may match a given path without evaluating every
+ * pattern.
+ *
+ * <p>Patterns are indexed in a segment trie: each leading path segment that
+ * is a case-sensitive {@link LiteralPathElement literal} is keyed by its text,
+ * while any other single segment element such as a capture variable, a regex
+ * or a wildcard shares one variable branch per level. Indexing stops at the
+ * final segment of a pattern and at elements that may span several segments
+ * such as "{@code /**}" or "<code>/{*path}</code>". A value with several
+ * patterns is indexed under their common prefix, and a value without
+ * patterns sits at the root of the trie.
+ *
+ * <p>{@link #getCandidates(PathContainer)} walks the segments of a path
+ * through the trie and returns all values on the way, which is a superset of
+ * the values with a pattern that {@link PathPattern#matches matches} the path.
+ * The candidates still need to be checked against the actual patterns.
+ *
+ * <p>This class is not thread-safe: callers are expected to guard concurrent
+ * modifications, e.g. with a read-write lock.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ * @param <T> the type of indexed values
+ */
+public class PathPatternIndex<T> {
+
+	private final Node<T> root = new Node<>(null, null);
+
+	private final Map<T, Node<T>> nodes = new HashMap<>();
+
+
+	/**
+	 * Add a value with the given patterns to the index, replacing a previous
+	 * registration of the same value.
+	 * @param value the value to add
+	 * @param patterns the patterns of the value, possibly empty in which case
+	 * the value is a candidate for every path
+	 */
+	public void add(T value, Collection<PathPattern> patterns) {
+		Assert.notNull(value, "Value must not be null");
+		remove(value);
+		Node<T> node = this.root;
+		List<Object> keys = getCommonKeys(patterns);
+		for (Object key : keys) {
+			node = node.getOrCreateChild(key);
+		}
+		node.values.add(value);
+		this.nodes.put(value, node);
+	}
+
+	/**
+	 * Remove the given value from the index.
+	 * @param value the value to remove
+	 * @return whether the value was present
+	 */
+	public boolean remove(T value) {
+		Node<T> node = this.nodes.remove(value);
+		if (node == null) {
+			return false;
+		}
+		node.values.remove(value);
+		node.prune();
+		return true;
+	}
+
+	/**
+	 * Return the values with patterns that may match the given path, in no
+	 * particular order. The returned list must not be modified.
+	 * @param path the path to find candidates for
+	 */
+	public List<T> getCandidates(PathContainer path) {
+		if (this.root.isLeaf()) {
+			return Collections.unmodifiableList(this.root.values);
+		}
+		List<T> candidates = new ArrayList<>();
+		collect(this.root, path.elements(), 0, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Return the number of indexed values.
+	 */
+	public int size() {
+		return this.nodes.size();
+	}
+
+	/**
+	 * Whether the index is empty.
+	 */
+	public boolean isEmpty() {
+		return this.nodes.isEmpty();
+	}
+
+
+	private void collect(Node<T> node, List<PathContainer.Element> elements, int index, List<T> candidates) {
+		candidates.addAll(node.values);
+		if (node.isLeaf()) {
+			return;
+		}
+		while (index < elements.size() && !(elements.get(index) instanceof PathContainer.PathSegment)) {
+			index++;
+		}
+		if (index == elements.size()) {
+			return;
+		}
+		if (node.literalChildren != null) {
+			String value = ((PathContainer.PathSegment) elements.get(index)).valueToMatch();
+			Node<T> child = node.literalChildren.get(value);
+			if (child != null) {
+				collect(child, elements, index + 1, candidates);
+			}
+		}
+		if (node.variableChild != null) {
+			collect(node.variableChild, elements, index + 1, candidates);
+		}
+	}
+
+	private static List<Object> getCommonKeys(Collection<PathPattern> patterns) {
+		List<Object> result = null;
+		for (PathPattern pattern : patterns) {
+			List<Object> keys = getKeys(pattern);
+			if (result == null) {
+				result = keys;
+			}
+			else {
+				int length = 0;
+				while (length < result.size() && length < keys.size() && result.get(length).equals(keys.get(length))) {
+					length++;
+				}
+				result = result.subList(0, length);
+			}
+			if (result.isEmpty()) {
+				break;
+			}
+		}
+		return (result != null ? result : Collections.emptyList());
+	}
+
+	/**
+	 * Return the trie keys for the given pattern: the text of literal segments,
+	 * or {@link Node#VARIABLE} for other segments that match exactly one path
+	 * segment, excluding the final segment.
+	 */
+	private static List<Object> getKeys(PathPattern pattern) {
+		List<Object> keys = new ArrayList<>();
+		PathElement element = pattern.getHeadSection();
+		while (element != null) {
+			if (element instanceof SeparatorPathElement) {
+				element = element.next;
+				continue;
+			}
+			PathElement next = element.next;
+			if (!(next instanceof SeparatorPathElement || next instanceof WildcardTheRestPathElement ||
+					next instanceof CaptureTheRestPathElement)) {
+				// Final segment, or a segment spanning several elements
+				break;
+			}
+			if (element instanceof LiteralPathElement && ((LiteralPathElement) element).isCaseSensitive()) {
+				keys.add(String.valueOf(element.getChars()));
+			}
+			else if (element instanceof LiteralPathElement || element instanceof CaptureVariablePathElement ||
+					element instanceof RegexPathElement || element instanceof WildcardPathElement ||
+					element instanceof SingleCharWildcardedPathElement) {
+				keys.add(Node.VARIABLE);
+			}
+			else {
+				break;
+			}
+			element = next;
+		}
+		return keys;
+	}
+
+
+	private static final class Node<T> {
+
+		static final Object VARIABLE = new Object();
+
+		@Nullable
+		private final Node<T> parent;
+
+		@Nullable
+		private final Object key;
+
+		@Nullable
+		private Map<String, Node<T>> literalChildren;
+
+		@Nullable
+		private Node<T> variableChild;
+
+		private final List<T> values = new ArrayList<>(1);
+
+		Node(@Nullable Node<T> parent, @Nullable Object key) {
+			this.parent = parent;
+			this.key = key;
+		}
+
+		Node<T> getOrCreateChild(Object key) {
+			if (key == VARIABLE) {
+				if (this.variableChild == null) {
+					this.variableChild = new Node<>(this, key);
+				}
+				return this.variableChild;
+			}
+			if (this.literalChildren == null) {
+				this.literalChildren = new HashMap<>();
+			}
+			return this.literalChildren.computeIfAbsent((String) key, k -> new Node<>(this, k));
+		}
+
+		boolean isLeaf() {
+			return (this.literalChildren == null && this.variableChild == null);
+		}
+
+		/**
+		 * Detach this node, and then its parents, as long as they are empty.
+		 */
+		void prune() {
+			Node<T> node = this;
+			while (node.parent != null && node.values.isEmpty() && node.isLeaf()) {
+				Node<T> parent = node.parent;
+				if (node.key == VARIABLE) {
+					parent.variableChild = null;
+				}
+				else if (parent.literalChildren != null) {
+					parent.literalChildren.remove(node.key);
+					if (parent.literalChildren.isEmpty()) {
+						parent.literalChildren = null;
+					}
+				}
+				node = parent;
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.springframework.http.server.PathContainer.PathSegment;
 import org.springframework.web.util.pattern.PathPattern.MatchingContext;
 
 /**
@@ -170,9 +169,7 @@ class RegexPathElement extends PathElement {
 				String name = this.variableNames.get(i - 1);
 				String value = matcher.group(i);
 				matchingContext.set(name, value,
-						(i == this.variableNames.size())?
-								((PathSegment)matchingContext.pathElements.get(pathIndex)).parameters():
-								NO_PARAMETERS);
+						(i == this.variableNames.size()) ? matchingContext.pathElements.get(pathIndex) : null);
 			}
 		}
 		return matches;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -81,6 +81,24 @@ public class HandlerMethodArgumentResolverCompositeTests {
 				this.resolverComposite.resolveArgument(paramStr, null, null, null));
 	}
 
+	@Test
+	public void getArgumentResolvers() throws Exception {
+		StubArgumentResolver resolver = new StubArgumentResolver(Integer.class);
+		this.resolverComposite.addResolver(resolver);
+		MethodParameter[] parameters = new MethodParameter[] {paramInt, paramStr};
+		HandlerMethodArgumentResolver[] resolvers = this.resolverComposite.getArgumentResolvers(parameters);
+
+		assertThat(resolvers).containsExactly(resolver, null);
+
+		StubArgumentResolver stringResolver = new StubArgumentResolver(String.class);
+		this.resolverComposite.addResolver(stringResolver);
+		resolvers = this.resolverComposite.getArgumentResolvers(parameters);
+
+		assertThat(resolvers).containsExactly(resolver, stringResolver);
+		assertThat(this.resolverComposite.getArgumentResolvers(parameters.clone())).isSameAs(resolvers);
+		assertThat(this.resolverComposite.getArgumentResolvers(new MethodParameter[0])).isEmpty();
+	}
+
 
 	@SuppressWarnings("unused")
 	private void handle(Integer arg1, String arg2) {
@@ -46,6 +46,30 @@ public class ServletRequestPathUtilsTests {
 		testParseAndCache("/app/servlet/a//", "/app", "/servlet", "/a//");
 	}
 
+	@Test
+	void parseAndCacheReusesPreviouslyParsedPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/servlet/a/b");
+		request.setContextPath("/app");
+		request.setServletPath("/servlet");
+		request.setHttpServletMapping(new MockHttpServletMapping("/a/b", "/app", "myServlet", MappingMatch.PATH));
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(ServletRequestPathUtils.parseAndCache(request)).isSameAs(requestPath);
+
+		request.setRequestURI("/app/servlet/a/c");
+		RequestPath otherPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(otherPath).isNotSameAs(requestPath);
+		assertThat(otherPath.pathWithinApplication().value()).isEqualTo("/a/c");
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request)).isSameAs(otherPath);
+
+		request.setServletPath("");
+		request.setRequestURI("/app/a/c");
+		request.setHttpServletMapping(new MockHttpServletMapping("", "/app", "myServlet", MappingMatch.DEFAULT));
+		RequestPath defaultServletPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(defaultServletPath).isNotSameAs(otherPath);
+		assertThat(ServletRequestPathUtils.parseAndCache(request)).isSameAs(defaultServletPath);
+	}
+
 	private void testParseAndCache(
 			String requestUri, String contextPath, String servletPath, String pathWithinApplication) {
 
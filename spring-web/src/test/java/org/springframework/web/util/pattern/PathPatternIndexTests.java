@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PathPatternIndex}.
+ */
+class PathPatternIndexTests {
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+	private final PathPatternIndex<String> index = new PathPatternIndex<>();
+
+
+	@Test
+	void literalPrefix() {
+		add("users", "/api/users/{id}");
+		add("orders", "/api/orders/{id}");
+		add("all", "/**");
+
+		assertThat(getCandidates("/api/users/1")).containsExactlyInAnyOrder("users", "all");
+		assertThat(getCandidates("/api/orders/1")).containsExactlyInAnyOrder("orders", "all");
+		assertThat(getCandidates("/api")).containsExactly("all");
+	}
+
+	@Test
+	void variableSegments() {
+		add("version", "/{version}/users/{id}");
+		add("regex", "/{version:v\\d+}/orders/{id}");
+		add("wildcard", "/*/users/*");
+		add("literal", "/v1/users/{id}");
+
+		assertThat(getCandidates("/v1/users/1")).containsExactlyInAnyOrder("version", "wildcard", "literal");
+		assertThat(getCandidates("/v2/users/1")).containsExactlyInAnyOrder("version", "wildcard");
+		assertThat(getCandidates("/v2/orders/1")).containsExactly("regex");
+	}
+
+	@Test
+	void finalSegmentNotIndexed() {
+		add("foo", "/api/foo");
+		add("wildcard", "/api/*");
+
+		assertThat(getCandidates("/api/")).containsExactlyInAnyOrder("foo", "wildcard");
+		assertThat(getCandidates("/api/foo.json")).containsExactlyInAnyOrder("foo", "wildcard");
+	}
+
+	@Test
+	void captureTheRest() {
+		add("rest", "/files/{*path}");
+		add("other", "/other/{*path}");
+
+		assertThat(getCandidates("/files")).containsExactly("rest");
+		assertThat(getCandidates("/files/a/b/c")).containsExactly("rest");
+	}
+
+	@Test
+	void multiplePatternsIndexedByCommonPrefix() {
+		add("both", "/api/users/{id}", "/api/orders/{id}");
+		add("users", "/api/users/{id}/address");
+
+		assertThat(getCandidates("/api/users/1")).containsExactlyInAnyOrder("both", "users");
+		assertThat(getCandidates("/api/orders/1")).containsExactly("both");
+	}
+
+	@Test
+	void noPatterns() {
+		add("none");
+		add("users", "/api/users/{id}");
+
+		assertThat(getCandidates("/api/users/1")).containsExactlyInAnyOrder("none", "users");
+		assertThat(getCandidates("/other")).containsExactly("none");
+	}
+
+	@Test
+	void decodedSegmentsAndPathParameters() {
+		add("cafe", "/café/{id}");
+
+		assertThat(getCandidates("/caf%C3%A9/1")).containsExactly("cafe");
+		assertThat(getCandidates("/caf%C3%A9;a=b/1")).containsExactly("cafe");
+	}
+
+	@Test
+	void caseInsensitiveLiteralsAreNotKeyed() {
+		PathPatternParser parser = new PathPatternParser();
+		parser.setCaseSensitive(false);
+		this.index.add("users", Collections.singleton(parser.parse("/API/users/{id}")));
+		add("orders", "/api/orders/{id}");
+
+		assertThat(getCandidates("/api/USERS/1")).containsExactly("users");
+	}
+
+	@Test
+	void remove() {
+		add("users", "/api/users/{id}");
+		add("orders", "/api/orders/{id}");
+		assertThat(this.index.size()).isEqualTo(2);
+
+		assertThat(this.index.remove("users")).isTrue();
+		assertThat(this.index.remove("users")).isFalse();
+		assertThat(getCandidates("/api/users/1")).isEmpty();
+		assertThat(getCandidates("/api/orders/1")).containsExactly("orders");
+
+		this.index.remove("orders");
+		assertThat(this.index.isEmpty()).isTrue();
+		assertThat(getCandidates("/api/orders/1")).isEmpty();
+	}
+
+	@Test
+	void addReplacesPreviousRegistration() {
+		add("users", "/api/users/{id}");
+		add("users", "/api/customers/{id}");
+
+		assertThat(this.index.size()).isEqualTo(1);
+		assertThat(getCandidates("/api/users/1")).isEmpty();
+		assertThat(getCandidates("/api/customers/1")).containsExactly("users");
+	}
+
+	private void add(String value, String... patterns) {
+		PathPattern[] parsed = Arrays.stream(patterns).map(this.parser::parse).toArray(PathPattern[]::new);
+		this.index.add(value, Arrays.asList(parsed));
+	}
+
+	private List<String> getCandidates(String path) {
+		return this.index.getCandidates(PathContainer.parsePath(path));
+	}
+
+}
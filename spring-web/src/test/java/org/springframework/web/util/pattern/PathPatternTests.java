@@ -31,6 +31,7 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.web.util.pattern.PathPattern.PathRemainingMatchInfo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
@@ -1141,6 +1142,17 @@ public class PathPatternTests {
 		assertThat(result).isNotNull();
 	}
 
+	@Test
+	public void variablesCreatedOnAccess() {
+		PathPattern.PathMatchInfo result = matchAndExtract("/abc/{var1}/{var2}","/abc/one;a=b/two");
+		assertThat(result.getUriVariables()).containsOnlyKeys("var1", "var2");
+		assertThat(result.getUriVariables()).isSameAs(result.getUriVariables());
+		assertThat(result.getMatrixVariables()).containsOnlyKeys("var1");
+		assertThat(result.getMatrixVariables()).isSameAs(result.getMatrixVariables());
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
+				result.getUriVariables().put("var3", "three"));
+	}
+
 	private PathPattern.PathMatchInfo matchAndExtract(String pattern, String path) {
 		return parse(pattern).matchAndExtract(PathPatternTests.toPathContainer(path));
 	}
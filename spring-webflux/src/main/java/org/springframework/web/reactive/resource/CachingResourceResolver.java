@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -118,7 +118,22 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		}
 
 		return chain.resolveResource(exchange, requestPath, locations)
-				.doOnNext(resource -> this.cache.put(key, resource));
+				.doOnNext(resource -> {
+					if (isCacheable(resource)) {
+						this.cache.put(key, resource);
+					}
+				});
+	}
+
+	/**
+	 * Whether the given resolved resource may be stored in the cache.
+	 * <p>Variants compressed in memory by an {@link EncodedResourceResolver}
+	 * are not cached here since they are held in that resolver's own bounded
+	 * cache, and would otherwise be retained for as long as the configured
+	 * {@code Cache} keeps them, even after the underlying resource has changed.
+	 */
+	private boolean isCacheable(Resource resource) {
+		return !(resource instanceof EncodedResourceResolver.CompressedResource);
 	}
 
 	protected String computeKey(@Nullable ServerWebExchange exchange, String requestPath) {
@@ -135,6 +135,21 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertThat(hm.getMethod()).isEqualTo(expected);
 	}
 
+	@Test
+	public void getHandlerPatternMatchForRegisteredMapping() {
+		Method expected = on(TestController.class).annot(getMapping("/foo").params()).resolveMethod();
+		RequestMappingInfo info = paths("/persons/{id}/address").methods(GET).build();
+		this.handlerMapping.registerMapping(info, new TestController(), expected);
+
+		ServerWebExchange exchange = MockServerWebExchange.from(get("/persons/1/address"));
+		HandlerMethod hm = (HandlerMethod) this.handlerMapping.getHandler(exchange).block();
+		assertThat(hm.getMethod()).isEqualTo(expected);
+
+		this.handlerMapping.unregisterMapping(info);
+		exchange = MockServerWebExchange.from(get("/persons/1/address"));
+		assertThat(this.handlerMapping.getHandler(exchange).block()).isNull();
+	}
+
 	@Test
 	public void getHandlerRequestMethodNotAllowed() {
 		ServerWebExchange exchange = MockServerWebExchange.from(post("/bar"));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -120,13 +120,24 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		}
 
 		resource = chain.resolveResource(request, requestPath, locations);
-		if (resource != null) {
+		if (resource != null && isCacheable(resource)) {
 			this.cache.put(key, resource);
 		}
 
 		return resource;
 	}
 
+	/**
+	 * Whether the given resolved resource may be stored in the cache.
+	 * <p>Variants compressed in memory by an {@link EncodedResourceResolver}
+	 * are not cached here since they are held in that resolver's own bounded
+	 * cache, and would otherwise be retained for as long as the configured
+	 * {@code Cache} keeps them, even after the underlying resource has changed.
+	 */
+	private boolean isCacheable(Resource resource) {
+		return !(resource instanceof EncodedResourceResolver.CompressedResource);
+	}
+
 	protected String computeKey(@Nullable HttpServletRequest request, String requestPath) {
 		if (request != null) {
 			String codingKey = getContentCodingKey(request);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
@@ -27,14 +30,21 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
 
 /**
  * Resolver that delegates to the chain, and if a resource is found, it then
@@ -45,6 +55,10 @@ import org.springframework.util.Assert;
  * be configured, in order of preference, and each coding must be associated
  * with {@link #setExtensions(Map) extensions}.
  *
+ * <p>Resources without an encoded variant on disk can also be compressed on
+ * first request, with the "gzip" or "deflate" coding, and kept in a bounded
+ * in-memory cache, see {@link #setCompressionCacheLimit(int)}.
+ *
  * <p>Note that this resolver must be ordered ahead of a
  * {@link VersionResourceResolver} with a content-based, version strategy to
  * ensure the version calculation is not impacted by the encoding.
@@ -59,11 +73,26 @@ public class EncodedResourceResolver extends AbstractResourceResolver {
 	 */
 	public static final List<String> DEFAULT_CODINGS = Arrays.asList("br", "gzip");
 
+	/**
+	 * The default maximum size in bytes of a resource to compress on the fly: 1M.
+	 * @since 5.3.10
+	 */
+	public static final long DEFAULT_MAX_COMPRESSION_SIZE = 1024 * 1024;
+
+	private static final List<String> COMPRESSION_CODINGS = Arrays.asList("gzip", "deflate");
+
 
 	private final List<String> contentCodings = new ArrayList<>(DEFAULT_CODINGS);
 
 	private final Map<String, String> extensions = new LinkedHashMap<>();
 
+	private int compressionCacheLimit;
+
+	private long maxCompressionSize = DEFAULT_MAX_COMPRESSION_SIZE;
+
+	@Nullable
+	private Map<String, FutureTask<CompressedResource>> compressedResources;
+
 
 	public EncodedResourceResolver() {
 		this.extensions.put("gzip", ".gz");
@@ -125,6 +154,60 @@ public class EncodedResourceResolver extends AbstractResourceResolver {
 		this.extensions.put(coding, (extension.startsWith(".") ? extension : "." + extension));
 	}
 
+	/**
+	 * Enable the compression of resources that have no encoded variant on disk,
+	 * and set the maximum number of compressed variants to keep in memory.
+	 * <p>Variants are created on first request for the "gzip" and "deflate"
+	 * codings, if present in the {@link #setContentCodings content codings},
+	 * and are cached per resource URL and last-modified timestamp, with
+	 * concurrent requests for the same variant waiting for a single compression.
+	 * Other codings such as "br" are only served from files on disk.
+	 * Only {@link #isCompressible(Resource) compressible} resources up to the
+	 * {@link #setMaxCompressionSize maximum size} are compressed.
+	 * <p>Compressed variants are not stored by a {@link CachingResourceResolver}
+	 * ahead of this resolver, so that this limit applies to all of them.
+	 * <p>By default this is set to 0, which turns off compression on the fly.
+	 * @param cacheLimit the maximum number of compressed variants to cache
+	 * @since 5.3.10
+	 */
+	public void setCompressionCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit >= 0, "Cache limit must not be negative");
+		this.compressionCacheLimit = cacheLimit;
+		this.compressedResources = (cacheLimit > 0 ?
+				new LinkedHashMap<String, FutureTask<CompressedResource>>(16, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, FutureTask<CompressedResource>> eldest) {
+						return size() > EncodedResourceResolver.this.compressionCacheLimit;
+					}
+				} : null);
+	}
+
+	/**
+	 * Return the maximum number of compressed variants to keep in memory.
+	 * @since 5.3.10
+	 */
+	public int getCompressionCacheLimit() {
+		return this.compressionCacheLimit;
+	}
+
+	/**
+	 * Set the maximum size in bytes of a resource to compress on the fly.
+	 * <p>By default this is set to {@link #DEFAULT_MAX_COMPRESSION_SIZE}.
+	 * @since 5.3.10
+	 * @see #setCompressionCacheLimit(int)
+	 */
+	public void setMaxCompressionSize(long maxCompressionSize) {
+		this.maxCompressionSize = maxCompressionSize;
+	}
+
+	/**
+	 * Return the maximum size in bytes of a resource to compress on the fly.
+	 * @since 5.3.10
+	 */
+	public long getMaxCompressionSize() {
+		return this.maxCompressionSize;
+	}
+
 
 	@Override
 	protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
@@ -141,7 +224,8 @@ public class EncodedResourceResolver extends AbstractResourceResolver {
 		}
 
 		for (String coding : this.contentCodings) {
-			if (acceptEncoding.contains(coding)) {
+			if (acceptEncoding.contains(coding) &&
+					(!isCompressionCoding(coding) || this.extensions.containsKey(coding))) {
 				try {
 					String extension = getExtension(coding);
 					Resource encoded = new EncodedResource(resource, coding, extension);
@@ -157,9 +241,110 @@ public class EncodedResourceResolver extends AbstractResourceResolver {
 			}
 		}
 
+		if (this.compressedResources != null && isCompressible(resource)) {
+			for (String coding : this.contentCodings) {
+				if (acceptEncoding.contains(coding) && isCompressionCoding(coding)) {
+					try {
+						Resource compressed = getCompressedResource(resource, coding);
+						if (compressed != null) {
+							return compressed;
+						}
+					}
+					catch (IOException ex) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Failed to compress [" + resource.getFilename() + "] with " + coding, ex);
+						}
+					}
+					break;
+				}
+			}
+		}
+
 		return resource;
 	}
 
+	/**
+	 * Whether the given resource should be compressed on the fly, when
+	 * {@link #setCompressionCacheLimit(int) enabled}.
+	 * <p>By default this is the case for text-based media types such as
+	 * {@code text/*}, JavaScript, JSON and XML, as determined from the
+	 * resource filename.
+	 * @param resource the resource to check
+	 * @since 5.3.10
+	 */
+	protected boolean isCompressible(Resource resource) {
+		MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(null);
+		if (mediaType == null) {
+			return false;
+		}
+		String subtype = mediaType.getSubtype();
+		return ("text".equals(mediaType.getType()) || "javascript".equals(subtype) ||
+				"json".equals(subtype) || "xml".equals(subtype) ||
+				subtype.endsWith("+json") || subtype.endsWith("+xml"));
+	}
+
+	private boolean isCompressionCoding(String coding) {
+		return (this.compressedResources != null && COMPRESSION_CODINGS.contains(coding));
+	}
+
+	/**
+	 * Return the cached compressed variant of the given resource, compressing
+	 * it first if necessary.
+	 * @return the compressed variant, or {@code null} if the resource is too
+	 * large or does not compress well
+	 */
+	@Nullable
+	private Resource getCompressedResource(Resource resource, String coding) throws IOException {
+		Map<String, FutureTask<CompressedResource>> cache = this.compressedResources;
+		Assert.state(cache != null, "Compression not enabled");
+		long lastModified = resource.lastModified();
+		String key = coding + ":" + resource.getURL() + ":" + lastModified;
+		FutureTask<CompressedResource> task;
+		boolean created = false;
+		synchronized (cache) {
+			task = cache.get(key);
+			if (task == null) {
+				task = new FutureTask<>(() -> compress(resource, coding, lastModified));
+				cache.put(key, task);
+				created = true;
+			}
+		}
+		if (created) {
+			task.run();
+		}
+		try {
+			CompressedResource compressed = task.get();
+			return (compressed != null ? compressed.forResource(resource) : null);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for " + coding + " compression", ex);
+		}
+		catch (ExecutionException ex) {
+			synchronized (cache) {
+				cache.remove(key, task);
+			}
+			Throwable cause = ex.getCause();
+			throw (cause instanceof IOException ? (IOException) cause : new IOException(cause));
+		}
+	}
+
+	@Nullable
+	private CompressedResource compress(Resource resource, String coding, long lastModified) throws IOException {
+		long contentLength = resource.contentLength();
+		if (contentLength > this.maxCompressionSize) {
+			return null;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.max(contentLength / 2, 256));
+		try (InputStream in = resource.getInputStream();
+				OutputStream compressor = ("gzip".equals(coding) ?
+						new GZIPOutputStream(out) : new DeflaterOutputStream(out))) {
+			StreamUtils.copy(in, compressor);
+		}
+		byte[] content = out.toByteArray();
+		return (content.length < contentLength ? new CompressedResource(resource, coding, content, lastModified) : null);
+	}
+
 	@Nullable
 	private String getAcceptEncoding(HttpServletRequest request) {
 		String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
@@ -281,4 +466,76 @@ public class EncodedResourceResolver extends AbstractResourceResolver {
 		}
 	}
 
+
+	/**
+	 * An {@link HttpResource} for a variant of a resource compressed in memory.
+	 */
+	static final class CompressedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final String coding;
+
+		private final byte[] content;
+
+		private final long lastModified;
+
+		CompressedResource(Resource original, String coding, byte[] content, long lastModified) {
+			this.original = original;
+			this.coding = coding;
+			this.content = content;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Return a variant with the same content for the given original resource,
+		 * which may expose different response headers than the one compressed.
+		 */
+		CompressedResource forResource(Resource original) {
+			return (original.equals(this.original) ? this :
+					new CompressedResource(original, this.coding, this.content, this.lastModified));
+		}
+
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(this.content);
+		}
+
+		@Override
+		public long contentLength() {
+			return this.content.length;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return this.coding + " compressed " + this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers;
+			if (this.original instanceof HttpResource) {
+				headers = ((HttpResource) this.original).getResponseHeaders();
+			}
+			else {
+				headers = new HttpHeaders();
+			}
+			headers.add(HttpHeaders.CONTENT_ENCODING, this.coding);
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			return headers;
+		}
+	}
+
 }
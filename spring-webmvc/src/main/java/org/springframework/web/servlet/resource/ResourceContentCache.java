@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * In-memory cache for the content of small, frequently served resources,
+ * along with a strong ETag computed from that content.
+ *
+ * <p>Entries are keyed by the URL of the resource, so that an
+ * {@link EncodedResourceResolver encoded} variant of a resource is cached
+ * separately from the original, and are refreshed when the
+ * {@link Resource#lastModified() last-modified} timestamp of the resource
+ * changes. Resources larger than the configured maximum size, or without a
+ * URL such as transformed resources, are not cached.
+ *
+ * <p>Set on {@link ResourceHttpRequestHandler#setContentCache} to serve cached
+ * content and evaluate {@code "If-None-Match"} conditional requests.
+ *
+ * @author agent (agent@local)
+ * @since 5.3.10
+ */
+public class ResourceContentCache {
+
+	/**
+	 * Default maximum number of cached resources: 256.
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+	/**
+	 * Default maximum size of a cached resource in bytes: 64K.
+	 */
+	public static final int DEFAULT_MAX_RESOURCE_SIZE = 64 * 1024;
+
+
+	private final int cacheLimit;
+
+	private final int maxResourceSize;
+
+	private final Map<String, CachedContent> cache;
+
+
+	/**
+	 * Create a cache with the {@link #DEFAULT_CACHE_LIMIT} and the
+	 * {@link #DEFAULT_MAX_RESOURCE_SIZE}.
+	 */
+	public ResourceContentCache() {
+		this(DEFAULT_CACHE_LIMIT, DEFAULT_MAX_RESOURCE_SIZE);
+	}
+
+	/**
+	 * Create a cache with the given limits.
+	 * @param cacheLimit the maximum number of cached resources
+	 * @param maxResourceSize the maximum size of a cached resource in bytes
+	 */
+	public ResourceContentCache(int cacheLimit, int maxResourceSize) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		Assert.isTrue(maxResourceSize > 0, "Maximum resource size must be greater than 0");
+		this.cacheLimit = cacheLimit;
+		this.maxResourceSize = maxResourceSize;
+		this.cache = new LinkedHashMap<String, CachedContent>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedContent> eldest) {
+				return size() > ResourceContentCache.this.cacheLimit;
+			}
+		};
+	}
+
+
+	/**
+	 * Return the maximum number of cached resources.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the maximum size of a cached resource in bytes.
+	 */
+	public int getMaxResourceSize() {
+		return this.maxResourceSize;
+	}
+
+	/**
+	 * Return the cached content for the given resource, reading and caching
+	 * it first if necessary.
+	 * @param resource the resource to get the content for
+	 * @return the cached content, or {@code null} if the resource cannot be cached
+	 * @throws IOException in case of I/O errors while reading the resource
+	 */
+	@Nullable
+	public CachedContent getContent(Resource resource) throws IOException {
+		String key;
+		long lastModified;
+		try {
+			key = resource.getURL().toString();
+			lastModified = resource.lastModified();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		CachedContent content;
+		synchronized (this.cache) {
+			content = this.cache.get(key);
+		}
+		if (content != null && content.getLastModified() == lastModified) {
+			return content;
+		}
+		content = readContent(resource, lastModified);
+		synchronized (this.cache) {
+			if (content != null) {
+				this.cache.put(key, content);
+			}
+			else {
+				this.cache.remove(key);
+			}
+		}
+		return content;
+	}
+
+	@Nullable
+	private CachedContent readContent(Resource resource, long lastModified) throws IOException {
+		if (resource.contentLength() > this.maxResourceSize) {
+			return null;
+		}
+		byte[] bytes;
+		try (InputStream inputStream = resource.getInputStream()) {
+			bytes = StreamUtils.copyToByteArray(inputStream);
+		}
+		if (bytes.length > this.maxResourceSize) {
+			return null;
+		}
+		return new CachedContent(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"", lastModified);
+	}
+
+	/**
+	 * Return the number of cached resources.
+	 */
+	public int size() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	/**
+	 * Remove all cached resources.
+	 */
+	public void clear() {
+		synchronized (this.cache) {
+			this.cache.clear();
+		}
+	}
+
+
+	/**
+	 * The cached content of a resource.
+	 */
+	public static final class CachedContent {
+
+		private final byte[] content;
+
+		private final String eTag;
+
+		private final long lastModified;
+
+		CachedContent(byte[] content, String eTag, long lastModified) {
+			this.content = content;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Return the content of the resource. The returned array must not be modified.
+		 */
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Return the strong ETag computed from the content, including quotes.
+		 */
+		public String getETag() {
+			return this.eTag;
+		}
+
+		/**
+		 * Return the last-modified timestamp of the resource when it was read.
+		 */
+		public long getLastModified() {
+			return this.lastModified;
+		}
+	}
+
+}
@@ -36,8 +36,10 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRange;
@@ -87,6 +89,12 @@ import org.springframework.web.util.UrlPathHelper;
  * <p>This handler also properly evaluates the {@code Last-Modified} header
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
+ * With a {@link #setContentCache content cache}, small resources are served from
+ * memory along with a strong {@code ETag} computed from their content.
+ *
+ * <p>On Tomcat, the content of file system resources above a
+ * {@link #setSendfileThreshold threshold} is handed over to the container's
+ * sendfile support rather than copied through the response output stream.
  *
  * @author Keith Donald
  * @author Jeremy Grelle
@@ -103,6 +111,23 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	private static final String TOMCAT_RESPONSE_FACADE_CLASS = "org.apache.catalina.connector.ResponseFacade";
+
+	/**
+	 * Default size from which resources are served with sendfile: 48K,
+	 * as for Tomcat's {@code DefaultServlet}.
+	 * @since 5.3.10
+	 */
+	public static final long DEFAULT_SENDFILE_THRESHOLD = 48 * 1024;
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -144,6 +169,11 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private boolean useLastModified = true;
 
+	private long sendfileThreshold = DEFAULT_SENDFILE_THRESHOLD;
+
+	@Nullable
+	private ResourceContentCache contentCache;
+
 
 	public ResourceHttpRequestHandler() {
 		super(HttpMethod.GET.name(), HttpMethod.HEAD.name());
@@ -384,6 +414,47 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		this.useLastModified = useLastModified;
 	}
 
+	/**
+	 * Set the size in bytes from which the content of file system resources,
+	 * or of a single byte range of them, is served through the sendfile support
+	 * of the Servlet container when available, i.e. on Tomcat with a connector
+	 * that supports it.
+	 * <p>By default this is set to {@link #DEFAULT_SENDFILE_THRESHOLD}.
+	 * A negative value turns off the use of sendfile.
+	 * @since 5.3.10
+	 * @see #isSendfileSupported(HttpServletRequest, HttpServletResponse)
+	 */
+	public void setSendfileThreshold(long sendfileThreshold) {
+		this.sendfileThreshold = sendfileThreshold;
+	}
+
+	/**
+	 * Return the configured sendfile threshold.
+	 * @since 5.3.10
+	 */
+	public long getSendfileThreshold() {
+		return this.sendfileThreshold;
+	}
+
+	/**
+	 * Set a cache for the content of small resources, which are then served
+	 * from memory along with a strong {@code ETag} computed from their content.
+	 * <p>By default this is not set.
+	 * @since 5.3.10
+	 */
+	public void setContentCache(@Nullable ResourceContentCache contentCache) {
+		this.contentCache = contentCache;
+	}
+
+	/**
+	 * Return the configured content cache, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public ResourceContentCache getContentCache() {
+		return this.contentCache;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		resolveResourceLocations();
@@ -536,7 +607,16 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		checkRequest(request);
 
 		// Header phase
-		if (isUseLastModified() && new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
+		ResourceContentCache.CachedContent content =
+				(this.contentCache != null ? this.contentCache.getContent(resource) : null);
+		if (content != null) {
+			long lastModified = (isUseLastModified() ? content.getLastModified() : -1);
+			if (new ServletWebRequest(request, response).checkNotModified(content.getETag(), lastModified)) {
+				logger.trace("Resource not modified");
+				return;
+			}
+		}
+		else if (isUseLastModified() && new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
 			logger.trace("Resource not modified");
 			return;
 		}
@@ -549,10 +629,14 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		setHeaders(response, resource, mediaType);
 
 		// Content phase
+		Resource body = (content != null ? new ByteArrayResource(content.getContent()) : resource);
 		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
+			if (content == null && writeWithSendfile(request, response, resource, mediaType, null)) {
+				return;
+			}
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
-			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			this.resourceHttpMessageConverter.write(body, mediaType, outputMessage);
 		}
 		else {
 			Assert.state(this.resourceRegionHttpMessageConverter != null, "Not initialized");
@@ -560,8 +644,12 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			try {
 				List<HttpRange> httpRanges = inputMessage.getHeaders().getRange();
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-				this.resourceRegionHttpMessageConverter.write(
-						HttpRange.toResourceRegions(httpRanges, resource), mediaType, outputMessage);
+				List<ResourceRegion> regions = HttpRange.toResourceRegions(httpRanges, body);
+				if (content == null && regions.size() == 1 &&
+						writeWithSendfile(request, response, resource, mediaType, regions.get(0))) {
+					return;
+				}
+				this.resourceRegionHttpMessageConverter.write(regions, mediaType, outputMessage);
 			}
 			catch (IllegalArgumentException ex) {
 				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + resource.contentLength());
@@ -570,6 +658,54 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Hand over the content of the given file system resource, or of the given
+	 * region of it, to the sendfile support of the Servlet container.
+	 * @return whether sendfile is used, or {@code false} if the content needs
+	 * to be written by the caller
+	 */
+	private boolean writeWithSendfile(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, @Nullable MediaType mediaType, @Nullable ResourceRegion region) throws IOException {
+
+		if (this.sendfileThreshold < 0 || HttpMethod.HEAD.matches(request.getMethod()) ||
+				!resource.isFile() || !isSendfileSupported(request, response)) {
+			return false;
+		}
+		long contentLength = resource.contentLength();
+		long start = (region != null ? region.getPosition() : 0);
+		long count = (region != null ? region.getCount() : contentLength);
+		if (count < this.sendfileThreshold) {
+			return false;
+		}
+		if (mediaType == null) {
+			response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+		}
+		if (region != null) {
+			response.setHeader(HttpHeaders.CONTENT_RANGE,
+					"bytes " + start + '-' + (start + count - 1) + '/' + contentLength);
+		}
+		response.setContentLengthLong(count);
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, resource.getFile().getCanonicalPath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, start + count);
+		return true;
+	}
+
+	/**
+	 * Whether the Servlet container can send the content of a file for the
+	 * given request after the handler returns.
+	 * <p>By default this checks for the sendfile support attribute exposed by
+	 * Tomcat, and for a response that is not wrapped, since a wrapper such as
+	 * an ETag or a compression filter may expect to see the content.
+	 * @param request current servlet request
+	 * @param response current servlet response
+	 * @since 5.3.10
+	 */
+	protected boolean isSendfileSupported(HttpServletRequest request, HttpServletResponse response) {
+		return (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE)) &&
+				TOMCAT_RESPONSE_FACADE_CLASS.equals(response.getClass().getName()));
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
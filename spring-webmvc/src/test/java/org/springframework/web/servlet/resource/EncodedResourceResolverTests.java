@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,27 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.servlet.resource.GzipSupport.GzippedFiles;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 
@@ -125,6 +133,68 @@ public class EncodedResourceResolverTests {
 		assertThat(condition1).isFalse();
 	}
 
+	@Test
+	public void resolveCompressedOnTheFly(@TempDir Path tempDir) throws Exception {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			content.append("console.log('Hello World');\n");
+		}
+		Files.write(tempDir.resolve("app.js"), content.toString().getBytes(StandardCharsets.UTF_8));
+		ResourceResolverChain chain = initCompressingChain();
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(tempDir.toString() + "/"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resolved = chain.resolveResource(request, "app.js", locations);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("app.js");
+		assertThat(resolved.contentLength()).isLessThan(content.length());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+		assertThat(StreamUtils.copyToString(new GZIPInputStream(resolved.getInputStream()), StandardCharsets.UTF_8))
+				.isEqualTo(content.toString());
+		assertThat(chain.resolveResource(request, "app.js", locations)).isSameAs(resolved);
+	}
+
+	@Test
+	public void resolveCompressedOnTheFlyNotCachedByCachingResolver(@TempDir Path tempDir) throws Exception {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			content.append("console.log('Hello World');\n");
+		}
+		Files.write(tempDir.resolve("app.js"), content.toString().getBytes(StandardCharsets.UTF_8));
+		ConcurrentMapCache cache = new ConcurrentMapCache("resourceCache");
+		EncodedResourceResolver encodedResolver = new EncodedResourceResolver();
+		encodedResolver.setCompressionCacheLimit(16);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(new CachingResourceResolver(cache), encodedResolver, new PathResourceResolver()));
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(tempDir.toString() + "/"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resolved = chain.resolveResource(request, "app.js", locations);
+
+		assertThat(resolved).isInstanceOf(EncodedResourceResolver.CompressedResource.class);
+		assertThat(cache.getNativeCache()).isEmpty();
+		assertThat(chain.resolveResource(request, "app.js", locations)).isSameAs(resolved);
+	}
+
+	@Test
+	public void resolveNotCompressible(@TempDir Path tempDir) throws Exception {
+		Files.write(tempDir.resolve("image.png"), new byte[1024]);
+		ResourceResolverChain chain = initCompressingChain();
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(tempDir.toString() + "/"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resolved = chain.resolveResource(request, "image.png", locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+		assertThat(resolved.contentLength()).isEqualTo(1024);
+	}
+
 	@Test  // SPR-13149
 	public void resolveWithNullRequest() {
 		String file = "js/foo.js";
@@ -134,6 +204,12 @@ public class EncodedResourceResolverTests {
 		assertThat(resolved.getFilename()).isEqualTo(getResource(file).getFilename());
 	}
 
+	private ResourceResolverChain initCompressingChain() {
+		EncodedResourceResolver encodedResolver = new EncodedResourceResolver();
+		encodedResolver.setCompressionCacheLimit(16);
+		return new DefaultResourceResolverChain(Arrays.asList(encodedResolver, new PathResourceResolver()));
+	}
+
 	private Resource getResource(String filePath) {
 		return new ClassPathResource("test/" + filePath, getClass());
 	}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ResourceContentCache}.
+ */
+public class ResourceContentCacheTests {
+
+	@Test
+	public void getContent() throws Exception {
+		ResourceContentCache cache = new ResourceContentCache();
+		Resource resource = new ClassPathResource("test/foo.css", getClass());
+		ResourceContentCache.CachedContent content = cache.getContent(resource);
+
+		assertThat(content).isNotNull();
+		assertThat(new String(content.getContent(), StandardCharsets.UTF_8)).isEqualTo("h1 { color:red; }");
+		assertThat(content.getETag()).startsWith("\"").endsWith("\"");
+		assertThat(cache.getContent(new ClassPathResource("test/foo.css", getClass()))).isSameAs(content);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void getContentRefreshedWhenModified(@TempDir Path tempDir) throws Exception {
+		File file = tempDir.resolve("foo.txt").toFile();
+		Files.write(file.toPath(), "foo".getBytes(StandardCharsets.UTF_8));
+		ResourceContentCache cache = new ResourceContentCache();
+		ResourceContentCache.CachedContent content = cache.getContent(new FileSystemResource(file));
+
+		Files.write(file.toPath(), "bar".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(content.getLastModified() + 1000);
+		ResourceContentCache.CachedContent updated = cache.getContent(new FileSystemResource(file));
+
+		assertThat(new String(updated.getContent(), StandardCharsets.UTF_8)).isEqualTo("bar");
+		assertThat(updated.getETag()).isNotEqualTo(content.getETag());
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void getContentOfLargeResource() throws Exception {
+		ResourceContentCache cache = new ResourceContentCache(16, 10);
+		assertThat(cache.getContent(new ClassPathResource("test/foo.css", getClass()))).isNull();
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void getContentOfResourceWithoutUrl() throws Exception {
+		ResourceContentCache cache = new ResourceContentCache();
+		assertThat(cache.getContent(new ByteArrayResource(new byte[] {1}))).isNull();
+	}
+
+	@Test
+	public void cacheLimit() throws Exception {
+		ResourceContentCache cache = new ResourceContentCache(1, 1024);
+		cache.getContent(new ClassPathResource("test/foo.css", getClass()));
+		cache.getContent(new ClassPathResource("test/foo.txt", getClass()));
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+}